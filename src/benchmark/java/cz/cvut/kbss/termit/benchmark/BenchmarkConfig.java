@@ -0,0 +1,37 @@
+package cz.cvut.kbss.termit.benchmark;
+
+import cz.cvut.kbss.termit.environment.config.TestPersistenceAspectsConfig;
+import cz.cvut.kbss.termit.environment.config.TestPersistenceConfig;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.aspectj.EnableSpringConfigured;
+
+/**
+ * Spring configuration of the benchmarks.
+ * <p>
+ * Uses the same persistence setup as DAO tests, i.e., an in-memory RDF4J repository.
+ */
+@org.springframework.context.annotation.Configuration
+@EnableConfigurationProperties(Configuration.class)
+@EnableSpringConfigured
+@Import({TestPersistenceConfig.class, TestPersistenceAspectsConfig.class})
+public class BenchmarkConfig {
+
+    /**
+     * Starts a new application context with the benchmark configuration.
+     *
+     * @return Started application context, to be closed by the caller
+     */
+    public static ConfigurableApplicationContext start() {
+        final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().setActiveProfiles("test");
+        new ConfigDataApplicationContextInitializer().initialize(context);
+        context.register(BenchmarkConfig.class);
+        context.refresh();
+        return context;
+    }
+}
@@ -0,0 +1,147 @@
+package cz.cvut.kbss.termit.benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.util.Statistics;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Runs the search benchmarks and compares their latency percentiles with a stored baseline.
+ * <p>
+ * The runner exits with a non-zero status when any percentile of any benchmark exceeds its baseline value by more than
+ * the allowed threshold (and by at least {@link #MIN_REGRESSION}), or when there is no baseline value for it, so that
+ * a new or renamed benchmark cannot bypass the check. The baseline then has to be updated (see below).
+ * <p>
+ * Configuration (system properties):
+ * <ul>
+ *     <li>{@code benchmark.baseline} - path to the baseline file (a properties file mapping benchmark keys to
+ *     milliseconds)</li>
+ *     <li>{@code benchmark.threshold} - maximum allowed relative slowdown, e.g., {@code 0.2} for 20 %</li>
+ *     <li>{@code benchmark.updateBaseline} - when {@code true}, the baseline is overwritten with the measured values
+ *     instead of being checked</li>
+ * </ul>
+ * Program arguments are passed to JMH, so that, for example, only some parameter values can be run ({@code -p
+ * termCount=1000}).
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Reported and checked latency percentiles.
+     */
+    static final double[] PERCENTILES = {50.0, 90.0, 99.0};
+
+    private static final double DEFAULT_THRESHOLD = 0.2;
+
+    /**
+     * Slowdown in milliseconds below which a measured value is not considered a regression.
+     * <p>
+     * Latency of the fastest benchmarks is in microseconds, so any relative threshold would be within noise.
+     */
+    static final double MIN_REGRESSION = 0.01;
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        final Options options = new OptionsBuilder().parent(new CommandLineOptions(args))
+                                                    .include(SearchBenchmark.class.getSimpleName())
+                                                    .build();
+        final Map<String, Double> measured = percentiles(new Runner(options).run());
+        measured.forEach((key, value) -> System.out.printf("%-70s %10.3f ms%n", key, value));
+
+        final Path baselineFile = Path.of(System.getProperty("benchmark.baseline", "search-baseline.properties"));
+        if (Boolean.getBoolean("benchmark.updateBaseline")) {
+            storeBaseline(measured, baselineFile);
+            System.out.println("Baseline written to " + baselineFile);
+            return;
+        }
+        final double threshold = Double.parseDouble(
+                System.getProperty("benchmark.threshold", Double.toString(DEFAULT_THRESHOLD)));
+        final List<String> regressions = findRegressions(measured, loadBaseline(baselineFile), threshold);
+        if (!regressions.isEmpty()) {
+            System.err.println("Search latency regressions exceeding " + threshold * 100 +
+                                       " % of the baseline or missing baseline values:");
+            regressions.forEach(System.err::println);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Extracts latency percentiles from the specified benchmark results.
+     *
+     * @return Map of benchmark keys to latency in the benchmark output time unit, sorted by key
+     */
+    static Map<String, Double> percentiles(Collection<RunResult> results) {
+        final Map<String, Double> result = new TreeMap<>();
+        for (RunResult r : results) {
+            final Statistics statistics = r.getPrimaryResult().getStatistics();
+            final String key = key(r.getParams());
+            for (double p : PERCENTILES) {
+                result.put(key + ".p" + (int) p, statistics.getPercentile(p));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates key identifying a benchmark and its parameter values, e.g., {@code
+     * fullTextSearch.language=cs.termCount=1000}.
+     */
+    private static String key(BenchmarkParams params) {
+        final String benchmark = params.getBenchmark();
+        final StringBuilder sb = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.') + 1));
+        new TreeSet<>(params.getParamsKeys()).forEach(k -> sb.append('.').append(k).append('=')
+                                                              .append(params.getParam(k)));
+        return sb.toString();
+    }
+
+    /**
+     * Compares the measured latency with the baseline.
+     *
+     * @return Descriptions of measured values exceeding the baseline by more than the threshold and of measured values
+     * without baseline
+     */
+    static List<String> findRegressions(Map<String, Double> measured, Map<String, Double> baseline,
+                                        double threshold) {
+        final List<String> regressions = new ArrayList<>();
+        measured.forEach((key, value) -> {
+            final Double expected = baseline.get(key);
+            if (expected == null) {
+                regressions.add(String.format("%s: %.3f ms, no baseline", key, value));
+            } else if (value > expected * (1 + threshold) && value - expected > MIN_REGRESSION) {
+                regressions.add(String.format("%s: %.3f ms, baseline %.3f ms", key, value, expected));
+            }
+        });
+        return regressions;
+    }
+
+    private static Map<String, Double> loadBaseline(Path file) throws IOException {
+        final Properties properties = new Properties();
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file)) {
+                properties.load(reader);
+            }
+        }
+        final Map<String, Double> result = new HashMap<>();
+        properties.stringPropertyNames().forEach(k -> result.put(k, Double.parseDouble(properties.getProperty(k))));
+        return result;
+    }
+
+    private static void storeBaseline(Map<String, Double> measured, Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            writer.write("# Search benchmark latency baseline in milliseconds, see BenchmarkRunner\n");
+            for (Map.Entry<String, Double> e : measured.entrySet()) {
+                writer.write(String.format(Locale.ROOT, "%s=%.3f%n", e.getKey(), e.getValue()));
+            }
+        }
+    }
+}
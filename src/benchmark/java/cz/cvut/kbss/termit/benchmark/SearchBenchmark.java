@@ -0,0 +1,83 @@
+package cz.cvut.kbss.termit.benchmark;
+
+import cz.cvut.kbss.termit.dto.FullTextSearchResult;
+import cz.cvut.kbss.termit.dto.FullTextSearchSpec;
+import cz.cvut.kbss.termit.dto.listing.TermDto;
+import cz.cvut.kbss.termit.model.Vocabulary;
+import cz.cvut.kbss.termit.persistence.dao.SearchDao;
+import cz.cvut.kbss.termit.persistence.dao.TermDao;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures latency of term and vocabulary search on synthetic vocabularies.
+ * <p>
+ * Each combination of parameters runs in a separate fork, i.e., against a fresh in-memory repository into which the
+ * synthetic vocabularies are generated before measurement. Search strings and labels are rotated between invocations,
+ * so that the results do not depend on a single lucky (or unlucky) input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class SearchBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int termCount;
+
+    @Param({SyntheticVocabularies.CS, SyntheticVocabularies.EN})
+    public String language;
+
+    private ConfigurableApplicationContext context;
+
+    private SearchDao searchDao;
+
+    private TermDao termDao;
+
+    // Vocabulary in which vocabulary-scoped operations are benchmarked
+    private Vocabulary vocabulary;
+
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.context = BenchmarkConfig.start();
+        this.searchDao = context.getBean(SearchDao.class);
+        this.termDao = context.getBean(TermDao.class);
+        final List<Vocabulary> vocabularies = new SyntheticVocabularies(context).generate(termCount);
+        this.vocabulary = vocabularies.get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private String nextSearchString() {
+        return SyntheticVocabularies.noun(language, invocation++);
+    }
+
+    @Benchmark
+    public Page<FullTextSearchResult> fullTextSearch() {
+        return searchDao.fullTextSearch(nextSearchString(), FullTextSearchSpec.DEFAULT);
+    }
+
+    @Benchmark
+    public List<TermDto> findAllInVocabulary() {
+        return termDao.findAll(nextSearchString(), vocabulary);
+    }
+
+    @Benchmark
+    public boolean existsInVocabulary() {
+        final int index = invocation++;
+        // Alternate between labels of the vocabulary terms and labels not used by any term
+        final String label = SyntheticVocabularies.label(language, index % SyntheticVocabularies.TERMS_PER_VOCABULARY);
+        return termDao.existsInVocabulary(index % 2 == 0 ? label : label + " X", vocabulary, language);
+    }
+}
@@ -0,0 +1,129 @@
+package cz.cvut.kbss.termit.benchmark;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.environment.Transaction;
+import cz.cvut.kbss.termit.model.Term;
+import cz.cvut.kbss.termit.model.Vocabulary;
+import cz.cvut.kbss.termit.persistence.DescriptorFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates vocabularies with synthetic terms labeled in Czech and English and persists them into the repository.
+ * <p>
+ * Labels are derived from term indexes, so that they are reproducible and benchmarks can pick labels known to exist.
+ * Each label consists of an adjective, a noun and the term index, e.g., "Water meter 42". So every noun is shared by
+ * {@code 1 / NOUNS} of the terms.
+ */
+public class SyntheticVocabularies {
+
+    /**
+     * Number of terms in each of the generated vocabularies.
+     */
+    public static final int TERMS_PER_VOCABULARY = 1000;
+
+    public static final String CS = "cs";
+    public static final String EN = "en";
+
+    private static final String[][] ADJECTIVES = {
+            {"vodní", "water"}, {"silniční", "road"}, {"stavební", "building"}, {"veřejný", "public"},
+            {"zemědělský", "agricultural"}, {"lesní", "forest"}, {"městský", "urban"},
+            {"železniční", "railway"}, {"energetický", "energy"}, {"zdravotní", "health"}, {"daňový", "tax"},
+            {"školní", "school"}
+    };
+
+    private static final String[][] NOUNS = {
+            {"objekt", "object"}, {"pozemek", "parcel"}, {"stavba", "structure"}, {"zařízení", "facility"},
+            {"síť", "network"}, {"území", "area"}, {"povolení", "permit"}, {"plocha", "surface"},
+            {"úsek", "section"}, {"měřidlo", "meter"}, {"nádrž", "reservoir"}, {"správce", "administrator"},
+            {"vlastník", "owner"}, {"poplatek", "fee"}, {"záznam", "record"}, {"rejstřík", "register"}
+    };
+
+    private final EntityManager em;
+
+    private final DescriptorFactory descriptorFactory;
+
+    private final PlatformTransactionManager txManager;
+
+    public SyntheticVocabularies(ApplicationContext context) {
+        this.em = context.getBean(EntityManager.class);
+        this.descriptorFactory = context.getBean(DescriptorFactory.class);
+        this.txManager = context.getBean(PlatformTransactionManager.class);
+    }
+
+    /**
+     * Generates and persists vocabularies containing the specified number of terms in total.
+     *
+     * @param termCount Total number of terms, split into vocabularies of {@link #TERMS_PER_VOCABULARY} terms
+     * @return The generated vocabularies
+     */
+    public List<Vocabulary> generate(int termCount) {
+        final List<Vocabulary> result = new ArrayList<>();
+        for (int start = 0; start < termCount; start += TERMS_PER_VOCABULARY) {
+            final Vocabulary vocabulary = Generator.generateVocabularyWithId();
+            final int end = Math.min(start + TERMS_PER_VOCABULARY, termCount);
+            final List<Term> terms = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                terms.add(generateTerm(vocabulary, i));
+            }
+            // One transaction per vocabulary keeps the transactions reasonably small
+            Transaction.execute(txManager, () -> {
+                em.persist(vocabulary, descriptorFactory.vocabularyDescriptor(vocabulary));
+                terms.forEach(t -> {
+                    // Glossary identifier is generated when the vocabulary is persisted
+                    t.setGlossary(vocabulary.getGlossary().getUri());
+                    em.persist(t, descriptorFactory.termDescriptor(vocabulary));
+                    Generator.addTermInVocabularyRelationship(t, vocabulary.getUri(), em);
+                });
+            });
+            result.add(vocabulary);
+        }
+        return result;
+    }
+
+    private static Term generateTerm(Vocabulary vocabulary, int index) {
+        final Term term = Generator.generateTermWithId(vocabulary.getUri());
+        final MultilingualString label = new MultilingualString();
+        final MultilingualString definition = new MultilingualString();
+        label.set(CS, label(CS, index));
+        label.set(EN, label(EN, index));
+        definition.set(CS, "Pojem " + label.get(CS) + " evidovaný v rejstříku " + noun(CS, index + 1) + ".");
+        definition.set(EN, "Term " + label.get(EN) + " kept in the register of " + noun(EN, index + 1) + ".");
+        term.setLabel(label);
+        term.setDefinition(definition);
+        return term;
+    }
+
+    /**
+     * Gets label of the term with the specified index in the specified language.
+     *
+     * @param language Label language, {@link #CS} or {@link #EN}
+     * @param index    Term index
+     * @return Term label
+     */
+    public static String label(String language, int index) {
+        final String adjective = ADJECTIVES[index % ADJECTIVES.length][column(language)];
+        final String label = adjective + " " + noun(language, index / ADJECTIVES.length) + " " + index;
+        return Character.toUpperCase(label.charAt(0)) + label.substring(1);
+    }
+
+    /**
+     * Gets one of the nouns used in term labels in the specified language.
+     *
+     * @param language Noun language, {@link #CS} or {@link #EN}
+     * @param index    Arbitrary index, taken modulo the number of nouns
+     * @return Noun
+     */
+    public static String noun(String language, int index) {
+        return NOUNS[index % NOUNS.length][column(language)];
+    }
+
+    private static int column(String language) {
+        return CS.equals(language) ? 0 : 1;
+    }
+}
@@ -1,12 +1,17 @@
 package cz.cvut.kbss.termit.aspect;
 
 import cz.cvut.kbss.termit.event.VocabularyContentModified;
+import cz.cvut.kbss.termit.model.Term;
+import cz.cvut.kbss.termit.model.Vocabulary;
+import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.After;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 
+import java.net.URI;
+
 @Aspect
 public class VocabularyContentModificationAspect {
 
@@ -18,7 +23,25 @@ public class VocabularyContentModificationAspect {
     }
 
     @After("vocabularyContentModificationOperation()")
-    public void vocabularyContentModified() {
-        eventPublisher.publishEvent(new VocabularyContentModified(this));
+    public void vocabularyContentModified(JoinPoint joinPoint) {
+        eventPublisher.publishEvent(new VocabularyContentModified(this, resolveVocabulary(joinPoint.getArgs())));
+    }
+
+    /**
+     * Resolves identifier of the vocabulary whose content is being modified from the arguments of the modifying
+     * operation.
+     * <p>
+     * An explicitly specified vocabulary takes precedence over vocabulary of the term.
+     */
+    private static URI resolveVocabulary(Object[] args) {
+        URI result = null;
+        for (Object arg : args) {
+            if (arg instanceof Vocabulary) {
+                return ((Vocabulary) arg).getUri();
+            } else if (arg instanceof Term && result == null) {
+                result = ((Term) arg).getVocabulary();
+            }
+        }
+        return result;
     }
 }
@@ -114,6 +114,8 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
         corsConfiguration.addExposedHeader(HttpHeaders.LOCATION);
         corsConfiguration.addExposedHeader(HttpHeaders.CONTENT_DISPOSITION);
         corsConfiguration.addExposedHeader(Constants.X_TOTAL_COUNT_HEADER);
+        corsConfiguration.addExposedHeader(Constants.X_NEXT_CURSOR_HEADER);
+        corsConfiguration.addExposedHeader(Constants.X_PARTIAL_RESULTS_HEADER);
         final UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", corsConfiguration);
         return source;
@@ -0,0 +1,65 @@
+package cz.cvut.kbss.termit.dto;
+
+import cz.cvut.kbss.termit.dto.listing.TermDto;
+
+import java.util.Objects;
+
+/**
+ * Pair of terms with similar labels, i.e., candidates for being duplicates of each other.
+ */
+public class DuplicateTerms {
+
+    private final TermDto first;
+
+    private final TermDto second;
+
+    private final double score;
+
+    public DuplicateTerms(TermDto first, TermDto second, double score) {
+        this.first = Objects.requireNonNull(first);
+        this.second = Objects.requireNonNull(second);
+        this.score = score;
+    }
+
+    public TermDto getFirst() {
+        return first;
+    }
+
+    public TermDto getSecond() {
+        return second;
+    }
+
+    /**
+     * Similarity of labels of the terms, in range (0, 1], where 1 means the labels are identical (ignoring case,
+     * diacritics and whitespace).
+     */
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DuplicateTerms)) {
+            return false;
+        }
+        final DuplicateTerms that = (DuplicateTerms) o;
+        return Double.compare(that.score, score) == 0 && first.equals(that.first) && second.equals(that.second);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(first, second, score);
+    }
+
+    @Override
+    public String toString() {
+        return "DuplicateTerms{" +
+                "first=" + first +
+                ", second=" + second +
+                ", score=" + score +
+                '}';
+    }
+}
@@ -0,0 +1,39 @@
+package cz.cvut.kbss.termit.dto;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Page of full text search results, which may contain only part of the matching results.
+ * <p>
+ * Results are partial when searching some of the vocabularies did not finish in time.
+ */
+public class FullTextSearchPage extends PageImpl<FullTextSearchResult> {
+
+    private final boolean partial;
+
+    public FullTextSearchPage(List<FullTextSearchResult> content, Pageable pageable, long total, boolean partial) {
+        super(content, pageable, total);
+        this.partial = partial;
+    }
+
+    /**
+     * Whether this page contains only part of the matching results.
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+
+    /**
+     * Checks whether the specified page of search results is partial.
+     *
+     * @param page Page of search results
+     * @return {@code true} if the page is known to contain only part of the results, {@code false} otherwise
+     */
+    public static boolean isPartial(Page<FullTextSearchResult> page) {
+        return page instanceof FullTextSearchPage && ((FullTextSearchPage) page).isPartial();
+    }
+}
@@ -0,0 +1,205 @@
+package cz.cvut.kbss.termit.dto;
+
+import cz.cvut.kbss.jopa.vocabulary.SKOS;
+import cz.cvut.kbss.termit.util.Constants;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.net.URI;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Specifies which part of full text search results should be returned.
+ * <p>
+ * Results are ordered by score (if available). Besides the requested page, results can be restricted by minimum score
+ * and by the maximum number of results from a single vocabulary. Optionally, results can be restricted to terms from
+ * the specified vocabularies, or to a single vocabulary and its terms.
+ */
+public class FullTextSearchSpec {
+
+    /**
+     * Specification of all search results.
+     */
+    public static final FullTextSearchSpec DEFAULT = new FullTextSearchSpec(Constants.DEFAULT_PAGE_SPEC, null, null);
+
+    private final Pageable pageSpec;
+
+    private final Double minScore;
+
+    private final Integer maxPerVocabulary;
+
+    private final boolean termsOnly;
+
+    private final Set<URI> vocabularies;
+
+    /**
+     * Creates a new search specification.
+     *
+     * @param pageSpec         Page to return
+     * @param minScore         Minimum score of returned results. Optional
+     * @param maxPerVocabulary Maximum number of returned results from one vocabulary. Optional
+     */
+    public FullTextSearchSpec(Pageable pageSpec, Double minScore, Integer maxPerVocabulary) {
+        this(pageSpec, minScore, maxPerVocabulary, false, null);
+    }
+
+    private FullTextSearchSpec(Pageable pageSpec, Double minScore, Integer maxPerVocabulary, boolean termsOnly,
+                               Set<URI> vocabularies) {
+        this.pageSpec = Objects.requireNonNull(pageSpec);
+        this.minScore = minScore;
+        this.maxPerVocabulary = maxPerVocabulary;
+        this.termsOnly = termsOnly;
+        this.vocabularies = vocabularies;
+    }
+
+    /**
+     * Creates a specification of the top results of this specification which come from the specified vocabulary, i.e.,
+     * the vocabulary itself and its terms.
+     * <p>
+     * This allows to search vocabularies separately and merge the results afterwards.
+     *
+     * @param vocabulary Vocabulary identifier
+     * @param limit      Maximum number of returned results
+     * @return New search specification
+     */
+    public FullTextSearchSpec within(URI vocabulary, int limit) {
+        Objects.requireNonNull(vocabulary);
+        return new FullTextSearchSpec(PageRequest.of(0, limit), minScore, maxPerVocabulary, termsOnly,
+                                      Collections.singleton(vocabulary));
+    }
+
+    /**
+     * Creates a copy of this specification, which additionally restricts results to terms.
+     *
+     * @param vocabularies Vocabularies the terms should come from, {@code null} if terms from all vocabularies should
+     *                     be returned
+     * @return New search specification
+     */
+    public FullTextSearchSpec termsIn(Set<URI> vocabularies) {
+        return new FullTextSearchSpec(pageSpec, minScore, maxPerVocabulary, true, vocabularies);
+    }
+
+    public Pageable getPageSpec() {
+        return pageSpec;
+    }
+
+    public Double getMinScore() {
+        return minScore;
+    }
+
+    public Integer getMaxPerVocabulary() {
+        return maxPerVocabulary;
+    }
+
+    public boolean isTermsOnly() {
+        return termsOnly;
+    }
+
+    /**
+     * Vocabularies to which results are restricted, {@code null} if results from all vocabularies are returned.
+     */
+    public Set<URI> getVocabularies() {
+        return vocabularies;
+    }
+
+    /**
+     * Gets the only vocabulary to which results are restricted, if there is one.
+     * <p>
+     * This restriction can be evaluated directly by the repository.
+     *
+     * @return Vocabulary identifier, {@code null} if results are not restricted to a single vocabulary
+     */
+    public URI getScope() {
+        return vocabularies != null && vocabularies.size() == 1 ? vocabularies.iterator().next() : null;
+    }
+
+    /**
+     * Whether all results are requested, i.e., no paging is required.
+     */
+    public boolean isUnpaged() {
+        return pageSpec.getPageSize() == Constants.DEFAULT_PAGE_SIZE;
+    }
+
+    /**
+     * Whether the requested page corresponds to a window of the complete score-ordered results.
+     * <p>
+     * If it does, the page can be retrieved directly by its offset and size. Otherwise, results have to be filtered
+     * first (see {@link #apply(List)}).
+     */
+    public boolean isWindowed() {
+        return maxPerVocabulary == null && !termsOnly && vocabularies == null;
+    }
+
+    /**
+     * Checks whether the specified result matches the filtering criteria of this specification.
+     * <p>
+     * Per-vocabulary limit is not taken into account.
+     *
+     * @param result Search result
+     * @return {@code true} if the result should be returned
+     */
+    public boolean matches(FullTextSearchResult result) {
+        if (minScore != null && result.getScore() != null && result.getScore() < minScore) {
+            return false;
+        }
+        if (termsOnly && !result.getTypes().contains(SKOS.CONCEPT)) {
+            return false;
+        }
+        return vocabularies == null || vocabularies.contains(result.getVocabulary()) ||
+                vocabularies.contains(result.getUri());
+    }
+
+    /**
+     * Applies this specification to the specified score-ordered results.
+     *
+     * @param results Score-ordered search results, starting with the top match
+     * @return Page of results matching this specification
+     */
+    public Page<FullTextSearchResult> apply(List<FullTextSearchResult> results) {
+        final Map<URI, Integer> perVocabulary = new HashMap<>();
+        final List<FullTextSearchResult> matching = results.stream().filter(this::matches).filter(r -> {
+            if (maxPerVocabulary == null) {
+                return true;
+            }
+            final URI vocabulary = r.getVocabulary() != null ? r.getVocabulary() : r.getUri();
+            return perVocabulary.merge(vocabulary, 1, Integer::sum) <= maxPerVocabulary;
+        }).collect(Collectors.toList());
+        final int from = (int) Math.min(pageSpec.getOffset(), matching.size());
+        final int to = (int) Math.min((long) from + pageSpec.getPageSize(), matching.size());
+        return new PageImpl<>(new ArrayList<>(matching.subList(from, to)), pageSpec, matching.size());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FullTextSearchSpec)) {
+            return false;
+        }
+        final FullTextSearchSpec that = (FullTextSearchSpec) o;
+        return termsOnly == that.termsOnly && pageSpec.equals(that.pageSpec) &&
+                Objects.equals(minScore, that.minScore) &&
+                Objects.equals(maxPerVocabulary, that.maxPerVocabulary) &&
+                Objects.equals(vocabularies, that.vocabularies);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(pageSpec, minScore, maxPerVocabulary, termsOnly, vocabularies);
+    }
+
+    @Override
+    public String toString() {
+        return "FullTextSearchSpec{" +
+                "pageSpec=" + pageSpec +
+                ", minScore=" + minScore +
+                ", maxPerVocabulary=" + maxPerVocabulary +
+                (termsOnly ? ", termsIn=" + (vocabularies != null ? vocabularies : "all") :
+                 vocabularies != null ? ", within=" + vocabularies : "") +
+                '}';
+    }
+}
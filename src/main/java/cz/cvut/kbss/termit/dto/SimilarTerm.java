@@ -0,0 +1,57 @@
+package cz.cvut.kbss.termit.dto;
+
+import cz.cvut.kbss.termit.dto.listing.TermDto;
+
+import java.util.Objects;
+
+/**
+ * Term whose label is similar to a searched label.
+ */
+public class SimilarTerm {
+
+    private final TermDto term;
+
+    private final double score;
+
+    public SimilarTerm(TermDto term, double score) {
+        this.term = Objects.requireNonNull(term);
+        this.score = score;
+    }
+
+    public TermDto getTerm() {
+        return term;
+    }
+
+    /**
+     * Similarity of the term label to the searched label, in range (0, 1], where 1 means the labels are identical
+     * (ignoring case, diacritics and whitespace).
+     */
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SimilarTerm)) {
+            return false;
+        }
+        final SimilarTerm that = (SimilarTerm) o;
+        return Double.compare(that.score, score) == 0 && term.equals(that.term);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(term, score);
+    }
+
+    @Override
+    public String toString() {
+        return "SimilarTerm{" +
+                "term=" + term +
+                ", score=" + score +
+                '}';
+    }
+}
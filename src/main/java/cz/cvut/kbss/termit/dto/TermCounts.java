@@ -0,0 +1,80 @@
+package cz.cvut.kbss.termit.dto;
+
+import java.util.Objects;
+
+/**
+ * Numbers of terms in a vocabulary.
+ */
+public class TermCounts {
+
+    /**
+     * Counts of an empty vocabulary.
+     */
+    public static final TermCounts EMPTY = new TermCounts(0, 0, 0);
+
+    private final int total;
+
+    private final int roots;
+
+    private final int drafts;
+
+    public TermCounts(int total, int roots, int drafts) {
+        this.total = total;
+        this.roots = roots;
+        this.drafts = drafts;
+    }
+
+    /**
+     * Total number of terms, regardless of their position in the term hierarchy.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Number of root terms.
+     */
+    public int getRoots() {
+        return roots;
+    }
+
+    /**
+     * Number of terms in the draft status.
+     */
+    public int getDrafts() {
+        return drafts;
+    }
+
+    /**
+     * Number of confirmed (i.e., non-draft) terms.
+     */
+    public int getConfirmed() {
+        return total - drafts;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TermCounts)) {
+            return false;
+        }
+        final TermCounts that = (TermCounts) o;
+        return total == that.total && roots == that.roots && drafts == that.drafts;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(total, roots, drafts);
+    }
+
+    @Override
+    public String toString() {
+        return "TermCounts{" +
+                "total=" + total +
+                ", roots=" + roots +
+                ", drafts=" + drafts +
+                '}';
+    }
+}
@@ -0,0 +1,157 @@
+package cz.cvut.kbss.termit.dto;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Status and progress of re-analysis of term definitions in a vocabulary.
+ */
+public class TextAnalysisJobInfo {
+
+    public enum State {
+        /**
+         * Waiting for further requests to coalesce or for a free executor thread.
+         */
+        PENDING,
+        /**
+         * Term definitions are being analyzed.
+         */
+        RUNNING,
+        /**
+         * All term definitions were analyzed, although analysis of some of them may have failed.
+         */
+        COMPLETED,
+        /**
+         * The analysis could not be carried out.
+         */
+        FAILED
+    }
+
+    private final URI vocabulary;
+
+    private final State state;
+
+    private final int requests;
+
+    private final boolean rerunRequested;
+
+    private final int totalTerms;
+
+    private final int analyzedTerms;
+
+    private final int failedTerms;
+
+    private final Instant requested;
+
+    private final Instant started;
+
+    private final Instant finished;
+
+    public TextAnalysisJobInfo(URI vocabulary, State state, int requests, boolean rerunRequested, int totalTerms,
+                               int analyzedTerms, int failedTerms, Instant requested, Instant started,
+                               Instant finished) {
+        this.vocabulary = vocabulary;
+        this.state = state;
+        this.requests = requests;
+        this.rerunRequested = rerunRequested;
+        this.totalTerms = totalTerms;
+        this.analyzedTerms = analyzedTerms;
+        this.failedTerms = failedTerms;
+        this.requested = requested;
+        this.started = started;
+        this.finished = finished;
+    }
+
+    /**
+     * Identifier of the vocabulary whose term definitions are analyzed.
+     */
+    public URI getVocabulary() {
+        return vocabulary;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Number of requests coalesced into the job.
+     */
+    public int getRequests() {
+        return requests;
+    }
+
+    /**
+     * Whether the analysis was requested again while running, so it will run once more after it finishes.
+     */
+    public boolean isRerunRequested() {
+        return rerunRequested;
+    }
+
+    /**
+     * Number of terms whose definitions are analyzed, {@code 0} until the job starts.
+     */
+    public int getTotalTerms() {
+        return totalTerms;
+    }
+
+    /**
+     * Number of terms whose definitions have been analyzed so far, including failed ones.
+     */
+    public int getAnalyzedTerms() {
+        return analyzedTerms;
+    }
+
+    public int getFailedTerms() {
+        return failedTerms;
+    }
+
+    /**
+     * When the job was first requested.
+     */
+    public Instant getRequested() {
+        return requested;
+    }
+
+    public Instant getStarted() {
+        return started;
+    }
+
+    public Instant getFinished() {
+        return finished;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TextAnalysisJobInfo)) {
+            return false;
+        }
+        final TextAnalysisJobInfo that = (TextAnalysisJobInfo) o;
+        return requests == that.requests && rerunRequested == that.rerunRequested &&
+                totalTerms == that.totalTerms && analyzedTerms == that.analyzedTerms &&
+                failedTerms == that.failedTerms && Objects.equals(vocabulary, that.vocabulary) &&
+                state == that.state && Objects.equals(requested, that.requested) &&
+                Objects.equals(started, that.started) && Objects.equals(finished, that.finished);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(vocabulary, state, requests, rerunRequested, totalTerms, analyzedTerms, failedTerms,
+                            requested, started, finished);
+    }
+
+    @Override
+    public String toString() {
+        return "TextAnalysisJobInfo{" +
+                "vocabulary=" + vocabulary +
+                ", state=" + state +
+                ", requests=" + requests +
+                ", progress=" + analyzedTerms + "/" + totalTerms +
+                ", failedTerms=" + failedTerms +
+                (rerunRequested ? ", rerunRequested" : "") +
+                '}';
+    }
+}
@@ -2,12 +2,47 @@ package cz.cvut.kbss.termit.event;
 
 import org.springframework.context.ApplicationEvent;
 
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 /**
- * Indicates that all application caches should be evicted.
+ * Indicates that application caches should be evicted.
+ * <p>
+ * The event may be scoped to specific vocabularies, in which case only cached data depending on these vocabularies
+ * should be evicted. Otherwise, all application caches should be evicted.
  */
 public class EvictCacheEvent extends ApplicationEvent {
 
+    private final Set<URI> vocabularies;
+
     public EvictCacheEvent(Object source) {
         super(source);
+        this.vocabularies = Collections.emptySet();
+    }
+
+    public EvictCacheEvent(Object source, Collection<URI> vocabularies) {
+        super(source);
+        this.vocabularies = Collections.unmodifiableSet(new HashSet<>(vocabularies));
+    }
+
+    /**
+     * Whether all cached data should be evicted.
+     *
+     * @return {@code true} if this event is not scoped to specific vocabularies
+     */
+    public boolean isGlobal() {
+        return vocabularies.isEmpty();
+    }
+
+    /**
+     * Identifiers of vocabularies whose data should be evicted from caches.
+     *
+     * @return Set of vocabulary identifiers, empty if all cached data should be evicted
+     */
+    public Set<URI> getVocabularies() {
+        return vocabularies;
     }
 }
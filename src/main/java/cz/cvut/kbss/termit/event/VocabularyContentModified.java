@@ -2,6 +2,8 @@ package cz.cvut.kbss.termit.event;
 
 import org.springframework.context.ApplicationEvent;
 
+import java.net.URI;
+
 /**
  * Represents an event of modification of the content of a vocabulary.
  * <p>
@@ -9,7 +11,23 @@ import org.springframework.context.ApplicationEvent;
  */
 public class VocabularyContentModified extends ApplicationEvent {
 
+    private final URI vocabularyIri;
+
     public VocabularyContentModified(Object source) {
+        this(source, null);
+    }
+
+    public VocabularyContentModified(Object source, URI vocabularyIri) {
         super(source);
+        this.vocabularyIri = vocabularyIri;
+    }
+
+    /**
+     * Identifier of the vocabulary whose content was modified.
+     *
+     * @return Vocabulary identifier, {@code null} if not known (content of any vocabulary may have been modified)
+     */
+    public URI getVocabularyIri() {
+        return vocabularyIri;
     }
 }
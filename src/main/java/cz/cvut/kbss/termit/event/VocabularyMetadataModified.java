@@ -0,0 +1,29 @@
+package cz.cvut.kbss.termit.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.net.URI;
+
+/**
+ * Represents an event of creation, modification or removal of a vocabulary itself, e.g., change of its title.
+ * <p>
+ * Unlike {@link VocabularyContentModified}, this event does not mean terms of the vocabulary were modified.
+ */
+public class VocabularyMetadataModified extends ApplicationEvent {
+
+    private final URI vocabularyIri;
+
+    public VocabularyMetadataModified(Object source, URI vocabularyIri) {
+        super(source);
+        this.vocabularyIri = vocabularyIri;
+    }
+
+    /**
+     * Identifier of the modified vocabulary.
+     *
+     * @return Vocabulary identifier
+     */
+    public URI getVocabularyIri() {
+        return vocabularyIri;
+    }
+}
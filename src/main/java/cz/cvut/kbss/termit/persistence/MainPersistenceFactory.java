@@ -29,6 +29,7 @@ import org.springframework.context.event.EventListener;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -96,8 +97,20 @@ public class MainPersistenceFactory {
         return map;
     }
 
+    /**
+     * Evicts the second level cache.
+     * <p>
+     * If the event is scoped to specific vocabularies, only data from their repository contexts and from the default
+     * context are evicted. The default context holds entities loaded without a descriptor (e.g., term listing DTOs),
+     * which may contain data of the affected vocabularies.
+     */
     @EventListener
     public void onEvictCache(EvictCacheEvent evt) {
-        emf.getCache().evictAll();
+        if (evt.isGlobal()) {
+            emf.getCache().evictAll();
+        } else {
+            evt.getVocabularies().forEach(emf.getCache()::evict);
+            emf.getCache().evict((URI) null);
+        }
     }
 }
@@ -15,19 +15,26 @@
 package cz.cvut.kbss.termit.persistence.dao;
 
 import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.model.query.Query;
 import cz.cvut.kbss.jopa.vocabulary.SKOS;
 import cz.cvut.kbss.termit.dto.FullTextSearchResult;
+import cz.cvut.kbss.termit.dto.FullTextSearchSpec;
+import cz.cvut.kbss.termit.exception.PersistenceException;
+import cz.cvut.kbss.termit.util.Configuration;
 import cz.cvut.kbss.termit.util.Utils;
 import cz.cvut.kbss.termit.util.Vocabulary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.PostConstruct;
 import java.net.URI;
-import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -41,16 +48,34 @@ public class SearchDao {
 
     protected String ftsQuery;
 
+    private String ftsCountQuery;
+
     protected final EntityManager em;
 
+    private final Configuration.Search config;
+
     @Autowired
-    public SearchDao(EntityManager em) {
+    public SearchDao(EntityManager em, Configuration config) {
         this.em = em;
+        this.config = config.getSearch();
     }
 
     @PostConstruct
     private void loadQueries() {
         this.ftsQuery = Utils.loadQuery(FTS_QUERY_FILE);
+        this.ftsCountQuery = toCountQuery(ftsQuery);
+    }
+
+    /**
+     * Creates a query counting distinct entities matched by the specified full text search query.
+     * <p>
+     * The search query is used as a sub-query, only its prefix declarations are moved to the top level.
+     */
+    static String toCountQuery(String query) {
+        final int selectIndex = query.indexOf("SELECT");
+        assert selectIndex >= 0;
+        return query.substring(0, selectIndex) + "SELECT (COUNT(DISTINCT ?entity) AS ?count) WHERE {\n" +
+                query.substring(selectIndex) + "\n}";
     }
 
     /**
@@ -63,17 +88,121 @@ public class SearchDao {
      * @return List of matching results
      */
     public List<FullTextSearchResult> fullTextSearch(String searchString) {
+        return fullTextSearch(searchString, FullTextSearchSpec.DEFAULT).getContent();
+    }
+
+    /**
+     * Finds terms and vocabularies which match the specified search string, returning only the specified part of the
+     * results.
+     * <p>
+     * If the requested page is a window of the score-ordered results, its offset and size are passed to the
+     * repository, so that it does not have to produce the remaining results. Otherwise, at most {@link
+     * Configuration.Search#getMaxResults()} top results are retrieved and filtered, so pages beyond these results are
+     * empty. The total is then counted by the repository if the page is a window of all results which may not have been
+     * retrieved completely. Otherwise, it is the number of matching retrieved results.
+     *
+     * @param searchString The string to search by
+     * @param spec         Specification of the returned results
+     * @return Page of matching results, including the total number of matches
+     * @see #fullTextSearch(String)
+     */
+    public Page<FullTextSearchResult> fullTextSearch(String searchString, FullTextSearchSpec spec) {
         Objects.requireNonNull(searchString);
+        Objects.requireNonNull(spec);
         if (searchString.isBlank()) {
-            return Collections.emptyList();
+            return Page.empty(spec.getPageSpec());
         }
         LOG.trace("Running full text search for search string \"{}\".", searchString);
-        return (List<FullTextSearchResult>) em.createNativeQuery(ftsQuery, "FullTextSearchResult")
-                                              .setParameter("term", URI.create(SKOS.CONCEPT))
-                                              .setParameter("vocabulary", URI.create(Vocabulary.s_c_slovnik))
-                                              .setParameter("inVocabulary",
-                                                            URI.create(Vocabulary.s_p_je_pojmem_ze_slovniku))
-                                              .setParameter("isDraft", URI.create(Vocabulary.s_p_je_draft))
-                                              .setParameter("searchString", searchString, null).getResultList();
+        final Query query = prepareSearchQuery(em.createNativeQuery(ftsQuery, "FullTextSearchResult"), searchString,
+                                               spec);
+        if (!spec.isWindowed() || !isRankedByRepository()) {
+            final List<FullTextSearchResult> top = query.setMaxResults(config.getMaxResults()).getResultList();
+            final Page<FullTextSearchResult> page = spec.apply(postProcess(searchString, top));
+            if (spec.isWindowed() && spec.getMinScore() == null && top.size() >= config.getMaxResults()) {
+                // There may be more matches than the retrieved top results, so they have to be counted
+                return new PageImpl<>(page.getContent(), page.getPageable(), countResults(searchString, spec));
+            }
+            return page;
+        }
+        final Pageable pageSpec = spec.getPageSpec();
+        if (!spec.isUnpaged()) {
+            query.setFirstResult((int) pageSpec.getOffset()).setMaxResults(pageSpec.getPageSize());
+        }
+        final List<FullTextSearchResult> content = postProcess(searchString, query.getResultList());
+        // Total is counted only when it cannot be determined from the page itself
+        return PageableExecutionUtils.getPage(content, pageSpec, () -> countResults(searchString, spec));
+    }
+
+    /**
+     * Whether a search restricted to a single vocabulary (see {@link FullTextSearchSpec#getScope()}) is restricted
+     * before labels are matched, so that it costs only a fraction of an unrestricted search.
+     * <p>
+     * Only then is it worth splitting a search into separate searches of the individual vocabularies. This also
+     * requires that every search result is a vocabulary or a term belonging to a vocabulary, so that splitting the
+     * search does not lose any results.
+     *
+     * @return {@code true} by default, the default search query matches the scope first and finds only terms in
+     * vocabularies
+     */
+    public boolean supportsScopedSearch() {
+        return true;
+    }
+
+    /**
+     * Whether results of the search query are in their final order, so that a page of them can be retrieved directly
+     * from the repository.
+     * <p>
+     * If not, at most {@link Configuration.Search#getMaxResults()} top results are retrieved, post-processed and then
+     * filtered.
+     *
+     * @return {@code true} by default
+     * @see #postProcess(String, List)
+     */
+    protected boolean isRankedByRepository() {
+        return true;
+    }
+
+    /**
+     * Post-processes results of the search query before they are filtered and paged.
+     *
+     * @param searchString The string searched by
+     * @param results      Results of the search query
+     * @return Processed results, the same results by default
+     */
+    protected List<FullTextSearchResult> postProcess(String searchString, List<FullTextSearchResult> results) {
+        return results;
+    }
+
+    private long countResults(String searchString, FullTextSearchSpec spec) {
+        try {
+            final Object count = prepareSearchQuery(em.createNativeQuery(ftsCountQuery), searchString, spec)
+                    .getSingleResult();
+            return ((Number) count).longValue();
+        } catch (RuntimeException e) {
+            throw new PersistenceException("Unable to count full text search results.", e);
+        }
+    }
+
+    /**
+     * Sets parameters of the specified full text search query.
+     * <p>
+     * The default search query does not score results, so minimum score is not taken into account. If results are
+     * restricted to a single vocabulary, the restriction is passed to the repository, otherwise, the scope variable of
+     * the query is left unbound.
+     *
+     * @param query        Full text search query or the corresponding count query
+     * @param searchString The string to search by
+     * @param spec         Specification of the returned results
+     * @return The query
+     */
+    protected Query prepareSearchQuery(Query query, String searchString, FullTextSearchSpec spec) {
+        if (spec.getScope() != null) {
+            query.setParameter("scope", spec.getScope());
+        }
+        return query.setParameter("term", URI.create(SKOS.CONCEPT))
+                    .setParameter("vocabulary", URI.create(Vocabulary.s_c_slovnik))
+                    .setParameter("inVocabulary", URI.create(Vocabulary.s_p_je_pojmem_ze_slovniku))
+                    .setParameter("isDraft", URI.create(Vocabulary.s_p_je_draft))
+                    .setParameter("searchString", searchString, null);
     }
 }
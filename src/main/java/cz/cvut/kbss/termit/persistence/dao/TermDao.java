@@ -15,22 +15,37 @@
 package cz.cvut.kbss.termit.persistence.dao;
 
 import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.model.MultilingualString;
 import cz.cvut.kbss.jopa.model.query.TypedQuery;
 import cz.cvut.kbss.jopa.vocabulary.SKOS;
+import cz.cvut.kbss.ontodriver.model.LangString;
 import cz.cvut.kbss.termit.asset.provenance.ModifiesData;
+import cz.cvut.kbss.termit.dto.DuplicateTerms;
+import cz.cvut.kbss.termit.dto.SimilarTerm;
 import cz.cvut.kbss.termit.dto.TermInfo;
 import cz.cvut.kbss.termit.dto.listing.TermDto;
+import cz.cvut.kbss.termit.event.EvictCacheEvent;
 import cz.cvut.kbss.termit.exception.PersistenceException;
 import cz.cvut.kbss.termit.model.AbstractTerm;
 import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.model.Vocabulary;
-import cz.cvut.kbss.termit.model.util.HasIdentifier;
 import cz.cvut.kbss.termit.persistence.DescriptorFactory;
+import cz.cvut.kbss.termit.persistence.dao.hierarchy.TermCountIndex;
+import cz.cvut.kbss.termit.persistence.dao.hierarchy.TermDefinitionIndex;
+import cz.cvut.kbss.termit.persistence.dao.hierarchy.TermHierarchyIndex;
+import cz.cvut.kbss.termit.persistence.dao.hierarchy.TermLabelIndex;
+import cz.cvut.kbss.termit.persistence.dao.hierarchy.VocabularyImportIndex;
+import cz.cvut.kbss.termit.persistence.dao.lucene.FullTextIndex;
 import cz.cvut.kbss.termit.persistence.dao.util.Cache;
+import cz.cvut.kbss.termit.persistence.dao.util.LabelCollator;
 import cz.cvut.kbss.termit.persistence.dao.util.SparqlResultToTermInfoMapper;
+import cz.cvut.kbss.termit.persistence.dao.util.SparqlUtils;
+import cz.cvut.kbss.termit.persistence.dao.util.TermMaterializer;
 import cz.cvut.kbss.termit.util.Configuration;
+import cz.cvut.kbss.termit.util.KeysetPageRequest;
 import cz.cvut.kbss.termit.util.Utils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
@@ -43,16 +58,51 @@ public class TermDao extends AssetDao<Term> {
 
     private static final URI LABEL_PROP = URI.create(SKOS.PREF_LABEL);
 
+    /**
+     * Maximum number of values bound by a single {@code VALUES} clause when querying data of multiple terms at once.
+     */
+    private static final int VALUES_BATCH_SIZE = 500;
+
+    /**
+     * Properties whose inverse is inferred due to their symmetry.
+     */
+    private static final List<URI> INVERSE_PROPERTIES = Arrays.asList(URI.create(SKOS.RELATED),
+                                                                      URI.create(SKOS.RELATED_MATCH),
+                                                                      URI.create(SKOS.EXACT_MATCH));
+
     private final Cache<URI, Set<TermInfo>> subTermsCache;
 
+    private final TermHierarchyIndex hierarchyIndex;
+
+    private final VocabularyImportIndex importIndex;
+
+    private final TermCountIndex countIndex;
+
+    private final TermLabelIndex labelIndex;
+
+    private final FullTextIndex fullTextIndex;
+
+    private final TermDefinitionIndex definitionIndex;
+
+    private final LabelCollator labelCollator;
+
     private final Comparator<TermInfo> termInfoComparator;
 
     @Autowired
     public TermDao(EntityManager em, Configuration config, DescriptorFactory descriptorFactory,
-                   Cache<URI, Set<TermInfo>> subTermsCache) {
+                   Cache<URI, Set<TermInfo>> subTermsCache, TermHierarchyIndex hierarchyIndex,
+                   VocabularyImportIndex importIndex, TermCountIndex countIndex, TermLabelIndex labelIndex,
+                   FullTextIndex fullTextIndex, TermDefinitionIndex definitionIndex) {
         super(Term.class, em, config.getPersistence(), descriptorFactory);
         this.subTermsCache = subTermsCache;
-        this.termInfoComparator = Comparator.comparing(t -> t.getLabel().get(config.getPersistence().getLanguage()));
+        this.hierarchyIndex = hierarchyIndex;
+        this.importIndex = importIndex;
+        this.countIndex = countIndex;
+        this.labelIndex = labelIndex;
+        this.fullTextIndex = fullTextIndex;
+        this.definitionIndex = definitionIndex;
+        this.labelCollator = new LabelCollator(config.getPersistence());
+        this.termInfoComparator = Comparator.comparing(TermInfo::getLabel, labelCollator.comparator());
     }
 
     @Override
@@ -65,66 +115,105 @@ public class TermDao extends AssetDao<Term> {
         final Optional<Term> result = super.find(id);
         result.ifPresent(r -> {
             r.setSubTerms(getSubTerms(r));
-            r.setInverseRelated(loadInverseRelatedTerms(r));
-            r.setInverseRelatedMatch(loadInverseRelatedMatchTerms(r));
-            r.setInverseExactMatchTerms(loadInverseExactMatchTerms(r));
+            loadInverseRelationships(Collections.singleton(r));
         });
         return result;
     }
 
+    /**
+     * Finds terms with the specified identifiers.
+     * <p>
+     * Sub-terms and inferred inverse relationships of the terms are loaded in bulk, so this is preferable to finding
+     * multiple terms one by one.
+     *
+     * @param ids Term identifiers
+     * @return List of matching terms, in no particular order. Nonexistent terms are skipped
+     */
+    public List<Term> findAll(Collection<URI> ids) {
+        Objects.requireNonNull(ids);
+        try {
+            final List<Term> result = new ArrayList<>(ids.size());
+            new LinkedHashSet<>(ids).forEach(id -> {
+                final Term t = em.find(type, id);
+                if (t != null) {
+                    result.add(t);
+                }
+            });
+            setSubTerms(result);
+            loadInverseRelationships(result);
+            return result;
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
     public void detach(Term term) {
         Objects.requireNonNull(term);
         em.detach(term);
     }
 
     /**
-     * Loads terms whose relatedness to the specified term is inferred due to the symmetry of SKOS related.
-     *
-     * @param term Term to load related terms for
-     */
-    private Set<TermInfo> loadInverseRelatedTerms(Term term) {
-        return loadTermInfo(term, SKOS.RELATED, Utils.joinCollections(term.getRelated(), term.getRelatedMatch()));
-    }
-
-    private Set<TermInfo> loadTermInfo(Term term, String property, Collection<TermInfo> exclude) {
-        final List<?> inverse = em.createNativeQuery("SELECT ?inverse ?label ?vocabulary WHERE {" +
-                                                             "?inverse ?property ?term ;" +
-                                                             "a ?type ;" +
-                                                             "?hasLabel ?label ;" +
-                                                             "?inVocabulary ?vocabulary . " +
-                                                             "FILTER (?inverse NOT IN (?exclude))" +
-                                                             "} ORDER BY ?inverse")
-                                  .setParameter("property", URI.create(property))
-                                  .setParameter("term", term)
-                                  .setParameter("type", typeUri)
-                                  .setParameter("hasLabel", labelProperty())
-                                  .setParameter("inVocabulary", URI
-                                          .create(cz.cvut.kbss.termit.util.Vocabulary.s_p_je_pojmem_ze_slovniku))
-                                  .setParameter("exclude", exclude)
-                                  .getResultList();
-        final List<TermInfo> result = new SparqlResultToTermInfoMapper().map(inverse);
-        result.sort(termInfoComparator);
-        return new LinkedHashSet<>(result);
-    }
-
-    /**
-     * Loads terms whose relatedness to the specified term is inferred due to the symmetric of SKOS relatedMatch.
+     * Loads terms whose relationship to the specified terms is inferred due to the symmetry of SKOS related,
+     * relatedMatch and exactMatch.
+     * <p>
+     * All the inverse relationships of up to {@link #VALUES_BATCH_SIZE} terms are retrieved by a single query and
+     * then split by the relationship property. Inverse relationships which are also asserted by the term are skipped.
      *
-     * @param term Term to load related terms for
+     * @param terms Terms to load inverse relationships for
      */
-    private Set<TermInfo> loadInverseRelatedMatchTerms(Term term) {
-        return loadTermInfo(term, SKOS.RELATED_MATCH, term.getRelatedMatch() != null ? term
-                .getRelatedMatch() : Collections.emptySet());
+    private void loadInverseRelationships(Collection<Term> terms) {
+        if (terms.isEmpty()) {
+            return;
+        }
+        final Map<URI, Map<String, List<Object[]>>> rowsByTerm = new HashMap<>(terms.size());
+        final List<URI> termList = terms.stream().map(Term::getUri).distinct().collect(Collectors.toList());
+        for (int i = 0; i < termList.size(); i += VALUES_BATCH_SIZE) {
+            final List<URI> batch = termList.subList(i, Math.min(i + VALUES_BATCH_SIZE, termList.size()));
+            final List<?> rows = em.createNativeQuery("SELECT ?term ?property ?inverse ?label ?vocabulary WHERE {" +
+                                                              SparqlUtils.valuesClause("?term", batch) +
+                                                              SparqlUtils.valuesClause("?property",
+                                                                                       INVERSE_PROPERTIES) +
+                                                              "?inverse ?property ?term ;" +
+                                                              "a ?type ;" +
+                                                              "?hasLabel ?label ;" +
+                                                              "?inVocabulary ?vocabulary . " +
+                                                              "} ORDER BY ?inverse")
+                                   .setParameter("type", typeUri)
+                                   .setParameter("hasLabel", labelProperty())
+                                   .setParameter("inVocabulary", URI
+                                           .create(cz.cvut.kbss.termit.util.Vocabulary.s_p_je_pojmem_ze_slovniku))
+                                   .getResultList();
+            for (Object r : rows) {
+                final Object[] row = (Object[]) r;
+                if (row[0] == null) {
+                    // No result
+                    continue;
+                }
+                rowsByTerm.computeIfAbsent((URI) row[0], k -> new HashMap<>(INVERSE_PROPERTIES.size()))
+                          .computeIfAbsent(row[1].toString(), k -> new ArrayList<>())
+                          .add(Arrays.copyOfRange(row, 2, row.length));
+            }
+        }
+        terms.forEach(t -> {
+            final Map<String, List<Object[]>> inverse = rowsByTerm.getOrDefault(t.getUri(), Collections.emptyMap());
+            t.setInverseRelated(toTermInfo(inverse.get(SKOS.RELATED),
+                                           Utils.joinCollections(t.getRelated(), t.getRelatedMatch())));
+            t.setInverseRelatedMatch(toTermInfo(inverse.get(SKOS.RELATED_MATCH), t.getRelatedMatch()));
+            t.setInverseExactMatchTerms(toTermInfo(inverse.get(SKOS.EXACT_MATCH), t.getExactMatchTerms()));
+        });
     }
 
-    /**
-     * Loads terms whose exact match to the specified term is inferred due to the symmetric of SKOS exactMatch.
-     *
-     * @param term Term to load related terms for
-     */
-    private Set<TermInfo> loadInverseExactMatchTerms(Term term) {
-        return loadTermInfo(term, SKOS.EXACT_MATCH, term.getExactMatchTerms() != null ? term
-                .getExactMatchTerms() : Collections.emptySet());
+    private Set<TermInfo> toTermInfo(List<Object[]> rows, Collection<TermInfo> exclude) {
+        if (rows == null) {
+            return new LinkedHashSet<>();
+        }
+        final List<TermInfo> result = new SparqlResultToTermInfoMapper().map(rows);
+        if (exclude != null) {
+            final Set<URI> toExclude = exclude.stream().map(TermInfo::getUri).collect(Collectors.toSet());
+            result.removeIf(ti -> toExclude.contains(ti.getUri()));
+        }
+        result.sort(termInfoComparator);
+        return new LinkedHashSet<>(result);
     }
 
     @Override
@@ -149,6 +238,12 @@ public class TermDao extends AssetDao<Term> {
             entity.setVocabulary(null); // This is inferred
             em.persist(entity, descriptorFactory.termDescriptor(vocabulary));
             evictCachedSubTerms(Collections.emptySet(), entity.getParentTerms());
+            hierarchyIndex.termPersisted(entity, vocabulary.getUri());
+            countIndex.termSaved(entity.getUri(), vocabulary.getUri(), isRoot(entity, entity.getGlossary()),
+                                 entity.isDraft());
+            labelIndex.termSaved(entity, vocabulary.getUri());
+            fullTextIndex.termSaved(entity, vocabulary.getUri());
+            definitionIndex.termSaved(entity, vocabulary.getUri());
         } catch (RuntimeException e) {
             throw new PersistenceException(e);
         }
@@ -167,7 +262,15 @@ public class TermDao extends AssetDao<Term> {
             final Term original = em.find(Term.class, entity.getUri(), descriptorFactory.termDescriptor(entity));
             entity.setDefinitionSource(original.getDefinitionSource());
             evictCachedSubTerms(original.getParentTerms(), entity.getParentTerms());
-            return em.merge(entity, descriptorFactory.termDescriptor(entity));
+            final Term result = em.merge(entity, descriptorFactory.termDescriptor(entity));
+            hierarchyIndex.termUpdated(entity);
+            countIndex.termSaved(entity.getUri(), entity.getVocabulary(),
+                                 isRoot(entity, entity.getGlossary() != null ? entity.getGlossary() :
+                                                original.getGlossary()), entity.isDraft());
+            labelIndex.termSaved(entity, entity.getVocabulary());
+            fullTextIndex.termSaved(entity, entity.getVocabulary());
+            definitionIndex.termSaved(entity, entity.getVocabulary());
+            return result;
         } catch (RuntimeException e) {
             throw new PersistenceException(e);
         }
@@ -201,6 +304,17 @@ public class TermDao extends AssetDao<Term> {
           .setParameter("hasStatus", URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_je_draft))
           .setParameter("inScheme", URI.create(SKOS.IN_SCHEME))
           .setParameter("newDraft", draft).executeUpdate();
+        countIndex.termStatusChanged(term.getUri(), term.getVocabulary(), draft);
+        labelIndex.termStatusChanged(term.getUri(), term.getVocabulary(), draft);
+        fullTextIndex.termStatusChanged(term.getUri(), draft);
+    }
+
+    /**
+     * Whether the specified term is a root term of its glossary, i.e., it has no parent in the same glossary.
+     */
+    private static boolean isRoot(Term term, URI glossary) {
+        return Utils.emptyIfNull(term.getParentTerms()).stream()
+                    .noneMatch(p -> Objects.equals(p.getGlossary(), glossary));
     }
 
     /**
@@ -223,6 +337,25 @@ public class TermDao extends AssetDao<Term> {
         newCopy.forEach(t -> subTermsCache.evict(t.getUri()));
     }
 
+    /**
+     * Evicts cached sub-terms depending on vocabularies the event is scoped to.
+     * <p>
+     * The sub-terms cache is used only for parents whose vocabulary is not known, so entries are evicted based on their
+     * sub-terms. Entries without sub-terms are evicted as well, because terms of the vocabularies might have become
+     * their sub-terms. Global eviction is handled by the cache itself.
+     *
+     * @param evt Cache eviction event
+     */
+    @EventListener
+    public void onEvictCache(EvictCacheEvent evt) {
+        if (evt.isGlobal()) {
+            return;
+        }
+        final Set<URI> vocabularies = evt.getVocabularies();
+        subTermsCache.evictIf((parent, subTerms) -> subTerms.isEmpty() || subTerms.stream().anyMatch(
+                st -> vocabularies.contains(st.getVocabulary())));
+    }
+
     public List<TermDto> findAll(Vocabulary vocabulary) {
         Objects.requireNonNull(vocabulary);
         try {
@@ -233,8 +366,7 @@ public class TermDao extends AssetDao<Term> {
                                                                             "FILTER (lang(?label) = ?labelLang) ." +
                                                                             "}" +
                                                                             "?term ?inVocabulary ?vocabulary ." +
-                                                                            " } ORDER BY " + orderSentence(
-                                                         config.getLanguage(), "?label"), TermDto.class)
+                                                                            " }", TermDto.class)
                                                  .setParameter("type", typeUri)
                                                  .setParameter("vocabulary", vocabulary)
                                                  .setParameter("hasLabel", LABEL_PROP)
@@ -258,28 +390,27 @@ public class TermDao extends AssetDao<Term> {
     public List<Term> findAllFull(Vocabulary vocabulary) {
         Objects.requireNonNull(vocabulary);
         try {
-            // Load terms one by one. This works around the issue of terms being loaded in the persistence context
-            // as Term and TermInfo, which results in IndividualAlreadyManagedExceptions from JOPA
-            // The workaround relies on the fact that jopa-spring-transaction will create a new persistence context
-            // for each find call
-            // The price for this solution is that this method performs very poorly for larger vocabularies (hundreds of terms)
-            final List<URI> termIris = em.createNativeQuery("SELECT DISTINCT ?term WHERE {" +
-                                                                    "GRAPH ?vocabulary { " +
-                                                                    "?term a ?type ;" +
-                                                                    "?hasLabel ?label ;" +
-                                                                    "FILTER (lang(?label) = ?labelLang) ." +
-                                                                    "}" +
-                                                                    "?term ?inVocabulary ?vocabulary ." +
-                                                                    " } ORDER BY " + orderSentence(config.getLanguage(),
-                                                                                                   "?label"), URI.class)
-                                         .setParameter("type", typeUri)
-                                         .setParameter("vocabulary", vocabulary.getUri())
-                                         .setParameter("hasLabel", LABEL_PROP)
-                                         .setParameter("inVocabulary",
-                                                       URI.create(
-                                                               cz.cvut.kbss.termit.util.Vocabulary.s_p_je_pojmem_ze_slovniku))
-                                         .setParameter("labelLang", config.getLanguage()).getResultList();
-            return termIris.stream().map(ti -> find(ti).get()).collect(Collectors.toList());
+            // Terms are materialized in bulk from native query results, bypassing the persistence context. Loading
+            // them via JOPA would result in IndividualAlreadyManagedExceptions, because they would be managed both as
+            // Term and as TermInfo
+            final List<?> rows = em.createNativeQuery("SELECT DISTINCT ?term ?label WHERE {" +
+                                                              "GRAPH ?vocabulary { " +
+                                                              "?term a ?type ;" +
+                                                              "?hasLabel ?label ;" +
+                                                              "FILTER (lang(?label) = ?labelLang) ." +
+                                                              "}" +
+                                                              "?term ?inVocabulary ?vocabulary ." +
+                                                              " }")
+                                   .setParameter("type", typeUri)
+                                   .setParameter("vocabulary", vocabulary.getUri())
+                                   .setParameter("hasLabel", LABEL_PROP)
+                                   .setParameter("inVocabulary",
+                                                 URI.create(
+                                                         cz.cvut.kbss.termit.util.Vocabulary.s_p_je_pojmem_ze_slovniku))
+                                   .setParameter("labelLang", config.getLanguage()).getResultList();
+            final List<URI> termIris = sortByLabel(rows).stream().map(LabeledTerm::getUri)
+                                                        .collect(Collectors.toList());
+            return new TermMaterializer(em, termInfoComparator).materialize(vocabulary.getUri(), termIris);
         } catch (RuntimeException e) {
             throw new PersistenceException(e);
         }
@@ -312,7 +443,55 @@ public class TermDao extends AssetDao<Term> {
     }
 
     private <T extends AbstractTerm> List<T> executeQueryAndLoadSubTerms(TypedQuery<T> query) {
-        return query.getResultStream().peek(t -> t.setSubTerms(getSubTerms(t))).collect(Collectors.toList());
+        final List<T> result = new ArrayList<>(query.getResultList());
+        labelCollator.sort(result, AbstractTerm::getLabel);
+        setSubTerms(result);
+        return result;
+    }
+
+    /**
+     * Maps the specified term identifier and label query result rows and sorts them by label, using identifier as a
+     * tie breaker.
+     * <p>
+     * Only the first label of each term is used.
+     */
+    private List<LabeledTerm> sortByLabel(List<?> rows) {
+        final Map<URI, LabeledTerm> terms = new LinkedHashMap<>(rows.size());
+        for (Object r : rows) {
+            final Object[] row = (Object[]) r;
+            if (row[0] == null) {
+                // No result
+                continue;
+            }
+            final String label = row[1] instanceof LangString ? ((LangString) row[1]).getValue() : row[1].toString();
+            terms.putIfAbsent((URI) row[0], new LabeledTerm((URI) row[0], labelCollator.sortKey(label)));
+        }
+        final List<LabeledTerm> result = new ArrayList<>(terms.values());
+        result.sort(LabeledTerm::compareTo);
+        return result;
+    }
+
+    /**
+     * Term identifier with sort key of its label.
+     */
+    private static final class LabeledTerm implements Comparable<LabeledTerm> {
+        private final URI uri;
+        private final byte[] sortKey;
+
+        private LabeledTerm(URI uri, byte[] sortKey) {
+            this.uri = uri;
+            this.sortKey = sortKey;
+        }
+
+        private URI getUri() {
+            return uri;
+        }
+
+        @Override
+        public int compareTo(LabeledTerm other) {
+            final int result = LabelCollator.compare(sortKey, other.sortKey);
+            return result != 0 ? result : uri.toString().compareTo(other.uri.toString());
+        }
     }
 
     /**
@@ -326,22 +505,19 @@ public class TermDao extends AssetDao<Term> {
     public List<TermDto> findAllIncludingImported(Vocabulary vocabulary) {
         Objects.requireNonNull(vocabulary);
         TypedQuery<TermDto> query = em.createNativeQuery("SELECT DISTINCT ?term WHERE {" +
+                                                                 SparqlUtils.valuesClause("?parent",
+                                                                                          importIndex.getImportClosure(
+                                                                                                  vocabulary.getUri())) +
                                                                  "?term a ?type ;" +
                                                                  "?hasLabel ?label ;" +
                                                                  "?inVocabulary ?parent ." +
-                                                                 "?vocabulary ?imports* ?parent ." +
                                                                  "FILTER (lang(?label) = ?labelLang) ." +
-                                                                 "} ORDER BY " + orderSentence(config.getLanguage(),
-                                                                                               "?label"), TermDto.class)
+                                                                 "}", TermDto.class)
                                       .setParameter("type", typeUri)
                                       .setParameter("hasLabel", LABEL_PROP)
                                       .setParameter("inVocabulary",
                                                     URI.create(
                                                             cz.cvut.kbss.termit.util.Vocabulary.s_p_je_pojmem_ze_slovniku))
-                                      .setParameter("imports",
-                                                    URI.create(
-                                                            cz.cvut.kbss.termit.util.Vocabulary.s_p_importuje_slovnik))
-                                      .setParameter("vocabulary", vocabulary)
                                       .setParameter("labelLang", config.getLanguage());
         return executeQueryAndLoadSubTerms(query);
     }
@@ -351,8 +527,39 @@ public class TermDao extends AssetDao<Term> {
      *
      * @param parent Parent term
      */
-    private Set<TermInfo> getSubTerms(HasIdentifier parent) {
-        return subTermsCache.getOrCompute(parent.getUri(), this::loadSubTerms);
+    private Set<TermInfo> getSubTerms(AbstractTerm parent) {
+        setSubTerms(Collections.singleton(parent));
+        return parent.getSubTerms();
+    }
+
+    /**
+     * Sets sub-terms of all the specified parent terms.
+     * <p>
+     * Sub-terms are primarily resolved using the term hierarchy index. Sub-terms of parents which are not in the index
+     * (e.g., because their vocabulary is not known) and are not cached are loaded in bulk.
+     *
+     * @param parents Parent terms
+     */
+    private void setSubTerms(Collection<? extends AbstractTerm> parents) {
+        if (parents.isEmpty()) {
+            return;
+        }
+        final Map<URI, Set<TermInfo>> subTerms = new HashMap<>(parents.size());
+        parents.stream().filter(p -> p.getVocabulary() != null)
+               .collect(Collectors.groupingBy(AbstractTerm::getVocabulary,
+                                              Collectors.mapping(AbstractTerm::getUri, Collectors.toSet())))
+               .forEach((vocabulary, parentUris) -> hierarchyIndex.findSubTerms(vocabulary, parentUris)
+                                                                  .forEach((parent, children) -> {
+                                                                      children.sort(termInfoComparator);
+                                                                      subTerms.put(parent,
+                                                                                   new LinkedHashSet<>(children));
+                                                                  }));
+        final Set<URI> remaining = parents.stream().map(AbstractTerm::getUri).filter(u -> !subTerms.containsKey(u))
+                                          .collect(Collectors.toSet());
+        if (!remaining.isEmpty()) {
+            subTerms.putAll(subTermsCache.getOrComputeAll(remaining, this::loadSubTerms));
+        }
+        parents.forEach(p -> p.setSubTerms(subTerms.get(p.getUri())));
     }
 
     /**
@@ -362,28 +569,59 @@ public class TermDao extends AssetDao<Term> {
      * @return Set of sub-terms, sorted by label
      */
     private Set<TermInfo> loadSubTerms(URI parentUri) {
-        final List<?> subTerms = em.createNativeQuery("SELECT ?entity ?label ?vocabulary WHERE {" +
+        return loadSubTerms(Collections.singleton(parentUri)).get(parentUri);
+    }
+
+    /**
+     * Actually loads sub-terms of terms with the specified identifiers.
+     * <p>
+     * Sub-terms of up to {@link #VALUES_BATCH_SIZE} parents are retrieved by a single query.
+     *
+     * @param parentUris Parent term identifiers
+     * @return Map of parent term identifiers to sets of their sub-terms, sorted by label
+     */
+    private Map<URI, Set<TermInfo>> loadSubTerms(Collection<URI> parentUris) {
+        final Map<URI, List<Object[]>> rowsByParent = new HashMap<>(parentUris.size());
+        final List<URI> parentList = new ArrayList<>(parentUris);
+        for (int i = 0; i < parentList.size(); i += VALUES_BATCH_SIZE) {
+            final List<URI> batch = parentList.subList(i, Math.min(i + VALUES_BATCH_SIZE, parentList.size()));
+            final List<?> rows = em.createNativeQuery("SELECT ?parent ?entity ?label ?vocabulary WHERE {" +
+                                                              SparqlUtils.valuesClause("?parent", batch) +
                                                               "?parent ?narrower ?entity ." +
                                                               "?entity a ?type ;" +
                                                               "?hasLabel ?label ;" +
                                                               "?inVocabulary ?vocabulary . } ORDER BY ?entity")
                                    .setParameter("type", typeUri)
                                    .setParameter("narrower", URI.create(SKOS.NARROWER))
-                                   .setParameter("parent", parentUri)
                                    .setParameter("hasLabel", LABEL_PROP)
                                    .setParameter("inVocabulary", URI
                                            .create(cz.cvut.kbss.termit.util.Vocabulary.s_p_je_pojmem_ze_slovniku))
                                    .getResultList();
-        final List<TermInfo> result = new SparqlResultToTermInfoMapper().map(subTerms);
-        result.sort(termInfoComparator);
-        return new LinkedHashSet<>(result);
+            for (Object r : rows) {
+                final Object[] row = (Object[]) r;
+                if (row[0] == null) {
+                    // No result
+                    continue;
+                }
+                rowsByParent.computeIfAbsent((URI) row[0], k -> new ArrayList<>())
+                            .add(Arrays.copyOfRange(row, 1, row.length));
+            }
+        }
+        final Map<URI, Set<TermInfo>> result = new HashMap<>(parentUris.size());
+        parentUris.forEach(parentUri -> {
+            final List<TermInfo> subTerms = new SparqlResultToTermInfoMapper().map(
+                    rowsByParent.getOrDefault(parentUri, Collections.emptyList()));
+            subTerms.sort(termInfoComparator);
+            result.put(parentUri, new LinkedHashSet<>(subTerms));
+        });
+        return result;
     }
 
     /**
      * Loads a page of root terms (terms without a parent) contained in the specified vocabulary.
      *
      * @param vocabulary   Vocabulary whose root terms should be returned
-     * @param pageSpec     Page specification
+     * @param pageSpec     Page specification, {@link KeysetPageRequest} is supported
      * @param includeTerms Identifiers of terms which should be a part of the result. Optional
      * @return Matching terms, ordered by their label
      * @see #findAllRootsIncludingImports(Vocabulary, Pageable, Collection)
@@ -391,24 +629,9 @@ public class TermDao extends AssetDao<Term> {
     public List<TermDto> findAllRoots(Vocabulary vocabulary, Pageable pageSpec, Collection<URI> includeTerms) {
         Objects.requireNonNull(vocabulary);
         Objects.requireNonNull(pageSpec);
-        TypedQuery<TermDto> query = em.createNativeQuery("SELECT DISTINCT ?term WHERE {" +
-                                                                 "GRAPH ?vocabulary { " +
-                                                                 "?term a ?type ;" +
-                                                                 "?hasLabel ?label ." +
-                                                                 "?vocabulary ?hasGlossary/?hasTerm ?term ." +
-                                                                 "FILTER (lang(?label) = ?labelLang) ." +
-                                                                 "FILTER (?term NOT IN (?included))" +
-                                                                 "}} ORDER BY " + orderSentence(config.getLanguage(),
-                                                                                                "?label"),
-                                                         TermDto.class);
-        query = setCommonFindAllRootsQueryParams(query, false);
         try {
-            final List<TermDto> result = executeQueryAndLoadSubTerms(
-                    query.setParameter("vocabulary", vocabulary.getUri())
-                         .setParameter("labelLang", config.getLanguage())
-                         .setParameter("included", includeTerms)
-                         .setMaxResults(pageSpec.getPageSize())
-                         .setFirstResult((int) pageSpec.getOffset()));
+            final List<TermDto> result = loadRoots(
+                    hierarchyIndex.findRoots(vocabulary.getUri(), pageSpec, includeTerms));
             result.addAll(loadIncludedTerms(includeTerms));
             return result;
         } catch (RuntimeException e) {
@@ -416,58 +639,19 @@ public class TermDao extends AssetDao<Term> {
         }
     }
 
-    private String orderSentence(String lang, String var) {
-        if ("cs".equals(lang)) {
-            return
-                    r(r(r(r(r(r(r(r(r(r(r(r(r(r("lcase(" + var + ")",
-                                                "'á'", "'azz'"),
-                                              "'č'", "'czz'"),
-                                            "'ď'", "'dzz'"),
-                                          "'é'", "'ezz'"),
-                                        "'ě'", "'ezz'"),
-                                      "'í'", "'izz'"),
-                                    "'ň'", "'nzz'"),
-                                  "'ó'", "'ozz'"),
-                                "'ř'", "'rzz'"),
-                              "'š'", "'szz'"),
-                            "'ť'", "'tzz'"),
-                          "'ú'", "'uzz'"),
-                        "'ý'", "'yzz'"),
-                      "'ž'", "'zzz'");
-        }
-        return "lcase(" + var + ")";
-    }
-
-    private String r(String string, String from, String to) {
-        return "replace(" + string + ", " + from + ", " + to + ")";
-    }
-
     /**
      * Loads a page of root terms (terms without a parent).
      *
-     * @param pageSpec     Page specification
+     * @param pageSpec     Page specification, {@link KeysetPageRequest} is supported
      * @param includeTerms Identifiers of terms which should be a part of the result. Optional
      * @return Matching terms, ordered by their label
      * @see #findAllRootsIncludingImports(Vocabulary, Pageable, Collection)
      */
     public List<TermDto> findAllRoots(Pageable pageSpec, Collection<URI> includeTerms) {
         Objects.requireNonNull(pageSpec);
-        TypedQuery<TermDto> query = em.createNativeQuery("SELECT DISTINCT ?term WHERE {" +
-                                                                 "?term a ?type ;" +
-                                                                 "?hasLabel ?label ." +
-                                                                 "?vocabulary ?hasGlossary/?hasTerm ?term ." +
-                                                                 "FILTER (lang(?label) = ?labelLang) ." +
-                                                                 "FILTER (?term NOT IN (?included))" +
-                                                                 "} ORDER BY " + orderSentence(config.getLanguage(),
-                                                                                               "?label"),
-                                                         TermDto.class);
-        query = setCommonFindAllRootsQueryParams(query, false);
         try {
-            final List<TermDto> result = executeQueryAndLoadSubTerms(
-                    query.setParameter("labelLang", config.getLanguage())
-                         .setParameter("included", includeTerms)
-                         .setMaxResults(pageSpec.getPageSize())
-                         .setFirstResult((int) pageSpec.getOffset()));
+            final List<TermDto> result = loadRoots(
+                    hierarchyIndex.findRoots(importIndex.getVocabularies(), pageSpec, includeTerms));
             result.addAll(loadIncludedTerms(includeTerms));
             return result;
         } catch (RuntimeException e) {
@@ -475,37 +659,66 @@ public class TermDao extends AssetDao<Term> {
         }
     }
 
-    private <T> TypedQuery<T> setCommonFindAllRootsQueryParams(TypedQuery<T> query, boolean includeImports) {
-        final TypedQuery<T> tq = query.setParameter("type", typeUri)
-                                      .setParameter("hasLabel", LABEL_PROP)
-                                      .setParameter("hasGlossary",
-                                                    URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_ma_glosar))
-                                      .setParameter("hasTerm", URI.create(SKOS.HAS_TOP_CONCEPT));
-        if (includeImports) {
-            tq.setParameter("imports", URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_importuje_slovnik));
-        }
-        return tq;
+    /**
+     * Loads the specified root terms, together with their sub-terms.
+     *
+     * @param roots Identifiers of root terms, in the order in which they should be returned
+     * @return Loaded terms
+     */
+    private List<TermDto> loadRoots(List<URI> roots) {
+        final List<TermDto> result = loadTermDtos(roots);
+        setSubTerms(result);
+        return result;
     }
 
     private List<TermDto> loadIncludedTerms(Collection<URI> includeTerms) {
-        return includeTerms.stream().map(u -> em.find(TermDto.class, u))
-                           .filter(Objects::nonNull)
-                           .peek(this::recursivelyLoadParentTermSubTerms)
-                           .collect(Collectors.toList());
+        final List<TermDto> result = loadTermDtos(includeTerms);
+        recursivelyLoadParentTermSubTerms(result);
+        return result;
+    }
+
+    /**
+     * Loads the specified terms.
+     * <p>
+     * Up to {@link #VALUES_BATCH_SIZE} terms are loaded by a single query.
+     *
+     * @param uris Term identifiers, in the order in which the terms should be returned
+     * @return Loaded terms, identifiers of unknown terms are skipped
+     */
+    private List<TermDto> loadTermDtos(Collection<URI> uris) {
+        final List<URI> uriList = uris.stream().distinct().collect(Collectors.toList());
+        final Map<URI, TermDto> loaded = new HashMap<>(uriList.size());
+        for (int i = 0; i < uriList.size(); i += VALUES_BATCH_SIZE) {
+            final List<URI> batch = uriList.subList(i, Math.min(i + VALUES_BATCH_SIZE, uriList.size()));
+            em.createNativeQuery("SELECT ?term WHERE {" +
+                                         SparqlUtils.valuesClause("?term", batch) +
+                                         "?term a ?type . }", TermDto.class)
+              .setParameter("type", typeUri)
+              .getResultList().forEach(t -> loaded.put(t.getUri(), t));
+        }
+        return uriList.stream().map(loaded::get).filter(Objects::nonNull).collect(Collectors.toList());
     }
 
     /**
-     * Recursively loads subterms for the specified term and its parents (if they exist).
+     * Recursively loads subterms for the specified terms and their parents (if they exist).
      * <p>
-     * This implementation ensures that the term hierarchy can be traversed both ways for the specified term. This has
+     * This implementation ensures that the term hierarchy can be traversed both ways for the specified terms. This has
      * to be done to allow the tree-select component on the frontend to work properly and display the terms.
+     * <p>
+     * Subterms of the whole hierarchy are loaded in bulk.
      *
-     * @param term The term to load subterms for
+     * @param terms The terms to load subterms for
      */
-    private void recursivelyLoadParentTermSubTerms(TermDto term) {
-        term.setSubTerms(getSubTerms(term));
+    private void recursivelyLoadParentTermSubTerms(Collection<TermDto> terms) {
+        final List<TermDto> hierarchy = new ArrayList<>();
+        terms.forEach(t -> collectWithAncestors(t, hierarchy));
+        setSubTerms(hierarchy);
+    }
+
+    private static void collectWithAncestors(TermDto term, List<TermDto> target) {
+        target.add(term);
         if (term.hasParentTerms()) {
-            term.getParentTerms().forEach(this::recursivelyLoadParentTermSubTerms);
+            term.getParentTerms().forEach(pt -> collectWithAncestors(pt, target));
         }
     }
 
@@ -516,7 +729,7 @@ public class TermDao extends AssetDao<Term> {
      * root terms from this closure.
      *
      * @param vocabulary The last vocabulary in the vocabulary import chain
-     * @param pageSpec   Page specification
+     * @param pageSpec   Page specification, {@link KeysetPageRequest} is supported
      * @return Matching terms, ordered by their label
      * @see #findAllRoots(Vocabulary, Pageable, Collection)
      */
@@ -524,24 +737,10 @@ public class TermDao extends AssetDao<Term> {
                                                       Collection<URI> includeTerms) {
         Objects.requireNonNull(vocabulary);
         Objects.requireNonNull(pageSpec);
-        TypedQuery<TermDto> query = em.createNativeQuery("SELECT DISTINCT ?term WHERE {" +
-                                                                 "?term a ?type ;" +
-                                                                 "?hasLabel ?label ." +
-                                                                 "?vocabulary ?imports* ?parent ." +
-                                                                 "?parent ?hasGlossary/?hasTerm ?term ." +
-                                                                 "FILTER (lang(?label) = ?labelLang) ." +
-                                                                 "FILTER (?term NOT IN (?included))" +
-                                                                 "} ORDER BY " + orderSentence(config.getLanguage(),
-                                                                                               "?label"),
-                                                         TermDto.class);
-        query = setCommonFindAllRootsQueryParams(query, true);
         try {
-            final List<TermDto> result = executeQueryAndLoadSubTerms(
-                    query.setParameter("vocabulary", vocabulary.getUri())
-                         .setParameter("labelLang", config.getLanguage())
-                         .setParameter("included", includeTerms)
-                         .setFirstResult((int) pageSpec.getOffset())
-                         .setMaxResults(pageSpec.getPageSize()));
+            final List<TermDto> result = loadRoots(
+                    hierarchyIndex.findRoots(importIndex.getImportClosure(vocabulary.getUri()), pageSpec,
+                                             includeTerms));
             result.addAll(loadIncludedTerms(includeTerms));
             return result;
         } catch (RuntimeException e) {
@@ -568,8 +767,7 @@ public class TermDao extends AssetDao<Term> {
                                                                        "FILTER CONTAINS(LCASE(?label), LCASE(?searchString)) ." +
                                                                        "}" +
                                                                        "?term ?inVocabulary ?vocabulary ." +
-                                                                       "} ORDER BY " + orderSentence(
-                                                    config.getLanguage(), "?label"), TermDto.class)
+                                                                       "}", TermDto.class)
                                             .setParameter("type", typeUri)
                                             .setParameter("hasLabel", LABEL_PROP)
                                             .setParameter("inVocabulary", URI.create(
@@ -577,8 +775,9 @@ public class TermDao extends AssetDao<Term> {
                                             .setParameter("vocabulary", vocabulary.getUri())
                                             .setParameter("searchString", searchString, config.getLanguage());
         try {
-            final List<TermDto> terms = executeQueryAndLoadSubTerms(query);
-            terms.forEach(this::loadParentSubTerms);
+            final List<TermDto> terms = new ArrayList<>(query.getResultList());
+            labelCollator.sort(terms, AbstractTerm::getLabel);
+            recursivelyLoadParentTermSubTerms(terms);
             return terms;
         } catch (RuntimeException e) {
             throw new PersistenceException(e);
@@ -600,29 +799,22 @@ public class TermDao extends AssetDao<Term> {
                                                                        "FILTER CONTAINS(LCASE(?label), LCASE(?searchString)) ." +
                                                                        "}" +
                                                                        "?term ?inVocabulary ?vocabulary ." +
-                                                                       "} ORDER BY " + orderSentence(
-                                                    config.getLanguage(), "?label"), TermDto.class)
+                                                                       "}", TermDto.class)
                                             .setParameter("type", typeUri)
                                             .setParameter("hasLabel", LABEL_PROP)
                                             .setParameter("inVocabulary", URI.create(
                                                     cz.cvut.kbss.termit.util.Vocabulary.s_p_je_pojmem_ze_slovniku))
                                             .setParameter("searchString", searchString, config.getLanguage());
         try {
-            final List<TermDto> terms = executeQueryAndLoadSubTerms(query);
-            terms.forEach(this::loadParentSubTerms);
+            final List<TermDto> terms = new ArrayList<>(query.getResultList());
+            labelCollator.sort(terms, AbstractTerm::getLabel);
+            recursivelyLoadParentTermSubTerms(terms);
             return terms;
         } catch (RuntimeException e) {
             throw new PersistenceException(e);
         }
     }
 
-    private void loadParentSubTerms(TermDto parent) {
-        parent.setSubTerms(getSubTerms(parent));
-        if (parent.getParentTerms() != null) {
-            parent.getParentTerms().forEach(this::loadParentSubTerms);
-        }
-    }
-
     /**
      * Finds terms whose label contains the specified search string.
      * <p>
@@ -636,62 +828,181 @@ public class TermDao extends AssetDao<Term> {
         Objects.requireNonNull(searchString);
         Objects.requireNonNull(vocabulary);
         final TypedQuery<TermDto> query = em.createNativeQuery("SELECT DISTINCT ?term WHERE {" +
-                                                                       "?targetVocabulary ?imports* ?vocabulary ." +
+                                                                       SparqlUtils.valuesClause("?vocabulary",
+                                                                                                importIndex.getImportClosure(
+                                                                                                        vocabulary.getUri())) +
                                                                        "?term a ?type ;\n" +
                                                                        "      ?hasLabel ?label ;\n" +
                                                                        "      ?inVocabulary ?vocabulary ." +
                                                                        "FILTER CONTAINS(LCASE(?label), LCASE(?searchString)) .\n" +
-                                                                       "} ORDER BY " + orderSentence(
-                                                    config.getLanguage(), "?label"), TermDto.class)
+                                                                       "}", TermDto.class)
                                             .setParameter("type", typeUri)
                                             .setParameter("hasLabel", LABEL_PROP)
                                             .setParameter("inVocabulary", URI.create(
                                                     cz.cvut.kbss.termit.util.Vocabulary.s_p_je_pojmem_ze_slovniku))
-                                            .setParameter("imports",
-                                                          URI.create(
-                                                                  cz.cvut.kbss.termit.util.Vocabulary.s_p_importuje_slovnik))
-                                            .setParameter("targetVocabulary", vocabulary.getUri())
                                             .setParameter("searchString", searchString, config.getLanguage());
         try {
-            final List<TermDto> terms = executeQueryAndLoadSubTerms(query);
-            terms.forEach(this::loadParentSubTerms);
+            final List<TermDto> terms = new ArrayList<>(query.getResultList());
+            labelCollator.sort(terms, AbstractTerm::getLabel);
+            recursivelyLoadParentTermSubTerms(terms);
             return terms;
         } catch (RuntimeException e) {
             throw new PersistenceException(e);
         }
     }
 
+    /**
+     * Finds terms with a label starting with the specified prefix, for label autocompletion.
+     * <p>
+     * This method searches in the specified vocabulary only. Both preferred and alternative labels in the persistence
+     * unit language are matched, regardless of character case and diacritics. The prefix may match also a word inside
+     * a label.
+     * <p>
+     * Unlike {@link #findAll(String, Vocabulary)}, this method uses an in-memory index and does not load sub-terms of
+     * the results.
+     *
+     * @param prefix     Label prefix
+     * @param vocabulary Vocabulary whose terms should be searched
+     * @param limit      Maximum number of returned terms
+     * @return Matching terms ordered by label
+     */
+    public List<TermDto> findAllByLabelPrefix(String prefix, Vocabulary vocabulary, int limit) {
+        Objects.requireNonNull(prefix);
+        Objects.requireNonNull(vocabulary);
+        return labelIndex.findByLabelPrefix(prefix, Collections.singleton(vocabulary.getUri()),
+                                            config.getLanguage(), limit);
+    }
+
+    /**
+     * Finds terms with a label starting with the specified prefix, for label autocompletion.
+     * <p>
+     * This method searches in the specified vocabulary and all the vocabularies it (transitively) imports.
+     *
+     * @param prefix     Label prefix
+     * @param vocabulary Vocabulary whose terms should be searched
+     * @param limit      Maximum number of returned terms
+     * @return Matching terms ordered by label
+     * @see #findAllByLabelPrefix(String, Vocabulary, int)
+     */
+    public List<TermDto> findAllByLabelPrefixIncludingImported(String prefix, Vocabulary vocabulary, int limit) {
+        Objects.requireNonNull(prefix);
+        Objects.requireNonNull(vocabulary);
+        return labelIndex.findByLabelPrefix(prefix, importIndex.getImportClosure(vocabulary.getUri()),
+                                            config.getLanguage(), limit);
+    }
+
+    /**
+     * Finds terms from all vocabularies with preferred label similar to the specified label.
+     *
+     * @param label       Label to compare terms to
+     * @param languageTag Label language, if {@code null}, the configured language is used
+     * @param minScore    Minimum similarity of returned terms, in range (0, 1]
+     * @param limit       Maximum number of returned terms
+     * @return Similar terms ordered by decreasing similarity
+     * @see TermLabelIndex#findSimilar(String, Collection, String, double, int)
+     */
+    public List<SimilarTerm> findSimilar(String label, String languageTag, double minScore, int limit) {
+        Objects.requireNonNull(label);
+        return labelIndex.findSimilar(label, null, languageTag != null ? languageTag : config.getLanguage(), minScore,
+                                      limit);
+    }
+
+    /**
+     * Finds pairs of terms in the specified vocabulary with similar preferred labels, i.e., possible duplicates.
+     * <p>
+     * At most {@link TermLabelIndex#MAX_DUPLICATES} most similar pairs are returned.
+     *
+     * @param vocabulary  Vocabulary whose terms to compare
+     * @param languageTag Label language, if {@code null}, the configured language is used
+     * @param minScore    Minimum similarity of returned term pairs, in range (0, 1]
+     * @return Pairs of similar terms ordered by decreasing similarity
+     */
+    public List<DuplicateTerms> findDuplicates(Vocabulary vocabulary, String languageTag, double minScore) {
+        Objects.requireNonNull(vocabulary);
+        return labelIndex.findDuplicates(vocabulary.getUri(), languageTag != null ? languageTag : config.getLanguage(),
+                                         minScore);
+    }
+
     /**
      * Checks whether a term with the specified label exists in a vocabulary with the specified URI.
      * <p>
      * Note that this method uses comparison ignoring case, so that two labels differing just in character case are
      * considered same here.
      *
-     * @param label      Label to check
-     * @param vocabulary Vocabulary in which terms will be searched
+     * @param label       Label to check
+     * @param vocabulary  Vocabulary in which terms will be searched
+     * @param languageTag Label language, if {@code null}, the configured language is used
      * @return Whether term with {@code label} already exists in vocabulary
      */
     public boolean existsInVocabulary(String label, Vocabulary vocabulary, String languageTag) {
         Objects.requireNonNull(label);
         Objects.requireNonNull(vocabulary);
+        return labelIndex.containsLabel(label, vocabulary.getUri(),
+                                        languageTag != null ? languageTag : config.getLanguage());
+    }
+
+    /**
+     * Finds which of the specified labels are already used by terms in a vocabulary with the specified URI.
+     * <p>
+     * This is a batch version of {@link #existsInVocabulary(String, Vocabulary, String)}.
+     *
+     * @param labels      Labels to check
+     * @param vocabulary  Vocabulary in which terms will be searched
+     * @param languageTag Label language, if {@code null}, the configured language is used
+     * @return Subset of {@code labels} already used by terms in the vocabulary
+     */
+    public Set<String> findExistingLabels(Collection<String> labels, Vocabulary vocabulary, String languageTag) {
+        Objects.requireNonNull(labels);
+        Objects.requireNonNull(vocabulary);
+        return labelIndex.findExistingLabels(labels, vocabulary.getUri(),
+                                             languageTag != null ? languageTag : config.getLanguage());
+    }
+
+    /**
+     * Finds which of the specified identifiers denote existing terms.
+     * <p>
+     * This is a batch version of {@link #exists(URI)}, existence of up to {@link #VALUES_BATCH_SIZE} terms is
+     * checked by a single query.
+     *
+     * @param ids Term identifiers to check
+     * @return Subset of {@code ids} identifying existing terms
+     */
+    public Set<URI> findExisting(Collection<URI> ids) {
+        Objects.requireNonNull(ids);
+        final List<URI> idList = ids.stream().distinct().collect(Collectors.toList());
+        final Set<URI> result = new HashSet<>(idList.size());
         try {
-            return em.createNativeQuery("ASK { ?term a ?type ; " +
-                                                "?hasLabel ?label ;" +
-                                                "?inVocabulary ?vocabulary ." +
-                                                "FILTER (LCASE(?label) = LCASE(?searchString)) . "
-                                                + "}", Boolean.class)
-                     .setParameter("type", typeUri)
-                     .setParameter("hasLabel", LABEL_PROP)
-                     .setParameter("inVocabulary",
-                                   URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_je_pojmem_ze_slovniku))
-                     .setParameter("vocabulary", vocabulary)
-                     .setParameter("searchString", label,
-                                   languageTag != null ? languageTag : config.getLanguage()).getSingleResult();
+            for (int i = 0; i < idList.size(); i += VALUES_BATCH_SIZE) {
+                final List<URI> batch = idList.subList(i, Math.min(i + VALUES_BATCH_SIZE, idList.size()));
+                result.addAll(em.createNativeQuery("SELECT DISTINCT ?term WHERE {" +
+                                                           SparqlUtils.valuesClause("?term", batch) +
+                                                           "?term a ?type . }", URI.class)
+                                .setParameter("type", typeUri)
+                                .getResultList());
+            }
+            return result;
         } catch (RuntimeException e) {
             throw new PersistenceException(e);
         }
     }
 
+    /**
+     * Finds terms whose definition may contain any of the specified labels, i.e., terms whose definition should be
+     * analyzed again when the labels change.
+     * <p>
+     * This method searches in the specified vocabulary and all the vocabularies it (transitively) imports.
+     *
+     * @param labels     Labels to look for, including their inflected forms
+     * @param vocabulary Vocabulary whose terms should be searched
+     * @return Identifiers of matching terms
+     * @see TermDefinitionIndex#findTermsMentioning(Collection, Collection)
+     */
+    public Set<URI> findAllWithDefinitionMentioning(Collection<MultilingualString> labels, Vocabulary vocabulary) {
+        Objects.requireNonNull(labels);
+        Objects.requireNonNull(vocabulary);
+        return definitionIndex.findTermsMentioning(labels, importIndex.getImportClosure(vocabulary.getUri()));
+    }
+
     /**
      * Gets identifiers of all terms in the specified vocabulary that have no occurrences (file or definitional).
      *
@@ -719,5 +1030,10 @@ public class TermDao extends AssetDao<Term> {
     public void remove(Term entity) {
         super.remove(entity);
         evictCachedSubTerms(entity.getParentTerms(), Collections.emptySet());
+        hierarchyIndex.termRemoved(entity);
+        countIndex.termRemoved(entity.getUri());
+        labelIndex.termRemoved(entity.getUri());
+        fullTextIndex.termRemoved(entity.getUri());
+        definitionIndex.termRemoved(entity.getUri());
     }
 }
@@ -27,6 +27,7 @@ import cz.cvut.kbss.termit.model.Asset;
 import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.model.assignment.TermOccurrence;
 import cz.cvut.kbss.termit.persistence.dao.util.SparqlResultToTermOccurrenceMapper;
+import cz.cvut.kbss.termit.persistence.dao.util.SparqlUtils;
 import cz.cvut.kbss.termit.util.Configuration;
 import cz.cvut.kbss.termit.util.Vocabulary;
 import org.slf4j.Logger;
@@ -34,8 +35,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
 import java.net.URI;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Repository
 public class TermOccurrenceDao extends BaseDao<TermOccurrence> {
@@ -73,6 +74,11 @@ public class TermOccurrenceDao extends BaseDao<TermOccurrence> {
                     "BIND(EXISTS { ?occ a ?suggestedType . } as ?suggested)" +
                     "} GROUP BY ?occ ?type ?term ?target ?suggested ?selector ?exactMatch ?prefix ?suffix ?startPosition ?endPosition";
 
+    /**
+     * Maximum number of occurrences removed by a single update.
+     */
+    private static final int REMOVE_BATCH_SIZE = 500;
+
     private final Configuration.Persistence config;
 
     public TermOccurrenceDao(EntityManager em, Configuration config) {
@@ -198,6 +204,66 @@ public class TermOccurrenceDao extends BaseDao<TermOccurrence> {
         }
     }
 
+    /**
+     * Persists the specified term occurrences (including their targets).
+     * <p>
+     * Occurrences are persisted the same way as by {@link #persist(TermOccurrence)}, only descriptors of their
+     * repository contexts are shared.
+     *
+     * @param occurrences Occurrences to persist
+     */
+    @ModifiesData
+    @Override
+    public void persist(Collection<TermOccurrence> occurrences) {
+        Objects.requireNonNull(occurrences);
+        final Map<URI, Descriptor> descriptors = new HashMap<>(2);
+        try {
+            for (TermOccurrence occurrence : occurrences) {
+                final Descriptor descriptor = descriptors.computeIfAbsent(occurrence.resolveContext(),
+                                                                          EntityDescriptor::new);
+                em.persist(occurrence, descriptor);
+                if (occurrence.getTarget().getUri() == null) {
+                    em.persist(occurrence.getTarget(), descriptor);
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    /**
+     * Removes the specified term occurrences, including their targets and selectors.
+     * <p>
+     * Up to {@link #REMOVE_BATCH_SIZE} occurrences are removed by a single update.
+     *
+     * @param occurrences Occurrences to remove
+     */
+    @ModifiesData
+    public void removeAll(Collection<TermOccurrence> occurrences) {
+        Objects.requireNonNull(occurrences);
+        final List<URI> ids = occurrences.stream().map(TermOccurrence::getUri).filter(Objects::nonNull).distinct()
+                                         .collect(Collectors.toList());
+        try {
+            for (int i = 0; i < ids.size(); i += REMOVE_BATCH_SIZE) {
+                final List<URI> batch = ids.subList(i, Math.min(i + REMOVE_BATCH_SIZE, ids.size()));
+                em.createNativeQuery("DELETE {" +
+                          "?x ?y ?z ." +
+                          "?target ?tY ?tZ ." +
+                          "?selector ?sY ?sZ . " +
+                          "} WHERE {" +
+                          SparqlUtils.valuesClause("?x", batch) +
+                          "?x ?hasTarget ?target ;" +
+                          "?y ?z ." +
+                          "?target ?tY ?tZ ." +
+                          "OPTIONAL { ?target ?hasSelector ?selector . ?selector ?sY ?sZ . } }")
+                  .setParameter("hasTarget", URI.create(Vocabulary.s_p_ma_cil))
+                  .setParameter("hasSelector", URI.create(Vocabulary.s_p_ma_selektor)).executeUpdate();
+            }
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
     /**
      * Removes all suggested term occurrences whose target points to the specified asset.
      *
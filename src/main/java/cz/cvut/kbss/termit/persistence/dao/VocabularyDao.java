@@ -21,12 +21,18 @@ import cz.cvut.kbss.jopa.vocabulary.SKOS;
 import cz.cvut.kbss.termit.asset.provenance.ModifiesData;
 import cz.cvut.kbss.termit.asset.provenance.SupportsLastModification;
 import cz.cvut.kbss.termit.dto.AggregatedChangeInfo;
+import cz.cvut.kbss.termit.dto.TermCounts;
 import cz.cvut.kbss.termit.event.RefreshLastModifiedEvent;
+import cz.cvut.kbss.termit.event.VocabularyMetadataModified;
 import cz.cvut.kbss.termit.exception.PersistenceException;
 import cz.cvut.kbss.termit.model.Glossary;
 import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.model.validation.ValidationResult;
 import cz.cvut.kbss.termit.persistence.DescriptorFactory;
+import cz.cvut.kbss.termit.persistence.dao.hierarchy.TermCountIndex;
+import cz.cvut.kbss.termit.persistence.dao.hierarchy.VocabularyImportIndex;
+import cz.cvut.kbss.termit.persistence.dao.lucene.FullTextIndex;
+import cz.cvut.kbss.termit.persistence.dao.util.SparqlUtils;
 import cz.cvut.kbss.termit.persistence.validation.VocabularyContentValidator;
 import cz.cvut.kbss.termit.util.Configuration;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -54,12 +60,22 @@ public class VocabularyDao extends AssetDao<Vocabulary> implements SupportsLastM
 
     private final ApplicationContext context;
 
+    private final VocabularyImportIndex importIndex;
+
+    private final TermCountIndex countIndex;
+
+    private final FullTextIndex fullTextIndex;
+
     @Autowired
     public VocabularyDao(EntityManager em, Configuration config, DescriptorFactory descriptorFactory,
-                         ApplicationContext context) {
+                         ApplicationContext context, VocabularyImportIndex importIndex,
+                         TermCountIndex countIndex, FullTextIndex fullTextIndex) {
         super(Vocabulary.class, em, config.getPersistence(), descriptorFactory);
         refreshLastModified();
         this.context = context;
+        this.importIndex = importIndex;
+        this.countIndex = countIndex;
+        this.fullTextIndex = fullTextIndex;
     }
 
     @Override
@@ -96,21 +112,15 @@ public class VocabularyDao extends AssetDao<Vocabulary> implements SupportsLastM
 
     /**
      * Gets identifiers of all vocabularies imported by the specified vocabulary, including transitively imported ones.
+     * <p>
+     * The imports are resolved using {@link VocabularyImportIndex}.
      *
      * @param entity Base vocabulary, whose imports should be retrieved
      * @return Collection of (transitively) imported vocabularies
      */
     public Collection<URI> getTransitivelyImportedVocabularies(Vocabulary entity) {
         Objects.requireNonNull(entity);
-        try {
-            return em.createNativeQuery("SELECT DISTINCT ?imported WHERE {" +
-                                                "?x ?imports+ ?imported ." +
-                                                "}", URI.class)
-                     .setParameter("imports", URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_importuje_slovnik))
-                     .setParameter("x", entity.getUri()).getResultList();
-        } catch (RuntimeException e) {
-            throw new PersistenceException(e);
-        }
+        return new HashSet<>(importIndex.getImportedVocabularies(entity.getUri()));
     }
 
     /**
@@ -139,7 +149,11 @@ public class VocabularyDao extends AssetDao<Vocabulary> implements SupportsLastM
         try {
             // Evict possibly cached instance loaded from default context
             em.getEntityManagerFactory().getCache().evict(Vocabulary.class, entity.getUri(), null);
-            return em.merge(entity, descriptorFactory.vocabularyDescriptor(entity));
+            final Vocabulary result = em.merge(entity, descriptorFactory.vocabularyDescriptor(entity));
+            importIndex.importsChanged(entity.getUri(), entity.getImportedVocabularies());
+            fullTextIndex.vocabularySaved(entity);
+            context.publishEvent(new VocabularyMetadataModified(this, entity.getUri()));
+            return result;
         } catch (RuntimeException e) {
             throw new PersistenceException(e);
         }
@@ -151,11 +165,22 @@ public class VocabularyDao extends AssetDao<Vocabulary> implements SupportsLastM
         Objects.requireNonNull(entity);
         try {
             em.persist(entity, descriptorFactory.vocabularyDescriptor(entity));
+            importIndex.importsChanged(entity.getUri(), entity.getImportedVocabularies());
+            fullTextIndex.vocabularySaved(entity);
+            context.publishEvent(new VocabularyMetadataModified(this, entity.getUri()));
         } catch (RuntimeException e) {
             throw new PersistenceException(e);
         }
     }
 
+    @Override
+    public void remove(Vocabulary entity) {
+        super.remove(entity);
+        importIndex.vocabularyRemoved(entity.getUri());
+        fullTextIndex.vocabularyRemoved(entity.getUri());
+        context.publishEvent(new VocabularyMetadataModified(this, entity.getUri()));
+    }
+
     /**
      * Updates glossary contained in the specified vocabulary.
      * <p>
@@ -193,20 +218,16 @@ public class VocabularyDao extends AssetDao<Vocabulary> implements SupportsLastM
         Objects.requireNonNull(subjectVocabulary);
         Objects.requireNonNull(targetVocabulary);
         return em.createNativeQuery("ASK WHERE {" +
+                                            SparqlUtils.valuesClause("?import",
+                                                                     importIndex.getImportClosure(targetVocabulary)) +
                                             "    ?t ?isTermFromVocabulary ?subjectVocabulary ; " +
                                             "       ?hasParentTerm ?parent . " +
                                             "    ?parent ?isTermFromVocabulary ?import . " +
-                                            "    {" +
-                                            "        SELECT ?import WHERE {" +
-                                            "           ?targetVocabulary ?importsVocabulary* ?import . " +
-                                            "} } }", Boolean.class)
+                                            "}", Boolean.class)
                  .setParameter("isTermFromVocabulary",
                                URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_je_pojmem_ze_slovniku))
                  .setParameter("subjectVocabulary", subjectVocabulary)
                  .setParameter("hasParentTerm", URI.create(SKOS.BROADER))
-                 .setParameter("targetVocabulary", targetVocabulary)
-                 .setParameter("importsVocabulary",
-                               URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_importuje_slovnik))
                  .getSingleResult();
     }
 
@@ -269,13 +290,25 @@ public class VocabularyDao extends AssetDao<Vocabulary> implements SupportsLastM
 
     /**
      * Returns the number of all terms in the specified vocabulary.
+     * <p>
+     * The number is served from {@link TermCountIndex}.
      *
      * @param vocabulary Vocabulary whose terms should be counted
      * @return Number of terms in a vocabulary, 0 if the vocabulary is empty or does not exist.
      */
     public Integer getTermCount(Vocabulary vocabulary) {
         Objects.requireNonNull(vocabulary);
-        return em.createQuery("SELECT DISTINCT COUNT(t) FROM Term t WHERE t.vocabulary = :vocabulary", Integer.class)
-                 .setParameter("vocabulary", vocabulary).getSingleResult();
+        return countIndex.getTermCounts(vocabulary.getUri()).getTotal();
+    }
+
+    /**
+     * Returns counts of terms in the specified vocabularies.
+     *
+     * @param vocabularies Identifiers of vocabularies whose terms should be counted
+     * @return Map of vocabulary identifiers to term counts, empty counts are returned for unknown vocabularies
+     */
+    public Map<URI, TermCounts> getTermCounts(Collection<URI> vocabularies) {
+        Objects.requireNonNull(vocabularies);
+        return countIndex.getTermCounts(vocabularies);
     }
 }
@@ -0,0 +1,258 @@
+package cz.cvut.kbss.termit.persistence.dao.hierarchy;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.vocabulary.SKOS;
+import cz.cvut.kbss.termit.dto.TermCounts;
+import cz.cvut.kbss.termit.event.EvictCacheEvent;
+import cz.cvut.kbss.termit.exception.PersistenceException;
+import cz.cvut.kbss.termit.persistence.dao.util.SparqlUtils;
+import cz.cvut.kbss.termit.persistence.dao.util.TransactionalIndexSupport;
+import cz.cvut.kbss.termit.util.Vocabulary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory counters of terms in vocabularies.
+ * <p>
+ * Counters of a vocabulary are loaded lazily on first access (counters of multiple vocabularies are loaded by a single
+ * query) and then kept up to date by {@link cz.cvut.kbss.termit.persistence.dao.TermDao} when terms are persisted,
+ * updated, removed or their status changes. Counters are rebuilt when the cache of the vocabulary is evicted, e.g.,
+ * after a vocabulary import.
+ * <p>
+ * The state relevant for counting (whether a term is a root and whether it is a draft) is tracked for each term, so
+ * that repeated or out-of-order notifications do not skew the counters.
+ * <p>
+ * Should a transaction in which the index was modified be rolled back, the whole index is discarded.
+ */
+@Component
+public class TermCountIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TermCountIndex.class);
+
+    private final EntityManager em;
+
+    private final TransactionalIndexSupport transactions =
+            new TransactionalIndexSupport("term count index", this::evictAll);
+
+    private final Map<URI, VocabularyCounts> counts = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TermCountIndex(EntityManager em) {
+        this.em = em;
+    }
+
+    /**
+     * Gets counts of terms in the specified vocabulary.
+     *
+     * @param vocabulary Vocabulary identifier
+     * @return Term counts, empty counts for an unknown vocabulary
+     */
+    public TermCounts getTermCounts(URI vocabulary) {
+        Objects.requireNonNull(vocabulary);
+        return getTermCounts(Collections.singleton(vocabulary)).get(vocabulary);
+    }
+
+    /**
+     * Gets counts of terms in the specified vocabularies.
+     * <p>
+     * Counters of vocabularies which have not been loaded yet are loaded by a single query.
+     *
+     * @param vocabularies Vocabulary identifiers
+     * @return Map of vocabulary identifiers to term counts
+     */
+    public Map<URI, TermCounts> getTermCounts(Collection<URI> vocabularies) {
+        Objects.requireNonNull(vocabularies);
+        final Set<URI> missing = new HashSet<>();
+        vocabularies.stream().filter(v -> !counts.containsKey(v)).forEach(missing::add);
+        final Map<URI, VocabularyCounts> loaded;
+        if (!missing.isEmpty()) {
+            final long version = transactions.version();
+            loaded = load(missing);
+            transactions.discardOnRollback();
+            if (!transactions.installIfCurrent(version, () -> loaded.forEach(counts::putIfAbsent))) {
+                // A change may have been applied while the counts were loaded, so they may be outdated
+                LOG.trace("Term count index changed while loading counts of vocabularies {}, not caching them.",
+                          missing);
+            }
+        } else {
+            loaded = Collections.emptyMap();
+        }
+        final Map<URI, TermCounts> result = new LinkedHashMap<>(vocabularies.size());
+        vocabularies.forEach(v -> {
+            final VocabularyCounts vc = counts.getOrDefault(v, loaded.get(v));
+            result.put(v, vc != null ? vc.snapshot() : TermCounts.EMPTY);
+        });
+        return result;
+    }
+
+    private Map<URI, VocabularyCounts> load(Set<URI> vocabularies) {
+        LOG.trace("Loading term counts of vocabularies {}.", vocabularies);
+        try {
+            final List<?> rows = em.createNativeQuery("SELECT ?vocabulary ?term ?root ?draft WHERE {" +
+                                                              SparqlUtils.valuesClause("?vocabulary", vocabularies) +
+                                                              "?term a ?type ;" +
+                                                              "?inVocabulary ?vocabulary ." +
+                                                              "BIND (EXISTS { " +
+                                                              "?vocabulary ?hasGlossary/?hasTerm ?term . " +
+                                                              "} AS ?root)" +
+                                                              "OPTIONAL { ?term ?isDraft ?draft . }" +
+                                                              "}")
+                                   .setParameter("type", URI.create(SKOS.CONCEPT))
+                                   .setParameter("inVocabulary", URI.create(Vocabulary.s_p_je_pojmem_ze_slovniku))
+                                   .setParameter("hasGlossary", URI.create(Vocabulary.s_p_ma_glosar))
+                                   .setParameter("hasTerm", URI.create(SKOS.HAS_TOP_CONCEPT))
+                                   .setParameter("isDraft", URI.create(Vocabulary.s_p_je_draft))
+                                   .getResultList();
+            final Map<URI, VocabularyCounts> result = new HashMap<>();
+            vocabularies.forEach(v -> result.put(v, new VocabularyCounts()));
+            for (Object r : rows) {
+                final Object[] row = (Object[]) r;
+                if (row[0] == null) {
+                    // No result
+                    continue;
+                }
+                // Term without draft status is considered a draft
+                final boolean draft = row[3] == null || Boolean.parseBoolean(row[3].toString());
+                result.get((URI) row[0]).set((URI) row[1], Boolean.TRUE.equals(row[2]), draft);
+            }
+            return result;
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    /**
+     * Records the current state of the specified persisted or updated term once the current transaction is
+     * committed.
+     * <p>
+     * If counters of the vocabulary are not loaded, nothing happens, as the term will be counted on load.
+     *
+     * @param term       Term identifier
+     * @param vocabulary Identifier of the vocabulary containing the term
+     * @param root       Whether the term is a root term
+     * @param draft      Whether the term is a draft
+     */
+    public void termSaved(URI term, URI vocabulary, boolean root, boolean draft) {
+        Objects.requireNonNull(term);
+        Objects.requireNonNull(vocabulary);
+        transactions.afterCommit(() -> {
+            final VocabularyCounts vc = counts.get(vocabulary);
+            if (vc != null) {
+                vc.set(term, root, draft);
+            }
+        });
+    }
+
+    /**
+     * Records change of the status of the specified term once the current transaction is committed.
+     *
+     * @param term       Term identifier
+     * @param vocabulary Identifier of the vocabulary containing the term, {@code null} if not known
+     * @param draft      Whether the term is now a draft
+     */
+    public void termStatusChanged(URI term, URI vocabulary, boolean draft) {
+        Objects.requireNonNull(term);
+        transactions.afterCommit(() -> {
+            final Collection<VocabularyCounts> candidates = vocabulary != null ?
+                                                            Collections.singleton(counts.get(vocabulary)) :
+                                                            counts.values();
+            candidates.stream().filter(Objects::nonNull).forEach(vc -> vc.setDraft(term, draft));
+        });
+    }
+
+    /**
+     * Records removal of the specified term once the current transaction is committed.
+     *
+     * @param term Identifier of the removed term
+     */
+    public void termRemoved(URI term) {
+        Objects.requireNonNull(term);
+        transactions.afterCommit(() -> counts.values().forEach(vc -> vc.remove(term)));
+    }
+
+    /**
+     * Discards counters of the specified vocabulary, so that they are reloaded on next access.
+     *
+     * @param vocabulary Vocabulary identifier
+     */
+    public void evict(URI vocabulary) {
+        transactions.invalidate();
+        counts.remove(vocabulary);
+    }
+
+    public void evictAll() {
+        transactions.invalidate();
+        counts.clear();
+    }
+
+    @EventListener
+    public void onEvictCache(EvictCacheEvent evt) {
+        if (evt.isGlobal()) {
+            evictAll();
+        } else {
+            evt.getVocabularies().forEach(this::evict);
+        }
+    }
+
+    /**
+     * Term counters of a single vocabulary.
+     */
+    private static final class VocabularyCounts {
+
+        private static final byte ROOT = 1;
+        private static final byte DRAFT = 2;
+
+        private final Map<URI, Byte> terms = new HashMap<>();
+
+        private int roots;
+
+        private int drafts;
+
+        synchronized void set(URI term, boolean root, boolean draft) {
+            final byte flags = (byte) ((root ? ROOT : 0) | (draft ? DRAFT : 0));
+            update(terms.put(term, flags), flags);
+        }
+
+        synchronized void setDraft(URI term, boolean draft) {
+            final Byte current = terms.get(term);
+            if (current != null) {
+                final byte flags = (byte) (draft ? current | DRAFT : current & ~DRAFT);
+                update(terms.put(term, flags), flags);
+            }
+        }
+
+        synchronized void remove(URI term) {
+            final Byte previous = terms.remove(term);
+            if (previous != null) {
+                adjust(previous, -1);
+            }
+        }
+
+        private void update(Byte previous, byte flags) {
+            if (previous != null) {
+                adjust(previous, -1);
+            }
+            adjust(flags, 1);
+        }
+
+        private void adjust(byte flags, int delta) {
+            if ((flags & ROOT) != 0) {
+                roots += delta;
+            }
+            if ((flags & DRAFT) != 0) {
+                drafts += delta;
+            }
+        }
+
+        synchronized TermCounts snapshot() {
+            return new TermCounts(terms.size(), roots, drafts);
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package cz.cvut.kbss.termit.persistence.dao.hierarchy;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.jopa.vocabulary.SKOS;
+import cz.cvut.kbss.ontodriver.model.LangString;
+import cz.cvut.kbss.termit.event.EvictCacheEvent;
+import cz.cvut.kbss.termit.exception.PersistenceException;
+import cz.cvut.kbss.termit.model.Term;
+import cz.cvut.kbss.termit.persistence.dao.util.SparqlUtils;
+import cz.cvut.kbss.termit.persistence.dao.util.TransactionalIndexSupport;
+import cz.cvut.kbss.termit.util.Configuration;
+import cz.cvut.kbss.termit.util.Utils;
+import cz.cvut.kbss.termit.util.Vocabulary;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.cz.CzechStemFilter;
+import org.apache.lucene.analysis.en.EnglishPossessiveFilter;
+import org.apache.lucene.analysis.en.PorterStemFilter;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory token index of term definitions, used to find definitions which may contain a term label.
+ * <p>
+ * Definitions are split into words, which are lower-cased, reduced to their stems (Czech and English are supported,
+ * words in other languages are kept as they are) and stripped of diacritics. Each resulting token points to the terms
+ * whose definition contains it. A definition may contain a label if it contains all tokens of the label, so inflected
+ * forms of the label words are matched as well. The lookup is intentionally lenient, word order and adjacency are not
+ * checked, as it serves only to narrow down the definitions which need to be analyzed by the text analysis service.
+ * <p>
+ * Definitions of a vocabulary are loaded lazily on first access (definitions of multiple vocabularies are loaded by a
+ * single query) and then kept up to date by {@link cz.cvut.kbss.termit.persistence.dao.TermDao} when terms are
+ * persisted, updated or removed. Definitions are reloaded when the cache of the vocabulary is evicted, e.g., after a
+ * vocabulary import.
+ * <p>
+ * Should a transaction in which the index was modified be rolled back, the whole index is discarded.
+ */
+@Component
+public class TermDefinitionIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TermDefinitionIndex.class);
+
+    private final EntityManager em;
+
+    private final TransactionalIndexSupport transactions =
+            new TransactionalIndexSupport("term definition index", this::evictAll);
+
+    private final String defaultLanguage;
+
+    private final Map<String, Analyzer> analyzers = new ConcurrentHashMap<>();
+
+    private final Map<URI, VocabularyDefinitions> definitions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TermDefinitionIndex(EntityManager em, Configuration config) {
+        this.em = em;
+        this.defaultLanguage = config.getPersistence().getLanguage();
+    }
+
+    /**
+     * Finds terms whose definition may contain any of the specified labels.
+     * <p>
+     * Every language variant of each label is tokenized using the rules of its language.
+     *
+     * @param labels       Labels to look for
+     * @param vocabularies Identifiers of vocabularies whose terms should be searched
+     * @return Identifiers of matching terms
+     */
+    public Set<URI> findTermsMentioning(Collection<MultilingualString> labels, Collection<URI> vocabularies) {
+        Objects.requireNonNull(labels);
+        Objects.requireNonNull(vocabularies);
+        final List<Set<String>> queries = new ArrayList<>();
+        labels.stream().filter(Objects::nonNull).forEach(label -> label.getValue().forEach((language, value) -> {
+            final Set<String> tokens = tokenize(value, language);
+            if (!tokens.isEmpty()) {
+                queries.add(tokens);
+            }
+        }));
+        if (queries.isEmpty()) {
+            return Collections.emptySet();
+        }
+        final Map<URI, VocabularyDefinitions> searched = getDefinitions(vocabularies);
+        final Set<URI> result = new HashSet<>();
+        for (URI vocabulary : vocabularies) {
+            final VocabularyDefinitions vd = searched.get(vocabulary);
+            if (vd != null) {
+                queries.forEach(tokens -> vd.collect(tokens, result));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets definitions of the specified vocabularies, loading the missing ones.
+     *
+     * @return Map of vocabulary identifiers to their definitions
+     */
+    private Map<URI, VocabularyDefinitions> getDefinitions(Collection<URI> vocabularies) {
+        final Set<URI> missing = new HashSet<>();
+        vocabularies.stream().filter(v -> !definitions.containsKey(v)).forEach(missing::add);
+        final Map<URI, VocabularyDefinitions> loaded;
+        if (!missing.isEmpty()) {
+            final long version = transactions.version();
+            loaded = load(missing);
+            transactions.discardOnRollback();
+            if (!transactions.installIfCurrent(version, () -> loaded.forEach(definitions::putIfAbsent))) {
+                // A change may have been applied while the definitions were loaded, so they may be outdated
+                LOG.trace("Term definition index changed while loading definitions of vocabularies {}, " +
+                                  "not caching them.", missing);
+            }
+        } else {
+            loaded = Collections.emptyMap();
+        }
+        final Map<URI, VocabularyDefinitions> result = new HashMap<>(vocabularies.size());
+        vocabularies.forEach(v -> {
+            final VocabularyDefinitions vd = definitions.getOrDefault(v, loaded.get(v));
+            if (vd != null) {
+                result.put(v, vd);
+            }
+        });
+        return result;
+    }
+
+    private Map<URI, VocabularyDefinitions> load(Set<URI> vocabularies) {
+        LOG.trace("Loading term definitions of vocabularies {}.", vocabularies);
+        try {
+            final List<?> rows = em.createNativeQuery("SELECT ?term ?vocabulary ?definition WHERE {" +
+                                                              SparqlUtils.valuesClause("?vocabulary", vocabularies) +
+                                                              "?term a ?type ;" +
+                                                              "?inVocabulary ?vocabulary ;" +
+                                                              "?hasDefinition ?definition ." +
+                                                              "}")
+                                   .setParameter("type", URI.create(SKOS.CONCEPT))
+                                   .setParameter("inVocabulary", URI.create(Vocabulary.s_p_je_pojmem_ze_slovniku))
+                                   .setParameter("hasDefinition", URI.create(SKOS.DEFINITION))
+                                   .getResultList();
+            final Map<URI, VocabularyDefinitions> result = new HashMap<>();
+            vocabularies.forEach(v -> result.put(v, new VocabularyDefinitions()));
+            final Map<URI, Set<String>> terms = new HashMap<>();
+            final Map<URI, URI> termVocabularies = new HashMap<>();
+            for (Object r : rows) {
+                final Object[] row = (Object[]) r;
+                if (row[0] == null) {
+                    // No result
+                    continue;
+                }
+                final String language = row[2] instanceof LangString ?
+                                        ((LangString) row[2]).getLanguage().orElse(null) : null;
+                final String value = row[2] instanceof LangString ? ((LangString) row[2]).getValue() :
+                                     row[2].toString();
+                terms.computeIfAbsent((URI) row[0], k -> new HashSet<>()).addAll(tokenize(value, language));
+                termVocabularies.put((URI) row[0], (URI) row[1]);
+            }
+            terms.forEach((term, tokens) -> result.computeIfAbsent(termVocabularies.get(term),
+                                                                   k -> new VocabularyDefinitions())
+                                                  .put(term, tokens));
+            return result;
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    /**
+     * Records definition of the specified persisted or updated term once the current transaction is committed.
+     * <p>
+     * If definitions of the vocabulary are not loaded, nothing happens, as the term will be indexed on load.
+     *
+     * @param term       The term
+     * @param vocabulary Identifier of the vocabulary containing the term
+     */
+    public void termSaved(Term term, URI vocabulary) {
+        Objects.requireNonNull(term);
+        Objects.requireNonNull(vocabulary);
+        // Definition is tokenized immediately, the term may be further modified before commit
+        final URI uri = term.getUri();
+        final Set<String> tokens = new HashSet<>();
+        if (term.getDefinition() != null) {
+            term.getDefinition().getValue().forEach((language, value) -> tokens.addAll(tokenize(value, language)));
+        }
+        transactions.afterCommit(() -> {
+            final VocabularyDefinitions vd = definitions.get(vocabulary);
+            if (vd != null) {
+                vd.put(uri, tokens);
+            }
+        });
+    }
+
+    /**
+     * Removes the specified term from the index once the current transaction is committed.
+     *
+     * @param term Identifier of the removed term
+     */
+    public void termRemoved(URI term) {
+        Objects.requireNonNull(term);
+        transactions.afterCommit(() -> definitions.values().forEach(vd -> vd.remove(term)));
+    }
+
+    /**
+     * Discards definitions of the specified vocabulary, so that they are reloaded on next access.
+     *
+     * @param vocabulary Vocabulary identifier
+     */
+    public void evict(URI vocabulary) {
+        transactions.invalidate();
+        definitions.remove(vocabulary);
+    }
+
+    public void evictAll() {
+        transactions.invalidate();
+        definitions.clear();
+    }
+
+    @EventListener
+    public void onEvictCache(EvictCacheEvent evt) {
+        if (evt.isGlobal()) {
+            evictAll();
+        } else {
+            evt.getVocabularies().forEach(this::evict);
+        }
+    }
+
+    /**
+     * Splits the specified text into tokens, i.e., lower-cased and stemmed words without diacritics.
+     *
+     * @param text     Text to tokenize
+     * @param language Language of the text, determines the stemming rules. If {@code null}, the default language is
+     *                 used
+     * @return Set of distinct tokens
+     */
+    Set<String> tokenize(String text, String language) {
+        final String lang = language != null ? language : defaultLanguage;
+        final Analyzer analyzer = analyzers.computeIfAbsent(lang, DefinitionAnalyzer::new);
+        final Set<String> result = new HashSet<>();
+        try (final TokenStream ts = analyzer.tokenStream("", text)) {
+            final CharTermAttribute term = ts.addAttribute(CharTermAttribute.class);
+            ts.reset();
+            while (ts.incrementToken()) {
+                result.add(term.toString());
+            }
+            ts.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result;
+    }
+
+    /**
+     * Tokens of definitions of terms in a single vocabulary.
+     */
+    private static final class VocabularyDefinitions {
+
+        // Term identifier -> tokens of its definition
+        private final Map<URI, Set<String>> terms = new HashMap<>();
+
+        // Token -> identifiers of terms whose definition contains it
+        private final Map<String, Set<URI>> postings = new HashMap<>();
+
+        synchronized void put(URI term, Set<String> tokens) {
+            remove(term);
+            if (tokens.isEmpty()) {
+                return;
+            }
+            terms.put(term, tokens);
+            tokens.forEach(t -> postings.computeIfAbsent(t, k -> new HashSet<>()).add(term));
+        }
+
+        synchronized void remove(URI term) {
+            final Set<String> previous = terms.remove(term);
+            Utils.emptyIfNull(previous).forEach(t -> {
+                final Set<URI> tokenTerms = postings.get(t);
+                if (tokenTerms != null && tokenTerms.remove(term) && tokenTerms.isEmpty()) {
+                    postings.remove(t);
+                }
+            });
+        }
+
+        /**
+         * Adds terms whose definition contains all the specified tokens to the result.
+         */
+        synchronized void collect(Set<String> tokens, Set<URI> result) {
+            Set<URI> smallest = null;
+            for (String token : tokens) {
+                final Set<URI> tokenTerms = postings.get(token);
+                if (tokenTerms == null) {
+                    return;
+                }
+                if (smallest == null || tokenTerms.size() < smallest.size()) {
+                    smallest = tokenTerms;
+                }
+            }
+            assert smallest != null;
+            for (URI term : smallest) {
+                if (terms.get(term).containsAll(tokens)) {
+                    result.add(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tokenizes text, lower-cases it, reduces words to their stems and removes diacritics.
+     * <p>
+     * Stemming is applied before removal of diacritics, as the stemmers rely on them.
+     */
+    private static final class DefinitionAnalyzer extends Analyzer {
+
+        private final String language;
+
+        private DefinitionAnalyzer(String language) {
+            // Regional variants, e.g., en-GB, share the rules of the language
+            final int separator = language.indexOf('-');
+            this.language = (separator > 0 ? language.substring(0, separator) : language).toLowerCase(Locale.ROOT);
+        }
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            final Tokenizer source = new StandardTokenizer();
+            TokenStream result = new LowerCaseFilter(source);
+            switch (language) {
+                case "cs":
+                    result = new CzechStemFilter(result);
+                    break;
+                case "en":
+                    result = new PorterStemFilter(new EnglishPossessiveFilter(result));
+                    break;
+                default:
+                    break;
+            }
+            return new TokenStreamComponents(source, new ASCIIFoldingFilter(result));
+        }
+    }
+}
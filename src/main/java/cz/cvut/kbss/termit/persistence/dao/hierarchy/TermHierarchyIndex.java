@@ -0,0 +1,389 @@
+package cz.cvut.kbss.termit.persistence.dao.hierarchy;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.jopa.vocabulary.SKOS;
+import cz.cvut.kbss.ontodriver.model.LangString;
+import cz.cvut.kbss.termit.dto.TermInfo;
+import cz.cvut.kbss.termit.event.EvictCacheEvent;
+import cz.cvut.kbss.termit.exception.PersistenceException;
+import cz.cvut.kbss.termit.model.Term;
+import cz.cvut.kbss.termit.persistence.dao.util.LabelCollator;
+import cz.cvut.kbss.termit.persistence.dao.util.TransactionalIndexSupport;
+import cz.cvut.kbss.termit.util.Configuration;
+import cz.cvut.kbss.termit.util.KeysetPageRequest;
+import cz.cvut.kbss.termit.util.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory index of term hierarchies, one per vocabulary.
+ * <p>
+ * The hierarchy of a vocabulary is built lazily on first access and then kept up to date incrementally by {@link
+ * cz.cvut.kbss.termit.persistence.dao.TermDao} when terms are persisted, updated or removed. Sub-terms and pages of
+ * root terms can thus be resolved without querying the repository.
+ * <p>
+ * Changes of terms are applied to the index only after the transaction in which they were made is committed, so that
+ * concurrent transactions never see uncommitted hierarchy state. Lookups in the modifying transaction itself thus do
+ * not see its changes either. Should a transaction in which a hierarchy was built be rolled back, the whole index is
+ * discarded, as the hierarchy may contain changes which never made it into the repository.
+ */
+@Component
+public class TermHierarchyIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TermHierarchyIndex.class);
+
+    private static final URI TYPE = URI.create(SKOS.CONCEPT);
+
+    private final EntityManager em;
+
+    private final TransactionalIndexSupport transactions =
+            new TransactionalIndexSupport("term hierarchy index", this::evictAll);
+
+    private final LabelCollator labelCollator;
+
+    private final Map<URI, VocabularyHierarchy> hierarchies = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TermHierarchyIndex(EntityManager em, Configuration config) {
+        this.em = em;
+        this.labelCollator = new LabelCollator(config.getPersistence());
+    }
+
+    /**
+     * Gets sub-terms of the specified parent terms from the specified vocabulary.
+     *
+     * @param vocabulary Vocabulary containing the parent terms
+     * @param parents    Identifiers of the parent terms
+     * @return Map of parent identifiers to their sub-terms (in no particular order). Parents which are not in the
+     * specified vocabulary are not present in the map
+     */
+    public Map<URI, List<TermInfo>> findSubTerms(URI vocabulary, Collection<URI> parents) {
+        Objects.requireNonNull(vocabulary);
+        Objects.requireNonNull(parents);
+        final VocabularyHierarchy hierarchy = getHierarchy(vocabulary);
+        final Map<URI, List<TermInfo>> result = new HashMap<>(parents.size());
+        parents.forEach(p -> hierarchy.getSubTerms(p).ifPresent(subTerms -> result.put(p, subTerms)));
+        return result;
+    }
+
+    /**
+     * Gets a page of root terms of the specified vocabulary.
+     * <p>
+     * Roots are ordered by their label in the persistence unit language (see {@link LabelCollator}), with identifier as
+     * a tie breaker. Terms without label in this language are skipped.
+     * <p>
+     * {@link KeysetPageRequest} is supported, in which case the page starts right after the specified position.
+     *
+     * @param vocabulary Vocabulary whose root terms to get
+     * @param pageSpec   Page specification
+     * @param exclude    Identifiers of terms to exclude from the result
+     * @return List of root term identifiers
+     */
+    public List<URI> findRoots(URI vocabulary, Pageable pageSpec, Collection<URI> exclude) {
+        Objects.requireNonNull(vocabulary);
+        Objects.requireNonNull(pageSpec);
+        final VocabularyHierarchy hierarchy = getHierarchy(vocabulary);
+        final Set<URI> toExclude = exclude != null ? new HashSet<>(exclude) : Collections.emptySet();
+        final List<VocabularyHierarchy.Root> roots;
+        if (pageSpec instanceof KeysetPageRequest) {
+            final KeysetPageRequest keyset = (KeysetPageRequest) pageSpec;
+            roots = hierarchy.getRootsAfter(labelCollator.sortKey(keyset.getLastLabel()), keyset.getLastIdentifier(),
+                                            keyset.getOffset(), keyset.getPageSize(), toExclude);
+        } else {
+            roots = hierarchy.getRoots(pageSpec.getOffset(), pageSpec.getPageSize(), toExclude);
+        }
+        return roots.stream().map(VocabularyHierarchy.Root::getIri).collect(Collectors.toList());
+    }
+
+    /**
+     * Gets a page of root terms of the specified vocabularies.
+     * <p>
+     * Roots are ordered the same way as by {@link #findRoots(URI, Pageable, Collection)}. The page is obtained by
+     * merging the sorted roots of the individual vocabularies, so at most offset plus page size roots are read from each
+     * vocabulary. For a {@link KeysetPageRequest}, the offset is counted from the specified position.
+     *
+     * @param vocabularies Vocabularies whose root terms to get
+     * @param pageSpec     Page specification
+     * @param exclude      Identifiers of terms to exclude from the result
+     * @return List of root term identifiers
+     */
+    public List<URI> findRoots(Collection<URI> vocabularies, Pageable pageSpec, Collection<URI> exclude) {
+        Objects.requireNonNull(vocabularies);
+        Objects.requireNonNull(pageSpec);
+        final Set<URI> toExclude = exclude != null ? new HashSet<>(exclude) : Collections.emptySet();
+        // Every term is a member of exactly one hierarchy, so the merged roots contain no duplicates
+        final PriorityQueue<RootCursor> cursors = new PriorityQueue<>();
+        final long offset = pageSpec.getOffset();
+        final int limit = (int) Math.min(Integer.MAX_VALUE, offset + pageSpec.getPageSize());
+        if (pageSpec instanceof KeysetPageRequest) {
+            final KeysetPageRequest keyset = (KeysetPageRequest) pageSpec;
+            final byte[] sortKey = labelCollator.sortKey(keyset.getLastLabel());
+            new HashSet<>(vocabularies).forEach(v -> RootCursor.of(
+                    getHierarchy(v).getRootsAfter(sortKey, keyset.getLastIdentifier(), 0, limit, toExclude))
+                                                               .ifPresent(cursors::add));
+        } else {
+            new HashSet<>(vocabularies).forEach(
+                    v -> RootCursor.of(getHierarchy(v).getRoots(0, limit, toExclude)).ifPresent(cursors::add));
+        }
+        final List<URI> result = new ArrayList<>();
+        long skipped = 0;
+        while (!cursors.isEmpty() && result.size() < pageSpec.getPageSize()) {
+            final RootCursor cursor = cursors.poll();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                result.add(cursor.head.getIri());
+            }
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+        return result;
+    }
+
+    private VocabularyHierarchy getHierarchy(URI vocabulary) {
+        final VocabularyHierarchy existing = hierarchies.get(vocabulary);
+        if (existing != null) {
+            return existing;
+        }
+        final long version = transactions.version();
+        final VocabularyHierarchy hierarchy = build(vocabulary);
+        transactions.discardOnRollback();
+        if (!transactions.installIfCurrent(version, () -> hierarchies.putIfAbsent(vocabulary, hierarchy))) {
+            // A change may have been applied while the hierarchy was built, so it may be outdated
+            LOG.trace("Term hierarchy index changed while building hierarchy of vocabulary {}, not caching it.",
+                      vocabulary);
+            return hierarchy;
+        }
+        final VocabularyHierarchy result = hierarchies.get(vocabulary);
+        return result != null ? result : hierarchy;
+    }
+
+    private VocabularyHierarchy build(URI vocabulary) {
+        LOG.trace("Building term hierarchy index of vocabulary {}.", vocabulary);
+        final VocabularyHierarchy hierarchy = new VocabularyHierarchy(labelCollator::sortKey);
+        try {
+            final List<?> terms = em.createNativeQuery("SELECT ?term ?label ?root WHERE {" +
+                                                               "GRAPH ?vocabulary { " +
+                                                               "?term a ?type ;" +
+                                                               "?hasLabel ?label ." +
+                                                               "BIND (EXISTS { " +
+                                                               "?vocabulary ?hasGlossary/?hasTerm ?term . " +
+                                                               "} AS ?root)" +
+                                                               "}}")
+                                    .setParameter("vocabulary", vocabulary)
+                                    .setParameter("type", TYPE)
+                                    .setParameter("hasLabel", URI.create(SKOS.PREF_LABEL))
+                                    .setParameter("hasGlossary",
+                                                  URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_ma_glosar))
+                                    .setParameter("hasTerm", URI.create(SKOS.HAS_TOP_CONCEPT))
+                                    .getResultList();
+            final Map<URI, MultilingualString> labels = new LinkedHashMap<>();
+            final Set<URI> roots = new HashSet<>();
+            for (Object r : terms) {
+                final Object[] row = (Object[]) r;
+                if (row[0] == null) {
+                    // No result
+                    continue;
+                }
+                addLabel(labels.computeIfAbsent((URI) row[0], k -> new MultilingualString()), row[1]);
+                if (Boolean.TRUE.equals(row[2])) {
+                    roots.add((URI) row[0]);
+                }
+            }
+            labels.forEach((iri, label) -> hierarchy.addTerm(iri, label, vocabulary, true));
+            roots.forEach(iri -> hierarchy.setRoot(iri, true));
+
+            final List<?> edges = em.createNativeQuery("SELECT ?parent ?child ?label ?childVocabulary WHERE {" +
+                                                               "GRAPH ?vocabulary { ?parent a ?type . }" +
+                                                               "?parent ?narrower ?child ." +
+                                                               "?child a ?type ;" +
+                                                               "?hasLabel ?label ;" +
+                                                               "?inVocabulary ?childVocabulary ." +
+                                                               "}")
+                                    .setParameter("vocabulary", vocabulary)
+                                    .setParameter("type", TYPE)
+                                    .setParameter("narrower", URI.create(SKOS.NARROWER))
+                                    .setParameter("hasLabel", URI.create(SKOS.PREF_LABEL))
+                                    .setParameter("inVocabulary", URI.create(
+                                            cz.cvut.kbss.termit.util.Vocabulary.s_p_je_pojmem_ze_slovniku))
+                                    .getResultList();
+            final Map<URI, MultilingualString> childLabels = new HashMap<>();
+            final Map<URI, URI> childVocabularies = new HashMap<>();
+            final Map<URI, Set<URI>> childParents = new LinkedHashMap<>();
+            for (Object r : edges) {
+                final Object[] row = (Object[]) r;
+                if (row[0] == null) {
+                    // No result
+                    continue;
+                }
+                final URI child = (URI) row[1];
+                addLabel(childLabels.computeIfAbsent(child, k -> new MultilingualString()), row[2]);
+                childVocabularies.put(child, (URI) row[3]);
+                childParents.computeIfAbsent(child, k -> new LinkedHashSet<>()).add((URI) row[0]);
+            }
+            childParents.forEach((child, parents) -> {
+                if (!hierarchy.isMember(child)) {
+                    hierarchy.addTerm(child, childLabels.get(child), childVocabularies.get(child), false);
+                }
+                parents.forEach(p -> hierarchy.addEdge(p, child));
+            });
+            return hierarchy;
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    private static void addLabel(MultilingualString label, Object value) {
+        if (value instanceof LangString) {
+            final LangString ls = (LangString) value;
+            label.set(ls.getLanguage().orElse(null), ls.getValue());
+        } else if (value != null) {
+            label.set(value.toString());
+        }
+    }
+
+    /**
+     * Records the specified newly persisted term in the index once the current transaction is committed.
+     *
+     * @param term       Persisted term
+     * @param vocabulary Identifier of the vocabulary into which the term was persisted
+     */
+    public void termPersisted(Term term, URI vocabulary) {
+        Objects.requireNonNull(term);
+        Objects.requireNonNull(vocabulary);
+        final IndexedTerm indexed = new IndexedTerm(term, vocabulary);
+        transactions.afterCommit(() -> addTerm(indexed));
+    }
+
+    private void addTerm(IndexedTerm term) {
+        final VocabularyHierarchy hierarchy = hierarchies.get(term.vocabulary);
+        if (hierarchy != null) {
+            hierarchy.addTerm(term.uri, term.label, term.vocabulary, true);
+            hierarchy.setRoot(term.uri, term.parents.stream().noneMatch(hierarchy::isMember));
+        }
+        hierarchies.values().forEach(h -> term.allParents.stream().filter(h::isMember).forEach(p -> {
+            if (!h.isMember(term.uri)) {
+                h.addTerm(term.uri, term.label, term.vocabulary, false);
+            }
+            h.addEdge(p, term.uri);
+        }));
+    }
+
+    /**
+     * Updates the index with the current state of the specified term once the current transaction is committed.
+     *
+     * @param term Updated term
+     */
+    public void termUpdated(Term term) {
+        Objects.requireNonNull(term);
+        assert term.getVocabulary() != null;
+        final IndexedTerm indexed = new IndexedTerm(term, term.getVocabulary());
+        transactions.afterCommit(() -> {
+            hierarchies.values().forEach(h -> h.detachFromParents(indexed.uri));
+            addTerm(indexed);
+        });
+    }
+
+    /**
+     * Removes the specified term from the index once the current transaction is committed.
+     *
+     * @param term Removed term
+     */
+    public void termRemoved(Term term) {
+        Objects.requireNonNull(term);
+        final URI uri = term.getUri();
+        transactions.afterCommit(() -> hierarchies.values().forEach(h -> h.remove(uri)));
+    }
+
+    /**
+     * Discards hierarchy of the specified vocabulary, so that it is rebuilt on next access.
+     * <p>
+     * This is necessary when the vocabulary content is modified by other means than via the term DAO.
+     *
+     * @param vocabulary Vocabulary identifier
+     */
+    public void evict(URI vocabulary) {
+        transactions.invalidate();
+        hierarchies.remove(vocabulary);
+    }
+
+    public void evictAll() {
+        transactions.invalidate();
+        hierarchies.clear();
+    }
+
+    @EventListener
+    public void onEvictCache(EvictCacheEvent evt) {
+        if (evt.isGlobal()) {
+            evictAll();
+        } else {
+            evt.getVocabularies().forEach(this::evict);
+        }
+    }
+
+    /**
+     * Copy of the term data relevant for the hierarchy, taken when the term is saved, as the term may be further
+     * modified before the change is applied.
+     */
+    private static final class IndexedTerm {
+
+        private final URI uri;
+        private final MultilingualString label;
+        private final URI vocabulary;
+        private final Set<URI> parents;
+        private final Set<URI> allParents;
+
+        private IndexedTerm(Term term, URI vocabulary) {
+            this.uri = term.getUri();
+            this.label = term.getLabel() != null ? new MultilingualString(term.getLabel().getValue()) : null;
+            this.vocabulary = vocabulary;
+            this.parents = Utils.emptyIfNull(term.getParentTerms()).stream().map(Term::getUri)
+                                .collect(Collectors.toSet());
+            this.allParents = Utils.joinCollections(term.getParentTerms(), term.getExternalParentTerms()).stream()
+                                   .map(Term::getUri).collect(Collectors.toSet());
+        }
+    }
+
+    /**
+     * Position in a sorted list of roots of a single hierarchy.
+     */
+    private static final class RootCursor implements Comparable<RootCursor> {
+
+        private final Iterator<VocabularyHierarchy.Root> rest;
+
+        private VocabularyHierarchy.Root head;
+
+        private RootCursor(Iterator<VocabularyHierarchy.Root> rest) {
+            this.rest = rest;
+            this.head = rest.next();
+        }
+
+        private static Optional<RootCursor> of(List<VocabularyHierarchy.Root> roots) {
+            return roots.isEmpty() ? Optional.empty() : Optional.of(new RootCursor(roots.iterator()));
+        }
+
+        private boolean advance() {
+            if (!rest.hasNext()) {
+                return false;
+            }
+            this.head = rest.next();
+            return true;
+        }
+
+        @Override
+        public int compareTo(RootCursor other) {
+            return head.compareTo(other.head);
+        }
+    }
+}
@@ -0,0 +1,795 @@
+package cz.cvut.kbss.termit.persistence.dao.hierarchy;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.jopa.vocabulary.SKOS;
+import cz.cvut.kbss.ontodriver.model.LangString;
+import cz.cvut.kbss.termit.dto.DuplicateTerms;
+import cz.cvut.kbss.termit.dto.SimilarTerm;
+import cz.cvut.kbss.termit.dto.listing.TermDto;
+import cz.cvut.kbss.termit.event.EvictCacheEvent;
+import cz.cvut.kbss.termit.exception.PersistenceException;
+import cz.cvut.kbss.termit.exception.TermItException;
+import cz.cvut.kbss.termit.model.Term;
+import cz.cvut.kbss.termit.persistence.dao.util.LabelCollator;
+import cz.cvut.kbss.termit.persistence.dao.util.LabelSimilarity;
+import cz.cvut.kbss.termit.persistence.dao.util.SparqlUtils;
+import cz.cvut.kbss.termit.persistence.dao.util.TransactionalIndexSupport;
+import cz.cvut.kbss.termit.util.Configuration;
+import cz.cvut.kbss.termit.util.Utils;
+import cz.cvut.kbss.termit.util.Vocabulary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory prefix index of term labels, used for label autocompletion.
+ * <p>
+ * Preferred and alternative labels are indexed per vocabulary and language. Labels are lower-cased and stripped of
+ * diacritics, and every word of a label starts an indexed key, so that a search string matches both label starts and
+ * starts of words inside the label. Keys are kept in sorted maps, so matches of a prefix are found by a range scan.
+ * <p>
+ * Labels of a vocabulary are loaded lazily on first access (labels of multiple vocabularies are loaded by a single
+ * query) and then kept up to date by {@link cz.cvut.kbss.termit.persistence.dao.TermDao} when terms are persisted,
+ * updated, removed or their status changes. Labels are reloaded when the cache of the vocabulary is evicted, e.g.,
+ * after a vocabulary import.
+ * <p>
+ * Besides prefix lookup, the index supports checking for existence of preferred labels, which is used to detect
+ * duplicate labels. Preferred labels are for this purpose only lower-cased and stripped of redundant whitespace.
+ * <p>
+ * Finally, character trigrams of normalized preferred labels are indexed as well, so that terms with labels similar to
+ * a given label (i.e., possible near-duplicates) can be found without comparing the label to all the terms. Such
+ * lookups may span all vocabularies in the repository, in which case labels of all vocabularies are loaded at once.
+ * <p>
+ * Changes of terms are applied to the index only after the transaction in which they were made is committed, so that
+ * concurrent transactions never see uncommitted labels (e.g., reject a label as duplicate although the transaction
+ * using it is eventually rolled back). As a consequence, lookups in the modifying transaction itself do not see its
+ * changes either. Should a transaction in which labels were loaded be rolled back, the whole index is discarded, as
+ * the loaded labels may contain uncommitted changes.
+ */
+@Component
+public class TermLabelIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TermLabelIndex.class);
+
+    /**
+     * Maximum number of term pairs returned by a duplicate report.
+     * <p>
+     * Bounds memory of reports of vocabularies with many similar labels, only the most similar pairs are returned.
+     */
+    public static final int MAX_DUPLICATES = 1000;
+
+    /**
+     * Number of parts into which terms of a vocabulary are split per duplicate report thread, so that the threads are
+     * evenly loaded.
+     */
+    private static final int DUPLICATE_REPORT_PARTS_PER_THREAD = 4;
+
+    private static final int DUPLICATE_REPORT_QUEUE_CAPACITY = 64;
+
+    /**
+     * Language key of labels without language tag. These labels match lookups in any language.
+     */
+    private static final String NO_LANGUAGE = "";
+
+    /**
+     * Separates the label part of an index key from the term identifier.
+     */
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final EntityManager em;
+
+    private final TransactionalIndexSupport transactions =
+            new TransactionalIndexSupport("term label index", this::evictAll);
+
+    private final LabelCollator labelCollator;
+
+    private final Map<URI, VocabularyLabels> labels = new ConcurrentHashMap<>();
+
+    /**
+     * Whether labels of all vocabularies in the repository are loaded.
+     */
+    private volatile boolean complete;
+
+    private final int duplicateReportParallelism;
+
+    // Compares labels for duplicate term reports
+    private final ExecutorService duplicateReportExecutor;
+
+    @Autowired
+    public TermLabelIndex(EntityManager em, Configuration config) {
+        this.em = em;
+        this.labelCollator = new LabelCollator(config.getPersistence());
+        this.duplicateReportParallelism = Math.max(1, config.getGlossary().getDuplicateReportParallelism());
+        this.duplicateReportExecutor = createDuplicateReportExecutor(duplicateReportParallelism);
+    }
+
+    /**
+     * Creates a bounded thread pool for duplicate term reports.
+     * <p>
+     * When the pool and its queue are full, the calling thread compares the labels itself.
+     */
+    private static ExecutorService createDuplicateReportExecutor(int parallelism) {
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("duplicate-report-");
+        threadFactory.setDaemon(true);
+        final ThreadPoolExecutor result = new ThreadPoolExecutor(parallelism, parallelism, 1, TimeUnit.MINUTES,
+                                                                 new ArrayBlockingQueue<>(
+                                                                         DUPLICATE_REPORT_QUEUE_CAPACITY),
+                                                                 threadFactory,
+                                                                 new ThreadPoolExecutor.CallerRunsPolicy());
+        result.allowCoreThreadTimeOut(true);
+        return result;
+    }
+
+    /**
+     * Finds terms with a preferred or alternative label in the specified language matching the specified prefix.
+     * <p>
+     * The prefix is matched against label starts and starts of words in labels, regardless of character case and
+     * diacritics.
+     * <p>
+     * All matching terms are considered, but only the first {@code limit} of them by label are kept during the
+     * lookup.
+     *
+     * @param prefix       Label prefix
+     * @param vocabularies Identifiers of vocabularies whose terms should be searched
+     * @param language     Label language
+     * @param limit        Maximum number of returned terms
+     * @return Matching terms ordered by label
+     */
+    public List<TermDto> findByLabelPrefix(String prefix, Collection<URI> vocabularies, String language, int limit) {
+        Objects.requireNonNull(prefix);
+        Objects.requireNonNull(vocabularies);
+        final String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        final Comparator<IndexedTerm> order = Comparator.comparing((IndexedTerm t) -> t.label,
+                                                                   labelCollator.comparator())
+                                                        .thenComparing(t -> t.uri);
+        // Heap top is the last of the best terms found so far
+        final PriorityQueue<IndexedTerm> best = new PriorityQueue<>(order.reversed());
+        final Set<URI> seen = new HashSet<>();
+        final Consumer<IndexedTerm> candidates = t -> {
+            if (!seen.add(t.uri)) {
+                return;
+            }
+            if (best.size() < limit) {
+                best.add(t);
+            } else if (order.compare(t, best.peek()) < 0) {
+                best.poll();
+                best.add(t);
+            }
+        };
+        getLabels(vocabularies).values().forEach(vl -> {
+            vl.collect(normalized, language, candidates);
+            vl.collect(normalized, NO_LANGUAGE, candidates);
+        });
+        final List<IndexedTerm> sorted = new ArrayList<>(best);
+        sorted.sort(order);
+        return sorted.stream().map(IndexedTerm::toDto).collect(Collectors.toList());
+    }
+
+    /**
+     * Checks whether a term with the specified preferred label exists in the specified vocabulary.
+     * <p>
+     * The label is compared ignoring character case and redundant whitespace. Only labels in the specified language
+     * are considered.
+     *
+     * @param label      Preferred label to look for
+     * @param vocabulary Identifier of the vocabulary whose terms should be checked
+     * @param language   Label language
+     * @return {@code true} if a term with matching label exists, {@code false} otherwise
+     */
+    public boolean containsLabel(String label, URI vocabulary, String language) {
+        Objects.requireNonNull(label);
+        return !findExistingLabels(Collections.singleton(label), vocabulary, language).isEmpty();
+    }
+
+    /**
+     * Finds which of the specified preferred labels are already used by terms in the specified vocabulary.
+     * <p>
+     * This is a batch version of {@link #containsLabel(String, URI, String)}.
+     *
+     * @param toCheck    Preferred labels to look for
+     * @param vocabulary Identifier of the vocabulary whose terms should be checked
+     * @param language   Label language
+     * @return Subset of the specified labels which are used by terms in the vocabulary
+     */
+    public Set<String> findExistingLabels(Collection<String> toCheck, URI vocabulary, String language) {
+        Objects.requireNonNull(toCheck);
+        Objects.requireNonNull(vocabulary);
+        Objects.requireNonNull(language);
+        if (toCheck.isEmpty()) {
+            return Collections.emptySet();
+        }
+        final VocabularyLabels vl = getLabels(Collections.singleton(vocabulary)).get(vocabulary);
+        final Set<String> result = new LinkedHashSet<>();
+        for (String label : toCheck) {
+            if (vl != null && vl.containsLabel(language, foldLabel(label))) {
+                result.add(label);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds terms with preferred label in the specified language similar to the specified label.
+     * <p>
+     * Labels are compared regardless of character case and diacritics. Similarity is based on edit distance of the
+     * labels, see {@link LabelSimilarity#similarity(String, String)}.
+     *
+     * @param label        Label to compare terms to
+     * @param vocabularies Identifiers of vocabularies whose terms should be searched, {@code null} to search all
+     *                     vocabularies
+     * @param language     Label language
+     * @param minScore     Minimum similarity of returned terms, in range (0, 1]
+     * @param limit        Maximum number of returned terms
+     * @return Matching terms ordered by decreasing similarity
+     */
+    public List<SimilarTerm> findSimilar(String label, Collection<URI> vocabularies, String language,
+                                         double minScore, int limit) {
+        Objects.requireNonNull(label);
+        Objects.requireNonNull(language);
+        final String normalized = normalize(label);
+        if (normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        final Collection<VocabularyLabels> searched;
+        if (vocabularies != null) {
+            searched = getLabels(vocabularies).values();
+        } else {
+            searched = getAllLabels();
+        }
+        final Set<String> trigrams = LabelSimilarity.trigrams(normalized);
+        final List<SimilarTerm> result = new ArrayList<>();
+        searched.forEach(vl -> vl.collectSimilar(normalized, trigrams, language, minScore, result));
+        result.sort(Comparator.comparingDouble(SimilarTerm::getScore).reversed()
+                              .thenComparing(st -> st.getTerm().getLabel(), labelCollator.comparator()));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * Finds pairs of terms in the specified vocabulary whose preferred labels in the specified language are similar.
+     * <p>
+     * Labels are compared in the same way as in {@link #findSimilar(String, Collection, String, double, int)}. At
+     * most {@link #MAX_DUPLICATES} most similar pairs are returned.
+     * <p>
+     * Terms of the vocabulary are split into parts compared in parallel on a dedicated bounded thread pool.
+     *
+     * @param vocabulary Identifier of the vocabulary whose terms should be compared
+     * @param language   Label language
+     * @param minScore   Minimum similarity of returned term pairs, in range (0, 1]
+     * @return Pairs of similar terms ordered by decreasing similarity
+     */
+    public List<DuplicateTerms> findDuplicates(URI vocabulary, String language, double minScore) {
+        Objects.requireNonNull(vocabulary);
+        Objects.requireNonNull(language);
+        final VocabularyLabels vl = getLabels(Collections.singleton(vocabulary)).get(vocabulary);
+        if (vl == null) {
+            return Collections.emptyList();
+        }
+        final SimilaritySnapshot snapshot = vl.similaritySnapshot(language);
+        final Comparator<DuplicateTerms> order = Comparator.comparingDouble(DuplicateTerms::getScore).reversed()
+                                                           .thenComparing(d -> d.getFirst().getLabel(),
+                                                                          labelCollator.comparator());
+        final List<IndexedTerm> terms = new ArrayList<>(snapshot.labels.keySet());
+        final int partSize = Math.max(1, (int) Math.ceil(
+                (double) terms.size() / (duplicateReportParallelism * DUPLICATE_REPORT_PARTS_PER_THREAD)));
+        final List<CompletableFuture<PriorityQueue<DuplicateTerms>>> parts = new ArrayList<>();
+        for (int i = 0; i < terms.size(); i += partSize) {
+            final List<IndexedTerm> part = terms.subList(i, Math.min(i + partSize, terms.size()));
+            parts.add(CompletableFuture.supplyAsync(() -> findDuplicates(snapshot, part, minScore, order),
+                                                    duplicateReportExecutor));
+        }
+        final PriorityQueue<DuplicateTerms> best = new PriorityQueue<>(order.reversed());
+        try {
+            parts.forEach(p -> p.join().forEach(d -> offerDuplicate(best, d)));
+        } catch (CompletionException e) {
+            parts.forEach(p -> p.cancel(false));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new TermItException("Duplicate term report failed.", e.getCause());
+        }
+        final List<DuplicateTerms> result = new ArrayList<>(best);
+        result.sort(order);
+        return result;
+    }
+
+    /**
+     * Finds the most similar pairs of the specified terms with any terms of the snapshot.
+     *
+     * @return At most {@link #MAX_DUPLICATES} most similar pairs, the least similar at the head
+     */
+    private static PriorityQueue<DuplicateTerms> findDuplicates(SimilaritySnapshot snapshot, List<IndexedTerm> terms,
+                                                                double minScore, Comparator<DuplicateTerms> order) {
+        final PriorityQueue<DuplicateTerms> best = new PriorityQueue<>(order.reversed());
+        terms.forEach(term -> {
+            final String normalized = snapshot.labels.get(term);
+            snapshot.similar(normalized, LabelSimilarity.trigrams(normalized), minScore).forEach((match, score) -> {
+                if (term.uri.toString().compareTo(match.uri.toString()) >= 0 ||
+                        (best.size() >= MAX_DUPLICATES && score < best.peek().getScore())) {
+                    return;
+                }
+                offerDuplicate(best, new DuplicateTerms(term.toDto(), match.toDto(), score));
+            });
+        });
+        return best;
+    }
+
+    /**
+     * Adds the specified pair to the specified queue, removing the least similar pair if the queue is full.
+     */
+    private static void offerDuplicate(PriorityQueue<DuplicateTerms> best, DuplicateTerms duplicate) {
+        best.add(duplicate);
+        if (best.size() > MAX_DUPLICATES) {
+            best.poll();
+        }
+    }
+
+    /**
+     * Gets labels of all vocabularies, loading them if necessary.
+     */
+    private Collection<VocabularyLabels> getAllLabels() {
+        if (complete) {
+            return new ArrayList<>(labels.values());
+        }
+        final long version = transactions.version();
+        final Map<URI, VocabularyLabels> loaded = load(null);
+        transactions.discardOnRollback();
+        if (!transactions.installIfCurrent(version, () -> {
+            loaded.forEach(labels::putIfAbsent);
+            this.complete = true;
+        })) {
+            // A change may have been applied while the labels were loaded, so they may be outdated
+            LOG.trace("Term label index changed while loading labels, not caching them.");
+            return loaded.values();
+        }
+        return new ArrayList<>(labels.values());
+    }
+
+    /**
+     * Gets labels of the specified vocabularies, loading the missing ones.
+     *
+     * @return Map of vocabulary identifiers to their labels
+     */
+    private Map<URI, VocabularyLabels> getLabels(Collection<URI> vocabularies) {
+        final Set<URI> missing = new HashSet<>();
+        vocabularies.stream().filter(v -> !labels.containsKey(v)).forEach(missing::add);
+        final Map<URI, VocabularyLabels> loaded;
+        if (!missing.isEmpty()) {
+            final long version = transactions.version();
+            loaded = load(missing);
+            transactions.discardOnRollback();
+            if (!transactions.installIfCurrent(version, () -> loaded.forEach(labels::putIfAbsent))) {
+                // A change may have been applied while the labels were loaded, so they may be outdated
+                LOG.trace("Term label index changed while loading labels of vocabularies {}, not caching them.",
+                          missing);
+            }
+        } else {
+            loaded = Collections.emptyMap();
+        }
+        final Map<URI, VocabularyLabels> result = new LinkedHashMap<>(vocabularies.size());
+        vocabularies.forEach(v -> {
+            final VocabularyLabels vl = labels.getOrDefault(v, loaded.get(v));
+            if (vl != null) {
+                result.put(v, vl);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Loads labels of terms from the specified vocabularies, or from all vocabularies if {@code vocabularies} is
+     * {@code null}.
+     */
+    private Map<URI, VocabularyLabels> load(Set<URI> vocabularies) {
+        LOG.trace("Loading term labels of vocabularies {}.", vocabularies != null ? vocabularies : "all");
+        try {
+            final String values = vocabularies != null ? SparqlUtils.valuesClause("?vocabulary", vocabularies) : "";
+            final List<?> rows = em.createNativeQuery("SELECT ?term ?vocabulary ?property ?label ?draft WHERE {" +
+                                                              values +
+                                                              "?term a ?type ;" +
+                                                              "?inVocabulary ?vocabulary ;" +
+                                                              "?property ?label ." +
+                                                              "FILTER (?property IN (?prefLabel, ?altLabel))" +
+                                                              "OPTIONAL { ?term ?isDraft ?draft . }" +
+                                                              "}")
+                                   .setParameter("type", URI.create(SKOS.CONCEPT))
+                                   .setParameter("inVocabulary", URI.create(Vocabulary.s_p_je_pojmem_ze_slovniku))
+                                   .setParameter("prefLabel", URI.create(SKOS.PREF_LABEL))
+                                   .setParameter("altLabel", URI.create(SKOS.ALT_LABEL))
+                                   .setParameter("isDraft", URI.create(Vocabulary.s_p_je_draft))
+                                   .getResultList();
+            final Map<URI, IndexedTerm> terms = new HashMap<>();
+            for (Object r : rows) {
+                final Object[] row = (Object[]) r;
+                if (row[0] == null) {
+                    // No result
+                    continue;
+                }
+                final IndexedTerm term = terms.computeIfAbsent((URI) row[0], k -> new IndexedTerm(k, (URI) row[1]));
+                // Term without draft status is considered a draft
+                term.draft = row[4] == null || Boolean.parseBoolean(row[4].toString());
+                final String language = row[3] instanceof LangString ?
+                                        ((LangString) row[3]).getLanguage().orElse(null) : null;
+                final String value = row[3] instanceof LangString ? ((LangString) row[3]).getValue() :
+                                     row[3].toString();
+                if (SKOS.PREF_LABEL.equals(row[2].toString())) {
+                    term.setLabel(language, value);
+                } else {
+                    term.addAltLabel(language, value);
+                }
+            }
+            final Map<URI, VocabularyLabels> result = new HashMap<>();
+            Utils.emptyIfNull(vocabularies).forEach(v -> result.put(v, new VocabularyLabels()));
+            terms.values().forEach(t -> result.computeIfAbsent(t.vocabulary, k -> new VocabularyLabels()).put(t));
+            return result;
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    /**
+     * Records labels of the specified persisted or updated term once the current transaction is committed.
+     * <p>
+     * If labels of the vocabulary are not loaded, nothing happens, as the term will be indexed on load.
+     *
+     * @param term       The term
+     * @param vocabulary Identifier of the vocabulary containing the term
+     */
+    public void termSaved(Term term, URI vocabulary) {
+        Objects.requireNonNull(term);
+        Objects.requireNonNull(vocabulary);
+        // Labels are copied immediately, the term may be further modified before commit
+        final IndexedTerm indexed = new IndexedTerm(term.getUri(), vocabulary);
+        indexed.draft = term.isDraft();
+        if (term.getLabel() != null) {
+            term.getLabel().getValue().forEach(indexed::setLabel);
+        }
+        Utils.emptyIfNull(term.getAltLabels()).forEach(alt -> alt.getValue().forEach(indexed::addAltLabel));
+        transactions.afterCommit(() -> {
+            final VocabularyLabels vl = labels.get(vocabulary);
+            if (vl != null) {
+                vl.put(indexed);
+            }
+        });
+    }
+
+    /**
+     * Records change of the status of the specified term once the current transaction is committed.
+     *
+     * @param term       Term identifier
+     * @param vocabulary Identifier of the vocabulary containing the term, {@code null} if not known
+     * @param draft      Whether the term is now a draft
+     */
+    public void termStatusChanged(URI term, URI vocabulary, boolean draft) {
+        Objects.requireNonNull(term);
+        transactions.afterCommit(() -> {
+            final Collection<VocabularyLabels> candidates = vocabulary != null ?
+                                                            Collections.singleton(labels.get(vocabulary)) :
+                                                            labels.values();
+            candidates.stream().filter(Objects::nonNull).forEach(vl -> vl.setDraft(term, draft));
+        });
+    }
+
+    /**
+     * Removes the specified term from the index once the current transaction is committed.
+     *
+     * @param term Identifier of the removed term
+     */
+    public void termRemoved(URI term) {
+        Objects.requireNonNull(term);
+        transactions.afterCommit(() -> labels.values().forEach(vl -> vl.remove(term)));
+    }
+
+    /**
+     * Discards labels of the specified vocabulary, so that they are reloaded on next access.
+     *
+     * @param vocabulary Vocabulary identifier
+     */
+    public void evict(URI vocabulary) {
+        transactions.invalidate();
+        this.complete = false;
+        labels.remove(vocabulary);
+    }
+
+    public void evictAll() {
+        transactions.invalidate();
+        this.complete = false;
+        labels.clear();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        duplicateReportExecutor.shutdownNow();
+    }
+
+    @EventListener
+    public void onEvictCache(EvictCacheEvent evt) {
+        if (evt.isGlobal()) {
+            evictAll();
+        } else {
+            evt.getVocabularies().forEach(this::evict);
+        }
+    }
+
+    /**
+     * Normalizes the specified label for indexing and lookup, i.e., lower-cases it, removes diacritics and collapses
+     * whitespace.
+     */
+    static String normalize(String label) {
+        final String decomposed = Normalizer.normalize(label.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return WHITESPACE.matcher(DIACRITICS.matcher(decomposed).replaceAll("")).replaceAll(" ").trim();
+    }
+
+    /**
+     * Folds the specified preferred label for duplicate checks, i.e., lower-cases it and collapses whitespace.
+     * <p>
+     * Unlike {@link #normalize(String)}, diacritics are retained, as labels differing in them may denote different
+     * concepts.
+     */
+    static String foldLabel(String label) {
+        final String composed = Normalizer.normalize(label.toLowerCase(Locale.ROOT), Normalizer.Form.NFC);
+        return WHITESPACE.matcher(composed).replaceAll(" ").trim();
+    }
+
+    /**
+     * Gets parts of the specified normalized label starting at the beginning of each of its words.
+     */
+    static List<String> wordSuffixes(String normalized) {
+        final List<String> result = new ArrayList<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            if (Character.isLetterOrDigit(normalized.charAt(i)) &&
+                    (i == 0 || !Character.isLetterOrDigit(normalized.charAt(i - 1)))) {
+                result.add(normalized.substring(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Labels of terms in a single vocabulary.
+     */
+    private static final class VocabularyLabels {
+
+        private final Map<URI, IndexedTerm> terms = new HashMap<>();
+
+        // Language -> normalized label suffix + separator + term identifier -> term identifier
+        private final Map<String, NavigableMap<String, URI>> keys = new ConcurrentHashMap<>();
+
+        // Language -> folded preferred label -> identifiers of terms with the label
+        private final Map<String, Map<String, Set<URI>>> prefLabels = new HashMap<>();
+
+        // Language -> normalized preferred label trigram -> identifiers of terms with the trigram
+        private final Map<String, Map<String, Set<URI>>> trigrams = new HashMap<>();
+
+        synchronized void put(IndexedTerm term) {
+            remove(term.uri);
+            terms.put(term.uri, term);
+            term.keys().forEach((language, values) -> {
+                final NavigableMap<String, URI> languageKeys = keys.computeIfAbsent(language,
+                                                                                   k -> new ConcurrentSkipListMap<>());
+                values.forEach(v -> languageKeys.put(v, term.uri));
+            });
+            term.label.getValue().forEach((language, value) -> {
+                if (language != null) {
+                    prefLabels.computeIfAbsent(language, k -> new HashMap<>())
+                              .computeIfAbsent(foldLabel(value), k -> new HashSet<>(2)).add(term.uri);
+                    final Map<String, Set<URI>> languageTrigrams = trigrams.computeIfAbsent(language,
+                                                                                            k -> new HashMap<>());
+                    LabelSimilarity.trigrams(normalize(value))
+                                   .forEach(t -> languageTrigrams.computeIfAbsent(t, k -> new HashSet<>())
+                                                                 .add(term.uri));
+                }
+            });
+        }
+
+        synchronized void collectSimilar(String normalized, Set<String> queryTrigrams, String language,
+                                         double minScore, List<SimilarTerm> result) {
+            final Map<String, Set<URI>> languageTrigrams = trigrams.get(language);
+            if (languageTrigrams == null) {
+                return;
+            }
+            final Map<URI, Integer> overlaps = new HashMap<>();
+            queryTrigrams.forEach(t -> languageTrigrams.getOrDefault(t, Collections.emptySet())
+                                                       .forEach(uri -> overlaps.merge(uri, 1, Integer::sum)));
+            overlaps.forEach((uri, overlap) -> {
+                final IndexedTerm term = terms.get(uri);
+                final String candidate = normalize(term.label.get(language));
+                final double score = score(normalized, queryTrigrams.size(), candidate, overlap, minScore);
+                if (score >= minScore) {
+                    result.add(new SimilarTerm(term.toDto(), score));
+                }
+            });
+        }
+
+        synchronized SimilaritySnapshot similaritySnapshot(String language) {
+            final Map<IndexedTerm, String> normalized = new HashMap<>();
+            terms.values().stream().filter(t -> t.label.contains(language))
+                 .forEach(t -> normalized.put(t, normalize(t.label.get(language))));
+            final Map<String, List<IndexedTerm>> postings = new HashMap<>();
+            trigrams.getOrDefault(language, Collections.emptyMap()).forEach(
+                    (t, uris) -> postings.put(t, uris.stream().map(terms::get).collect(Collectors.toList())));
+            return new SimilaritySnapshot(normalized, postings);
+        }
+
+        synchronized boolean containsLabel(String language, String foldedLabel) {
+            final Map<String, Set<URI>> languageLabels = prefLabels.get(language);
+            return languageLabels != null && languageLabels.containsKey(foldedLabel);
+        }
+
+        synchronized void setDraft(URI term, boolean draft) {
+            final IndexedTerm indexed = terms.get(term);
+            if (indexed != null) {
+                indexed.draft = draft;
+            }
+        }
+
+        synchronized void remove(URI term) {
+            final IndexedTerm previous = terms.remove(term);
+            if (previous != null) {
+                previous.keys().forEach((language, values) -> {
+                    final NavigableMap<String, URI> languageKeys = keys.get(language);
+                    if (languageKeys != null) {
+                        values.forEach(languageKeys::remove);
+                    }
+                });
+                previous.label.getValue().forEach((language, value) -> {
+                    final Map<String, Set<URI>> languageTrigrams = trigrams.get(language);
+                    if (languageTrigrams != null) {
+                        LabelSimilarity.trigrams(normalize(value)).forEach(t -> {
+                            final Set<URI> trigramTerms = languageTrigrams.get(t);
+                            if (trigramTerms != null && trigramTerms.remove(term) && trigramTerms.isEmpty()) {
+                                languageTrigrams.remove(t);
+                            }
+                        });
+                    }
+                    final Map<String, Set<URI>> languageLabels = prefLabels.get(language);
+                    if (languageLabels == null) {
+                        return;
+                    }
+                    final String folded = foldLabel(value);
+                    final Set<URI> labelTerms = languageLabels.get(folded);
+                    if (labelTerms != null) {
+                        labelTerms.remove(term);
+                        if (labelTerms.isEmpty()) {
+                            languageLabels.remove(folded);
+                        }
+                    }
+                });
+            }
+        }
+
+        void collect(String prefix, String language, Consumer<IndexedTerm> consumer) {
+            final NavigableMap<String, URI> languageKeys = keys.get(language);
+            if (languageKeys == null) {
+                return;
+            }
+            for (URI uri : languageKeys.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                final IndexedTerm term;
+                synchronized (this) {
+                    term = terms.get(uri);
+                }
+                if (term != null) {
+                    consumer.accept(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes similarity of the specified normalized labels, given the number of their shared trigrams.
+     * <p>
+     * The labels are compared only if they can reach the minimum score, i.e., their lengths and the number of shared
+     * trigrams allow it. Each edit operation changes at most three trigrams of a label.
+     *
+     * @return Similarity of the labels, or {@code 0} if it is certainly lower than {@code minScore}
+     */
+    private static double score(String first, int firstTrigrams, String second, int overlap, double minScore) {
+        final int maxDistance = (int) Math.floor((1.0 - minScore) * Math.max(first.length(), second.length()));
+        if (Math.abs(first.length() - second.length()) > maxDistance || overlap < firstTrigrams - 3 * maxDistance) {
+            return 0;
+        }
+        return LabelSimilarity.similarity(first, second);
+    }
+
+    /**
+     * Immutable copy of normalized preferred labels of terms in a vocabulary and their trigrams, used to compare all
+     * terms of the vocabulary without holding a lock.
+     */
+    private static final class SimilaritySnapshot {
+
+        private final Map<IndexedTerm, String> labels;
+        private final Map<String, List<IndexedTerm>> postings;
+
+        private SimilaritySnapshot(Map<IndexedTerm, String> labels, Map<String, List<IndexedTerm>> postings) {
+            this.labels = labels;
+            this.postings = postings;
+        }
+
+        private Map<IndexedTerm, Double> similar(String normalized, Set<String> queryTrigrams, double minScore) {
+            final Map<IndexedTerm, Integer> overlaps = new HashMap<>();
+            queryTrigrams.forEach(t -> postings.getOrDefault(t, Collections.emptyList())
+                                               .forEach(term -> overlaps.merge(term, 1, Integer::sum)));
+            final Map<IndexedTerm, Double> result = new HashMap<>();
+            overlaps.forEach((term, overlap) -> {
+                final double score = score(normalized, queryTrigrams.size(), labels.get(term), overlap, minScore);
+                if (score >= minScore) {
+                    result.put(term, score);
+                }
+            });
+            return result;
+        }
+    }
+
+    /**
+     * Indexed labels of a term.
+     */
+    private static final class IndexedTerm {
+
+        private final URI uri;
+        private final URI vocabulary;
+        private final MultilingualString label = new MultilingualString();
+        private final Map<String, Set<String>> altLabels = new HashMap<>();
+        private volatile boolean draft;
+
+        private IndexedTerm(URI uri, URI vocabulary) {
+            this.uri = uri;
+            this.vocabulary = vocabulary;
+        }
+
+        private void setLabel(String language, String value) {
+            if (language != null) {
+                label.set(language, value);
+            } else {
+                label.set(value);
+            }
+        }
+
+        private void addAltLabel(String language, String value) {
+            altLabels.computeIfAbsent(language, k -> new HashSet<>()).add(value);
+        }
+
+        /**
+         * Gets index keys of this term's labels, grouped by language.
+         */
+        private Map<String, Set<String>> keys() {
+            final Map<String, Set<String>> result = new HashMap<>();
+            label.getValue().forEach((language, value) -> addKeys(language, value, result));
+            altLabels.forEach((language, values) -> values.forEach(v -> addKeys(language, v, result)));
+            return result;
+        }
+
+        private void addKeys(String language, String value, Map<String, Set<String>> result) {
+            final Set<String> languageKeys = result.computeIfAbsent(language != null ? language : NO_LANGUAGE,
+                                                                    k -> new HashSet<>());
+            wordSuffixes(normalize(value)).forEach(s -> languageKeys.add(s + KEY_SEPARATOR + uri));
+        }
+
+        private TermDto toDto() {
+            final TermDto dto = new TermDto();
+            dto.setUri(uri);
+            dto.setLabel(new MultilingualString(label.getValue()));
+            dto.setVocabulary(vocabulary);
+            dto.setDraft(draft);
+            return dto;
+        }
+    }
+}
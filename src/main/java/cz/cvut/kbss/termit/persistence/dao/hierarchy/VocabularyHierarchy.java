@@ -0,0 +1,327 @@
+package cz.cvut.kbss.termit.persistence.dao.hierarchy;
+
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.termit.dto.TermInfo;
+import cz.cvut.kbss.termit.persistence.dao.util.LabelCollator;
+
+import java.net.URI;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Compact in-memory representation of the term hierarchy of a single vocabulary.
+ * <p>
+ * Terms are assigned integer identifiers and parent/child relationships are stored as adjacency arrays of these
+ * identifiers. Identifiers of removed terms are reused by subsequently added terms. Besides terms of the vocabulary
+ * itself (members), the hierarchy contains also terms from other vocabularies which are children of the members (e.g.,
+ * via {@code skos:broadMatch}), so that sub-terms of members can be resolved completely.
+ * <p>
+ * Instances are thread-safe.
+ */
+class VocabularyHierarchy {
+
+    private static final int[] NONE = new int[0];
+
+    private final Function<MultilingualString, byte[]> sortKeyFunction;
+
+    private final Map<URI, Integer> ids = new HashMap<>();
+
+    private URI[] iris = new URI[16];
+    private MultilingualString[] labels = new MultilingualString[16];
+    private URI[] vocabularies = new URI[16];
+    private byte[][] sortKeys = new byte[16][];
+    private int[][] parents = new int[16][];
+    private int[][] children = new int[16][];
+    private final BitSet members = new BitSet();
+    private final BitSet roots = new BitSet();
+    private int size;
+
+    // Identifiers released by removed terms
+    private final Deque<Integer> freeIds = new ArrayDeque<>();
+
+    /**
+     * Root identifiers ordered by their sort key, computed on demand.
+     */
+    private int[] sortedRoots;
+
+    /**
+     * @param sortKeyFunction Computes sort key from term label. The key may be {@code null}, in which case the term is
+     *                        not listed among roots
+     */
+    VocabularyHierarchy(Function<MultilingualString, byte[]> sortKeyFunction) {
+        this.sortKeyFunction = sortKeyFunction;
+    }
+
+    /**
+     * Adds a term into the hierarchy or updates its basic data if it is already present.
+     *
+     * @param iri        Term identifier
+     * @param label      Term label
+     * @param vocabulary Vocabulary the term belongs to
+     * @param member     Whether the term belongs to the vocabulary represented by this hierarchy. A member is never
+     *                   downgraded to non-member by this method
+     */
+    synchronized void addTerm(URI iri, MultilingualString label, URI vocabulary, boolean member) {
+        Integer id = ids.get(iri);
+        if (id == null) {
+            id = freeIds.isEmpty() ? size++ : freeIds.pop();
+            ensureCapacity(size);
+            ids.put(iri, id);
+            iris[id] = iri;
+            parents[id] = NONE;
+            children[id] = NONE;
+        }
+        labels[id] = label != null ? new MultilingualString(label.getValue()) : new MultilingualString();
+        vocabularies[id] = vocabulary;
+        sortKeys[id] = sortKeyFunction.apply(labels[id]);
+        if (member) {
+            members.set(id);
+        }
+        this.sortedRoots = null;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= iris.length) {
+            return;
+        }
+        final int newLength = Math.max(capacity, iris.length * 2);
+        this.iris = Arrays.copyOf(iris, newLength);
+        this.labels = Arrays.copyOf(labels, newLength);
+        this.vocabularies = Arrays.copyOf(vocabularies, newLength);
+        this.sortKeys = Arrays.copyOf(sortKeys, newLength);
+        this.parents = Arrays.copyOf(parents, newLength);
+        this.children = Arrays.copyOf(children, newLength);
+    }
+
+    synchronized boolean isMember(URI iri) {
+        final Integer id = ids.get(iri);
+        return id != null && members.get(id);
+    }
+
+    synchronized void setRoot(URI iri, boolean root) {
+        final Integer id = ids.get(iri);
+        if (id != null && root != roots.get(id)) {
+            roots.set(id, root);
+            this.sortedRoots = null;
+        }
+    }
+
+    /**
+     * Records that the specified child term has the specified parent. Both terms must already be present.
+     */
+    synchronized void addEdge(URI parent, URI child) {
+        final Integer parentId = ids.get(parent);
+        final Integer childId = ids.get(child);
+        if (parentId == null || childId == null || contains(children[parentId], childId)) {
+            return;
+        }
+        children[parentId] = append(children[parentId], childId);
+        parents[childId] = append(parents[childId], parentId);
+    }
+
+    /**
+     * Removes all parent relationships of the specified term.
+     * <p>
+     * A non-member term which thus becomes disconnected from the hierarchy is removed.
+     */
+    synchronized void detachFromParents(URI iri) {
+        final Integer id = ids.get(iri);
+        if (id == null) {
+            return;
+        }
+        for (int p : parents[id]) {
+            children[p] = without(children[p], id);
+        }
+        parents[id] = NONE;
+        if (!members.get(id)) {
+            removeNode(id);
+        }
+    }
+
+    /**
+     * Removes the specified term from the hierarchy, together with all its relationships.
+     */
+    synchronized void remove(URI iri) {
+        final Integer id = ids.get(iri);
+        if (id == null) {
+            return;
+        }
+        for (int p : parents[id]) {
+            children[p] = without(children[p], id);
+        }
+        for (int c : children[id]) {
+            parents[c] = without(parents[c], id);
+        }
+        removeNode(id);
+    }
+
+    private void removeNode(int id) {
+        ids.remove(iris[id]);
+        iris[id] = null;
+        labels[id] = null;
+        vocabularies[id] = null;
+        sortKeys[id] = null;
+        parents[id] = NONE;
+        children[id] = NONE;
+        members.clear(id);
+        roots.clear(id);
+        freeIds.push(id);
+        this.sortedRoots = null;
+    }
+
+    /**
+     * Gets the number of allocated term identifiers, including the released ones.
+     */
+    synchronized int allocatedIds() {  // Package-private for testing purposes
+        return size;
+    }
+
+    /**
+     * Gets basic info about sub-terms of the specified member term.
+     *
+     * @param parent Parent term identifier
+     * @return Sub-terms (in no particular order), empty {@code Optional} if the specified term is not a member of this
+     * hierarchy
+     */
+    synchronized Optional<List<TermInfo>> getSubTerms(URI parent) {
+        final Integer id = ids.get(parent);
+        if (id == null || !members.get(id)) {
+            return Optional.empty();
+        }
+        final List<TermInfo> result = new ArrayList<>(children[id].length);
+        for (int c : children[id]) {
+            final TermInfo ti = new TermInfo(iris[c]);
+            ti.setLabel(new MultilingualString(labels[c].getValue()));
+            ti.setVocabulary(vocabularies[c]);
+            result.add(ti);
+        }
+        return Optional.of(result);
+    }
+
+    /**
+     * Gets a page of root terms, ordered by their sort keys.
+     *
+     * @param offset  Number of roots to skip
+     * @param limit   Maximum number of roots to return
+     * @param exclude Identifiers of terms to skip
+     * @return List of root terms
+     */
+    synchronized List<Root> getRoots(long offset, int limit, Collection<URI> exclude) {
+        final int[] sorted = getSortedRoots();
+        final List<Root> result = new ArrayList<>(Math.min(limit, sorted.length));
+        long skipped = 0;
+        for (int i = 0; i < sorted.length && result.size() < limit; i++) {
+            final int id = sorted[i];
+            if (exclude.contains(iris[id])) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            result.add(new Root(iris[id], sortKeys[id]));
+        }
+        return result;
+    }
+
+    /**
+     * Gets a page of root terms following the specified position in the order of roots.
+     *
+     * @param afterSortKey Sort key of the last root of the previous page
+     * @param afterIri     Identifier of the last root of the previous page
+     * @param offset       Number of roots following the position to skip
+     * @param limit        Maximum number of roots to return
+     * @param exclude      Identifiers of terms to skip
+     * @return List of root terms
+     */
+    synchronized List<Root> getRootsAfter(byte[] afterSortKey, URI afterIri, long offset, int limit,
+                                          Collection<URI> exclude) {
+        final int[] sorted = getSortedRoots();
+        // Binary search for the first root positioned after the specified key
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (compare(sorted[mid], afterSortKey, afterIri.toString()) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        final List<Root> result = new ArrayList<>(Math.min(limit, sorted.length - low));
+        long skipped = 0;
+        for (int i = low; i < sorted.length && result.size() < limit; i++) {
+            final int id = sorted[i];
+            if (exclude.contains(iris[id])) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            result.add(new Root(iris[id], sortKeys[id]));
+        }
+        return result;
+    }
+
+    private int[] getSortedRoots() {
+        if (sortedRoots == null) {
+            this.sortedRoots = roots.stream().filter(id -> sortKeys[id] != null).boxed()
+                                    .sorted((a, b) -> compare(a, sortKeys[b], iris[b].toString()))
+                                    .mapToInt(Integer::intValue).toArray();
+        }
+        return sortedRoots;
+    }
+
+    private int compare(int id, byte[] sortKey, String iri) {
+        return compare(sortKeys[id], iris[id].toString(), sortKey, iri);
+    }
+
+    private static int compare(byte[] sortKeyA, String iriA, byte[] sortKeyB, String iriB) {
+        final int result = LabelCollator.compare(sortKeyA, sortKeyB);
+        return result != 0 ? result : iriA.compareTo(iriB);
+    }
+
+    private static boolean contains(int[] arr, int value) {
+        for (int v : arr) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] append(int[] arr, int value) {
+        final int[] result = Arrays.copyOf(arr, arr.length + 1);
+        result[arr.length] = value;
+        return result;
+    }
+
+    private static int[] without(int[] arr, int value) {
+        return Arrays.stream(arr).filter(v -> v != value).toArray();
+    }
+
+    /**
+     * Root term together with its sort key, so that roots of different hierarchies can be ordered together.
+     */
+    static final class Root implements Comparable<Root> {
+
+        private final URI iri;
+
+        private final byte[] sortKey;
+
+        private Root(URI iri, byte[] sortKey) {
+            this.iri = iri;
+            this.sortKey = sortKey;
+        }
+
+        URI getIri() {
+            return iri;
+        }
+
+        @Override
+        public int compareTo(Root other) {
+            return compare(sortKey, iri.toString(), other.sortKey, other.iri.toString());
+        }
+    }
+}
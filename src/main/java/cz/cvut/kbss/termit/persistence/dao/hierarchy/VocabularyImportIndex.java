@@ -0,0 +1,286 @@
+package cz.cvut.kbss.termit.persistence.dao.hierarchy;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.termit.event.EvictCacheEvent;
+import cz.cvut.kbss.termit.exception.PersistenceException;
+import cz.cvut.kbss.termit.persistence.dao.util.SparqlUtils;
+import cz.cvut.kbss.termit.persistence.dao.util.TransactionalIndexSupport;
+import cz.cvut.kbss.termit.util.Vocabulary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory index of the vocabulary import graph.
+ * <p>
+ * The graph of all vocabularies and their (direct) imports is loaded lazily on first access. Transitive closures of the
+ * import relationship, both of imported and importing vocabularies, are precomputed, so that they can be used instead
+ * of SPARQL property paths, which are expensive to evaluate.
+ * <p>
+ * The index is kept up to date by {@link cz.cvut.kbss.termit.persistence.dao.VocabularyDao} when vocabularies are
+ * persisted, updated or removed. When a vocabulary unknown to the index is requested, the index is reloaded, as the
+ * vocabulary might have been created by other means (e.g., a direct repository import). Vocabularies not found even
+ * after the reload are remembered, so that repeated requests for them do not cause further reloads, until a vocabulary
+ * is persisted or updated.
+ * <p>
+ * Cache eviction scoped to specific vocabularies reloads only imports of these vocabularies.
+ * <p>
+ * Should a transaction in which the index was modified be rolled back, the whole index is discarded.
+ */
+@Component
+public class VocabularyImportIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VocabularyImportIndex.class);
+
+    /**
+     * Maximum number of remembered unknown vocabularies.
+     */
+    private static final int MAX_UNKNOWN = 1024;
+
+    private final EntityManager em;
+
+    private final TransactionalIndexSupport transactions =
+            new TransactionalIndexSupport("vocabulary import index", this::evictAll);
+
+    // Immutable snapshot, replaced on every change
+    private volatile ImportGraph graph;
+
+    // Vocabularies not found in the repository when the graph was last reloaded because of them
+    private final Set<URI> unknown = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public VocabularyImportIndex(EntityManager em) {
+        this.em = em;
+    }
+
+    /**
+     * Gets identifiers of vocabularies (transitively) imported by the specified vocabulary.
+     *
+     * @param vocabulary Vocabulary identifier
+     * @return Unmodifiable set of imported vocabularies, empty if the vocabulary imports nothing or does not exist
+     */
+    public Set<URI> getImportedVocabularies(URI vocabulary) {
+        Objects.requireNonNull(vocabulary);
+        return getGraph(vocabulary).imported.getOrDefault(vocabulary, Collections.emptySet());
+    }
+
+    /**
+     * Gets identifiers of vocabularies which (transitively) import the specified vocabulary.
+     *
+     * @param vocabulary Vocabulary identifier
+     * @return Unmodifiable set of importing vocabularies, empty if the vocabulary is not imported or does not exist
+     */
+    public Set<URI> getImportingVocabularies(URI vocabulary) {
+        Objects.requireNonNull(vocabulary);
+        return getGraph(vocabulary).importing.getOrDefault(vocabulary, Collections.emptySet());
+    }
+
+    /**
+     * Gets the specified vocabulary together with all the vocabularies it (transitively) imports.
+     * <p>
+     * This corresponds to the {@code ?vocabulary ?imports* ?imported} property path.
+     *
+     * @param vocabulary Vocabulary identifier
+     * @return New set containing the vocabulary and its imports
+     */
+    public Set<URI> getImportClosure(URI vocabulary) {
+        final Set<URI> result = new HashSet<>(getImportedVocabularies(vocabulary));
+        result.add(vocabulary);
+        return result;
+    }
+
+    /**
+     * Gets identifiers of all vocabularies in the repository.
+     *
+     * @return Unmodifiable set of vocabulary identifiers
+     */
+    public Set<URI> getVocabularies() {
+        ImportGraph current = graph;
+        if (current == null) {
+            current = load();
+            transactions.discardOnRollback();
+            this.graph = current;
+        }
+        return Collections.unmodifiableSet(current.edges.keySet());
+    }
+
+    private ImportGraph getGraph(URI vocabulary) {
+        final ImportGraph current = graph;
+        if (current != null && (current.contains(vocabulary) || unknown.contains(vocabulary))) {
+            return current;
+        }
+        final ImportGraph loaded = load();
+        transactions.discardOnRollback();
+        this.graph = loaded;
+        if (!loaded.contains(vocabulary)) {
+            if (unknown.size() >= MAX_UNKNOWN) {
+                unknown.clear();
+            }
+            unknown.add(vocabulary);
+        }
+        return loaded;
+    }
+
+    private ImportGraph load() {
+        LOG.trace("Loading vocabulary import graph.");
+        return new ImportGraph(loadEdges(null));
+    }
+
+    /**
+     * Loads direct imports of the specified vocabularies, or of all vocabularies if {@code vocabularies} is {@code
+     * null}.
+     * <p>
+     * Vocabularies which do not exist are not contained in the result.
+     */
+    private Map<URI, Set<URI>> loadEdges(Collection<URI> vocabularies) {
+        try {
+            final List<?> rows = em.createNativeQuery("SELECT ?vocabulary ?imported WHERE {" +
+                                                              (vocabularies != null ?
+                                                               SparqlUtils.valuesClause("?vocabulary",
+                                                                                        vocabularies) : "") +
+                                                              "?vocabulary a ?type ." +
+                                                              "OPTIONAL { ?vocabulary ?imports ?imported . }" +
+                                                              "}")
+                                   .setParameter("type", URI.create(Vocabulary.s_c_slovnik))
+                                   .setParameter("imports", URI.create(Vocabulary.s_p_importuje_slovnik))
+                                   .getResultList();
+            final Map<URI, Set<URI>> edges = new HashMap<>();
+            for (Object r : rows) {
+                final Object[] row = (Object[]) r;
+                if (row[0] == null) {
+                    // No result
+                    continue;
+                }
+                final Set<URI> imports = edges.computeIfAbsent((URI) row[0], k -> new HashSet<>());
+                if (row[1] != null) {
+                    imports.add((URI) row[1]);
+                }
+            }
+            return edges;
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    /**
+     * Sets direct imports of the specified persisted or updated vocabulary.
+     *
+     * @param vocabulary Vocabulary identifier
+     * @param imports    Vocabularies directly imported by the vocabulary, possibly {@code null}
+     */
+    public void importsChanged(URI vocabulary, Collection<URI> imports) {
+        Objects.requireNonNull(vocabulary);
+        final Set<URI> newImports = imports != null ? new HashSet<>(imports) : Collections.emptySet();
+        // A new vocabulary may also make some of the unknown imported vocabularies known
+        unknown.clear();
+        update(Collections.singleton(vocabulary), edges -> edges.put(vocabulary, newImports));
+    }
+
+    /**
+     * Removes the specified vocabulary from the index.
+     *
+     * @param vocabulary Identifier of the removed vocabulary
+     */
+    public void vocabularyRemoved(URI vocabulary) {
+        Objects.requireNonNull(vocabulary);
+        update(Collections.singleton(vocabulary), edges -> edges.remove(vocabulary));
+    }
+
+    /**
+     * Reloads imports of the specified vocabularies from the repository.
+     * <p>
+     * This should be used when the vocabularies might have been modified bypassing {@link
+     * cz.cvut.kbss.termit.persistence.dao.VocabularyDao}.
+     *
+     * @param vocabularies Identifiers of vocabularies to reload
+     */
+    public void refresh(Collection<URI> vocabularies) {
+        Objects.requireNonNull(vocabularies);
+        if (graph == null || vocabularies.isEmpty()) {
+            return;
+        }
+        final Map<URI, Set<URI>> reloaded = loadEdges(vocabularies);
+        unknown.removeAll(vocabularies);
+        update(vocabularies, edges -> {
+            vocabularies.forEach(edges::remove);
+            edges.putAll(reloaded);
+        });
+    }
+
+    private synchronized void update(Collection<URI> vocabularies, Consumer<Map<URI, Set<URI>>> change) {
+        final ImportGraph current = graph;
+        if (current == null) {
+            // Not loaded yet, will be loaded with the change already present in the repository
+            return;
+        }
+        transactions.discardOnRollback();
+        LOG.trace("Updating vocabulary import graph for vocabularies {}.", vocabularies);
+        final Map<URI, Set<URI>> edges = new HashMap<>(current.edges);
+        change.accept(edges);
+        this.graph = new ImportGraph(edges);
+    }
+
+    public void evictAll() {
+        this.graph = null;
+        unknown.clear();
+    }
+
+    /**
+     * Discards the index on global cache eviction, as it may have been caused by vocabulary data being modified
+     * directly in the repository.
+     * <p>
+     * Eviction scoped to specific vocabularies reloads only these vocabularies.
+     */
+    @EventListener
+    public void onEvictCache(EvictCacheEvent evt) {
+        if (evt.isGlobal()) {
+            evictAll();
+        } else {
+            refresh(evt.getVocabularies());
+        }
+    }
+
+    /**
+     * Immutable import graph with precomputed transitive closures.
+     */
+    private static final class ImportGraph {
+
+        private final Map<URI, Set<URI>> edges;
+
+        private final Map<URI, Set<URI>> imported = new HashMap<>();
+
+        private final Map<URI, Set<URI>> importing = new HashMap<>();
+
+        private ImportGraph(Map<URI, Set<URI>> edges) {
+            this.edges = edges;
+            final Map<URI, Set<URI>> reverse = new HashMap<>();
+            edges.forEach((v, imports) -> imports.forEach(i -> reverse.computeIfAbsent(i, k -> new HashSet<>())
+                                                                      .add(v)));
+            edges.keySet().forEach(v -> imported.put(v, closure(v, edges)));
+            reverse.keySet().forEach(v -> importing.put(v, closure(v, reverse)));
+        }
+
+        private static Set<URI> closure(URI start, Map<URI, Set<URI>> adjacency) {
+            final Set<URI> visited = new HashSet<>();
+            final Deque<URI> toVisit = new ArrayDeque<>(adjacency.getOrDefault(start, Collections.emptySet()));
+            while (!toVisit.isEmpty()) {
+                final URI next = toVisit.pop();
+                if (visited.add(next)) {
+                    toVisit.addAll(adjacency.getOrDefault(next, Collections.emptySet()));
+                }
+            }
+            return Collections.unmodifiableSet(visited);
+        }
+
+        private boolean contains(URI vocabulary) {
+            return edges.containsKey(vocabulary) || importing.containsKey(vocabulary);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package cz.cvut.kbss.termit.persistence.dao.lucene;
+
+import cz.cvut.kbss.termit.dto.FullTextSearchResult;
+import cz.cvut.kbss.termit.dto.FullTextSearchSpec;
+import cz.cvut.kbss.termit.model.Term;
+import cz.cvut.kbss.termit.model.Vocabulary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+
+/**
+ * No-op full text index used when the repository provides its own text index.
+ */
+@Component
+@Profile("lucene | test")
+public class DisabledFullTextIndex implements FullTextIndex {
+
+    @Override
+    public Page<FullTextSearchResult> search(String searchString, FullTextSearchSpec spec) {
+        return Page.empty(spec.getPageSpec());
+    }
+
+    @Override
+    public void termSaved(Term term, URI vocabulary) {
+        // Do nothing
+    }
+
+    @Override
+    public void termStatusChanged(URI term, boolean draft) {
+        // Do nothing
+    }
+
+    @Override
+    public void termRemoved(URI term) {
+        // Do nothing
+    }
+
+    @Override
+    public void vocabularySaved(Vocabulary vocabulary) {
+        // Do nothing
+    }
+
+    @Override
+    public void vocabularyRemoved(URI vocabulary) {
+        // Do nothing
+    }
+
+    @Override
+    public void rebuild() {
+        // Do nothing
+    }
+}
@@ -0,0 +1,678 @@
+package cz.cvut.kbss.termit.persistence.dao.lucene;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.jopa.vocabulary.DC;
+import cz.cvut.kbss.jopa.vocabulary.SKOS;
+import cz.cvut.kbss.ontodriver.model.LangString;
+import cz.cvut.kbss.termit.dto.FullTextSearchResult;
+import cz.cvut.kbss.termit.dto.FullTextSearchSpec;
+import cz.cvut.kbss.termit.event.EvictCacheEvent;
+import cz.cvut.kbss.termit.exception.PersistenceException;
+import cz.cvut.kbss.termit.model.Term;
+import cz.cvut.kbss.termit.model.Vocabulary;
+import cz.cvut.kbss.termit.persistence.dao.util.SparqlUtils;
+import cz.cvut.kbss.termit.util.Configuration;
+import cz.cvut.kbss.termit.util.Utils;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.ReaderUtil;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermInSetQuery;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.highlight.Highlighter;
+import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
+import org.apache.lucene.search.highlight.NullFragmenter;
+import org.apache.lucene.search.highlight.QueryScorer;
+import org.apache.lucene.search.highlight.SimpleFragmenter;
+import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Full text index of term labels, alternative labels, definitions and vocabulary titles stored in an embedded Lucene
+ * index on the local disk.
+ * <p>
+ * This index is used when the repository does not provide a text index of its own (i.e., the {@code lucene} profile is
+ * not active), so that full text search does not have to scan all labels in the repository.
+ * <p>
+ * The index is opened lazily and built from the repository content if it does not exist yet. Changes done by the DAOs
+ * are applied after the transaction in which they were made commits. Vocabularies affected by a scoped cache eviction
+ * (e.g., after a vocabulary import, which bypasses the DAOs) are re-indexed. Global eviction does not trigger a rebuild
+ * of the index, as it would be too expensive, {@link #rebuild()} can be used instead.
+ * <p>
+ * Should an update of the index fail, the index is rebuilt on next use, as it no longer reflects the repository.
+ */
+@Component
+@Profile("!lucene & !test")
+public class EmbeddedFullTextIndex implements FullTextIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmbeddedFullTextIndex.class);
+
+    /**
+     * Maximum number of results returned by a search.
+     */
+    static final int MAX_RESULTS = 1000;
+
+    static final String URI_FIELD = "uri";
+    static final String TYPE_FIELD = "type";
+    static final String VOCABULARY_FIELD = "vocabulary";
+    static final String DRAFT_FIELD = "draft";
+    static final String DISPLAY_LABEL_FIELD = "displayLabel";
+    static final String LABEL_FIELD = "label";
+    static final String ALT_LABEL_FIELD = "altLabel";
+    static final String DEFINITION_FIELD = "definition";
+
+    /**
+     * Searched fields with their boosts, in the order in which they are used for snippets.
+     */
+    private static final Map<String, Float> SEARCH_FIELDS = new LinkedHashMap<>();
+
+    static {
+        SEARCH_FIELDS.put(LABEL_FIELD, 3.0f);
+        SEARCH_FIELDS.put(ALT_LABEL_FIELD, 2.0f);
+        SEARCH_FIELDS.put(DEFINITION_FIELD, 1.0f);
+    }
+
+    private static final float PREFIX_BOOST_FACTOR = 0.5f;
+
+    private static final float LABEL_PHRASE_BOOST = 5.0f;
+
+    private static final int DEFINITION_SNIPPET_SIZE = 150;
+
+    private final EntityManager em;
+
+    private final Configuration.Persistence config;
+
+    private final Path indexPath;
+
+    private final Analyzer analyzer = new IndexAnalyzer();
+
+    private Directory directory;
+
+    private IndexWriter writer;
+
+    private SearcherManager searcherManager;
+
+    private boolean rebuildRequired;
+
+    @Autowired
+    public EmbeddedFullTextIndex(EntityManager em, Configuration config) {
+        this(em, config.getPersistence(), resolveIndexPath(config));
+    }
+
+    EmbeddedFullTextIndex(EntityManager em, Configuration.Persistence config, Path indexPath) {
+        this.em = em;
+        this.config = config;
+        this.indexPath = indexPath;
+    }
+
+    private static Path resolveIndexPath(Configuration config) {
+        if (config.getSearch().getIndexDirectory() != null) {
+            return Paths.get(config.getSearch().getIndexDirectory());
+        }
+        final Path storage = Paths.get(config.getFile().getStorage()).toAbsolutePath();
+        return storage.resolveSibling(storage.getFileName() + "-search-index");
+    }
+
+    private synchronized void ensureOpen() throws IOException {
+        if (writer != null) {
+            return;
+        }
+        LOG.debug("Opening full text index in {}.", indexPath);
+        Files.createDirectories(indexPath);
+        this.directory = FSDirectory.open(indexPath);
+        this.rebuildRequired |= !DirectoryReader.indexExists(directory);
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer).setOpenMode(
+                IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    private synchronized void ensureReady() throws IOException {
+        ensureOpen();
+        if (rebuildRequired) {
+            rebuildIndex();
+        }
+    }
+
+    @Override
+    public Page<FullTextSearchResult> search(String searchString, FullTextSearchSpec spec) {
+        Objects.requireNonNull(searchString);
+        Objects.requireNonNull(spec);
+        final List<String> tokens = tokenize(searchString);
+        if (tokens.isEmpty()) {
+            return Page.empty(spec.getPageSpec());
+        }
+        final boolean prefixLast = !Character.isWhitespace(searchString.charAt(searchString.length() - 1));
+        final Query query = buildQuery(tokens, prefixLast);
+        final Query restricted = restrictToVocabularies(query, spec.getVocabularies());
+        LOG.trace("Running full text search for search string \"{}\", using query {}.", searchString, restricted);
+        final Pageable pageSpec = spec.getPageSpec();
+        // Only the top hits up to the end of the requested page are needed, unless the hits have to be filtered
+        final boolean window = spec.isWindowed() && spec.getMinScore() == null && !spec.isUnpaged();
+        final int limit = window ? (int) Math.min(pageSpec.getOffset() + pageSpec.getPageSize(), MAX_RESULTS) :
+                          MAX_RESULTS;
+        try {
+            ensureReady();
+            final IndexSearcher searcher = searcherManager.acquire();
+            try {
+                final TopDocs topDocs = searcher.search(restricted, limit);
+                ScoreDoc[] hits = topDocs.scoreDocs;
+                if (spec.getMinScore() != null) {
+                    hits = Arrays.stream(hits).filter(h -> h.score >= spec.getMinScore()).toArray(ScoreDoc[]::new);
+                }
+                final Map<String, Highlighter> highlighters = createHighlighters(query);
+                if (spec.isWindowed()) {
+                    // Snippets are created only for hits on the requested page
+                    final int from = (int) Math.min(pageSpec.getOffset(), hits.length);
+                    final int to = (int) Math.min((long) from + pageSpec.getPageSize(), hits.length);
+                    final List<FullTextSearchResult> content = new ArrayList<>(to - from);
+                    for (int i = from; i < to; i++) {
+                        content.add(toResult(searcher, hits[i], highlighters));
+                    }
+                    return new PageImpl<>(content, pageSpec, window ? topDocs.totalHits : hits.length);
+                }
+                final List<FullTextSearchResult> result = new ArrayList<>(hits.length);
+                for (ScoreDoc hit : hits) {
+                    result.add(toResult(searcher, hit, highlighters));
+                }
+                return spec.apply(result);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException | InvalidTokenOffsetsException e) {
+            throw new PersistenceException("Unable to search the full text index.", e);
+        }
+    }
+
+    private List<String> tokenize(String text) {
+        final List<String> tokens = new ArrayList<>();
+        try (final TokenStream stream = analyzer.tokenStream(LABEL_FIELD, text)) {
+            final CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new PersistenceException("Unable to analyze search string.", e);
+        }
+        return tokens;
+    }
+
+    /**
+     * Every token has to match in at least one of the searched fields. The last token is matched also as a prefix,
+     * unless the search string ends with a whitespace. Exact phrase matches in labels are preferred.
+     */
+    private static Query buildQuery(List<String> tokens, boolean prefixLast) {
+        final BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (int i = 0; i < tokens.size(); i++) {
+            final String token = tokens.get(i);
+            final boolean prefix = prefixLast && i == tokens.size() - 1;
+            final BooleanQuery.Builder tokenQuery = new BooleanQuery.Builder();
+            SEARCH_FIELDS.forEach((field, boost) -> {
+                final org.apache.lucene.index.Term term = new org.apache.lucene.index.Term(field, token);
+                tokenQuery.add(new BoostQuery(new TermQuery(term), boost), BooleanClause.Occur.SHOULD);
+                if (prefix) {
+                    tokenQuery.add(new BoostQuery(new PrefixQuery(term), boost * PREFIX_BOOST_FACTOR),
+                                   BooleanClause.Occur.SHOULD);
+                }
+            });
+            builder.add(tokenQuery.build(), BooleanClause.Occur.MUST);
+        }
+        if (tokens.size() > 1) {
+            builder.add(new BoostQuery(new PhraseQuery(LABEL_FIELD, tokens.toArray(new String[0])),
+                                       LABEL_PHRASE_BOOST), BooleanClause.Occur.SHOULD);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Restricts the specified query to the specified vocabularies and their terms, so that hits from other
+     * vocabularies are not scored at all.
+     *
+     * @param vocabularies Vocabularies to restrict the query to, {@code null} if the query should not be restricted
+     */
+    private static Query restrictToVocabularies(Query query, Collection<URI> vocabularies) {
+        if (vocabularies == null) {
+            return query;
+        }
+        final List<BytesRef> values = vocabularies.stream().map(v -> new BytesRef(v.toString()))
+                                                  .collect(Collectors.toList());
+        final Query scope = new BooleanQuery.Builder()
+                .add(new TermInSetQuery(VOCABULARY_FIELD, values), BooleanClause.Occur.SHOULD)
+                .add(new TermInSetQuery(URI_FIELD, values), BooleanClause.Occur.SHOULD)
+                .build();
+        return new BooleanQuery.Builder().add(query, BooleanClause.Occur.MUST)
+                                         .add(scope, BooleanClause.Occur.FILTER)
+                                         .build();
+    }
+
+    private static Map<String, Highlighter> createHighlighters(Query query) {
+        final Map<String, Highlighter> result = new HashMap<>(SEARCH_FIELDS.size());
+        SEARCH_FIELDS.keySet().forEach(field -> {
+            final Highlighter highlighter = new Highlighter(new SimpleHTMLFormatter("<em>", "</em>"),
+                                                            new QueryScorer(query, field));
+            highlighter.setTextFragmenter(DEFINITION_FIELD.equals(field) ?
+                                          new SimpleFragmenter(DEFINITION_SNIPPET_SIZE) : new NullFragmenter());
+            result.put(field, highlighter);
+        });
+        return result;
+    }
+
+    private FullTextSearchResult toResult(IndexSearcher searcher, ScoreDoc hit, Map<String, Highlighter> highlighters)
+            throws IOException, InvalidTokenOffsetsException {
+        final Document doc = searcher.doc(hit.doc);
+        final String displayLabel = doc.get(DISPLAY_LABEL_FIELD);
+        String snippetField = LABEL_FIELD;
+        String snippetText = displayLabel;
+        outer:
+        for (String field : SEARCH_FIELDS.keySet()) {
+            for (String value : doc.getValues(field)) {
+                final String fragment = highlighters.get(field).getBestFragment(analyzer, field, value);
+                if (fragment != null) {
+                    snippetField = field;
+                    snippetText = fragment;
+                    break outer;
+                }
+            }
+        }
+        final String vocabulary = doc.get(VOCABULARY_FIELD);
+        return new FullTextSearchResult(URI.create(doc.get(URI_FIELD)), displayLabel,
+                                        vocabulary != null ? URI.create(vocabulary) : null,
+                                        readDraft(searcher, hit.doc), doc.get(TYPE_FIELD), snippetField,
+                                        snippetText, (double) hit.score);
+    }
+
+    private static Boolean readDraft(IndexSearcher searcher, int docId) throws IOException {
+        final List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+        final LeafReaderContext leaf = leaves.get(ReaderUtil.subIndex(docId, leaves));
+        final NumericDocValues values = leaf.reader().getNumericDocValues(DRAFT_FIELD);
+        if (values == null || !values.advanceExact(docId - leaf.docBase)) {
+            return null;
+        }
+        return values.longValue() != 0;
+    }
+
+    @Override
+    public void termSaved(Term term, URI vocabulary) {
+        Objects.requireNonNull(term);
+        Objects.requireNonNull(vocabulary);
+        final IndexedAsset asset = new IndexedAsset(term.getUri(), URI.create(SKOS.CONCEPT), vocabulary);
+        asset.draft = term.isDraft();
+        addValues(term.getLabel(), asset::addLabel);
+        Utils.emptyIfNull(term.getAltLabels()).forEach(alt -> addValues(alt, (lang, v) -> asset.altLabels.add(v)));
+        addValues(term.getDefinition(), (lang, v) -> asset.definitions.add(v));
+        final Document doc = asset.toDocument();
+        afterCommit(w -> w.updateDocument(uriTerm(term.getUri()), doc));
+    }
+
+    private static void addValues(MultilingualString str, BiConsumer<String, String> consumer) {
+        if (str != null) {
+            str.getValue().forEach(consumer);
+        }
+    }
+
+    @Override
+    public void termStatusChanged(URI term, boolean draft) {
+        Objects.requireNonNull(term);
+        afterCommit(w -> w.updateNumericDocValue(uriTerm(term), DRAFT_FIELD, draft ? 1 : 0));
+    }
+
+    @Override
+    public void termRemoved(URI term) {
+        Objects.requireNonNull(term);
+        afterCommit(w -> w.deleteDocuments(uriTerm(term)));
+    }
+
+    @Override
+    public void vocabularySaved(Vocabulary vocabulary) {
+        Objects.requireNonNull(vocabulary);
+        final IndexedAsset asset = new IndexedAsset(vocabulary.getUri(),
+                                                    URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_c_slovnik),
+                                                    null);
+        if (vocabulary.getLabel() != null) {
+            asset.addLabel(null, vocabulary.getLabel());
+        }
+        final Document doc = asset.toDocument();
+        afterCommit(w -> w.updateDocument(uriTerm(vocabulary.getUri()), doc));
+    }
+
+    @Override
+    public void vocabularyRemoved(URI vocabulary) {
+        Objects.requireNonNull(vocabulary);
+        afterCommit(w -> w.deleteDocuments(uriTerm(vocabulary), vocabularyTerm(vocabulary)));
+    }
+
+    private static org.apache.lucene.index.Term uriTerm(URI uri) {
+        return new org.apache.lucene.index.Term(URI_FIELD, uri.toString());
+    }
+
+    private static org.apache.lucene.index.Term vocabularyTerm(URI vocabulary) {
+        return new org.apache.lucene.index.Term(VOCABULARY_FIELD, vocabulary.toString());
+    }
+
+    /**
+     * Applies the specified update after the current transaction commits, or immediately if there is no transaction.
+     */
+    private void afterCommit(IndexUpdate update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applySafely(Collections.singletonList(update));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<IndexUpdate> pending = (List<IndexUpdate>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            final List<IndexUpdate> toApply = pending;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applySafely(toApply);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(EmbeddedFullTextIndex.this);
+                }
+            });
+        }
+        pending.add(update);
+    }
+
+    private void applySafely(List<IndexUpdate> updates) {
+        try {
+            apply(updates);
+        } catch (IOException | RuntimeException e) {
+            // The data have already been committed, so do not fail the operation because of the index
+            LOG.error("Unable to update full text index. The index will be rebuilt on next use.", e);
+            markForRebuild();
+        }
+    }
+
+    private synchronized void markForRebuild() {
+        this.rebuildRequired = true;
+        if (writer != null && !writer.isOpen()) {
+            // The writer has been closed due to the failure, reopen the index on next use
+            try {
+                close();
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Unable to close full text index.", e);
+                this.writer = null;
+            }
+        }
+    }
+
+    private synchronized void apply(List<IndexUpdate> updates) throws IOException {
+        ensureOpen();
+        for (IndexUpdate update : updates) {
+            update.apply(writer);
+        }
+        writer.commit();
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    @Override
+    public synchronized void rebuild() {
+        try {
+            ensureOpen();
+            rebuildIndex();
+        } catch (IOException e) {
+            throw new PersistenceException("Unable to rebuild the full text index.", e);
+        }
+    }
+
+    private synchronized void rebuildIndex() throws IOException {
+        LOG.info("Building full text index...");
+        final Collection<IndexedAsset> assets = load(null);
+        writer.deleteAll();
+        for (IndexedAsset asset : assets) {
+            writer.addDocument(asset.toDocument());
+        }
+        writer.commit();
+        searcherManager.maybeRefreshBlocking();
+        this.rebuildRequired = false;
+        LOG.info("Full text index built, {} assets indexed.", assets.size());
+    }
+
+    /**
+     * Re-indexes the specified vocabularies and their terms.
+     *
+     * @param vocabularies Identifiers of vocabularies to re-index
+     */
+    synchronized void reindex(Collection<URI> vocabularies) throws IOException {
+        ensureOpen();
+        if (rebuildRequired) {
+            // The whole index will be built on first use
+            return;
+        }
+        LOG.debug("Re-indexing vocabularies {}.", vocabularies);
+        final Collection<IndexedAsset> assets = load(vocabularies);
+        for (URI vocabulary : vocabularies) {
+            writer.deleteDocuments(uriTerm(vocabulary), vocabularyTerm(vocabulary));
+        }
+        for (IndexedAsset asset : assets) {
+            writer.addDocument(asset.toDocument());
+        }
+        writer.commit();
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    /**
+     * Loads indexed values of terms and vocabularies from the repository.
+     *
+     * @param vocabularies Vocabularies to load (together with their terms), {@code null} to load everything
+     */
+    private Collection<IndexedAsset> load(Collection<URI> vocabularies) {
+        try {
+            final String termValues = vocabularies != null ?
+                                      SparqlUtils.valuesClause("?vocabulary", vocabularies) : "";
+            final String vocabularyValues = vocabularies != null ?
+                                            SparqlUtils.valuesClause("?entity", vocabularies) : "";
+            final String query = "SELECT ?entity ?type ?vocabulary ?draft ?property ?value WHERE {" +
+                    "{" + termValues +
+                    "?entity a ?term ;" +
+                    "?inVocabulary ?vocabulary ;" +
+                    "?property ?value ." +
+                    "FILTER (?property IN (?prefLabel, ?altLabel, ?definition))" +
+                    "OPTIONAL { ?entity ?isDraft ?draft . }" +
+                    "BIND (?term AS ?type)" +
+                    "} UNION {" + vocabularyValues +
+                    "?entity a ?vocabularyType ;" +
+                    "?title ?value ." +
+                    "BIND (?title AS ?property)" +
+                    "BIND (?vocabularyType AS ?type)" +
+                    "}}";
+            final List<?> rows = em.createNativeQuery(query)
+                                   .setParameter("term", URI.create(SKOS.CONCEPT))
+                                   .setParameter("inVocabulary", URI.create(
+                                           cz.cvut.kbss.termit.util.Vocabulary.s_p_je_pojmem_ze_slovniku))
+                                   .setParameter("prefLabel", URI.create(SKOS.PREF_LABEL))
+                                   .setParameter("altLabel", URI.create(SKOS.ALT_LABEL))
+                                   .setParameter("definition", URI.create(SKOS.DEFINITION))
+                                   .setParameter("isDraft",
+                                                 URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_p_je_draft))
+                                   .setParameter("vocabularyType",
+                                                 URI.create(cz.cvut.kbss.termit.util.Vocabulary.s_c_slovnik))
+                                   .setParameter("title", URI.create(DC.Terms.TITLE))
+                                   .getResultList();
+            final Map<URI, IndexedAsset> result = new LinkedHashMap<>();
+            for (Object r : rows) {
+                final Object[] row = (Object[]) r;
+                if (row[0] == null) {
+                    // No result
+                    continue;
+                }
+                final IndexedAsset asset = result.computeIfAbsent((URI) row[0],
+                                                                  k -> new IndexedAsset(k, (URI) row[1], (URI) row[2]));
+                if (row[3] != null) {
+                    asset.draft = Boolean.parseBoolean(row[3].toString());
+                } else if (asset.vocabulary != null) {
+                    // Term without draft status is considered a draft
+                    asset.draft = true;
+                }
+                final String property = row[4].toString();
+                final String language = row[5] instanceof LangString ?
+                                        ((LangString) row[5]).getLanguage().orElse(null) : null;
+                final String value = row[5] instanceof LangString ? ((LangString) row[5]).getValue() :
+                                     row[5].toString();
+                if (SKOS.ALT_LABEL.equals(property)) {
+                    asset.altLabels.add(value);
+                } else if (SKOS.DEFINITION.equals(property)) {
+                    asset.definitions.add(value);
+                } else {
+                    asset.addLabel(language, value);
+                }
+            }
+            return result.values();
+        } catch (RuntimeException e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    /**
+     * Re-indexes vocabularies affected by a scoped cache eviction, as their data might have been modified directly in
+     * the repository.
+     */
+    @EventListener
+    public void onEvictCache(EvictCacheEvent evt) {
+        if (evt.isGlobal()) {
+            return;
+        }
+        try {
+            reindex(evt.getVocabularies());
+        } catch (IOException e) {
+            LOG.error("Unable to re-index vocabularies {}.", evt.getVocabularies(), e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        LOG.debug("Closing full text index.");
+        searcherManager.close();
+        writer.close();
+        directory.close();
+        this.writer = null;
+    }
+
+    @FunctionalInterface
+    private interface IndexUpdate {
+        void apply(IndexWriter writer) throws IOException;
+    }
+
+    /**
+     * Values of a term or vocabulary to be indexed.
+     */
+    private final class IndexedAsset {
+
+        private final URI uri;
+        private final URI type;
+        private final URI vocabulary;
+        private Boolean draft;
+        private String displayLabel;
+        private final Set<String> labels = new LinkedHashSet<>();
+        private final Set<String> altLabels = new LinkedHashSet<>();
+        private final Set<String> definitions = new LinkedHashSet<>();
+
+        private IndexedAsset(URI uri, URI type, URI vocabulary) {
+            this.uri = uri;
+            this.type = type;
+            this.vocabulary = vocabulary;
+        }
+
+        /**
+         * Label in the configured language is preferred as the display label.
+         */
+        private void addLabel(String language, String label) {
+            labels.add(label);
+            if (displayLabel == null || Objects.equals(config.getLanguage(), language)) {
+                this.displayLabel = label;
+            }
+        }
+
+        private Document toDocument() {
+            final Document doc = new Document();
+            doc.add(new StringField(URI_FIELD, uri.toString(), Field.Store.YES));
+            doc.add(new StringField(TYPE_FIELD, type.toString(), Field.Store.YES));
+            if (vocabulary != null) {
+                doc.add(new StringField(VOCABULARY_FIELD, vocabulary.toString(), Field.Store.YES));
+            }
+            if (draft != null) {
+                doc.add(new NumericDocValuesField(DRAFT_FIELD, draft ? 1 : 0));
+            }
+            doc.add(new StoredField(DISPLAY_LABEL_FIELD, displayLabel != null ? displayLabel : uri.toString()));
+            labels.forEach(v -> doc.add(new TextField(LABEL_FIELD, v, Field.Store.YES)));
+            altLabels.forEach(v -> doc.add(new TextField(ALT_LABEL_FIELD, v, Field.Store.YES)));
+            definitions.forEach(v -> doc.add(new TextField(DEFINITION_FIELD, v, Field.Store.YES)));
+            return doc;
+        }
+    }
+
+    /**
+     * Tokenizes text, lower-cases it and removes diacritics, so that search is case and accent insensitive.
+     */
+    private static final class IndexAnalyzer extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            final Tokenizer source = new StandardTokenizer();
+            return new TokenStreamComponents(source, new ASCIIFoldingFilter(new LowerCaseFilter(source)));
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    }
+}
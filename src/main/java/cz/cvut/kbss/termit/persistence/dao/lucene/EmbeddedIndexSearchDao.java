@@ -0,0 +1,42 @@
+package cz.cvut.kbss.termit.persistence.dao.lucene;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.termit.dto.FullTextSearchResult;
+import cz.cvut.kbss.termit.dto.FullTextSearchSpec;
+import cz.cvut.kbss.termit.persistence.dao.SearchDao;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Repository;
+
+import java.util.Objects;
+
+/**
+ * {@link SearchDao} extension for repositories without a text index, which uses the {@link EmbeddedFullTextIndex}
+ * instead of scanning all labels in the repository.
+ */
+@Repository
+@Primary
+@Profile("!lucene & !test")
+public class EmbeddedIndexSearchDao extends SearchDao {
+
+    private final FullTextIndex index;
+
+    @Autowired
+    public EmbeddedIndexSearchDao(EntityManager em, Configuration config, FullTextIndex index) {
+        super(em, config);
+        this.index = index;
+    }
+
+    @Override
+    public Page<FullTextSearchResult> fullTextSearch(String searchString, FullTextSearchSpec spec) {
+        Objects.requireNonNull(searchString);
+        Objects.requireNonNull(spec);
+        if (searchString.isBlank()) {
+            return Page.empty(spec.getPageSpec());
+        }
+        return index.search(searchString, spec);
+    }
+}
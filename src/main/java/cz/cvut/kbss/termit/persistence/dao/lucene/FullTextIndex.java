@@ -0,0 +1,84 @@
+package cz.cvut.kbss.termit.persistence.dao.lucene;
+
+import cz.cvut.kbss.termit.dto.FullTextSearchResult;
+import cz.cvut.kbss.termit.dto.FullTextSearchSpec;
+import cz.cvut.kbss.termit.model.Term;
+import cz.cvut.kbss.termit.model.Vocabulary;
+import org.springframework.data.domain.Page;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Full text index of terms and vocabularies maintained by the application itself.
+ * <p>
+ * It is used for repositories without a text index of their own. The index is kept up to date by the DAOs when terms
+ * and vocabularies are modified.
+ */
+public interface FullTextIndex {
+
+    /**
+     * Finds terms and vocabularies matching the specified search string.
+     * <p>
+     * The last token of the search string is matched as a prefix, so that results for incomplete words are returned as
+     * well.
+     *
+     * @param searchString The string to search by
+     * @return Matching results ordered by descending score
+     */
+    default List<FullTextSearchResult> search(String searchString) {
+        return search(searchString, FullTextSearchSpec.DEFAULT).getContent();
+    }
+
+    /**
+     * Finds terms and vocabularies matching the specified search string, returning only the specified part of the
+     * results.
+     *
+     * @param searchString The string to search by
+     * @param spec         Specification of the returned results
+     * @return Page of matching results ordered by descending score, including the total number of matches
+     */
+    Page<FullTextSearchResult> search(String searchString, FullTextSearchSpec spec);
+
+    /**
+     * Indexes the specified persisted or updated term.
+     *
+     * @param term       Term to index
+     * @param vocabulary Identifier of the vocabulary containing the term
+     */
+    void termSaved(Term term, URI vocabulary);
+
+    /**
+     * Records change of the draft status of the specified term.
+     *
+     * @param term  Term identifier
+     * @param draft Whether the term is now a draft
+     */
+    void termStatusChanged(URI term, boolean draft);
+
+    /**
+     * Removes the specified term from the index.
+     *
+     * @param term Identifier of the removed term
+     */
+    void termRemoved(URI term);
+
+    /**
+     * Indexes the specified persisted or updated vocabulary.
+     *
+     * @param vocabulary Vocabulary to index
+     */
+    void vocabularySaved(Vocabulary vocabulary);
+
+    /**
+     * Removes the specified vocabulary and its terms from the index.
+     *
+     * @param vocabulary Identifier of the removed vocabulary
+     */
+    void vocabularyRemoved(URI vocabulary);
+
+    /**
+     * Rebuilds the whole index from the repository content.
+     */
+    void rebuild();
+}
@@ -15,21 +15,18 @@
 package cz.cvut.kbss.termit.persistence.dao.lucene;
 
 import cz.cvut.kbss.jopa.model.EntityManager;
-import cz.cvut.kbss.jopa.vocabulary.SKOS;
+import cz.cvut.kbss.jopa.model.query.Query;
 import cz.cvut.kbss.termit.dto.FullTextSearchResult;
+import cz.cvut.kbss.termit.dto.FullTextSearchSpec;
 import cz.cvut.kbss.termit.persistence.dao.SearchDao;
 import cz.cvut.kbss.termit.util.Configuration;
 import cz.cvut.kbss.termit.util.Configuration.Persistence;
-import cz.cvut.kbss.termit.util.Vocabulary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
-import java.net.URI;
-import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * {@link SearchDao} extension for Lucene-based repositories. These support rich search strings with wildcards and
@@ -37,6 +34,10 @@ import java.util.Objects;
  * <p>
  * This DAO automatically adds a wildcard to the last token in the search string, so that results for incomplete words
  * are returned as well.
+ * <p>
+ * The repository only finds the raw hits. Their snippets are highlighted and they are rescored (exact and label matches
+ * are preferred) by {@link SearchResultRescorer}, so the top hits are retrieved, rescored and then filtered (including
+ * minimum score) and paged.
  */
 @Repository
 @Profile("lucene")  // Corresponds to a profile set in pom.xml
@@ -48,32 +49,42 @@ public class LuceneSearchDao extends SearchDao {
 
     private final Persistence config;
 
+    private final SearchResultRescorer rescorer = new SearchResultRescorer();
+
     public LuceneSearchDao(EntityManager em, Configuration config) {
-        super(em);
+        super(em, config);
         this.config = config.getPersistence();
     }
 
     @Override
-    public List<FullTextSearchResult> fullTextSearch(String searchString) {
-        Objects.requireNonNull(searchString);
-        if (searchString.isBlank()) {
-            return Collections.emptyList();
-        }
+    protected Query prepareSearchQuery(Query query, String searchString, FullTextSearchSpec spec) {
         final String wildcardString = addWildcard(searchString);
-        final String exactMatch = splitExactMatch(searchString);
-        LOG.trace("Running full text search for search string \"{}\", using wildcard variant \"{}\".", searchString,
-                  wildcardString);
-        return (List<FullTextSearchResult>) em.createNativeQuery(ftsQuery, "FullTextSearchResult")
-                                              .setParameter("term", URI.create(SKOS.CONCEPT))
-                                              .setParameter("vocabulary", URI.create(Vocabulary.s_c_slovnik))
-                                              .setParameter("inVocabulary",
-                                                            URI.create(Vocabulary.s_p_je_pojmem_ze_slovniku))
-                                              .setParameter("isDraft", URI.create(Vocabulary.s_p_je_draft))
-                                              .setParameter("searchString", searchString, null)
-                                              .setParameter("wildCardSearchString", wildcardString, null)
-                                              .setParameter("splitExactMatch", exactMatch, null)
-                                              .setParameter("langTag", config.getLanguage(), null)
-                                              .getResultList();
+        LOG.trace("Using wildcard variant \"{}\" of search string \"{}\".", wildcardString, searchString);
+        return super.prepareSearchQuery(query, searchString, spec)
+                    .setParameter("wildCardSearchString", wildcardString, null)
+                    .setParameter("langTag", config.getLanguage(), null);
+    }
+
+    /**
+     * The text index lookup cannot be restricted to a vocabulary, so the scope is applied only to its hits. Terms
+     * without a vocabulary are found as well.
+     */
+    @Override
+    public boolean supportsScopedSearch() {
+        return false;
+    }
+
+    /**
+     * Scores of the hits change when they are rescored, so the repository cannot produce the final order.
+     */
+    @Override
+    protected boolean isRankedByRepository() {
+        return false;
+    }
+
+    @Override
+    protected List<FullTextSearchResult> postProcess(String searchString, List<FullTextSearchResult> results) {
+        return rescorer.rescore(searchString, results);
     }
 
     private static String addWildcard(String searchString) {
@@ -86,10 +97,4 @@ public class LuceneSearchDao extends SearchDao {
         final String lastTokenWithWildcard = split[split.length - 1] + LUCENE_WILDCARD;
         return String.join(" ", split) + " " + lastTokenWithWildcard;
     }
-
-    private static String splitExactMatch(String searchString) {
-        final String[] split = searchString.trim().split("\\s+");
-        String s = "<em>";
-        return s.concat(String.join("</em> <em>", split)).concat("</em>");
-    }
 }
@@ -0,0 +1,211 @@
+package cz.cvut.kbss.termit.persistence.dao.lucene;
+
+import cz.cvut.kbss.termit.dto.FullTextSearchResult;
+import cz.cvut.kbss.termit.persistence.dao.util.BoundedCache;
+import cz.cvut.kbss.termit.persistence.dao.util.Cache;
+
+import java.util.*;
+
+/**
+ * Highlights and rescores raw full text search hits returned by a Lucene-based repository.
+ * <p>
+ * Snippet of each hit is processed in a single pass, which discards markup of the repository highlighter, highlights
+ * words matching the search string tokens and recognizes an exact match (the snippet consists of the search tokens)
+ * and a phrase match (the snippet contains the search tokens in sequence). The score of the hit is then boosted
+ * accordingly and weighted by the field in which the snippet was found.
+ * <p>
+ * The search string tokens are compiled only once per search string, compiled search strings are cached.
+ */
+class SearchResultRescorer {
+
+    static final String HIGHLIGHT_START = "<em>";
+    static final String HIGHLIGHT_END = "</em>";
+
+    static final double EXACT_MATCH_BOOST = 2.0;
+
+    static final double LABEL_PHRASE_BOOST = 1.5;
+
+    static final String LABEL_FIELD = "label";
+
+    private static final Map<String, Double> FIELD_WEIGHTS = Map.of(LABEL_FIELD, 2.0, "definition", 1.2);
+
+    /**
+     * Markup that may be produced by repository highlighters.
+     */
+    private static final String[] REPOSITORY_MARKUP = {HIGHLIGHT_START, HIGHLIGHT_END, "<b>", "</b>"};
+
+    /**
+     * Lucene query syntax operators, they are not searched for.
+     */
+    private static final Set<String> OPERATORS = Set.of("AND", "OR", "NOT");
+
+    private static final Comparator<FullTextSearchResult> BY_SCORE = Comparator
+            .comparing(FullTextSearchResult::getScore, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    static final int COMPILED_CACHE_SIZE = 256;
+
+    private final Cache<String, CompiledSearch> compiled = new BoundedCache<>(COMPILED_CACHE_SIZE, v -> 1, null,
+                                                                              System::nanoTime);
+
+    /**
+     * Highlights and rescores the specified hits.
+     *
+     * @param searchString Search string which produced the hits
+     * @param hits         Hits to process, they are modified
+     * @return New list of the processed hits, ordered by decreasing score. Hits with the same score keep their
+     * original order
+     */
+    List<FullTextSearchResult> rescore(String searchString, List<FullTextSearchResult> hits) {
+        Objects.requireNonNull(searchString);
+        final CompiledSearch search = compiled.getOrCompute(searchString, CompiledSearch::compile);
+        final List<FullTextSearchResult> result = new ArrayList<>(hits);
+        result.forEach(search::apply);
+        result.sort(BY_SCORE);
+        return result;
+    }
+
+    /**
+     * Lower-case tokens of a search string. The last token is matched also as a word prefix, as the repository
+     * searches for it with a wildcard.
+     */
+    static final class CompiledSearch {
+
+        private final String[] tokens;
+
+        private CompiledSearch(String[] tokens) {
+            this.tokens = tokens;
+        }
+
+        static CompiledSearch compile(String searchString) {
+            final List<String> tokens = new ArrayList<>();
+            int start = -1;
+            for (int i = 0; i <= searchString.length(); i++) {
+                final boolean wordChar = i < searchString.length() && Character.isLetterOrDigit(
+                        searchString.charAt(i));
+                if (wordChar && start < 0) {
+                    start = i;
+                } else if (!wordChar && start >= 0) {
+                    final String token = searchString.substring(start, i);
+                    if (!OPERATORS.contains(token)) {
+                        tokens.add(token.toLowerCase(Locale.ROOT));
+                    }
+                    start = -1;
+                }
+            }
+            return new CompiledSearch(tokens.toArray(new String[0]));
+        }
+
+        String[] getTokens() {
+            return tokens;
+        }
+
+        void apply(FullTextSearchResult hit) {
+            final String snippet = hit.getSnippetText();
+            if (snippet == null || tokens.length == 0) {
+                return;
+            }
+            final int last = tokens.length - 1;
+            final StringBuilder out = new StringBuilder(snippet.length() + 2 * HIGHLIGHT_START.length() + 2);
+            int wordCount = 0;
+            boolean exact = true;
+            boolean phrase = false;
+            // Number of tokens matched in sequence by the preceding words
+            int run = 0;
+            int i = 0;
+            while (i < snippet.length()) {
+                final int markup = markupLength(snippet, i);
+                if (markup > 0) {
+                    i += markup;
+                    continue;
+                }
+                if (!Character.isLetterOrDigit(snippet.charAt(i))) {
+                    out.append(snippet.charAt(i++));
+                    continue;
+                }
+                final int start = out.length();
+                while (i < snippet.length()) {
+                    final int wordMarkup = markupLength(snippet, i);
+                    if (wordMarkup > 0) {
+                        i += wordMarkup;
+                    } else if (Character.isLetterOrDigit(snippet.charAt(i))) {
+                        out.append(snippet.charAt(i++));
+                    } else {
+                        break;
+                    }
+                }
+                final int end = out.length();
+                exact = exact && wordCount < tokens.length && matches(out, start, end, tokens[wordCount], false);
+                wordCount++;
+                if (matches(out, start, end, tokens[run], run == last)) {
+                    run++;
+                } else {
+                    run = matches(out, start, end, tokens[0], last == 0) ? 1 : 0;
+                }
+                if (run == tokens.length) {
+                    phrase = true;
+                    run = 0;
+                }
+                if (matchesAny(out, start, end)) {
+                    out.insert(start, HIGHLIGHT_START).append(HIGHLIGHT_END);
+                }
+            }
+            hit.setSnippetText(out.toString());
+            if (hit.getScore() != null) {
+                hit.setScore(rescore(hit.getScore(), hit.getSnippetField(), exact && wordCount == tokens.length,
+                                     phrase));
+            }
+        }
+
+        private boolean matchesAny(CharSequence text, int start, int end) {
+            for (int t = 0; t < tokens.length; t++) {
+                if (matches(text, start, end, tokens[t], t == tokens.length - 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Gets length of repository highlighter markup at the specified position in the text.
+     *
+     * @return Markup length, {@code 0} if there is no markup at the position
+     */
+    private static int markupLength(String text, int index) {
+        if (text.charAt(index) != '<') {
+            return 0;
+        }
+        for (String markup : REPOSITORY_MARKUP) {
+            if (text.regionMatches(true, index, markup, 0, markup.length())) {
+                return markup.length();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Checks whether the specified region of text is equal to (or starts with) the specified lower-case token, ignoring
+     * case.
+     */
+    private static boolean matches(CharSequence text, int start, int end, String token, boolean prefix) {
+        final int length = end - start;
+        if (length < token.length() || (!prefix && length != token.length())) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.toLowerCase(text.charAt(start + i)) != token.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Exact matches are boosted, phrase matches only in labels. The result is then weighted by the snippet field.
+     */
+    static double rescore(double score, String field, boolean exactMatch, boolean phraseMatch) {
+        final double boost = exactMatch ? EXACT_MATCH_BOOST :
+                             phraseMatch && LABEL_FIELD.equals(field) ? LABEL_PHRASE_BOOST : 1.0;
+        return score * boost * (field != null ? FIELD_WEIGHTS.getOrDefault(field, 1.0) : 1.0);
+    }
+}
@@ -1,12 +1,15 @@
 package cz.cvut.kbss.termit.persistence.dao.skos;
 
 import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.termit.event.EvictCacheEvent;
+import cz.cvut.kbss.termit.event.VocabularyContentModified;
 import cz.cvut.kbss.termit.exception.UnsupportedImportMediaTypeException;
 import cz.cvut.kbss.termit.exception.VocabularyImportException;
 import cz.cvut.kbss.termit.model.Glossary;
 import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.persistence.dao.TermDao;
 import cz.cvut.kbss.termit.persistence.dao.VocabularyDao;
+import cz.cvut.kbss.termit.persistence.dao.hierarchy.VocabularyImportIndex;
 import cz.cvut.kbss.termit.util.Configuration;
 import cz.cvut.kbss.termit.util.Utils;
 import org.eclipse.rdf4j.model.*;
@@ -24,6 +27,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
@@ -61,6 +65,8 @@ public class SKOSImporter {
     private final Configuration config;
     private final VocabularyDao vocabularyDao;
     private final TermDao termDao;
+    private final VocabularyImportIndex importIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     private final EntityManager em;
 
@@ -69,10 +75,14 @@ public class SKOSImporter {
     private IRI glossaryIri;
 
     @Autowired
-    public SKOSImporter(Configuration config, VocabularyDao vocabularyDao, TermDao termDao, EntityManager em) {
+    public SKOSImporter(Configuration config, VocabularyDao vocabularyDao, TermDao termDao,
+                        VocabularyImportIndex importIndex, ApplicationEventPublisher eventPublisher,
+                        EntityManager em) {
         this.config = config;
         this.vocabularyDao = vocabularyDao;
         this.termDao = termDao;
+        this.importIndex = importIndex;
+        this.eventPublisher = eventPublisher;
         this.em = em;
     }
 
@@ -135,7 +145,7 @@ public class SKOSImporter {
 
         em.flush();
         persist.accept(vocabulary);
-        addDataIntoRepository(vocabulary.getUri());
+        addDataIntoRepository(vocabulary);
         LOG.debug("Vocabulary import successfully finished.");
         return vocabulary;
     }
@@ -145,16 +155,31 @@ public class SKOSImporter {
         if (possibleVocabulary.isPresent()) {
             Vocabulary vocabulary = possibleVocabulary.get();
             termDao.findAllFull(vocabulary).forEach(t -> {
-                if (t.getProperties() != null) {
-                    t.getProperties().clear();
-                }
                 termDao.remove(t);
                 vocabulary.getGlossary().removeRootTerm(t);
             });
+            removeTermStatements(vocabularyIri);
             vocabularyDao.remove(vocabulary);
         }
     }
 
+    /**
+     * Removes all statements about terms from the vocabulary context.
+     * <p>
+     * Term removal covers only the mapped attributes, but unmapped properties of the terms must not survive the
+     * re-import either.
+     */
+    private void removeTermStatements(URI vocabularyIri) {
+        em.createNativeQuery("DELETE {" +
+                                     "GRAPH ?vocabulary { ?term ?property ?value . }" +
+                                     "} WHERE {" +
+                                     "GRAPH ?vocabulary { ?term a ?type ; ?property ?value . }" +
+                                     "}")
+          .setParameter("vocabulary", vocabularyIri)
+          .setParameter("type", URI.create(SKOS.CONCEPT.stringValue()))
+          .executeUpdate();
+    }
+
     private void ensureConceptIrisAreCompatibleWithTermIt() {
         final Statement[] statements = model.filter(null, RDF.TYPE, SKOS.CONCEPT).toArray(new Statement[]{});
         for (final Statement c : statements) {
@@ -236,7 +261,8 @@ public class SKOSImporter {
         });
     }
 
-    private void addDataIntoRepository(URI vocabularyIri) {
+    private void addDataIntoRepository(Vocabulary vocabulary) {
+        final URI vocabularyIri = vocabulary.getUri();
         final Repository repository = em.unwrap(org.eclipse.rdf4j.repository.Repository.class);
         try (final RepositoryConnection conn = repository.getConnection()) {
             conn.begin();
@@ -245,6 +271,13 @@ public class SKOSImporter {
             conn.add(model, targetContext);
             conn.commit();
         }
+        // Imported data may contain vocabulary imports
+        importIndex.refresh(Collections.singleton(vocabularyIri));
+        // Imported terms bypass the term DAO and are visible in all vocabularies (transitively) importing this one
+        final Set<URI> affected = new HashSet<>(importIndex.getImportingVocabularies(vocabularyIri));
+        affected.add(vocabularyIri);
+        eventPublisher.publishEvent(new EvictCacheEvent(this, affected));
+        eventPublisher.publishEvent(new VocabularyContentModified(this, vocabularyIri));
     }
 
     private Resource getGlossaryUri() {
@@ -0,0 +1,367 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+import cz.cvut.kbss.termit.event.EvictCacheEvent;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.springframework.beans.factory.InjectionPoint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache with bounded total weight of entries.
+ * <p>
+ * When the cache is full, the least recently used entries are evicted to make room for a new entry, but only if the
+ * new entry is accessed more frequently than them. Otherwise, the new entry is not admitted into the cache. This keeps
+ * frequently used entries in the cache even when many entries are accessed only once (e.g., during an export).
+ * <p>
+ * Entries may also expire after a configured time since they were computed.
+ * <p>
+ * Concurrent misses of the same key in {@link #getOrCompute(Object, Function)} are coordinated, so that the value is
+ * computed only once and the other callers wait for the result. Callers waiting for a load receive its result even if
+ * it is not stored in the cache (see {@link #getOrCompute(Object, Function, Predicate)}).
+ * <p>
+ * Values loaded concurrently with an eviction are not stored in the cache, as they may have been computed from data
+ * the eviction was meant to discard. Callers requesting a value after an eviction never wait for such a load either.
+ * <p>
+ * The cache records statistics of its usage, see {@link #getStatistics()}.
+ *
+ * @param <K> Cache key type
+ * @param <V> Cache value type
+ */
+@Primary
+@Component
+@Profile("!no-cache")
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE) // Everyone will get their own cache instance
+public class BoundedCache<K, V> implements Cache<K, V> {
+
+    private final long maximumWeight;
+
+    private final ToLongFunction<V> weigher;
+
+    private final long expireAfterWriteNanos;
+
+    private final LongSupplier ticker;
+
+    // Access-ordered, i.e., the least recently used entry is the first one
+    private final LinkedHashMap<K, Entry<V>> data = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final FrequencySketch sketch;
+
+    // Values being computed by getOrCompute
+    private final ConcurrentMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    private long weight;
+
+    // Incremented by every eviction, guarded by data
+    private long generation;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+
+    @Autowired
+    public BoundedCache(Configuration config, CacheRegistry registry, InjectionPoint injectionPoint) {
+        this(config.getCache().getMaximumWeight(), BoundedCache::defaultWeight,
+             config.getCache().getExpireAfterWrite(), System::nanoTime);
+        registry.register(CacheRegistry.nameOf(injectionPoint), this);
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maximumWeight    Maximum total weight of entries in the cache
+     * @param weigher          Computes weight of cache values
+     * @param expireAfterWrite Time after which entries expire, {@code null} if they should not expire
+     * @param ticker           Time source with nanosecond precision
+     */
+    public BoundedCache(long maximumWeight, ToLongFunction<V> weigher, Duration expireAfterWrite,
+                        LongSupplier ticker) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("Maximum cache weight must not be negative.");
+        }
+        this.maximumWeight = maximumWeight;
+        this.weigher = Objects.requireNonNull(weigher);
+        this.expireAfterWriteNanos = expireAfterWrite != null ? expireAfterWrite.toNanos() : 0;
+        this.ticker = Objects.requireNonNull(ticker);
+        this.sketch = new FrequencySketch(maximumWeight);
+    }
+
+    /**
+     * Default weight of a cache value.
+     * <p>
+     * Collections and maps weigh their size (at least one), other values weigh one.
+     *
+     * @param value Cache value
+     * @return Value weight
+     */
+    public static long defaultWeight(Object value) {
+        final int size;
+        if (value instanceof Collection) {
+            size = ((Collection<?>) value).size();
+        } else if (value instanceof Map) {
+            size = ((Map<?, ?>) value).size();
+        } else {
+            size = 1;
+        }
+        return Math.max(1, size);
+    }
+
+    @Override
+    public V getOrCompute(K key, Function<K, V> supplier) {
+        return getOrCompute(key, supplier, v -> true);
+    }
+
+    @Override
+    public V getOrCompute(K key, Function<K, V> supplier, Predicate<V> cacheable) {
+        final V existing = getIfPresent(key);
+        if (existing != null) {
+            return existing;
+        }
+        final CompletableFuture<V> load = new CompletableFuture<>();
+        final CompletableFuture<V> inFlight = loading.putIfAbsent(key, load);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        try {
+            final long loadGeneration = generation();
+            // The value may have been stored by a load which finished after the lookup above
+            V value = peek(key);
+            if (value == null) {
+                final long start = ticker.getAsLong();
+                value = supplier.apply(key);
+                recordLoad(start);
+                if (value != null && cacheable.test(value)) {
+                    put(key, value, loadGeneration);
+                }
+            }
+            load.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private long generation() {
+        synchronized (data) {
+            return generation;
+        }
+    }
+
+    private V peek(K key) {
+        synchronized (data) {
+            final Entry<V> entry = data.get(key);
+            return entry != null && !isExpired(entry) ? entry.value : null;
+        }
+    }
+
+    private V getIfPresent(K key) {
+        synchronized (data) {
+            sketch.increment(key);
+            final Entry<V> entry = data.get(key);
+            if (entry == null || isExpired(entry)) {
+                if (entry != null) {
+                    removeEntry(key, entry);
+                    evictionCount.increment();
+                }
+                missCount.increment();
+                return null;
+            }
+            hitCount.increment();
+            return entry.value;
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry) {
+        return expireAfterWriteNanos > 0 && ticker.getAsLong() - entry.writeTime >= expireAfterWriteNanos;
+    }
+
+    private void removeEntry(K key, Entry<V> entry) {
+        data.remove(key);
+        weight -= entry.weight;
+    }
+
+    private void recordLoad(long start) {
+        loadCount.increment();
+        totalLoadTime.add(ticker.getAsLong() - start);
+    }
+
+    /**
+     * Stores the specified value, unless the cache has been evicted since the value started loading.
+     */
+    private void put(K key, V value, long loadGeneration) {
+        final long valueWeight = weigher.applyAsLong(value);
+        synchronized (data) {
+            if (loadGeneration != generation) {
+                return;
+            }
+            if (valueWeight > maximumWeight) {
+                evictionCount.increment();
+                return;
+            }
+            final Entry<V> previous = data.remove(key);
+            if (previous != null) {
+                weight -= previous.weight;
+            }
+            final int candidateFrequency = sketch.frequency(key);
+            final Iterator<Map.Entry<K, Entry<V>>> it = data.entrySet().iterator();
+            while (weight + valueWeight > maximumWeight) {
+                final Map.Entry<K, Entry<V>> victim = it.next();
+                if (previous == null && !isExpired(victim.getValue()) &&
+                        sketch.frequency(victim.getKey()) > candidateFrequency) {
+                    // Candidate is not admitted, as it is used less frequently than the entries it would replace
+                    evictionCount.increment();
+                    return;
+                }
+                it.remove();
+                weight -= victim.getValue().weight;
+                evictionCount.increment();
+            }
+            data.put(key, new Entry<>(value, valueWeight, ticker.getAsLong()));
+            weight += valueWeight;
+        }
+    }
+
+    @Override
+    public Map<K, V> getOrComputeAll(Collection<K> keys, Function<Collection<K>, Map<K, V>> supplier) {
+        final Map<K, V> result = new HashMap<>(keys.size());
+        final List<K> missing = new ArrayList<>();
+        keys.forEach(k -> {
+            final V value = getIfPresent(k);
+            if (value != null) {
+                result.put(k, value);
+            } else {
+                missing.add(k);
+            }
+        });
+        if (!missing.isEmpty()) {
+            final long loadGeneration = generation();
+            final long start = ticker.getAsLong();
+            final Map<K, V> computed = supplier.apply(missing);
+            recordLoad(start);
+            computed.forEach((k, v) -> {
+                if (v != null) {
+                    put(k, v, loadGeneration);
+                }
+            });
+            result.putAll(computed);
+        }
+        return result;
+    }
+
+    @Override
+    public void evict(K key) {
+        synchronized (data) {
+            generation++;
+            loading.remove(key);
+            final Entry<V> entry = data.get(key);
+            if (entry != null) {
+                removeEntry(key, entry);
+            }
+        }
+    }
+
+    @Override
+    public void evictIf(BiPredicate<K, V> predicate) {
+        synchronized (data) {
+            generation++;
+            // Values being loaded cannot be tested yet
+            loading.clear();
+            final Iterator<Map.Entry<K, Entry<V>>> it = data.entrySet().iterator();
+            while (it.hasNext()) {
+                final Map.Entry<K, Entry<V>> entry = it.next();
+                if (predicate.test(entry.getKey(), entry.getValue().value)) {
+                    it.remove();
+                    weight -= entry.getValue().weight;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        synchronized (data) {
+            generation++;
+            loading.clear();
+            data.clear();
+            weight = 0;
+        }
+    }
+
+    /**
+     * Evicts the whole cache, unless the event is scoped to specific vocabularies.
+     * <p>
+     * Only the owner of the cache knows how its entries depend on vocabularies, so it is responsible for handling
+     * vocabulary-scoped eviction (see {@link #evictIf(BiPredicate)}).
+     * <p>
+     * Note that the event is delivered by {@link CacheRegistry}, as event listeners of prototype-scoped beans would be
+     * invoked on new instances of the bean.
+     */
+    public void onEvictCache(EvictCacheEvent evt) {
+        if (evt.isGlobal()) {
+            evictAll();
+        }
+    }
+
+    /**
+     * Gets current statistics of this cache.
+     *
+     * @return Statistics snapshot
+     */
+    public CacheStats getStatistics() {
+        final long size;
+        final long currentWeight;
+        synchronized (data) {
+            size = data.size();
+            currentWeight = weight;
+        }
+        return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum(), loadCount.sum(),
+                              totalLoadTime.sum(), size, currentWeight);
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long weight;
+        private final long writeTime;
+
+        private Entry(V value, long weight, long writeTime) {
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = writeTime;
+        }
+    }
+}
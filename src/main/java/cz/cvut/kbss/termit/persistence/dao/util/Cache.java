@@ -1,6 +1,10 @@
 package cz.cvut.kbss.termit.persistence.dao.util;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiPredicate;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * A general purpose cache useful for caching frequently accessed data.
@@ -21,6 +25,32 @@ public interface Cache<K, V> {
      */
     V getOrCompute(K key, Function<K, V> supplier);
 
+    /**
+     * Gets the value associated with the specified key or computes it using the specified function, storing the
+     * computed value in the cache only if it satisfies the specified predicate.
+     * <p>
+     * This allows to avoid caching values which are valid for the current caller, but must not be served to others
+     * (e.g., incomplete results).
+     *
+     * @param key       Cache key
+     * @param supplier  Value calculator
+     * @param cacheable Determines whether a computed value may be stored in the cache
+     * @return Value for the specified key, either existing or computed using the specified supplier
+     */
+    V getOrCompute(K key, Function<K, V> supplier, Predicate<V> cacheable);
+
+    /**
+     * Gets values associated with the specified keys, computing the missing ones in bulk using the specified function.
+     * <p>
+     * The supplier is invoked at most once, with the keys whose values are not present in the cache. Values it returns
+     * are stored in the cache.
+     *
+     * @param keys     Cache keys
+     * @param supplier Calculator of values for the missing keys
+     * @return Map of keys to their values, either existing or computed using the specified supplier
+     */
+    Map<K, V> getOrComputeAll(Collection<K> keys, Function<Collection<K>, Map<K, V>> supplier);
+
     /**
      * Evicts value for the specified key.
      *
@@ -28,6 +58,13 @@ public interface Cache<K, V> {
      */
     void evict(K key);
 
+    /**
+     * Evicts all entries matching the specified predicate.
+     *
+     * @param predicate Determines whether an entry should be evicted
+     */
+    void evictIf(BiPredicate<K, V> predicate);
+
     /**
      * Evicts the whole cache.
      */
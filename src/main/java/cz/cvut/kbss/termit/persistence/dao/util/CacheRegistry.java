@@ -0,0 +1,73 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+import cz.cvut.kbss.termit.event.EvictCacheEvent;
+import org.springframework.beans.factory.InjectionPoint;
+import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Member;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of application caches so that their statistics can be monitored and cache eviction events are delivered
+ * to them.
+ */
+@Component
+public class CacheRegistry {
+
+    private final Map<String, BoundedCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the specified cache under the specified name.
+     * <p>
+     * If a cache with the same name is already registered, a numeric suffix is appended to the name.
+     *
+     * @param name  Cache name
+     * @param cache Cache to register
+     * @return Name under which the cache was registered
+     */
+    public String register(String name, BoundedCache<?, ?> cache) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(cache);
+        String uniqueName = name;
+        for (int i = 2; caches.putIfAbsent(uniqueName, cache) != null; i++) {
+            uniqueName = name + "#" + i;
+        }
+        return uniqueName;
+    }
+
+    @EventListener
+    public void onEvictCache(EvictCacheEvent evt) {
+        caches.values().forEach(cache -> cache.onEvictCache(evt));
+    }
+
+    /**
+     * Gets statistics of all registered caches.
+     *
+     * @return Map of cache names to their current statistics, ordered by name
+     */
+    public Map<String, CacheStats> getStatistics() {
+        final Map<String, CacheStats> result = new TreeMap<>();
+        caches.forEach((name, cache) -> result.put(name, cache.getStatistics()));
+        return result;
+    }
+
+    /**
+     * Resolves cache name from the point into which it is being injected.
+     *
+     * @param injectionPoint Cache injection point
+     * @return Cache name consisting of the name of the class the cache is injected into and the field or parameter
+     * name
+     */
+    static String nameOf(InjectionPoint injectionPoint) {
+        final Member member = injectionPoint.getMember();
+        final String owner = member.getDeclaringClass().getSimpleName();
+        final String dependency = injectionPoint instanceof DependencyDescriptor ?
+                                  ((DependencyDescriptor) injectionPoint).getDependencyName() : null;
+        return dependency != null ? owner + "." + dependency : owner;
+    }
+}
@@ -0,0 +1,102 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+/**
+ * Snapshot of statistics of a cache.
+ */
+public final class CacheStats {
+
+    private final long hitCount;
+
+    private final long missCount;
+
+    private final long evictionCount;
+
+    private final long loadCount;
+
+    private final long totalLoadTime;
+
+    private final long size;
+
+    private final long weight;
+
+    public CacheStats(long hitCount, long missCount, long evictionCount, long loadCount, long totalLoadTime,
+                      long size, long weight) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.loadCount = loadCount;
+        this.totalLoadTime = totalLoadTime;
+        this.size = size;
+        this.weight = weight;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Ratio of cache hits to all cache lookups, {@code 1.0} if there were no lookups.
+     */
+    public double getHitRate() {
+        final long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * Number of entries removed from the cache due to its bounds or expiration (including computed values which were
+     * not admitted into the cache).
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * Total time spent computing values, in nanoseconds.
+     */
+    public long getTotalLoadTime() {
+        return totalLoadTime;
+    }
+
+    /**
+     * Average time spent computing a value, in nanoseconds.
+     */
+    public double getAverageLoadTime() {
+        return loadCount == 0 ? 0.0 : (double) totalLoadTime / loadCount;
+    }
+
+    /**
+     * Number of entries in the cache.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Total weight of entries in the cache.
+     */
+    public long getWeight() {
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hits=" + hitCount +
+                ", misses=" + missCount +
+                ", hitRate=" + String.format("%.3f", getHitRate()) +
+                ", evictions=" + evictionCount +
+                ", loads=" + loadCount +
+                ", averageLoadTimeMs=" + String.format("%.3f", getAverageLoadTime() / 1_000_000) +
+                ", size=" + size +
+                ", weight=" + weight +
+                '}';
+    }
+}
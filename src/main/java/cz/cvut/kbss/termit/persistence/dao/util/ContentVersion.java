@@ -0,0 +1,52 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+import cz.cvut.kbss.termit.event.EvictCacheEvent;
+import cz.cvut.kbss.termit.event.VocabularyContentModified;
+import cz.cvut.kbss.termit.event.VocabularyMetadataModified;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global version of the content of vocabularies.
+ * <p>
+ * The version is incremented whenever any vocabulary or its content is modified (or caches are evicted), so results
+ * computed from the content can be tagged with the version they were computed for and recognized as stale later.
+ * <p>
+ * When the modification happens in a transaction, the version is incremented only after the transaction is committed.
+ * Results computed before the increment are thus never tagged with the new version.
+ */
+@Component
+public class ContentVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Gets the current content version.
+     *
+     * @return Content version
+     */
+    public long get() {
+        return version.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVocabularyContentModified(VocabularyContentModified evt) {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Vocabularies themselves (e.g., their titles) are part of the results computed from the content.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVocabularyMetadataModified(VocabularyMetadataModified evt) {
+        version.incrementAndGet();
+    }
+
+    @EventListener
+    public void onEvictCache(EvictCacheEvent evt) {
+        version.incrementAndGet();
+    }
+}
@@ -3,7 +3,11 @@ package cz.cvut.kbss.termit.persistence.dao.util;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiPredicate;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * Disabled cache implementation that always retrieves the current value and caches nothing.
@@ -20,11 +24,26 @@ public class DisabledCache<K, V> implements Cache<K, V> {
         return supplier.apply(key);
     }
 
+    @Override
+    public V getOrCompute(K key, Function<K, V> supplier, Predicate<V> cacheable) {
+        return supplier.apply(key);
+    }
+
+    @Override
+    public Map<K, V> getOrComputeAll(Collection<K> keys, Function<Collection<K>, Map<K, V>> supplier) {
+        return supplier.apply(keys);
+    }
+
     @Override
     public void evict(K key) {
         // Do nothing
     }
 
+    @Override
+    public void evictIf(BiPredicate<K, V> predicate) {
+        // Do nothing
+    }
+
     @Override
     public void evictAll() {
         // Do nothing
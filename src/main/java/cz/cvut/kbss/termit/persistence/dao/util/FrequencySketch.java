@@ -0,0 +1,92 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+/**
+ * Approximate frequency of access of cache keys.
+ * <p>
+ * This is a count-min sketch with small saturating counters. To let the cache adapt to changes of the access pattern,
+ * all counters are halved once the number of recorded accesses reaches a multiple of the sketch width.
+ * <p>
+ * Instances are not thread-safe.
+ */
+final class FrequencySketch {
+
+    private static final int DEPTH = 4;
+
+    private static final int MAX_COUNT = 15;
+
+    private static final int[] SEEDS = {0x97cb3127, 0x9e3779b9, 0xc2b2ae35, 0x27d4eb2f};
+
+    private final int width;
+
+    private final byte[] counters;
+
+    private final int sampleSize;
+
+    private int size;
+
+    /**
+     * Creates a sketch suitable for the specified expected number of keys.
+     *
+     * @param expectedKeys Expected number of distinct keys, the sketch size is capped
+     */
+    FrequencySketch(long expectedKeys) {
+        final int capped = (int) Math.max(16, Math.min(expectedKeys, 1 << 16));
+        this.width = Integer.highestOneBit(capped - 1) << 1;
+        this.counters = new byte[DEPTH * width];
+        this.sampleSize = 10 * width;
+    }
+
+    /**
+     * Records access of the specified key.
+     *
+     * @param key Accessed key
+     */
+    void increment(Object key) {
+        final int hash = spread(key.hashCode());
+        boolean incremented = false;
+        for (int i = 0; i < DEPTH; i++) {
+            final int index = indexOf(hash, i);
+            if (counters[index] < MAX_COUNT) {
+                counters[index]++;
+                incremented = true;
+            }
+        }
+        if (incremented && ++size >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Gets the estimated number of accesses of the specified key.
+     *
+     * @param key Key
+     * @return Estimated frequency, at most {@code 15}
+     */
+    int frequency(Object key) {
+        final int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < DEPTH; i++) {
+            frequency = Math.min(frequency, counters[indexOf(hash, i)]);
+        }
+        return frequency;
+    }
+
+    private int indexOf(int hash, int row) {
+        int h = (hash + SEEDS[row]) * SEEDS[row];
+        h ^= h >>> 16;
+        return row * width + (h & (width - 1));
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x85ebca6b;
+        h ^= h >>> 13;
+        return h * 0xc2b2ae35;
+    }
+
+    private void reset() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = (byte) (counters[i] >>> 1);
+        }
+        size /= 2;
+    }
+}
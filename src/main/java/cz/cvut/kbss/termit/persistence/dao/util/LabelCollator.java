@@ -0,0 +1,115 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.termit.util.Configuration;
+
+import java.text.Collator;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Locale-aware ordering of labels.
+ * <p>
+ * Labels are ordered using a {@link Collator} for the persistence unit language, so that listings follow the rules of
+ * the language (e.g., letters with diacritics in Czech) without evaluating sort expressions in repository queries.
+ * Collators are obtained for the currently configured language, so any language supported by the JVM can be used.
+ * <p>
+ * Instances are thread-safe.
+ */
+public class LabelCollator {
+
+    private final Configuration.Persistence config;
+
+    private final Map<String, Collator> collators = new ConcurrentHashMap<>();
+
+    public LabelCollator(Configuration.Persistence config) {
+        this.config = config;
+    }
+
+    private Collator collator() {
+        // RuleBasedCollator, which is what the JVM provides, synchronizes comparison and key generation
+        return collators.computeIfAbsent(config.getLanguage(),
+                                         lang -> Collator.getInstance(Locale.forLanguageTag(lang)));
+    }
+
+    /**
+     * Gets sort key of the specified label.
+     * <p>
+     * Sort keys can be compared using {@link #compare(byte[], byte[])} and are consistent with {@link #comparator()}.
+     *
+     * @param label Label value, possibly {@code null}
+     * @return Sort key, {@code null} if the label is {@code null}
+     */
+    public byte[] sortKey(String label) {
+        return label != null ? collator().getCollationKey(label).toByteArray() : null;
+    }
+
+    /**
+     * Gets sort key of the specified label in the persistence unit language.
+     *
+     * @param label Multilingual label
+     * @return Sort key, {@code null} if the label does not have a value in the persistence unit language
+     */
+    public byte[] sortKey(MultilingualString label) {
+        final String language = config.getLanguage();
+        return label != null && label.contains(language) ? sortKey(label.get(language)) : null;
+    }
+
+    /**
+     * Compares the specified sort keys.
+     * <p>
+     * {@code null} keys are ordered last.
+     */
+    public static int compare(byte[] keyOne, byte[] keyTwo) {
+        if (keyOne == null || keyTwo == null) {
+            return keyOne == null ? (keyTwo == null ? 0 : 1) : -1;
+        }
+        return Arrays.compareUnsigned(keyOne, keyTwo);
+    }
+
+    /**
+     * Gets comparator of multilingual labels.
+     * <p>
+     * Labels are compared by their value in the persistence unit language or, if missing, by any other value. Missing
+     * labels are ordered last.
+     *
+     * @return Label comparator
+     */
+    public Comparator<MultilingualString> comparator() {
+        return (labelOne, labelTwo) -> compareValues(value(labelOne), value(labelTwo));
+    }
+
+    private int compareValues(String one, String two) {
+        if (one == null || two == null) {
+            return one == null ? (two == null ? 0 : 1) : -1;
+        }
+        return collator().compare(one, two);
+    }
+
+    private String value(MultilingualString label) {
+        if (label == null || label.isEmpty()) {
+            return null;
+        }
+        final String language = config.getLanguage();
+        return label.contains(language) ? label.get(language) : label.get();
+    }
+
+    /**
+     * Sorts the specified list by labels of its elements.
+     * <p>
+     * Sort key of each label is computed only once. The sort is stable.
+     *
+     * @param list           List to sort
+     * @param labelExtractor Extracts label from a list element
+     * @param <T>            List element type
+     */
+    public <T> void sort(List<T> list, Function<T, MultilingualString> labelExtractor) {
+        if (list.size() < 2) {
+            return;
+        }
+        final Map<T, byte[]> keys = new IdentityHashMap<>(list.size());
+        list.forEach(item -> keys.put(item, sortKey(value(labelExtractor.apply(item)))));
+        list.sort((one, two) -> compare(keys.get(one), keys.get(two)));
+    }
+}
@@ -0,0 +1,83 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Utility functions for approximate matching of (normalized) labels.
+ * <p>
+ * Candidate labels are found by shared character trigrams, the candidates are then scored by their edit distance.
+ */
+public final class LabelSimilarity {
+
+    /**
+     * Pads labels, so that their starts and ends are represented by distinct trigrams.
+     */
+    private static final String START_PADDING = "  ";
+    private static final String END_PADDING = " ";
+
+    private LabelSimilarity() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Gets character trigrams of the specified label.
+     * <p>
+     * The label is padded, so that even labels shorter than three characters have trigrams.
+     *
+     * @param label Label, expected to be already normalized
+     * @return Set of trigrams, empty for an empty label
+     */
+    public static Set<String> trigrams(String label) {
+        if (label.isEmpty()) {
+            return Set.of();
+        }
+        final String padded = START_PADDING + label + END_PADDING;
+        final Set<String> result = new HashSet<>(padded.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    /**
+     * Computes similarity of the specified labels.
+     * <p>
+     * Similarity is the Levenshtein distance of the labels normalized by the length of the longer one and subtracted
+     * from one, i.e., identical labels have similarity 1, completely different ones 0.
+     *
+     * @param first  Label, expected to be already normalized
+     * @param second Label, expected to be already normalized
+     * @return Similarity in range [0, 1]
+     */
+    public static double similarity(String first, String second) {
+        final int maxLength = Math.max(first.length(), second.length());
+        if (maxLength == 0) {
+            return 1.0;
+        }
+        return 1.0 - (double) editDistance(first, second) / maxLength;
+    }
+
+    /**
+     * Computes the Levenshtein distance of the specified strings, using two rows of the distance matrix.
+     */
+    static int editDistance(String first, String second) {
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            final char c = first.charAt(i - 1);
+            for (int j = 1; j <= second.length(); j++) {
+                final int substitution = previous[j - 1] + (c == second.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            final int[] tmp = previous;
+            previous = current;
+            current = tmp;
+        }
+        return previous[second.length()];
+    }
+}
@@ -0,0 +1,33 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Utility functions for building SPARQL query strings.
+ */
+public class SparqlUtils {
+
+    private SparqlUtils() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Creates a SPARQL {@code VALUES} clause binding the specified variable to the specified identifiers.
+     * <p>
+     * JOPA renders collection parameters as comma-separated lists, which is suitable for {@code IN} filters, but not
+     * for inline data blocks. This method should be used instead in that case.
+     *
+     * @param variable Name of the variable to bind, including the question mark
+     * @param values   Identifiers to bind the variable to
+     * @return {@code VALUES} clause
+     */
+    public static String valuesClause(String variable, Collection<URI> values) {
+        Objects.requireNonNull(variable);
+        Objects.requireNonNull(values);
+        return "VALUES " + variable + " { " + values.stream().map(v -> "<" + v + ">")
+                                                    .collect(Collectors.joining(" ")) + " } ";
+    }
+}
@@ -0,0 +1,446 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.jopa.vocabulary.DC;
+import cz.cvut.kbss.jopa.vocabulary.RDF;
+import cz.cvut.kbss.jopa.vocabulary.RDFS;
+import cz.cvut.kbss.jopa.vocabulary.SKOS;
+import cz.cvut.kbss.ontodriver.model.LangString;
+import cz.cvut.kbss.termit.dto.TermInfo;
+import cz.cvut.kbss.termit.model.Term;
+
+import java.net.URI;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Materializes full {@link Term} instances of a vocabulary in bulk.
+ * <p>
+ * Statements about the terms are read from the vocabulary context by batched native queries and the terms are assembled
+ * in memory, together with their sub-terms and inverse related (relatedMatch, exactMatch) terms, which are resolved by
+ * one additional query for the whole vocabulary. All queries run through the provided entity manager, but the JOPA
+ * persistence context is not involved at all, so the resulting instances are not managed and the same individual may
+ * be freely referenced both as {@link Term} and as {@link TermInfo}.
+ * <p>
+ * Parent terms are represented only by their basic data (identifier, label, glossary and vocabulary). Definition source
+ * of the terms is not loaded.
+ */
+public class TermMaterializer {
+
+    /**
+     * Maximum number of terms bound by a single {@code VALUES} clause.
+     */
+    private static final int VALUES_BATCH_SIZE = 500;
+
+    private static final URI TYPE = URI.create(SKOS.CONCEPT);
+    private static final URI IS_TERM_FROM_VOCABULARY = URI.create(
+            cz.cvut.kbss.termit.util.Vocabulary.s_p_je_pojmem_ze_slovniku);
+
+    /**
+     * Properties mapped by {@link Term} which are not handled explicitly and thus must not end up in its unmapped
+     * properties.
+     */
+    private static final Set<String> IGNORED_PROPERTIES = Set.of(
+            cz.cvut.kbss.termit.util.Vocabulary.s_p_je_pojmem_ze_slovniku,
+            cz.cvut.kbss.termit.util.Vocabulary.s_p_ma_zdroj_definice_termu,
+            SKOS.NARROWER);
+
+    private final EntityManager em;
+
+    private final Comparator<TermInfo> termInfoComparator;
+
+    public TermMaterializer(EntityManager em, Comparator<TermInfo> termInfoComparator) {
+        this.em = Objects.requireNonNull(em);
+        this.termInfoComparator = Objects.requireNonNull(termInfoComparator);
+    }
+
+    /**
+     * Materializes the specified terms of the specified vocabulary.
+     *
+     * @param vocabulary Identifier of the vocabulary (and its repository context) containing the terms
+     * @param termIris   Identifiers of terms to materialize
+     * @return List of terms, in the order of the specified identifiers
+     */
+    public List<Term> materialize(URI vocabulary, List<URI> termIris) {
+        Objects.requireNonNull(vocabulary);
+        Objects.requireNonNull(termIris);
+        final Map<URI, TermData> terms = new LinkedHashMap<>(termIris.size());
+        termIris.forEach(iri -> terms.put(iri, new TermData(iri, vocabulary)));
+        readContext(vocabulary, terms);
+        final Map<URI, ReferencedTerm> references = resolveReferences(terms);
+        terms.values().forEach(td -> td.resolveOutgoing(references));
+        loadIncoming(vocabulary, terms);
+        return terms.values().stream().map(td -> td.term).collect(Collectors.toList());
+    }
+
+    /**
+     * Reads statements about the terms from the vocabulary context.
+     * <p>
+     * Native queries cannot exclude inferred statements, so statements entailed by other statements of the term are
+     * filtered out. These are values of super-properties and types which follow from other types of the term or from
+     * domains and ranges of properties it is used with. Literals without language are read by their lexical form.
+     */
+    private void readContext(URI vocabulary, Map<URI, TermData> terms) {
+        final List<URI> termIris = new ArrayList<>(terms.keySet());
+        for (int i = 0; i < termIris.size(); i += VALUES_BATCH_SIZE) {
+            final List<URI> batch = termIris.subList(i, Math.min(i + VALUES_BATCH_SIZE, termIris.size()));
+            final List<?> rows = em.createNativeQuery("SELECT ?term ?property ?value WHERE {" +
+                                                              SparqlUtils.valuesClause("?term", batch) +
+                                                              "GRAPH ?vocabulary {" +
+                                                              "?term ?property ?object ." +
+                                                              "FILTER (!isBlank(?object))" +
+                                                              "}" +
+                                                              "FILTER NOT EXISTS {" +
+                                                              "?term ?subProperty ?object ." +
+                                                              "?subProperty ?subPropertyOf ?property ." +
+                                                              "FILTER (?subProperty != ?property)" +
+                                                              "}" +
+                                                              "FILTER (?property != ?hasType || " +
+                                                              "?object != ?resource && NOT EXISTS {" +
+                                                              "{ ?term ?hasType ?subType ." +
+                                                              "?subType ?subClassOf ?object ." +
+                                                              "FILTER (?subType != ?object) }" +
+                                                              " UNION " +
+                                                              "{ ?term ?outgoing ?target . ?outgoing ?domain ?object . }" +
+                                                              " UNION " +
+                                                              "{ ?source ?incoming ?term . ?incoming ?range ?object . }" +
+                                                              "})" +
+                                                              "BIND (IF(isLiteral(?object) && lang(?object) = \"\", " +
+                                                              "STR(?object), ?object) AS ?value)" +
+                                                              "}")
+                                   .setParameter("vocabulary", vocabulary)
+                                   .setParameter("subPropertyOf", URI.create(RDFS.SUB_PROPERTY_OF))
+                                   .setParameter("hasType", URI.create(RDF.TYPE))
+                                   .setParameter("subClassOf", URI.create(RDFS.SUB_CLASS_OF))
+                                   .setParameter("resource", URI.create(RDFS.RESOURCE))
+                                   .setParameter("domain", URI.create(RDFS.DOMAIN))
+                                   .setParameter("range", URI.create(RDFS.RANGE))
+                                   .getResultList();
+            for (Object r : rows) {
+                final Object[] row = (Object[]) r;
+                final TermData td = row[0] != null ? terms.get(row[0]) : null;
+                if (td != null) {
+                    td.apply(row[1].toString(), row[2]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads basic data of terms referenced by the materialized terms which are not themselves being materialized.
+     */
+    private Map<URI, ReferencedTerm> resolveReferences(Map<URI, TermData> terms) {
+        final Map<URI, ReferencedTerm> result = new HashMap<>();
+        terms.values().forEach(td -> result.put(td.term.getUri(), new ReferencedTerm(td.term)));
+        final List<URI> toLoad = terms.values().stream().flatMap(TermData::referencedIris).distinct()
+                                      .filter(iri -> !result.containsKey(iri)).collect(Collectors.toList());
+        for (int i = 0; i < toLoad.size(); i += VALUES_BATCH_SIZE) {
+            final List<URI> batch = toLoad.subList(i, Math.min(i + VALUES_BATCH_SIZE, toLoad.size()));
+            final List<?> rows = em.createNativeQuery("SELECT ?entity ?label ?vocabulary ?glossary WHERE {" +
+                                                              SparqlUtils.valuesClause("?entity", batch) +
+                                                              "?entity a ?type ;" +
+                                                              "?hasLabel ?label ." +
+                                                              "OPTIONAL { ?entity ?inVocabulary ?vocabulary . }" +
+                                                              "OPTIONAL { ?entity ?inScheme ?glossary . }" +
+                                                              "}")
+                                   .setParameter("type", TYPE)
+                                   .setParameter("hasLabel", URI.create(SKOS.PREF_LABEL))
+                                   .setParameter("inVocabulary", IS_TERM_FROM_VOCABULARY)
+                                   .setParameter("inScheme", URI.create(SKOS.IN_SCHEME))
+                                   .getResultList();
+            for (Object r : rows) {
+                final Object[] row = (Object[]) r;
+                if (row[0] == null) {
+                    // No result
+                    continue;
+                }
+                final ReferencedTerm ref = result.computeIfAbsent((URI) row[0], ReferencedTerm::new);
+                addToMultilingualString(ref.label, row[1]);
+                if (row[2] != null) {
+                    ref.vocabulary = (URI) row[2];
+                }
+                if (row[3] != null) {
+                    ref.glossary = (URI) row[3];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Loads sub-terms and inverse related (relatedMatch, exactMatch) terms of all the materialized terms.
+     */
+    private void loadIncoming(URI vocabulary, Map<URI, TermData> terms) {
+        final List<?> rows = em.createNativeQuery("SELECT ?target ?property ?source ?label ?sourceVocabulary WHERE {" +
+                                                          "GRAPH ?vocabulary { ?target a ?type . }" +
+                                                          "{ ?target ?narrower ?source . " +
+                                                          "BIND (?narrower AS ?property) }" +
+                                                          " UNION " +
+                                                          "{ ?source ?property ?target . " +
+                                                          "FILTER (?property IN (?inverseProperties)) }" +
+                                                          "?source a ?type ;" +
+                                                          "?hasLabel ?label ;" +
+                                                          "?inVocabulary ?sourceVocabulary ." +
+                                                          "}")
+                               .setParameter("vocabulary", vocabulary)
+                               .setParameter("type", TYPE)
+                               .setParameter("narrower", URI.create(SKOS.NARROWER))
+                               .setParameter("inverseProperties",
+                                             Arrays.asList(URI.create(SKOS.RELATED), URI.create(SKOS.RELATED_MATCH),
+                                                           URI.create(SKOS.EXACT_MATCH)))
+                               .setParameter("hasLabel", URI.create(SKOS.PREF_LABEL))
+                               .setParameter("inVocabulary", IS_TERM_FROM_VOCABULARY)
+                               .getResultList();
+        for (Object r : rows) {
+            final Object[] row = (Object[]) r;
+            final TermData td = row[0] != null ? terms.get(row[0]) : null;
+            if (td != null) {
+                td.addIncoming(row[1].toString(), (URI) row[2], row[3], (URI) row[4]);
+            }
+        }
+        terms.values().forEach(TermData::resolveIncoming);
+    }
+
+    private static void addToMultilingualString(MultilingualString str, Object value) {
+        if (value instanceof LangString) {
+            final LangString ls = (LangString) value;
+            str.set(ls.getLanguage().orElse(null), ls.getValue());
+        } else if (value != null) {
+            str.set(value.toString());
+        }
+    }
+
+    /**
+     * Adds the specified value into the first string which does not contain its language yet, the way JOPA handles
+     * plural multilingual attributes.
+     */
+    private static void addToPluralMultilingualString(List<MultilingualString> strings, Object value) {
+        final String language = value instanceof LangString ? ((LangString) value).getLanguage().orElse(null) : null;
+        final Optional<MultilingualString> target = strings.stream().filter(
+                ms -> language != null ? !ms.contains(language) : !ms.containsSimple()).findFirst();
+        if (target.isPresent()) {
+            addToMultilingualString(target.get(), value);
+        } else {
+            final MultilingualString str = new MultilingualString();
+            addToMultilingualString(str, value);
+            strings.add(str);
+        }
+    }
+
+    private static String stringValue(Object value) {
+        return value instanceof LangString ? ((LangString) value).getValue() : value.toString();
+    }
+
+    private static void addTo(Supplier<Set<String>> getter, Consumer<Set<String>> setter, String value) {
+        if (getter.get() == null) {
+            setter.accept(new HashSet<>());
+        }
+        getter.get().add(value);
+    }
+
+    /**
+     * Basic data of a term referenced by the materialized terms.
+     */
+    private static class ReferencedTerm {
+        private final URI uri;
+        private final MultilingualString label;
+        private URI vocabulary;
+        private URI glossary;
+
+        private ReferencedTerm(URI uri) {
+            this.uri = uri;
+            this.label = new MultilingualString();
+        }
+
+        private ReferencedTerm(Term term) {
+            this.uri = term.getUri();
+            this.label = term.getLabel() != null ? term.getLabel() : new MultilingualString();
+            this.vocabulary = term.getVocabulary();
+            this.glossary = term.getGlossary();
+        }
+
+        private TermInfo toTermInfo() {
+            final TermInfo result = new TermInfo(uri);
+            result.setLabel(new MultilingualString(label.getValue()));
+            result.setVocabulary(vocabulary);
+            return result;
+        }
+
+        private Term toTerm() {
+            final Term result = new Term();
+            result.setUri(uri);
+            result.setLabel(new MultilingualString(label.getValue()));
+            result.setVocabulary(vocabulary);
+            result.setGlossary(glossary);
+            return result;
+        }
+    }
+
+    /**
+     * Collects data of a single term while query results are being processed.
+     */
+    private class TermData {
+        private final Term term;
+
+        private final List<MultilingualString> altLabels = new ArrayList<>();
+        private final List<MultilingualString> hiddenLabels = new ArrayList<>();
+        private final Set<URI> parents = new LinkedHashSet<>();
+        private final Set<URI> externalParents = new LinkedHashSet<>();
+        private final Set<URI> related = new LinkedHashSet<>();
+        private final Set<URI> relatedMatch = new LinkedHashSet<>();
+        private final Set<URI> exactMatch = new LinkedHashSet<>();
+
+        private final Map<URI, TermInfo> subTerms = new LinkedHashMap<>();
+        private final Map<URI, TermInfo> inverseRelated = new LinkedHashMap<>();
+        private final Map<URI, TermInfo> inverseRelatedMatch = new LinkedHashMap<>();
+        private final Map<URI, TermInfo> inverseExactMatch = new LinkedHashMap<>();
+
+        private TermData(URI uri, URI vocabulary) {
+            this.term = new Term();
+            term.setUri(uri);
+            term.setVocabulary(vocabulary);
+        }
+
+        private void apply(String property, Object value) {
+            switch (property) {
+                case RDF.TYPE:
+                    if (!SKOS.CONCEPT.equals(value.toString())) {
+                        addTo(term::getTypes, term::setTypes, value.toString());
+                    }
+                    break;
+                case SKOS.PREF_LABEL:
+                    if (term.getLabel() == null) {
+                        term.setLabel(new MultilingualString());
+                    }
+                    addToMultilingualString(term.getLabel(), value);
+                    break;
+                case SKOS.DEFINITION:
+                    if (term.getDefinition() == null) {
+                        term.setDefinition(new MultilingualString());
+                    }
+                    addToMultilingualString(term.getDefinition(), value);
+                    break;
+                case SKOS.SCOPE_NOTE:
+                    if (term.getDescription() == null) {
+                        term.setDescription(new MultilingualString());
+                    }
+                    addToMultilingualString(term.getDescription(), value);
+                    break;
+                case SKOS.ALT_LABEL:
+                    addToPluralMultilingualString(altLabels, value);
+                    break;
+                case SKOS.HIDDEN_LABEL:
+                    addToPluralMultilingualString(hiddenLabels, value);
+                    break;
+                case DC.Terms.SOURCE:
+                    addTo(term::getSources, term::setSources, stringValue(value));
+                    break;
+                case SKOS.IN_SCHEME:
+                    term.setGlossary(URI.create(value.toString()));
+                    break;
+                case cz.cvut.kbss.termit.util.Vocabulary.s_p_je_draft:
+                    term.setDraft(Boolean.valueOf(value.toString()));
+                    break;
+                case SKOS.BROADER:
+                    addReference(parents, value);
+                    break;
+                case SKOS.BROAD_MATCH:
+                    addReference(externalParents, value);
+                    break;
+                case SKOS.RELATED:
+                    addReference(related, value);
+                    break;
+                case SKOS.RELATED_MATCH:
+                    addReference(relatedMatch, value);
+                    break;
+                case SKOS.EXACT_MATCH:
+                    addReference(exactMatch, value);
+                    break;
+                default:
+                    if (!IGNORED_PROPERTIES.contains(property)) {
+                        if (term.getProperties() == null) {
+                            term.setProperties(new HashMap<>());
+                        }
+                        term.getProperties().computeIfAbsent(property, k -> new HashSet<>()).add(stringValue(value));
+                    }
+                    break;
+            }
+        }
+
+        private void addReference(Set<URI> references, Object value) {
+            if (value instanceof URI) {
+                references.add((URI) value);
+            }
+        }
+
+        private Stream<URI> referencedIris() {
+            return Stream.of(parents, externalParents, related, relatedMatch, exactMatch).flatMap(Set::stream);
+        }
+
+        private void resolveOutgoing(Map<URI, ReferencedTerm> references) {
+            // Plural multilingual strings are put into sets only now that they are complete, so that their hash codes
+            // do not change afterwards
+            if (!altLabels.isEmpty()) {
+                term.setAltLabels(new HashSet<>(altLabels));
+            }
+            if (!hiddenLabels.isEmpty()) {
+                term.setHiddenLabels(new HashSet<>(hiddenLabels));
+            }
+            term.setParentTerms(resolve(parents, references, ReferencedTerm::toTerm));
+            term.setExternalParentTerms(resolve(externalParents, references, ReferencedTerm::toTerm));
+            term.setRelated(resolve(related, references, ReferencedTerm::toTermInfo));
+            term.setRelatedMatch(resolve(relatedMatch, references, ReferencedTerm::toTermInfo));
+            term.setExactMatchTerms(resolve(exactMatch, references, ReferencedTerm::toTermInfo));
+        }
+
+        private <T> Set<T> resolve(Set<URI> iris, Map<URI, ReferencedTerm> references,
+                                   Function<ReferencedTerm, T> mapper) {
+            return iris.stream().filter(references::containsKey).map(iri -> mapper.apply(references.get(iri)))
+                       .collect(Collectors.toCollection(LinkedHashSet::new));
+        }
+
+        private void addIncoming(String property, URI source, Object label, URI vocabulary) {
+            final Map<URI, TermInfo> target;
+            switch (property) {
+                case SKOS.NARROWER:
+                    target = subTerms;
+                    break;
+                case SKOS.RELATED:
+                    target = inverseRelated;
+                    break;
+                case SKOS.RELATED_MATCH:
+                    target = inverseRelatedMatch;
+                    break;
+                default:
+                    target = inverseExactMatch;
+                    break;
+            }
+            final TermInfo ti = target.computeIfAbsent(source, uri -> {
+                final TermInfo info = new TermInfo(uri);
+                info.setLabel(new MultilingualString());
+                return info;
+            });
+            addToMultilingualString(ti.getLabel(), label);
+            ti.setVocabulary(vocabulary);
+        }
+
+        private void resolveIncoming() {
+            term.setSubTerms(sorted(subTerms.values(), Collections.emptySet()));
+            final Set<URI> allRelated = new HashSet<>(related);
+            allRelated.addAll(relatedMatch);
+            term.setInverseRelated(sorted(inverseRelated.values(), allRelated));
+            term.setInverseRelatedMatch(sorted(inverseRelatedMatch.values(), relatedMatch));
+            term.setInverseExactMatchTerms(sorted(inverseExactMatch.values(), exactMatch));
+        }
+
+        private Set<TermInfo> sorted(Collection<TermInfo> terms, Set<URI> exclude) {
+            return terms.stream().filter(ti -> !exclude.contains(ti.getUri())).sorted(termInfoComparator)
+                        .collect(Collectors.toCollection(LinkedHashSet::new));
+        }
+    }
+}
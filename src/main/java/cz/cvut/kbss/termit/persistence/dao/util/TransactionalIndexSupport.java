@@ -0,0 +1,135 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Binds changes of an in-memory index to the current transaction.
+ * <p>
+ * Changes are applied only after the transaction is committed, so that the index never contains data of an
+ * uncommitted transaction. Data loaded into the index during a transaction are discarded if the transaction is not
+ * committed, as they may reflect its uncommitted changes.
+ * <p>
+ * When there is no active transaction, changes are applied immediately.
+ * <p>
+ * Every applied change (including eviction, see {@link #invalidate()}) increments a version of the index. Data loaded
+ * into the index should be installed via {@link #installIfCurrent(long, Runnable)} with the version read before the
+ * load started, so that data loaded concurrently with a change, which may thus miss it, are not cached.
+ */
+public class TransactionalIndexSupport {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionalIndexSupport.class);
+
+    private final String name;
+    private final Runnable discard;
+
+    private final AtomicLong version = new AtomicLong();
+
+    // Guards application of changes and installation of loaded data
+    private final Object lock = new Object();
+
+    /**
+     * @param name    Name of the index, used for logging
+     * @param discard Discards all data of the index
+     */
+    public TransactionalIndexSupport(String name, Runnable discard) {
+        this.name = Objects.requireNonNull(name);
+        this.discard = Objects.requireNonNull(discard);
+    }
+
+    /**
+     * Applies the specified change of the index after the current transaction is committed, or immediately, if there
+     * is no transaction.
+     *
+     * @param change Change to apply
+     */
+    public void afterCommit(Runnable change) {
+        Objects.requireNonNull(change);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(change);
+            }
+        });
+    }
+
+    private void apply(Runnable change) {
+        synchronized (lock) {
+            version.incrementAndGet();
+            change.run();
+        }
+    }
+
+    /**
+     * Marks data being loaded concurrently as outdated.
+     * <p>
+     * Should be called whenever data are evicted from the index.
+     */
+    public void invalidate() {
+        synchronized (lock) {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Gets the current version of the index.
+     * <p>
+     * The version should be read before data are loaded into the index.
+     *
+     * @return Index version
+     * @see #installIfCurrent(long, Runnable)
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Installs data loaded into the index, provided the index has not changed since the specified version.
+     *
+     * @param loadedVersion Version of the index read before the data were loaded
+     * @param install       Puts the loaded data into the index
+     * @return {@code true} if the data were installed, {@code false} if the index changed while they were loaded
+     */
+    public boolean installIfCurrent(long loadedVersion, Runnable install) {
+        synchronized (lock) {
+            if (version.get() != loadedVersion) {
+                return false;
+            }
+            install.run();
+            return true;
+        }
+    }
+
+    /**
+     * Ensures the index is discarded if the current transaction is not committed.
+     * <p>
+     * Should be called whenever data are loaded into the index.
+     */
+    public void discardOnRollback() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() ||
+                TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        // Bound resource marks that the synchronization has already been registered for the current transaction
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TransactionalIndexSupport.this);
+                if (status != STATUS_COMMITTED) {
+                    LOG.trace("Transaction not committed, discarding {}.", name);
+                    discard.run();
+                }
+            }
+        });
+    }
+}
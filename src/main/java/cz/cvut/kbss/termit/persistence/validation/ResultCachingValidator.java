@@ -34,9 +34,21 @@ public class ResultCachingValidator implements VocabularyContentValidator {
         return null;    // Will be replaced by Spring
     }
 
+    /**
+     * Evicts cached validation results which depend on the modified vocabulary.
+     * <p>
+     * Validation results are cached for sets of vocabularies consisting of a vocabulary and its transitive imports, so
+     * results of all vocabularies importing the modified vocabulary are evicted as well.
+     */
     @EventListener
     public void evictCache(VocabularyContentModified event) {
-        LOG.debug("Vocabulary content modified, evicting validation result cache.");
-        validationCache.clear();
+        final URI vocabulary = event.getVocabularyIri();
+        if (vocabulary == null) {
+            LOG.debug("Vocabulary content modified, evicting validation result cache.");
+            validationCache.clear();
+        } else {
+            LOG.debug("Content of vocabulary {} modified, evicting validation results depending on it.", vocabulary);
+            validationCache.keySet().removeIf(vocabularies -> vocabularies.contains(vocabulary));
+        }
     }
 }
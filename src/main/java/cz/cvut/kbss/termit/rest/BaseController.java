@@ -20,6 +20,7 @@ import cz.cvut.kbss.termit.rest.util.RestUtils;
 import cz.cvut.kbss.termit.security.SecurityConstants;
 import cz.cvut.kbss.termit.service.IdentifierResolver;
 import cz.cvut.kbss.termit.util.Configuration;
+import cz.cvut.kbss.termit.util.KeysetPageRequest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -62,6 +63,25 @@ public class BaseController {
         return PageRequest.of(pageNo, pageSize);
     }
 
+    /**
+     * Creates a page request from the specified parameters, supporting both offset-based and keyset pagination.
+     * <p>
+     * If a cursor (continuation token) is specified, the page continues after the position it represents and page
+     * number is ignored. Otherwise, this behaves as {@link #createPageRequest(Integer, Integer)}.
+     *
+     * @param size   Page size
+     * @param page   Page number
+     * @param cursor Continuation token. Optional
+     * @return Page specification
+     * @see KeysetPageRequest
+     */
+    protected static Pageable createPageRequest(Integer size, Integer page, String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return createPageRequest(size, page);
+        }
+        return KeysetPageRequest.fromToken(cursor, size != null ? size : DEFAULT_PAGE_SIZE);
+    }
+
     /**
      * Resolves identifier based on the specified resource (if provided) or the namespace loaded from application
      * configuration.
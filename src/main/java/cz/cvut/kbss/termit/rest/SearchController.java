@@ -15,12 +15,18 @@
 package cz.cvut.kbss.termit.rest;
 
 import cz.cvut.kbss.jsonld.JsonLd;
+import cz.cvut.kbss.termit.dto.FullTextSearchPage;
 import cz.cvut.kbss.termit.dto.FullTextSearchResult;
+import cz.cvut.kbss.termit.dto.FullTextSearchSpec;
 import cz.cvut.kbss.termit.service.IdentifierResolver;
 import cz.cvut.kbss.termit.service.business.SearchService;
 import cz.cvut.kbss.termit.util.Configuration;
+import cz.cvut.kbss.termit.util.Constants;
+import cz.cvut.kbss.termit.util.Constants.QueryParams;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -43,17 +49,78 @@ public class SearchController extends BaseController {
         this.searchService = searchService;
     }
 
+    /**
+     * Executes full text search in terms and vocabularies.
+     * <p>
+     * Results are ordered by descending score. The total number of matching results is returned in the {@link
+     * Constants#X_TOTAL_COUNT_HEADER} header. If only part of the results could be retrieved in time, the {@link
+     * Constants#X_PARTIAL_RESULTS_HEADER} header is set.
+     * <p>
+     * When results have to be filtered or rescored before paging (see {@code termit.search.maxResults}), only the
+     * configured number of top results is paged. Pages beyond them are empty and, when the results are filtered
+     * (e.g., by minimum score), the total counts only the matching results among them.
+     *
+     * @param searchString     String to search by
+     * @param pageSize         Number of results to return. Optional, all results are returned by default
+     * @param pageNo           Number of the page to return. Optional
+     * @param minScore         Minimum score of returned results. Optional, applies only to repositories which score
+     *                         results
+     * @param maxPerVocabulary Maximum number of results from a single vocabulary. Optional
+     * @return Matching results
+     */
     @PreAuthorize("permitAll()")
     @GetMapping(value = "/fts", produces = {MediaType.APPLICATION_JSON_VALUE, JsonLd.MEDIA_TYPE})
-    public List<FullTextSearchResult> fullTextSearch(@RequestParam(name = "searchString") String searchString) {
-        return searchService.fullTextSearch(searchString);
+    public ResponseEntity<List<FullTextSearchResult>> fullTextSearch(
+            @RequestParam(name = "searchString") String searchString,
+            @RequestParam(name = QueryParams.PAGE_SIZE, required = false) Integer pageSize,
+            @RequestParam(name = QueryParams.PAGE, required = false) Integer pageNo,
+            @RequestParam(name = "minScore", required = false) Double minScore,
+            @RequestParam(name = "maxPerVocabulary", required = false) Integer maxPerVocabulary) {
+        final FullTextSearchSpec spec = new FullTextSearchSpec(createPageRequest(pageSize, pageNo), minScore,
+                                                               maxPerVocabulary);
+        return resultPage(searchService.fullTextSearch(searchString, spec));
     }
 
+    /**
+     * Executes full text search in terms, possibly restricted to the specified vocabularies.
+     * <p>
+     * Results are ordered by descending score. The total number of matching results is returned in the {@link
+     * Constants#X_TOTAL_COUNT_HEADER} header. If only part of the results could be retrieved in time, the {@link
+     * Constants#X_PARTIAL_RESULTS_HEADER} header is set.
+     * <p>
+     * When results have to be filtered or rescored before paging (see {@code termit.search.maxResults}), only the
+     * configured number of top results is paged. Pages beyond them are empty and, when the results are filtered
+     * (e.g., by minimum score), the total counts only the matching results among them.
+     *
+     * @param searchString     String to search by
+     * @param vocabularies     Vocabularies to search in. Optional, all vocabularies are searched by default
+     * @param pageSize         Number of results to return. Optional, all results are returned by default
+     * @param pageNo           Number of the page to return. Optional
+     * @param minScore         Minimum score of returned results. Optional, applies only to repositories which score
+     *                         results
+     * @param maxPerVocabulary Maximum number of results from a single vocabulary. Optional
+     * @return Matching terms
+     */
     @PreAuthorize("permitAll()")
     @GetMapping(value = "/fts/terms", produces = {MediaType.APPLICATION_JSON_VALUE, JsonLd.MEDIA_TYPE})
-    public List<FullTextSearchResult> fullTextSearchTerms(
+    public ResponseEntity<List<FullTextSearchResult>> fullTextSearchTerms(
             @RequestParam(name = "searchString") String searchString,
-            @RequestParam(name = "vocabulary", required = false) Set<URI> vocabularies) {
-        return searchService.fullTextSearchOfTerms(searchString, vocabularies);
+            @RequestParam(name = "vocabulary", required = false) Set<URI> vocabularies,
+            @RequestParam(name = QueryParams.PAGE_SIZE, required = false) Integer pageSize,
+            @RequestParam(name = QueryParams.PAGE, required = false) Integer pageNo,
+            @RequestParam(name = "minScore", required = false) Double minScore,
+            @RequestParam(name = "maxPerVocabulary", required = false) Integer maxPerVocabulary) {
+        final FullTextSearchSpec spec = new FullTextSearchSpec(createPageRequest(pageSize, pageNo), minScore,
+                                                               maxPerVocabulary);
+        return resultPage(searchService.fullTextSearchOfTerms(searchString, vocabularies, spec));
+    }
+
+    private static ResponseEntity<List<FullTextSearchResult>> resultPage(Page<FullTextSearchResult> page) {
+        final ResponseEntity.BodyBuilder builder = ResponseEntity.ok().header(Constants.X_TOTAL_COUNT_HEADER,
+                                                                              Long.toString(page.getTotalElements()));
+        if (FullTextSearchPage.isPartial(page)) {
+            builder.header(Constants.X_PARTIAL_RESULTS_HEADER, Boolean.TRUE.toString());
+        }
+        return builder.body(page.getContent());
     }
 }
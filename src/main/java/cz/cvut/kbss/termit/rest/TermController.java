@@ -1,10 +1,13 @@
 package cz.cvut.kbss.termit.rest;
 
 import cz.cvut.kbss.jsonld.JsonLd;
+import cz.cvut.kbss.termit.dto.DuplicateTerms;
+import cz.cvut.kbss.termit.dto.SimilarTerm;
 import cz.cvut.kbss.termit.dto.TermStatus;
 import cz.cvut.kbss.termit.dto.listing.TermDto;
 import cz.cvut.kbss.termit.exception.NotFoundException;
 import cz.cvut.kbss.termit.exception.TermItException;
+import cz.cvut.kbss.termit.exception.ValidationException;
 import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.model.assignment.TermDefinitionSource;
@@ -21,10 +24,12 @@ import cz.cvut.kbss.termit.util.Constants.Excel;
 import cz.cvut.kbss.termit.util.Constants.QueryParams;
 import cz.cvut.kbss.termit.util.Constants.Turtle;
 import cz.cvut.kbss.termit.util.CsvUtils;
+import cz.cvut.kbss.termit.util.KeysetPageRequest;
 import cz.cvut.kbss.termit.util.TypeAwareResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -38,6 +43,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/")
@@ -157,6 +163,66 @@ public class TermController extends BaseController {
         }
     }
 
+    /**
+     * Finds which of the specified pref labels are already used by terms in the vocabulary with the specified
+     * identification.
+     * <p>
+     * This is a batch version of the label check in {@link #checkTerms(String, Optional, String, String)} intended for
+     * bulk term creation.
+     *
+     * @param vocabularyIdFragment vocabulary id fragment
+     * @param namespace            vocabulary namespace
+     * @param language             language to check existence in, optional
+     * @param labels               the labels to check
+     * @return Subset of the specified labels which already exist in the vocabulary
+     */
+    @PostMapping(value = "/vocabularies/{vocabularyIdFragment}/terms/existing-labels",
+                 consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Set<String> findExistingLabels(@PathVariable String vocabularyIdFragment,
+                                          @RequestParam(name = QueryParams.NAMESPACE,
+                                                        required = false) Optional<String> namespace,
+                                          @RequestParam(name = "language", required = false) String language,
+                                          @RequestBody List<String> labels) {
+        final URI vocabularyUri = getVocabularyUri(namespace, vocabularyIdFragment);
+        final Vocabulary vocabulary = termService.getRequiredVocabularyReference(vocabularyUri);
+        return termService.findExistingLabels(labels, vocabulary, language);
+    }
+
+    /**
+     * Finds pairs of terms in the vocabulary with the specified identification whose pref labels are similar, i.e.,
+     * which are possibly duplicates.
+     * <p>
+     * Only a limited number of the most similar pairs is returned.
+     *
+     * @param vocabularyIdFragment vocabulary id fragment
+     * @param namespace            vocabulary namespace
+     * @param language             language of the compared labels, optional
+     * @param minScore             minimum similarity of returned term pairs, in range (0, 1]. Optional, defaults to
+     *                             {@link Constants#DEFAULT_SIMILARITY_THRESHOLD}
+     * @return Pairs of similar terms ordered by decreasing similarity
+     */
+    @GetMapping(value = "/vocabularies/{vocabularyIdFragment}/terms/duplicates",
+                produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<DuplicateTerms> getDuplicates(@PathVariable String vocabularyIdFragment,
+                                              @RequestParam(name = QueryParams.NAMESPACE,
+                                                            required = false) Optional<String> namespace,
+                                              @RequestParam(name = "language", required = false) String language,
+                                              @RequestParam(name = "minScore", required = false) Double minScore) {
+        final URI vocabularyUri = getVocabularyUri(namespace, vocabularyIdFragment);
+        final Vocabulary vocabulary = termService.getRequiredVocabularyReference(vocabularyUri);
+        return termService.findDuplicates(vocabulary, language, resolveSimilarityThreshold(minScore));
+    }
+
+    private static double resolveSimilarityThreshold(Double minScore) {
+        if (minScore == null) {
+            return Constants.DEFAULT_SIMILARITY_THRESHOLD;
+        }
+        if (minScore <= 0 || minScore > 1) {
+            throw new ValidationException("Minimum similarity must be in range (0, 1].");
+        }
+        return minScore;
+    }
+
     private Vocabulary getVocabulary(URI vocabularyUri) {
         return termService.findVocabularyRequired(vocabularyUri);
     }
@@ -171,25 +237,86 @@ public class TermController extends BaseController {
      * @param namespace            Vocabulary namespace. Optional
      * @param pageSize             Limit the number of elements in the returned page. Optional
      * @param pageNo               Number of the page to return. Optional
+     * @param cursor               Continuation token of the page to return, takes precedence over page number.
+     *                             Optional
      * @param includeImported      Whether a transitive closure of vocabulary imports should be used when getting the
      *                             root terms. Optional, defaults to {@code false}
      * @return List of root terms of the specific vocabulary
      */
     @GetMapping(value = "/vocabularies/{vocabularyIdFragment}/terms/roots",
                 produces = {MediaType.APPLICATION_JSON_VALUE, JsonLd.MEDIA_TYPE})
-    public List<TermDto> getAllRoots(@PathVariable String vocabularyIdFragment,
-                                     @RequestParam(name = QueryParams.NAMESPACE,
-                                                   required = false) Optional<String> namespace,
-                                     @RequestParam(name = QueryParams.PAGE_SIZE, required = false) Integer pageSize,
-                                     @RequestParam(name = QueryParams.PAGE, required = false) Integer pageNo,
-                                     @RequestParam(name = "includeImported", required = false) boolean includeImported,
-                                     @RequestParam(name = "includeTerms", required = false,
-                                                   defaultValue = "") List<URI> includeTerms) {
+    public ResponseEntity<List<TermDto>> getAllRoots(@PathVariable String vocabularyIdFragment,
+                                                     @RequestParam(name = QueryParams.NAMESPACE,
+                                                                   required = false) Optional<String> namespace,
+                                                     @RequestParam(name = QueryParams.PAGE_SIZE,
+                                                                   required = false) Integer pageSize,
+                                                     @RequestParam(name = QueryParams.PAGE,
+                                                                   required = false) Integer pageNo,
+                                                     @RequestParam(name = QueryParams.CURSOR,
+                                                                   required = false) String cursor,
+                                                     @RequestParam(name = "includeImported",
+                                                                   required = false) boolean includeImported,
+                                                     @RequestParam(name = "includeTerms", required = false,
+                                                                   defaultValue = "") List<URI> includeTerms) {
         final Vocabulary vocabulary = getVocabulary(getVocabularyUri(namespace, vocabularyIdFragment));
-        return includeImported ?
-               termService
-                       .findAllRootsIncludingImported(vocabulary, createPageRequest(pageSize, pageNo), includeTerms) :
-               termService.findAllRoots(vocabulary, createPageRequest(pageSize, pageNo), includeTerms);
+        final Pageable pageSpec = createPageRequest(pageSize, pageNo, cursor);
+        return rootsPage(includeImported ?
+                         termService.findAllRootsIncludingImported(vocabulary, pageSpec, includeTerms) :
+                         termService.findAllRoots(vocabulary, pageSpec, includeTerms), pageSpec, includeTerms);
+    }
+
+    /**
+     * Gets terms from vocabulary with the specified identification whose label starts with the specified prefix.
+     * <p>
+     * This endpoint is intended for label autocompletion (typeahead), it returns only a limited number of terms
+     * without their sub-terms.
+     *
+     * @param vocabularyIdFragment Vocabulary name
+     * @param namespace            Vocabulary namespace. Optional
+     * @param searchString         Label prefix
+     * @param includeImported      Whether to include imported vocabularies when searching for terms. Optional,
+     *                             defaults to false
+     * @param size                 Maximum number of returned terms. Optional, defaults to {@link
+     *                             Constants#DEFAULT_AUTOCOMPLETE_SIZE}
+     * @return Matching terms ordered by label
+     */
+    @GetMapping(value = "/vocabularies/{vocabularyIdFragment}/terms/autocomplete",
+                produces = {MediaType.APPLICATION_JSON_VALUE, JsonLd.MEDIA_TYPE})
+    public List<TermDto> autocomplete(@PathVariable String vocabularyIdFragment,
+                                      @RequestParam(name = QueryParams.NAMESPACE,
+                                                    required = false) Optional<String> namespace,
+                                      @RequestParam(name = "searchString") String searchString,
+                                      @RequestParam(name = "includeImported", required = false) boolean includeImported,
+                                      @RequestParam(name = QueryParams.PAGE_SIZE, required = false) Integer size) {
+        final Vocabulary vocabulary = getVocabulary(getVocabularyUri(namespace, vocabularyIdFragment));
+        final int limit = size != null ? size : Constants.DEFAULT_AUTOCOMPLETE_SIZE;
+        return includeImported ? termService.findAllByLabelPrefixIncludingImported(searchString, vocabulary, limit) :
+               termService.findAllByLabelPrefix(searchString, vocabulary, limit);
+    }
+
+    /**
+     * Creates response with the specified root terms.
+     * <p>
+     * If the page is full, continuation token of the next page is returned in the {@link
+     * Constants#X_NEXT_CURSOR_HEADER} header.
+     */
+    private ResponseEntity<List<TermDto>> rootsPage(List<TermDto> result, Pageable pageSpec,
+                                                    Collection<URI> includeTerms) {
+        // Explicitly included terms are appended after the page
+        final List<TermDto> page = result.stream().filter(t -> !includeTerms.contains(t.getUri()))
+                                         .collect(Collectors.toList());
+        if (pageSpec.getPageSize() == Constants.DEFAULT_PAGE_SIZE || page.size() < pageSpec.getPageSize()) {
+            return ResponseEntity.ok(result);
+        }
+        final TermDto last = page.get(page.size() - 1);
+        final String label = last.getLabel() != null ? last.getLabel().get(config.getPersistence().getLanguage()) :
+                             null;
+        if (label == null) {
+            return ResponseEntity.ok(result);
+        }
+        return ResponseEntity.ok()
+                             .header(Constants.X_NEXT_CURSOR_HEADER, KeysetPageRequest.createToken(label, last.getUri()))
+                             .body(result);
     }
 
     /**
@@ -578,6 +705,28 @@ public class TermController extends BaseController {
                              .build();
     }
 
+    /**
+     * Gets terms from all vocabularies whose pref label is similar to the specified label.
+     * <p>
+     * Labels are compared regardless of character case and diacritics, similarity is based on their edit distance.
+     *
+     * @param label    Label to compare terms to
+     * @param language Language of the compared labels. Optional
+     * @param minScore Minimum similarity of returned terms, in range (0, 1]. Optional, defaults to {@link
+     *                 Constants#DEFAULT_SIMILARITY_THRESHOLD}
+     * @param size     Maximum number of returned terms. Optional, defaults to {@link
+     *                 Constants#DEFAULT_AUTOCOMPLETE_SIZE}
+     * @return Similar terms with their similarity scores, ordered by decreasing similarity
+     */
+    @GetMapping(value = "/terms/similar", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<SimilarTerm> getSimilar(@RequestParam(name = "label") String label,
+                                        @RequestParam(name = "language", required = false) String language,
+                                        @RequestParam(name = "minScore", required = false) Double minScore,
+                                        @RequestParam(name = QueryParams.PAGE_SIZE, required = false) Integer size) {
+        return termService.findSimilar(label, language, resolveSimilarityThreshold(minScore),
+                                       size != null ? size : Constants.DEFAULT_AUTOCOMPLETE_SIZE);
+    }
+
     /**
      * Get all root terms from all vocabularies
      * <p>
@@ -586,16 +735,19 @@ public class TermController extends BaseController {
      *
      * @param pageSize     Limit the number of elements in the returned page. Optional
      * @param pageNo       Number of the page to return. Optional
+     * @param cursor       Continuation token of the page to return, takes precedence over page number. Optional
      * @param includeTerms List of terms to include in the results. Optional
      * @return List of root terms across all vocabularies
      */
     @GetMapping(value = "/terms/roots",
                 produces = {MediaType.APPLICATION_JSON_VALUE, JsonLd.MEDIA_TYPE})
-    public List<TermDto> getAllRoots(
+    public ResponseEntity<List<TermDto>> getAllRoots(
             @RequestParam(name = Constants.QueryParams.PAGE_SIZE, required = false) Integer pageSize,
             @RequestParam(name = Constants.QueryParams.PAGE, required = false) Integer pageNo,
+            @RequestParam(name = Constants.QueryParams.CURSOR, required = false) String cursor,
             @RequestParam(name = "includeTerms", required = false, defaultValue = "") List<URI> includeTerms) {
-        return termService.findAllRoots(createPageRequest(pageSize, pageNo), includeTerms);
+        final Pageable pageSpec = createPageRequest(pageSize, pageNo, cursor);
+        return rootsPage(termService.findAllRoots(pageSpec, includeTerms), pageSpec, includeTerms);
     }
 
     /**
@@ -16,6 +16,9 @@ package cz.cvut.kbss.termit.rest;
 
 import cz.cvut.kbss.jsonld.JsonLd;
 import cz.cvut.kbss.termit.dto.AggregatedChangeInfo;
+import cz.cvut.kbss.termit.dto.TermCounts;
+import cz.cvut.kbss.termit.dto.TextAnalysisJobInfo;
+import cz.cvut.kbss.termit.exception.NotFoundException;
 import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.model.changetracking.AbstractChangeRecord;
 import cz.cvut.kbss.termit.model.validation.ValidationResult;
@@ -38,6 +41,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.net.URI;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -63,6 +67,16 @@ public class VocabularyController extends BaseController {
         return ResponseEntity.ok().lastModified(vocabularyService.getLastModified()).body(vocabularyService.findAll());
     }
 
+    /**
+     * Gets counts of terms in all vocabularies.
+     *
+     * @return Map of vocabulary identifiers to counts of their terms
+     */
+    @GetMapping(value = "/term-counts", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<URI, TermCounts> getTermCounts() {
+        return vocabularyService.getTermCounts();
+    }
+
     @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, JsonLd.MEDIA_TYPE})
     @PreAuthorize("hasRole('" + SecurityConstants.ROLE_FULL_USER + "')")
     public ResponseEntity<Void> createVocabulary(@RequestBody Vocabulary vocabulary) {
@@ -174,6 +188,8 @@ public class VocabularyController extends BaseController {
     /**
      * Runs text analysis on definitions of all terms in vocabulary.
      * <p>
+     * The analysis is scheduled, its progress can be followed via {@link #getTextAnalysisStatus(String, Optional)}.
+     * <p>
      * This is a legacy endpoint intended mainly for internal use/testing, since the analysis is executed automatically
      * when specific conditions are fulfilled.
      */
@@ -186,6 +202,19 @@ public class VocabularyController extends BaseController {
         vocabularyService.runTextAnalysisOnAllTerms(getById(vocabularyIdFragment, namespace));
     }
 
+    /**
+     * Gets status and progress of the latest text analysis of definitions of terms in vocabulary.
+     */
+    @GetMapping(value = "/{vocabularyIdFragment}/terms/text-analysis", produces = MediaType.APPLICATION_JSON_VALUE)
+    public TextAnalysisJobInfo getTextAnalysisStatus(@PathVariable String vocabularyIdFragment,
+                                                     @RequestParam(name = QueryParams.NAMESPACE,
+                                                                   required = false) Optional<String> namespace) {
+        final Vocabulary vocabulary = vocabularyService.getRequiredReference(
+                resolveVocabularyUri(vocabularyIdFragment, namespace));
+        return vocabularyService.getTextAnalysisJob(vocabulary).orElseThrow(() -> NotFoundException.create(
+                "Text analysis of vocabulary", vocabulary.getUri()));
+    }
+
     /**
      * Runs text analysis on definitions of all terms in all vocabularies.
      * <p>
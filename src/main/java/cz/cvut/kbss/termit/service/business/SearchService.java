@@ -18,25 +18,54 @@
 package cz.cvut.kbss.termit.service.business;
 
 import cz.cvut.kbss.jopa.vocabulary.SKOS;
+import cz.cvut.kbss.termit.dto.FullTextSearchPage;
 import cz.cvut.kbss.termit.dto.FullTextSearchResult;
+import cz.cvut.kbss.termit.dto.FullTextSearchSpec;
 import cz.cvut.kbss.termit.persistence.dao.SearchDao;
+import cz.cvut.kbss.termit.persistence.dao.util.Cache;
+import cz.cvut.kbss.termit.persistence.dao.util.ContentVersion;
+import cz.cvut.kbss.termit.service.search.ParallelSearchExecutor;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
 public class SearchService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(SearchService.class);
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
     private final SearchDao searchDao;
 
+    private final ParallelSearchExecutor parallelSearch;
+
+    private final ContentVersion contentVersion;
+
+    // Keys include content version, so stale entries are never hit and are eventually evicted as least recently used
+    private final Cache<ResultKey, Page<FullTextSearchResult>> resultCache;
+
+    private final String language;
+
     @Autowired
-    public SearchService(SearchDao searchDao) {
+    public SearchService(SearchDao searchDao, ParallelSearchExecutor parallelSearch, ContentVersion contentVersion,
+                         Cache<ResultKey, Page<FullTextSearchResult>> resultCache, Configuration config) {
         this.searchDao = searchDao;
+        this.parallelSearch = parallelSearch;
+        this.contentVersion = contentVersion;
+        this.resultCache = resultCache;
+        this.language = config.getPersistence().getLanguage();
     }
 
     /**
@@ -64,4 +93,105 @@ public class SearchService {
         }
         return result.collect(Collectors.toList());
     }
+
+    /**
+     * Executes full text search in assets, returning only the specified part of the results.
+     * <p>
+     * Results are cached until content of any vocabulary is modified.
+     * <p>
+     * When there are many vocabularies to search, they are searched separately in parallel. Should the search not
+     * finish in time, partial results are returned (see {@link FullTextSearchPage#isPartial()}) and not cached.
+     *
+     * @param searchString String to search by
+     * @param spec         Specification of the returned results
+     * @return Page of matching assets
+     */
+    public Page<FullTextSearchResult> fullTextSearch(String searchString, FullTextSearchSpec spec) {
+        return cachedSearch(searchString, spec);
+    }
+
+    /**
+     * Executes full text search in terms, possibly filtered by vocabularies, returning only the specified part of the
+     * results.
+     * <p>
+     * Results are cached until content of any vocabulary is modified. Vocabularies may be searched in parallel, see
+     * {@link #fullTextSearch(String, FullTextSearchSpec)}.
+     *
+     * @param searchString String to search by
+     * @param vocabularies URIs of vocabularies to search in, or null, if all vocabularies shall be searched
+     * @param spec         Specification of the returned results
+     * @return Page of matching terms
+     */
+    public Page<FullTextSearchResult> fullTextSearchOfTerms(String searchString, Set<URI> vocabularies,
+                                                            FullTextSearchSpec spec) {
+        return cachedSearch(searchString, spec.termsIn(vocabularies));
+    }
+
+    private Page<FullTextSearchResult> cachedSearch(String searchString, FullTextSearchSpec spec) {
+        Objects.requireNonNull(searchString);
+        // Version has to be read before the search, so that results are never tagged with a newer version
+        final ResultKey key = new ResultKey(normalize(searchString), language, spec, contentVersion.get());
+        // Partial results must not be served from the cache
+        return resultCache.getOrCompute(key, k -> {
+            LOG.trace("Search results for {} not cached.", k);
+            return parallelSearch.isApplicable(k.spec) ? parallelSearch.search(k.searchString, k.spec) :
+                   searchDao.fullTextSearch(k.searchString, k.spec);
+        }, result -> !FullTextSearchPage.isPartial(result));
+    }
+
+    /**
+     * Normalizes whitespace in the specified search string.
+     * <p>
+     * Leading whitespace is removed and runs of whitespace are replaced with a single space. A trailing space is
+     * retained, because it may affect matching of the last token.
+     */
+    static String normalize(String searchString) {
+        return WHITESPACE.matcher(searchString).replaceAll(" ").stripLeading();
+    }
+
+    /**
+     * Key of cached search results.
+     */
+    static final class ResultKey {
+
+        private final String searchString;
+        private final String language;
+        private final FullTextSearchSpec spec;
+        private final long contentVersion;
+
+        ResultKey(String searchString, String language, FullTextSearchSpec spec, long contentVersion) {
+            this.searchString = searchString;
+            this.language = language;
+            this.spec = spec;
+            this.contentVersion = contentVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ResultKey)) {
+                return false;
+            }
+            final ResultKey that = (ResultKey) o;
+            return contentVersion == that.contentVersion && searchString.equals(that.searchString) &&
+                    Objects.equals(language, that.language) && spec.equals(that.spec);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(searchString, language, spec, contentVersion);
+        }
+
+        @Override
+        public String toString() {
+            return "ResultKey{" +
+                    "searchString='" + searchString + '\'' +
+                    ", language='" + language + '\'' +
+                    ", spec=" + spec +
+                    ", contentVersion=" + contentVersion +
+                    '}';
+        }
+    }
 }
@@ -1,5 +1,8 @@
 package cz.cvut.kbss.termit.service.business;
 
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.termit.dto.DuplicateTerms;
+import cz.cvut.kbss.termit.dto.SimilarTerm;
 import cz.cvut.kbss.termit.dto.TermStatus;
 import cz.cvut.kbss.termit.dto.assignment.TermOccurrences;
 import cz.cvut.kbss.termit.dto.listing.TermDto;
@@ -232,6 +235,39 @@ public class TermService implements RudService<Term>, ChangeRecordProvider<Term>
         return repositoryService.findAllIncludingImported(searchString, vocabulary);
     }
 
+    /**
+     * Finds terms with a label starting with the specified prefix in the specified vocabulary.
+     * <p>
+     * This is intended for label autocompletion, so only a limited number of terms is returned and their sub-terms are
+     * not loaded.
+     *
+     * @param prefix     Label prefix
+     * @param vocabulary Vocabulary whose terms should be searched
+     * @param limit      Maximum number of returned terms
+     * @return Matching terms ordered by label
+     */
+    public List<TermDto> findAllByLabelPrefix(String prefix, Vocabulary vocabulary, int limit) {
+        Objects.requireNonNull(prefix);
+        Objects.requireNonNull(vocabulary);
+        return repositoryService.findAllByLabelPrefix(prefix, vocabulary, limit);
+    }
+
+    /**
+     * Finds terms with a label starting with the specified prefix in the specified vocabulary and any vocabularies it
+     * (transitively) imports.
+     *
+     * @param prefix     Label prefix
+     * @param vocabulary Vocabulary whose terms should be searched
+     * @param limit      Maximum number of returned terms
+     * @return Matching terms ordered by label
+     * @see #findAllByLabelPrefix(String, Vocabulary, int)
+     */
+    public List<TermDto> findAllByLabelPrefixIncludingImported(String prefix, Vocabulary vocabulary, int limit) {
+        Objects.requireNonNull(prefix);
+        Objects.requireNonNull(vocabulary);
+        return repositoryService.findAllByLabelPrefixIncludingImported(prefix, vocabulary, limit);
+    }
+
     /**
      * Gets vocabulary with the specified identifier.
      *
@@ -348,6 +384,52 @@ public class TermService implements RudService<Term>, ChangeRecordProvider<Term>
         return repositoryService.existsInVocabulary(termLabel, vocabulary, language);
     }
 
+    /**
+     * Finds which of the specified labels already exist in the specified vocabulary.
+     * <p>
+     * This is a batch version of {@link #existsInVocabulary(String, Vocabulary, String)} suitable for bulk term
+     * creation.
+     *
+     * @param termLabels Labels to search for
+     * @param vocabulary Vocabulary in which to search
+     * @param language   Language to check existence in
+     * @return Subset of {@code termLabels} which already exist in the vocabulary
+     */
+    public Set<String> findExistingLabels(Collection<String> termLabels, Vocabulary vocabulary, String language) {
+        Objects.requireNonNull(termLabels);
+        Objects.requireNonNull(vocabulary);
+        return repositoryService.findExistingLabels(termLabels, vocabulary, language);
+    }
+
+    /**
+     * Finds terms from all vocabularies with label similar to the specified label.
+     * <p>
+     * Labels are compared regardless of character case and diacritics, similarity is based on their edit distance.
+     *
+     * @param label    Label to search for
+     * @param language Label language, optional
+     * @param minScore Minimum similarity of returned terms, in range (0, 1]
+     * @param limit    Maximum number of returned terms
+     * @return Similar terms ordered by decreasing similarity
+     */
+    public List<SimilarTerm> findSimilar(String label, String language, double minScore, int limit) {
+        Objects.requireNonNull(label);
+        return repositoryService.findSimilar(label, language, minScore, limit);
+    }
+
+    /**
+     * Finds pairs of terms in the specified vocabulary with similar labels, i.e., candidates for duplicates.
+     *
+     * @param vocabulary Vocabulary whose terms to compare
+     * @param language   Label language, optional
+     * @param minScore   Minimum similarity of returned term pairs, in range (0, 1]
+     * @return Pairs of similar terms ordered by decreasing similarity
+     */
+    public List<DuplicateTerms> findDuplicates(Vocabulary vocabulary, String language, double minScore) {
+        Objects.requireNonNull(vocabulary);
+        return repositoryService.findDuplicates(vocabulary, language, minScore);
+    }
+
     /**
      * Persists the specified term as a root term in the specified vocabulary's glossary.
      *
@@ -359,7 +441,7 @@ public class TermService implements RudService<Term>, ChangeRecordProvider<Term>
         Objects.requireNonNull(owner);
         repositoryService.addRootTermToVocabulary(term, owner);
         analyzeTermDefinition(term, owner.getUri());
-        vocabularyService.runTextAnalysisOnAllTerms(owner);
+        analyzeDefinitionsMentioning(Collections.singleton(term.getLabel()), owner, term.getUri());
     }
 
     /**
@@ -373,7 +455,8 @@ public class TermService implements RudService<Term>, ChangeRecordProvider<Term>
         Objects.requireNonNull(parent);
         repositoryService.addChildTerm(child, parent);
         analyzeTermDefinition(child, parent.getVocabulary());
-        vocabularyService.runTextAnalysisOnAllTerms(getRequiredVocabularyReference(parent.getVocabulary()));
+        analyzeDefinitionsMentioning(Collections.singleton(child.getLabel()),
+                                     getRequiredVocabularyReference(parent.getVocabulary()), child.getUri());
     }
 
     /**
@@ -386,17 +469,41 @@ public class TermService implements RudService<Term>, ChangeRecordProvider<Term>
     public Term update(Term term) {
         Objects.requireNonNull(term);
         final Term original = repositoryService.findRequired(term.getUri());
-        if (!Objects.equals(original.getDefinition(), term.getDefinition())) {
+        final boolean definitionChanged = !Objects.equals(original.getDefinition(), term.getDefinition());
+        if (definitionChanged) {
             analyzeTermDefinition(term, term.getVocabulary());
         }
+        final MultilingualString originalLabel = original.getLabel() != null ?
+                                                 new MultilingualString(original.getLabel().getValue()) : null;
         final Term result = repositoryService.update(term);
         // Ensure the change is merged into the repo before analyzing other terms
-        if (!Objects.equals(original.getLabel(), term.getLabel())) {
-            vocabularyService.runTextAnalysisOnAllTerms(getRequiredVocabularyReference(original.getVocabulary()));
+        if (!Objects.equals(originalLabel, term.getLabel())) {
+            analyzeDefinitionsMentioning(Arrays.asList(originalLabel, term.getLabel()),
+                                         getRequiredVocabularyReference(original.getVocabulary()),
+                                         definitionChanged ? term.getUri() : null);
         }
         return result;
     }
 
+    /**
+     * Schedules text analysis of definitions which may contain any of the specified labels, i.e., definitions in which
+     * occurrences of a term may have appeared or disappeared due to its label change.
+     *
+     * @param labels     Old and/or new labels of a term
+     * @param vocabulary Vocabulary of the term. Its terms and terms of vocabularies it imports are analyzed
+     * @param skip       Identifier of a term whose definition was already analyzed, optional
+     */
+    private void analyzeDefinitionsMentioning(Collection<MultilingualString> labels, Vocabulary vocabulary,
+                                              URI skip) {
+        final Set<URI> terms = new LinkedHashSet<>(repositoryService.findAllWithDefinitionMentioning(labels,
+                                                                                                       vocabulary));
+        if (skip != null) {
+            terms.remove(skip);
+        }
+        LOG.trace("Definitions of {} terms may mention labels {}.", terms.size(), labels);
+        vocabularyService.runTextAnalysisOnTerms(vocabulary, terms);
+    }
+
     /**
      * Removes the specified term.
      *
@@ -425,6 +532,28 @@ public class TermService implements RudService<Term>, ChangeRecordProvider<Term>
         textAnalysisService.analyzeTermDefinition(term, vocabularyContext);
     }
 
+    /**
+     * Executes text analysis on definitions of the specified terms.
+     * <p>
+     * Multiple definitions may be analyzed in a single request to the text analysis service, see {@link
+     * TextAnalysisService#analyzeTermDefinitions(Collection, URI)}.
+     *
+     * @param terms             Terms to analyze
+     * @param vocabularyContext Identifier of the vocabulary used for analysis
+     * @return Terms whose definitions could not be analyzed
+     */
+    public List<AbstractTerm> analyzeTermDefinitions(Collection<? extends AbstractTerm> terms,
+                                                     URI vocabularyContext) {
+        Objects.requireNonNull(terms);
+        final List<AbstractTerm> toAnalyze = terms.stream().filter(t -> t.getDefinition() != null && !t.getDefinition().isEmpty())
+                                                  .collect(Collectors.toList());
+        if (toAnalyze.isEmpty()) {
+            return Collections.emptyList();
+        }
+        LOG.debug("Analyzing definitions of {} terms.", toAnalyze.size());
+        return textAnalysisService.analyzeTermDefinitions(toAnalyze, vocabularyContext);
+    }
+
     /**
      * Gets occurrences of terms which appear in the specified term's definition.
      *
@@ -16,6 +16,8 @@ package cz.cvut.kbss.termit.service.business;
 
 import cz.cvut.kbss.termit.asset.provenance.SupportsLastModification;
 import cz.cvut.kbss.termit.dto.AggregatedChangeInfo;
+import cz.cvut.kbss.termit.dto.TermCounts;
+import cz.cvut.kbss.termit.dto.TextAnalysisJobInfo;
 import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.model.validation.ValidationResult;
 import cz.cvut.kbss.termit.service.changetracking.ChangeRecordProvider;
@@ -24,6 +26,8 @@ import org.springframework.web.multipart.MultipartFile;
 import java.net.URI;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Interface of business logic concerning vocabularies.
@@ -60,18 +64,38 @@ public interface VocabularyService
     List<AggregatedChangeInfo> getChangesOfContent(Vocabulary vocabulary);
 
     /**
-     * Runs text analysis on the definitions of all terms in the specified vocabulary, including terms in the
+     * Schedules text analysis of the definitions of all terms in the specified vocabulary, including terms in the
      * transitively imported vocabularies.
+     * <p>
+     * Repeated requests for the same vocabulary are coalesced into a single analysis run.
      *
      * @param vocabulary Vocabulary to be analyzed
      */
     void runTextAnalysisOnAllTerms(Vocabulary vocabulary);
 
     /**
-     * Runs text analysis on definitions of all terms in all vocabularies.
+     * Schedules text analysis of the definitions of the specified terms.
+     * <p>
+     * Requests concerning the same vocabulary are coalesced, so that each term is analyzed at most once.
+     *
+     * @param vocabulary Vocabulary used as context of the analysis
+     * @param terms      Identifiers of terms whose definitions should be analyzed
+     */
+    void runTextAnalysisOnTerms(Vocabulary vocabulary, Collection<URI> terms);
+
+    /**
+     * Schedules text analysis of definitions of all terms in all vocabularies.
      */
     void runTextAnalysisOnAllVocabularies();
 
+    /**
+     * Gets status of the latest text analysis of term definitions in the specified vocabulary.
+     *
+     * @param vocabulary Analyzed vocabulary
+     * @return Status of the analysis, empty if no analysis of the vocabulary has been scheduled
+     */
+    Optional<TextAnalysisJobInfo> getTextAnalysisJob(Vocabulary vocabulary);
+
     /**
      * Removes a vocabulary if:
      * - it is not a document vocabulary, or
@@ -100,4 +124,11 @@ public interface VocabularyService
      * @return Number of terms in the vocabulary, 0 for empty or unknown vocabulary
      */
     Integer getTermCount(Vocabulary vocabulary);
+
+    /**
+     * Gets counts of terms in all vocabularies.
+     *
+     * @return Map of vocabulary identifiers to counts of their terms
+     */
+    Map<URI, TermCounts> getTermCounts();
 }
@@ -20,10 +20,8 @@ package cz.cvut.kbss.termit.service.document;
 import cz.cvut.kbss.termit.exception.AnnotationGenerationException;
 import cz.cvut.kbss.termit.model.AbstractTerm;
 import cz.cvut.kbss.termit.model.Asset;
-import cz.cvut.kbss.termit.model.assignment.OccurrenceTarget;
 import cz.cvut.kbss.termit.model.assignment.TermOccurrence;
 import cz.cvut.kbss.termit.model.resource.File;
-import cz.cvut.kbss.termit.model.selector.Selector;
 import cz.cvut.kbss.termit.persistence.dao.TermOccurrenceDao;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,8 +30,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Creates annotations (term occurrences) for vocabulary terms.
@@ -88,45 +87,26 @@ public class AnnotationGenerator {
         }
     }
 
-    private void saveOccurrences(List<TermOccurrence> occurrences, Asset<?> source) {
-        LOG.trace("Saving term occurrences for asset {}.", source);
-        final List<TermOccurrence> existing = termOccurrenceDao.findAllTargeting(source);
-        occurrences.stream().filter(o -> isNew(o, existing))
-                   .filter(o -> !o.getTerm().equals(source.getUri())).forEach(o -> {
-                       o.addType(cz.cvut.kbss.termit.util.Vocabulary.s_c_navrzeny_vyskyt_termu);
-                       termOccurrenceDao.persist(o);
-                   });
-    }
-
     /**
-     * Checks whether the specified term occurrence is new or if there already exists an equivalent one.
+     * Saves the difference between the specified occurrences and the occurrences already existing for the asset.
      * <p>
-     * Two occurrences are considered equivalent iff they represent the same term, they have a target with the same
-     * source file, and the target contains at least one equal selector.
+     * New occurrences are assigned the suggested type, suggested occurrences no longer present in the asset are
+     * removed.
      *
-     * @param occurrence The supposedly new occurrence to check
-     * @param existing   Existing occurrences relevant to the specified file
-     * @return Whether the occurrence is truly new
+     * @see TermOccurrenceMerger#merge(Collection, Collection)
      */
-    private static boolean isNew(TermOccurrence occurrence, List<TermOccurrence> existing) {
-        final OccurrenceTarget target = occurrence.getTarget();
-        assert target != null;
-        final Set<Selector> selectors = target.getSelectors();
-        for (TermOccurrence to : existing) {
-            if (!to.getTerm().equals(occurrence.getTerm())) {
-                continue;
-            }
-            final OccurrenceTarget fileTarget = to.getTarget();
-            assert fileTarget != null;
-            assert fileTarget.getSource().equals(target.getSource());
-            // Same term, contains at least one identical selector
-            if (fileTarget.getSelectors().stream().anyMatch(selectors::contains)) {
-                LOG.trace("Skipping occurrence {} because another one with matching term and selectors exists.",
-                        occurrence);
-                return false;
-            }
+    private void saveOccurrences(List<TermOccurrence> occurrences, Asset<?> source) {
+        LOG.trace("Saving term occurrences for asset {}.", source);
+        final List<TermOccurrence> existing = termOccurrenceDao.findAllTargeting(source);
+        final List<TermOccurrence> resolved = occurrences.stream().filter(o -> !o.getTerm().equals(source.getUri()))
+                                                         .collect(Collectors.toList());
+        final TermOccurrenceMerger.Delta delta = TermOccurrenceMerger.merge(existing, resolved);
+        LOG.trace("Term occurrences of asset {}: {}.", source, delta);
+        if (!delta.getRemoved().isEmpty()) {
+            termOccurrenceDao.removeAll(delta.getRemoved());
         }
-        return true;
+        delta.getAdded().forEach(o -> o.addType(cz.cvut.kbss.termit.util.Vocabulary.s_c_navrzeny_vyskyt_termu));
+        termOccurrenceDao.persist(delta.getAdded());
     }
 
     private void saveAnnotatedContent(File file, InputStream input) {
@@ -0,0 +1,121 @@
+package cz.cvut.kbss.termit.service.document;
+
+import cz.cvut.kbss.termit.model.assignment.OccurrenceTarget;
+import cz.cvut.kbss.termit.model.assignment.TermOccurrence;
+import cz.cvut.kbss.termit.model.selector.Selector;
+import cz.cvut.kbss.termit.util.Vocabulary;
+
+import java.net.URI;
+import java.util.*;
+
+/**
+ * Merges term occurrences resolved by annotation of an asset's content with occurrences already existing for the
+ * asset.
+ * <p>
+ * An occurrence is considered equivalent to an existing one iff they represent the same term and their targets contain
+ * at least one equal selector. Existing occurrences are indexed by term and selector, so the merge takes time linear in
+ * the number of occurrences and their selectors.
+ */
+final class TermOccurrenceMerger {
+
+    private TermOccurrenceMerger() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Computes the difference between the existing and the newly resolved occurrences of the same asset.
+     * <p>
+     * Resolved occurrences without an equivalent existing occurrence are new. Existing suggested occurrences without an
+     * equivalent resolved occurrence are removed, as they are no longer supported by the annotated content. Existing
+     * occurrences which are not suggested (i.e., confirmed by a user) are always retained.
+     *
+     * @param existing Occurrences already existing for the asset
+     * @param resolved Occurrences resolved from the annotated content of the asset
+     * @return Delta between the existing and the resolved occurrences
+     */
+    static Delta merge(Collection<TermOccurrence> existing, Collection<TermOccurrence> resolved) {
+        final Map<URI, Map<Selector, TermOccurrence>> index = new HashMap<>();
+        for (TermOccurrence to : existing) {
+            final OccurrenceTarget target = to.getTarget();
+            assert target != null;
+            final Map<Selector, TermOccurrence> termIndex = index.computeIfAbsent(to.getTerm(), k -> new HashMap<>());
+            target.getSelectors().forEach(s -> termIndex.putIfAbsent(s, to));
+        }
+        final List<TermOccurrence> added = new ArrayList<>();
+        final Set<TermOccurrence> unchanged = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (TermOccurrence to : resolved) {
+            final OccurrenceTarget target = to.getTarget();
+            assert target != null;
+            final Optional<TermOccurrence> equivalent = findEquivalent(index.get(to.getTerm()), target);
+            if (equivalent.isPresent()) {
+                unchanged.add(equivalent.get());
+            } else {
+                added.add(to);
+            }
+        }
+        final List<TermOccurrence> removed = new ArrayList<>();
+        for (TermOccurrence to : existing) {
+            if (!unchanged.contains(to) && to.getTypes() != null &&
+                    to.getTypes().contains(Vocabulary.s_c_navrzeny_vyskyt_termu)) {
+                removed.add(to);
+            }
+        }
+        return new Delta(added, new ArrayList<>(unchanged), removed);
+    }
+
+    private static Optional<TermOccurrence> findEquivalent(Map<Selector, TermOccurrence> termIndex,
+                                                           OccurrenceTarget target) {
+        if (termIndex == null || target.getSelectors() == null) {
+            return Optional.empty();
+        }
+        return target.getSelectors().stream().map(termIndex::get).filter(Objects::nonNull).findFirst();
+    }
+
+    /**
+     * Changes to be made to the existing occurrences of an asset.
+     */
+    static final class Delta {
+
+        private final List<TermOccurrence> added;
+
+        private final List<TermOccurrence> unchanged;
+
+        private final List<TermOccurrence> removed;
+
+        private Delta(List<TermOccurrence> added, List<TermOccurrence> unchanged, List<TermOccurrence> removed) {
+            this.added = added;
+            this.unchanged = unchanged;
+            this.removed = removed;
+        }
+
+        /**
+         * Resolved occurrences with no equivalent existing occurrence.
+         */
+        List<TermOccurrence> getAdded() {
+            return added;
+        }
+
+        /**
+         * Existing occurrences with an equivalent resolved occurrence.
+         */
+        List<TermOccurrence> getUnchanged() {
+            return unchanged;
+        }
+
+        /**
+         * Existing suggested occurrences with no equivalent resolved occurrence.
+         */
+        List<TermOccurrence> getRemoved() {
+            return removed;
+        }
+
+        @Override
+        public String toString() {
+            return "Delta{" +
+                    "added=" + added.size() +
+                    ", unchanged=" + unchanged.size() +
+                    ", removed=" + removed.size() +
+                    '}';
+        }
+    }
+}
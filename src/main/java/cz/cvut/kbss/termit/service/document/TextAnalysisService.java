@@ -22,7 +22,11 @@ import cz.cvut.kbss.termit.model.TextAnalysisRecord;
 import cz.cvut.kbss.termit.model.resource.File;
 import cz.cvut.kbss.termit.persistence.dao.TextAnalysisRecordDao;
 import cz.cvut.kbss.termit.util.Configuration;
+import cz.cvut.kbss.termit.util.Constants;
 import cz.cvut.kbss.termit.util.Utils;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,19 +36,24 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
-import java.util.HashSet;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.Set;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 public class TextAnalysisService {
 
     private static final Logger LOG = LoggerFactory.getLogger(TextAnalysisService.class);
 
+    /**
+     * Prefix of identifiers of elements delimiting individual term definitions in a batch analysis request.
+     */
+    static final String DEFINITION_SEGMENT_ID_PREFIX = "termit-definition-";
+
     private final RestTemplate restClient;
 
     private final Configuration config;
@@ -178,4 +187,115 @@ public class TextAnalysisService {
             throw new WebServiceIntegrationException("Unable to read text analysis result from response.", e);
         }
     }
+
+    /**
+     * Invokes text analysis on definitions of the specified terms.
+     * <p>
+     * Up to the configured batch size of definitions are sent to the text analysis service in a single request. The
+     * definitions are packed into an HTML document, each in an element with an identifier derived from its position
+     * in the batch, and the analysis result is split back into the individual definitions, which are then processed
+     * the same way as in {@link #analyzeTermDefinition(AbstractTerm, URI)}. Terms whose definitions are missing in the
+     * result, as well as all terms of a batch whose analysis failed, are analyzed one by one.
+     * <p>
+     * Failure to analyze a definition does not prevent analysis of the remaining ones.
+     *
+     * @param terms             Terms whose definitions are to be analyzed
+     * @param vocabularyContext Identifier of the vocabulary used for analysis
+     * @return Terms whose definitions could not be analyzed
+     */
+    public List<AbstractTerm> analyzeTermDefinitions(Collection<? extends AbstractTerm> terms, URI vocabularyContext) {
+        Objects.requireNonNull(terms);
+        final String language = config.getPersistence().getLanguage();
+        final List<AbstractTerm> toAnalyze = terms.stream().filter(t -> t.getDefinition() != null &&
+                t.getDefinition().contains(language)).collect(Collectors.toList());
+        final int batchSize = Math.max(1, config.getTextAnalysis().getDefinitionBatchSize());
+        final List<AbstractTerm> failed = new ArrayList<>();
+        for (int i = 0; i < toAnalyze.size(); i += batchSize) {
+            final List<AbstractTerm> batch = toAnalyze.subList(i, Math.min(i + batchSize, toAnalyze.size()));
+            final List<AbstractTerm> remaining =
+                    batch.size() > 1 ? analyzeTermDefinitionBatch(batch, vocabularyContext, language, failed) : batch;
+            for (AbstractTerm term : remaining) {
+                try {
+                    analyzeTermDefinition(term, vocabularyContext);
+                } catch (RuntimeException e) {
+                    LOG.error("Unable to analyze definition of term {}.", term, e);
+                    failed.add(term);
+                }
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Analyzes definitions of the specified terms in a single request to the text analysis service.
+     *
+     * @return Terms whose definitions were not processed and should be analyzed separately
+     */
+    private List<AbstractTerm> analyzeTermDefinitionBatch(List<AbstractTerm> batch, URI vocabularyContext,
+                                                          String language, List<AbstractTerm> failed) {
+        final TextAnalysisInput input = new TextAnalysisInput(packDefinitions(batch, language), language,
+                URI.create(config.getRepository().getUrl()));
+        input.addVocabularyContext(vocabularyContext);
+        final Document result;
+        try {
+            final Resource response = invokeTextAnalysisService(input);
+            try (final InputStream is = response.getInputStream()) {
+                result = Jsoup.parse(is, StandardCharsets.UTF_8.name(), "");
+                // Keep whitespace intact so that text positions of occurrences match the original definitions
+                result.outputSettings().prettyPrint(false);
+            }
+        } catch (RuntimeException | IOException e) {
+            LOG.warn("Text analysis of a batch of {} term definitions failed, analyzing them one by one.",
+                    batch.size(), e);
+            return batch;
+        }
+        final List<AbstractTerm> remaining = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            final AbstractTerm term = batch.get(i);
+            final Element segment = result.getElementById(DEFINITION_SEGMENT_ID_PREFIX + i);
+            if (segment == null) {
+                LOG.debug("Definition of term {} missing in batch text analysis result.", term);
+                remaining.add(term);
+                continue;
+            }
+            try {
+                annotationGenerator.generateAnnotations(new ByteArrayInputStream(
+                        extractSegment(segment).getBytes(StandardCharsets.UTF_8)), term);
+            } catch (RuntimeException e) {
+                LOG.error("Unable to generate annotations of the definition of term {}.", term, e);
+                failed.add(term);
+            }
+        }
+        return remaining;
+    }
+
+    private static String packDefinitions(List<AbstractTerm> batch, String language) {
+        final Document document = Document.createShell("");
+        document.outputSettings().prettyPrint(false);
+        for (int i = 0; i < batch.size(); i++) {
+            document.body().appendElement("div").attr("id", DEFINITION_SEGMENT_ID_PREFIX + i)
+                    .text(batch.get(i).getDefinition().get(language));
+        }
+        return document.outerHtml();
+    }
+
+    /**
+     * Creates a standalone document with the content of the specified definition segment, retaining RDFa prefixes
+     * declared by its ancestors.
+     */
+    private static String extractSegment(Element segment) {
+        final Document document = Document.createShell("");
+        document.outputSettings().prettyPrint(false);
+        final List<Element> elements = new ArrayList<>(segment.parents());
+        Collections.reverse(elements);
+        elements.add(segment);
+        Element container = document.body();
+        for (Element e : elements) {
+            if (e.hasAttr(Constants.RDFa.PREFIX)) {
+                container = container.appendElement("div").attr(Constants.RDFa.PREFIX, e.attr(Constants.RDFa.PREFIX));
+            }
+        }
+        container.append(segment.html());
+        return document.outerHtml();
+    }
 }
@@ -29,7 +29,8 @@ import java.util.stream.Collectors;
 /**
  * Combines generators of selectors for HTML/XML elements.
  * <p>
- * Currently, {@link TextQuoteSelectorGenerator} and {@link TextPositionSelectorGenerator} are used.
+ * Currently, {@link TextQuoteSelectorGenerator} and {@link TextPositionSelectorGenerator} are used. Both of them
+ * resolve positions and surrounding text of elements using a {@link HtmlTextIndex} of the document.
  *
  * @see TextQuoteSelectorGenerator
  * @see TextPositionSelectorGenerator
@@ -42,11 +43,27 @@ public class HtmlSelectorGenerators {
 
     /**
      * Generates selectors for the specified HTML/XML elements.
+     * <p>
+     * The text of the whole document containing the elements is indexed on every call, so when generating selectors
+     * for multiple elements of the same document, {@link #generateSelectors(HtmlTextIndex, Element...)} should be
+     * used instead.
      *
      * @param elements Elements to generate selectors for
      * @return Set of generated selectors
      */
     public Set<Selector> generateSelectors(Element... elements) {
-        return generators.stream().map(g -> g.generateSelector(elements)).collect(Collectors.toSet());
+        assert elements.length > 0;
+        return generateSelectors(HtmlTextIndex.of(elements[0]), elements);
+    }
+
+    /**
+     * Generates selectors for the specified HTML/XML elements using the specified text index of their document.
+     *
+     * @param index    Text index of the document containing the elements
+     * @param elements Elements to generate selectors for
+     * @return Set of generated selectors
+     */
+    public Set<Selector> generateSelectors(HtmlTextIndex index, Element... elements) {
+        return generators.stream().map(g -> g.generateSelector(index, elements)).collect(Collectors.toSet());
     }
 }
@@ -67,6 +67,8 @@ public class HtmlTermOccurrenceResolver extends TermOccurrenceResolver {
 
     private Map<String, List<Element>> annotatedElements;
 
+    private HtmlTextIndex textIndex;
+
     @Autowired
     HtmlTermOccurrenceResolver(TermRepositoryService termService, HtmlSelectorGenerators selectorGenerators,
                                DocumentManager documentManager, Configuration config) {
@@ -82,6 +84,7 @@ public class HtmlTermOccurrenceResolver extends TermOccurrenceResolver {
             this.source = source;
             this.document = Jsoup.parse(input, StandardCharsets.UTF_8.name(), "");
             this.prefixes = resolvePrefixes(document);
+            this.textIndex = null;
         } catch (IOException e) {
             throw new AnnotationGenerationException("Unable to read RDFa document.", e);
         }
@@ -160,11 +163,16 @@ public class HtmlTermOccurrenceResolver extends TermOccurrenceResolver {
         if (annotatedElements == null) {
             mapRDFaTermOccurrenceAnnotations();
         }
+        if (textIndex == null) {
+            // Shared by all occurrences so that the document text is traversed only once
+            this.textIndex = new HtmlTextIndex(document);
+        }
         final List<TermOccurrence> result = new ArrayList<>(annotatedElements.size());
         final Double scoreThreshold = Double.parseDouble(config.getTextAnalysis().getTermOccurrenceMinScore());
+        final Set<URI> existingTerms = findExistingTerms();
         for (List<Element> elements : annotatedElements.values()) {
             LOG.trace("Processing RDFa annotated elements {}.", elements);
-            final Optional<TermOccurrence> occurrence = resolveAnnotation(elements, source);
+            final Optional<TermOccurrence> occurrence = resolveAnnotation(elements, source, existingTerms);
             occurrence.ifPresent(to -> {
                 if (to.getScore() != null && to.getScore() > scoreThreshold) {
                     LOG.trace("Found term occurrence {}.", to);
@@ -177,20 +185,40 @@ public class HtmlTermOccurrenceResolver extends TermOccurrenceResolver {
         return result;
     }
 
-    private Optional<TermOccurrence> resolveAnnotation(List<Element> rdfaElem, Asset<?> source) {
+    /**
+     * Checks existence of all the terms referenced by the annotated elements at once.
+     */
+    private Set<URI> findExistingTerms() {
+        final Set<URI> termIds = new HashSet<>();
+        for (List<Element> elements : annotatedElements.values()) {
+            final String termId = resolveTermId(elements);
+            if (!termId.isEmpty()) {
+                termIds.add(URI.create(termId));
+            }
+        }
+        return termIds.isEmpty() ? Collections.emptySet() : termService.findExisting(termIds);
+    }
+
+    private String resolveTermId(List<Element> rdfaElem) {
+        return fullIri(rdfaElem.get(0).attr(Constants.RDFa.RESOURCE));
+    }
+
+    private Optional<TermOccurrence> resolveAnnotation(List<Element> rdfaElem, Asset<?> source,
+                                                       Set<URI> existingTerms) {
         assert !rdfaElem.isEmpty();
-        final String termId = fullIri(rdfaElem.get(0).attr(Constants.RDFa.RESOURCE));
+        final String termId = resolveTermId(rdfaElem);
         if (termId.isEmpty()) {
             LOG.trace("No term identifier found in RDFa element {}. Skipping it.", rdfaElem);
             return Optional.empty();
         }
         final URI termUri = URI.create(termId);
-        if (!termService.exists(termUri)) {
+        if (!existingTerms.contains(termUri)) {
             throw new AnnotationGenerationException(
                     "Term with id " + termId + " denoted by RDFa element " + rdfaElem + " not found.");
         }
         final TermOccurrence occurrence = createOccurrence(termUri, source);
-        occurrence.getTarget().setSelectors(selectorGenerators.generateSelectors(rdfaElem.toArray(new Element[0])));
+        occurrence.getTarget()
+                  .setSelectors(selectorGenerators.generateSelectors(textIndex, rdfaElem.toArray(new Element[0])));
         final String strScore = rdfaElem.get(0).attr("score");
         if (!strScore.isEmpty()) {
             try {
@@ -0,0 +1,120 @@
+package cz.cvut.kbss.termit.service.document.html;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Text content of an HTML/XML document together with offsets of its elements in the text.
+ * <p>
+ * The text content is a concatenation of all text nodes in document order, i.e., any markup is ignored (consistently
+ * with {@link Element#wholeText()}). The index is built in a single traversal of the document, so that positions and
+ * surrounding text of elements can be resolved without repeatedly extracting text of their preceding and following
+ * nodes.
+ * <p>
+ * The index reflects the state of the document at the time it was built, it is not updated when the document is
+ * modified.
+ */
+public class HtmlTextIndex {
+
+    private final String text;
+
+    // Start and end offset of each element's text content
+    private final Map<Element, int[]> offsets = new IdentityHashMap<>();
+
+    /**
+     * Indexes the specified node and all its descendants.
+     *
+     * @param root Root of the indexed tree, typically a document
+     */
+    public HtmlTextIndex(Node root) {
+        Objects.requireNonNull(root);
+        final StringBuilder sb = new StringBuilder();
+        NodeTraversor.traverse(new NodeVisitor() {
+            @Override
+            public void head(Node node, int depth) {
+                if (node instanceof TextNode) {
+                    sb.append(((TextNode) node).getWholeText());
+                } else if (node instanceof Element) {
+                    offsets.put((Element) node, new int[]{sb.length(), sb.length()});
+                }
+            }
+
+            @Override
+            public void tail(Node node, int depth) {
+                if (node instanceof Element) {
+                    offsets.get(node)[1] = sb.length();
+                }
+            }
+        }, root);
+        this.text = sb.toString();
+    }
+
+    /**
+     * Creates an index of the whole document the specified element belongs to.
+     *
+     * @param element Element whose document to index
+     * @return New index
+     */
+    public static HtmlTextIndex of(Element element) {
+        return new HtmlTextIndex(element.root());
+    }
+
+    /**
+     * Gets the position of the first character of the specified element's text content.
+     *
+     * @param element Indexed element
+     * @return Start position of the element in the text content
+     * @throws IllegalArgumentException If the element is not part of the indexed tree
+     */
+    public int getStart(Element element) {
+        return resolveOffsets(element)[0];
+    }
+
+    /**
+     * Gets the position just after the last character of the specified element's text content.
+     *
+     * @param element Indexed element
+     * @return End position of the element in the text content
+     * @throws IllegalArgumentException If the element is not part of the indexed tree
+     */
+    public int getEnd(Element element) {
+        return resolveOffsets(element)[1];
+    }
+
+    private int[] resolveOffsets(Element element) {
+        final int[] result = offsets.get(element);
+        if (result == null) {
+            throw new IllegalArgumentException("Element " + element.cssSelector() + " is not indexed.");
+        }
+        return result;
+    }
+
+    /**
+     * Gets at most the specified number of characters of text content preceding the specified position.
+     *
+     * @param position  Position in the text content
+     * @param maxLength Maximum length of the returned text
+     * @return Text preceding the position, possibly empty
+     */
+    public String getTextBefore(int position, int maxLength) {
+        return text.substring(Math.max(0, position - maxLength), position);
+    }
+
+    /**
+     * Gets at most the specified number of characters of text content following the specified position.
+     *
+     * @param position  Position in the text content
+     * @param maxLength Maximum length of the returned text
+     * @return Text following the position, possibly empty
+     */
+    public String getTextAfter(int position, int maxLength) {
+        return text.substring(position, Math.min(text.length(), position + maxLength));
+    }
+}
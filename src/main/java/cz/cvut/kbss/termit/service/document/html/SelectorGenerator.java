@@ -16,8 +16,6 @@ package cz.cvut.kbss.termit.service.document.html;
 
 import cz.cvut.kbss.termit.model.selector.Selector;
 import org.jsoup.nodes.Element;
-import org.jsoup.nodes.Node;
-import org.jsoup.nodes.TextNode;
 
 /**
  * Generator of HTML/XML selectors.
@@ -32,10 +30,25 @@ interface SelectorGenerator {
      * represented by multiple elements using the <a href="https://en.wikipedia.org/wiki/Overlapping_markup#Joins">JOINS</a>
      * strategy.
      *
+     * @param index    Text index of the document containing the elements
      * @param elements Elements to generate selector for. At least one must be provided
      * @return Selector for the text content of the specified elements
      */
-    Selector generateSelector(Element... elements);
+    Selector generateSelector(HtmlTextIndex index, Element... elements);
+
+    /**
+     * Generates selector for the specified elements' content, indexing text of the whole document they belong to.
+     * <p>
+     * When generating selectors for multiple elements of the same document, prefer {@link
+     * #generateSelector(HtmlTextIndex, Element...)} with a shared index.
+     *
+     * @param elements Elements to generate selector for. At least one must be provided
+     * @return Selector for the text content of the specified elements
+     */
+    default Selector generateSelector(Element... elements) {
+        assert elements.length > 0;
+        return generateSelector(HtmlTextIndex.of(elements[0]), elements);
+    }
 
     /**
      * Extracts text content of the specified elements, joining them into one string.
@@ -50,15 +63,4 @@ interface SelectorGenerator {
         }
         return sb.toString();
     }
-
-    default StringBuilder extractNodeText(Iterable<Node> nodes) {
-        final StringBuilder sb = new StringBuilder();
-        for (Node node : nodes) {
-            if (!(node instanceof TextNode) && !(node instanceof Element)) {
-                continue;
-            }
-            sb.append(node instanceof TextNode ? ((TextNode) node).getWholeText() : ((Element) node).wholeText());
-        }
-        return sb;
-    }
 }
@@ -17,16 +17,23 @@ package cz.cvut.kbss.termit.service.jmx;
 import cz.cvut.kbss.termit.event.EvictCacheEvent;
 import cz.cvut.kbss.termit.event.RefreshLastModifiedEvent;
 import cz.cvut.kbss.termit.event.VocabularyContentModified;
+import cz.cvut.kbss.termit.persistence.dao.lucene.FullTextIndex;
+import cz.cvut.kbss.termit.persistence.dao.util.CacheRegistry;
+import cz.cvut.kbss.termit.service.term.TextAnalysisScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
 import org.springframework.jmx.export.annotation.ManagedOperation;
 import org.springframework.jmx.export.annotation.ManagedResource;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Component
 @ManagedResource(objectName = "bean:name=TermItAdminBean", description = "TermIt administration JMX bean.")
 @Profile("!test")
@@ -36,9 +43,19 @@ public class AppAdminBean {
 
     private final ApplicationEventPublisher eventPublisher;
 
+    private final CacheRegistry cacheRegistry;
+
+    private final FullTextIndex fullTextIndex;
+
+    private final TextAnalysisScheduler textAnalysisScheduler;
+
     @Autowired
-    public AppAdminBean(ApplicationEventPublisher eventPublisher) {
+    public AppAdminBean(ApplicationEventPublisher eventPublisher, CacheRegistry cacheRegistry,
+                        FullTextIndex fullTextIndex, TextAnalysisScheduler textAnalysisScheduler) {
         this.eventPublisher = eventPublisher;
+        this.cacheRegistry = cacheRegistry;
+        this.fullTextIndex = fullTextIndex;
+        this.textAnalysisScheduler = textAnalysisScheduler;
     }
 
     @CacheEvict(allEntries = true, cacheNames = {"vocabularies"})
@@ -50,4 +67,34 @@ public class AppAdminBean {
         eventPublisher.publishEvent(new RefreshLastModifiedEvent(this));
         eventPublisher.publishEvent(new VocabularyContentModified(this));
     }
+
+    @ManagedOperation(description = "Rebuilds the embedded full text index from the repository content.")
+    public void rebuildFullTextIndex() {
+        LOG.info("Rebuilding full text index...");
+        fullTextIndex.rebuild();
+    }
+
+    @ManagedAttribute(description = "Hit, miss, eviction and load time statistics of the application caches.")
+    public Map<String, String> getCacheStatistics() {
+        final Map<String, String> result = new LinkedHashMap<>();
+        cacheRegistry.getStatistics().forEach((name, stats) -> result.put(name, stats.toString()));
+        return result;
+    }
+
+    @ManagedAttribute(description = "Number of term definition text analysis jobs waiting to be run.")
+    public int getTextAnalysisQueueDepth() {
+        return textAnalysisScheduler.getQueueDepth();
+    }
+
+    @ManagedAttribute(description = "Number of term definition text analysis jobs currently running.")
+    public int getTextAnalysisRunningJobs() {
+        return textAnalysisScheduler.getRunningCount();
+    }
+
+    @ManagedAttribute(description = "Status of the latest term definition text analysis job of each vocabulary.")
+    public Map<String, String> getTextAnalysisJobs() {
+        final Map<String, String> result = new LinkedHashMap<>();
+        textAnalysisScheduler.getJobs().forEach(job -> result.put(job.getVocabulary().toString(), job.toString()));
+        return result;
+    }
 }
@@ -15,6 +15,8 @@
 package cz.cvut.kbss.termit.service.repository;
 
 import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.termit.dto.DuplicateTerms;
+import cz.cvut.kbss.termit.dto.SimilarTerm;
 import cz.cvut.kbss.termit.dto.TermInfo;
 import cz.cvut.kbss.termit.dto.TermStatus;
 import cz.cvut.kbss.termit.dto.assignment.TermOccurrences;
@@ -312,6 +314,33 @@ public class TermRepositoryService extends BaseAssetRepositoryService<Term> {
         return termDao.findAllIncludingImported(searchString, vocabulary);
     }
 
+    /**
+     * Finds terms with a label starting with the specified prefix in the specified vocabulary.
+     *
+     * @param prefix     Label prefix
+     * @param vocabulary Vocabulary whose terms should be searched
+     * @param limit      Maximum number of returned terms
+     * @return Matching terms ordered by label
+     */
+    @Transactional(readOnly = true)
+    public List<TermDto> findAllByLabelPrefix(String prefix, Vocabulary vocabulary, int limit) {
+        return termDao.findAllByLabelPrefix(prefix, vocabulary, limit);
+    }
+
+    /**
+     * Finds terms with a label starting with the specified prefix in the specified vocabulary and any vocabularies it
+     * (transitively) imports.
+     *
+     * @param prefix     Label prefix
+     * @param vocabulary Vocabulary whose terms should be searched
+     * @param limit      Maximum number of returned terms
+     * @return Matching terms ordered by label
+     */
+    @Transactional(readOnly = true)
+    public List<TermDto> findAllByLabelPrefixIncludingImported(String prefix, Vocabulary vocabulary, int limit) {
+        return termDao.findAllByLabelPrefixIncludingImported(prefix, vocabulary, limit);
+    }
+
     /**
      * Checks whether a term with the specified label exists in a vocabulary with the specified URI.
      *
@@ -325,6 +354,71 @@ public class TermRepositoryService extends BaseAssetRepositoryService<Term> {
         return termDao.existsInVocabulary(label, vocabulary, language);
     }
 
+    /**
+     * Finds which of the specified labels are already used by terms in a vocabulary with the specified URI.
+     *
+     * @param labels     Labels to check
+     * @param vocabulary Vocabulary in which terms will be searched
+     * @param language   Language to check the existence in
+     * @return Subset of {@code labels} already used by terms in the vocabulary
+     */
+    @Transactional(readOnly = true)
+    public Set<String> findExistingLabels(Collection<String> labels, Vocabulary vocabulary, String language) {
+        return termDao.findExistingLabels(labels, vocabulary, language);
+    }
+
+    /**
+     * Finds which of the specified identifiers denote existing terms.
+     *
+     * @param ids Term identifiers to check
+     * @return Subset of {@code ids} identifying existing terms
+     */
+    @Transactional(readOnly = true)
+    public Set<URI> findExisting(Collection<URI> ids) {
+        return termDao.findExisting(ids);
+    }
+
+    /**
+     * Finds terms whose definition may contain any of the specified labels.
+     * <p>
+     * This method searches in the specified vocabulary and all the vocabularies it (transitively) imports.
+     *
+     * @param labels     Labels to look for
+     * @param vocabulary Vocabulary whose terms should be searched
+     * @return Identifiers of matching terms
+     */
+    @Transactional(readOnly = true)
+    public Set<URI> findAllWithDefinitionMentioning(Collection<MultilingualString> labels, Vocabulary vocabulary) {
+        return termDao.findAllWithDefinitionMentioning(labels, vocabulary);
+    }
+
+    /**
+     * Finds terms from all vocabularies with label similar to the specified label.
+     *
+     * @param label    Label to compare terms to
+     * @param language Label language
+     * @param minScore Minimum similarity of returned terms
+     * @param limit    Maximum number of returned terms
+     * @return Similar terms ordered by decreasing similarity
+     */
+    @Transactional(readOnly = true)
+    public List<SimilarTerm> findSimilar(String label, String language, double minScore, int limit) {
+        return termDao.findSimilar(label, language, minScore, limit);
+    }
+
+    /**
+     * Finds pairs of terms in the specified vocabulary with similar labels.
+     *
+     * @param vocabulary Vocabulary whose terms to compare
+     * @param language   Label language
+     * @param minScore   Minimum similarity of returned term pairs
+     * @return Pairs of similar terms ordered by decreasing similarity
+     */
+    @Transactional(readOnly = true)
+    public List<DuplicateTerms> findDuplicates(Vocabulary vocabulary, String language, double minScore) {
+        return termDao.findDuplicates(vocabulary, language, minScore);
+    }
+
     /**
      * Retrieves aggregated information about the specified Term's occurrences in Resources and other Terms
      * definitions.
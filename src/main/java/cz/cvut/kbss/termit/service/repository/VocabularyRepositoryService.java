@@ -1,7 +1,8 @@
 package cz.cvut.kbss.termit.service.repository;
 
 import cz.cvut.kbss.termit.dto.AggregatedChangeInfo;
-import cz.cvut.kbss.termit.dto.listing.TermDto;
+import cz.cvut.kbss.termit.dto.TermCounts;
+import cz.cvut.kbss.termit.dto.TextAnalysisJobInfo;
 import cz.cvut.kbss.termit.exception.AssetRemovalException;
 import cz.cvut.kbss.termit.exception.VocabularyImportException;
 import cz.cvut.kbss.termit.model.Glossary;
@@ -15,20 +16,18 @@ import cz.cvut.kbss.termit.persistence.dao.skos.SKOSImporter;
 import cz.cvut.kbss.termit.service.IdentifierResolver;
 import cz.cvut.kbss.termit.service.business.TermService;
 import cz.cvut.kbss.termit.service.business.VocabularyService;
+import cz.cvut.kbss.termit.service.term.TextAnalysisScheduler;
 import cz.cvut.kbss.termit.util.Configuration;
 import cz.cvut.kbss.termit.util.Utils;
 import org.apache.tika.Tika;
 import org.apache.tika.metadata.Metadata;
 import org.apache.tika.metadata.TikaCoreProperties;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -42,8 +41,6 @@ import java.util.stream.Collectors;
 @Service
 public class VocabularyRepositoryService extends BaseAssetRepositoryService<Vocabulary> implements VocabularyService {
 
-    private static final Logger LOG = LoggerFactory.getLogger(VocabularyRepositoryService.class);
-
     private final IdentifierResolver idResolver;
 
     private final VocabularyDao vocabularyDao;
@@ -56,17 +53,21 @@ public class VocabularyRepositoryService extends BaseAssetRepositoryService<Voca
 
     private final ApplicationContext context;
 
+    private final TextAnalysisScheduler textAnalysisScheduler;
+
     @Autowired
     public VocabularyRepositoryService(ApplicationContext context, VocabularyDao vocabularyDao,
                                        IdentifierResolver idResolver,
                                        Validator validator, ChangeRecordService changeRecordService,
-                                       @Lazy TermService termService, final Configuration config) {
+                                       @Lazy TermService termService, TextAnalysisScheduler textAnalysisScheduler,
+                                       final Configuration config) {
         super(validator);
         this.context = context;
         this.vocabularyDao = vocabularyDao;
         this.idResolver = idResolver;
         this.termService = termService;
         this.changeRecordService = changeRecordService;
+        this.textAnalysisScheduler = textAnalysisScheduler;
         this.config = config.getNamespace();
     }
 
@@ -211,24 +212,25 @@ public class VocabularyRepositoryService extends BaseAssetRepositoryService<Voca
     }
 
     @Override
-    @Async
     public void runTextAnalysisOnAllTerms(Vocabulary vocabulary) {
-        LOG.debug("Analyzing definitions of all terms in vocabulary {} and vocabularies it imports.", vocabulary);
-        final List<TermDto> allTerms = termService.findAll(vocabulary);
-        getTransitivelyImportedVocabularies(vocabulary).forEach(
-                importedVocabulary -> allTerms.addAll(termService.findAll(getRequiredReference(importedVocabulary))));
-        allTerms.stream().filter(t -> t.getDefinition() != null)
-                .forEach(t -> termService.analyzeTermDefinition(t, vocabulary.getUri()));
+        textAnalysisScheduler.schedule(vocabulary, true);
+    }
+
+    @Override
+    public void runTextAnalysisOnTerms(Vocabulary vocabulary, Collection<URI> terms) {
+        if (!terms.isEmpty()) {
+            textAnalysisScheduler.schedule(vocabulary, terms);
+        }
     }
 
     @Override
-    @Async
     public void runTextAnalysisOnAllVocabularies() {
-        vocabularyDao.findAll().forEach(v -> {
-            List<TermDto> terms = termService.findAll(v);
-            terms.stream().filter(t -> t.getDefinition() != null)
-                 .forEach(t -> termService.analyzeTermDefinition(t, v.getUri()));
-        });
+        vocabularyDao.findAll().forEach(v -> textAnalysisScheduler.schedule(v, false));
+    }
+
+    @Override
+    public Optional<TextAnalysisJobInfo> getTextAnalysisJob(Vocabulary vocabulary) {
+        return textAnalysisScheduler.getJob(vocabulary.getUri());
     }
 
     @Override
@@ -240,4 +242,10 @@ public class VocabularyRepositoryService extends BaseAssetRepositoryService<Voca
     public Integer getTermCount(Vocabulary vocabulary) {
         return vocabularyDao.getTermCount(vocabulary);
     }
+
+    @Override
+    public Map<URI, TermCounts> getTermCounts() {
+        return vocabularyDao.getTermCounts(
+                vocabularyDao.findAll().stream().map(Vocabulary::getUri).collect(Collectors.toList()));
+    }
 }
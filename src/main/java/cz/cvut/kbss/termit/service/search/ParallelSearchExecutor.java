@@ -0,0 +1,189 @@
+package cz.cvut.kbss.termit.service.search;
+
+import cz.cvut.kbss.termit.dto.FullTextSearchPage;
+import cz.cvut.kbss.termit.dto.FullTextSearchResult;
+import cz.cvut.kbss.termit.dto.FullTextSearchSpec;
+import cz.cvut.kbss.termit.exception.TermItException;
+import cz.cvut.kbss.termit.persistence.dao.SearchDao;
+import cz.cvut.kbss.termit.persistence.dao.hierarchy.VocabularyImportIndex;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Executes full text search separately in individual vocabularies and merges the results.
+ * <p>
+ * Instead of evaluating one search over the whole repository, the top results of each vocabulary (i.e., the vocabulary
+ * itself and its terms) are retrieved by a separate search. The searches run in parallel on a bounded thread pool.
+ * Their results are merged by score (and label), keeping only as many of the best results as the requested page
+ * needs.
+ * <p>
+ * The searches are given a deadline. When it passes, the results of the searches finished so far are returned and
+ * marked as partial. The same holds for searches which do not fit into the bounded queue of the thread pool.
+ * <p>
+ * Splitting a search pays off only when there are many vocabularies to search, see {@link
+ * Configuration.Search#getFanOutThreshold()}, and when the search DAO restricts a search to a vocabulary before
+ * matching labels, see {@link SearchDao#supportsScopedSearch()}. Otherwise, every vocabulary search would do the work
+ * of the whole search. Such DAOs find only vocabularies and terms belonging to a vocabulary, so no results are lost by
+ * the split.
+ */
+@Component
+public class ParallelSearchExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelSearchExecutor.class);
+
+    /**
+     * Orders results from the best match, i.e., by decreasing score, then by label and identifier.
+     */
+    static final Comparator<FullTextSearchResult> RANKING = Comparator
+            .comparing(FullTextSearchResult::getScore, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(FullTextSearchResult::getLabel, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(FullTextSearchResult::getUri);
+
+    private final SearchDao searchDao;
+
+    private final VocabularyImportIndex vocabularyIndex;
+
+    private final Configuration.Search config;
+
+    // Null when parallel search is disabled
+    private final ExecutorService executor;
+
+    @Autowired
+    public ParallelSearchExecutor(SearchDao searchDao, VocabularyImportIndex vocabularyIndex, Configuration config) {
+        this.searchDao = searchDao;
+        this.vocabularyIndex = vocabularyIndex;
+        this.config = config.getSearch();
+        this.executor = createExecutor(this.config.getParallelism(), this.config.getQueueCapacity());
+    }
+
+    private static ExecutorService createExecutor(int parallelism, int queueCapacity) {
+        if (parallelism <= 0) {
+            return null;
+        }
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("search-");
+        threadFactory.setDaemon(true);
+        final ThreadPoolExecutor result = new ThreadPoolExecutor(parallelism, parallelism, 1, TimeUnit.MINUTES,
+                                                                 new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                                                                 threadFactory);
+        result.allowCoreThreadTimeOut(true);
+        return result;
+    }
+
+    /**
+     * Checks whether search with the specified specification should be split into searches of the individual
+     * vocabularies.
+     *
+     * @param spec Search specification
+     * @return {@code true} if the search should be executed by this executor
+     */
+    public boolean isApplicable(FullTextSearchSpec spec) {
+        Objects.requireNonNull(spec);
+        return executor != null && searchDao.supportsScopedSearch() &&
+                vocabulariesToSearch(spec).size() >= config.getFanOutThreshold();
+    }
+
+    private Collection<URI> vocabulariesToSearch(FullTextSearchSpec spec) {
+        return spec.getVocabularies() != null ? spec.getVocabularies() : vocabularyIndex.getVocabularies();
+    }
+
+    /**
+     * Executes full text search separately in the vocabularies to search and merges the results.
+     *
+     * @param searchString The string to search by
+     * @param spec         Specification of the returned results
+     * @return Page of the best matching results, possibly partial
+     * @throws IllegalStateException If parallel search is disabled
+     */
+    public FullTextSearchPage search(String searchString, FullTextSearchSpec spec) {
+        Objects.requireNonNull(searchString);
+        Objects.requireNonNull(spec);
+        if (executor == null) {
+            throw new IllegalStateException("Parallel search is disabled.");
+        }
+        final Pageable pageSpec = spec.getPageSpec();
+        final int limit = (int) Math.min(pageSpec.getOffset() + pageSpec.getPageSize(), Integer.MAX_VALUE);
+        final Collection<URI> vocabularies = vocabulariesToSearch(spec);
+        LOG.trace("Searching for \"{}\" in {} vocabularies in parallel.", searchString, vocabularies.size());
+        final List<CompletableFuture<Page<FullTextSearchResult>>> searches = new ArrayList<>(vocabularies.size());
+        boolean rejected = false;
+        for (URI v : vocabularies) {
+            try {
+                searches.add(CompletableFuture.supplyAsync(
+                        () -> searchDao.fullTextSearch(searchString, spec.within(v, limit)), executor));
+            } catch (RejectedExecutionException e) {
+                rejected = true;
+            }
+        }
+        if (rejected) {
+            LOG.warn("Search queue is full, only {} of {} vocabularies are searched.", searches.size(),
+                     vocabularies.size());
+        }
+        final boolean partial = !awaitDeadline(searches) || rejected;
+
+        // Min-heap of the best results found so far, the worst of them at the head
+        final PriorityQueue<FullTextSearchResult> best = new PriorityQueue<>(RANKING.reversed());
+        long total = 0;
+        for (CompletableFuture<Page<FullTextSearchResult>> search : searches) {
+            if (!search.isDone() || search.isCompletedExceptionally()) {
+                // Prevents searches still waiting in the queue from running
+                search.cancel(false);
+                continue;
+            }
+            final Page<FullTextSearchResult> page = search.join();
+            total += page.getTotalElements();
+            for (FullTextSearchResult r : page.getContent()) {
+                best.offer(r);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        final List<FullTextSearchResult> merged = new ArrayList<>(best);
+        merged.sort(RANKING);
+        final int from = (int) Math.min(pageSpec.getOffset(), merged.size());
+        return new FullTextSearchPage(new ArrayList<>(merged.subList(from, merged.size())), pageSpec, total, partial);
+    }
+
+    /**
+     * Waits for the specified searches to finish, at most until the configured deadline.
+     *
+     * @return {@code true} if all the searches finished in time, {@code false} otherwise
+     */
+    private boolean awaitDeadline(List<CompletableFuture<Page<FullTextSearchResult>>> searches) {
+        try {
+            CompletableFuture.allOf(searches.toArray(new CompletableFuture[0]))
+                             .get(config.getDeadline().toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            LOG.warn("Parallel search did not finish in {}, returning partial results.", config.getDeadline());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            searches.forEach(s -> s.cancel(false));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new TermItException("Parallel search failed.", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
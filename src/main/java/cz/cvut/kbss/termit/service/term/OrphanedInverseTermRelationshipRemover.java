@@ -9,10 +9,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Optional;
-import java.util.Set;
+import java.net.URI;
+import java.util.*;
 import java.util.function.Function;
 
 @Component
@@ -28,9 +26,22 @@ public class OrphanedInverseTermRelationshipRemover {
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void removeOrphanedInverseTermRelationships(Term update, Term original) {
-        removeOrphanedRelated(update, original);
-        removeOrphanedRelatedMatch(update, original);
-        removeOrphanedExactMatches(update, original);
+        final Map<URI, List<Function<Term, Set<TermInfo>>>> toUpdate = new HashMap<>();
+        removeOrphanedRelated(update, original, toUpdate);
+        removeOrphanedRelatedMatch(update, original, toUpdate);
+        removeOrphanedExactMatches(update, original, toUpdate);
+        if (toUpdate.isEmpty()) {
+            return;
+        }
+        // Load all the affected terms at once
+        final TermInfo tiUpdate = new TermInfo(update);
+        final List<Term> terms = termDao.findAll(toUpdate.keySet());
+        assert terms.size() == toUpdate.size();
+        terms.forEach(t -> toUpdate.get(t.getUri()).forEach(getter -> {
+            if (getter.apply(t) != null) {
+                getter.apply(t).remove(tiUpdate);
+            }
+        }));
     }
 
     private Set<TermInfo> determineOrphaned(Set<TermInfo> newValue, Set<TermInfo> originalValue) {
@@ -44,40 +55,34 @@ public class OrphanedInverseTermRelationshipRemover {
         return orphaned;
     }
 
-    private void removeOrphanedRelated(Term update, Term original) {
+    private void removeOrphanedRelated(Term update, Term original,
+                                       Map<URI, List<Function<Term, Set<TermInfo>>>> toUpdate) {
         LOG.trace("Removing orphaned inverse related relationships of term {}.", update);
-        final TermInfo tiUpdate = new TermInfo(update);
         final Set<TermInfo> orphaned = determineOrphaned(update.getInverseRelated(), original.getInverseRelated());
         LOG.trace("Found {} orphaned related to remove.", orphaned);
-        removeOrphaned(tiUpdate, orphaned, Term::getRelated);
+        removeOrphaned(orphaned, Term::getRelated, toUpdate);
     }
 
-    private void removeOrphaned(TermInfo toRemove, Set<TermInfo> orphaned, Function<Term, Set<TermInfo>> getter) {
-        orphaned.forEach(o -> {
-            final Optional<Term> tOpt = termDao.find(o.getUri());
-            assert tOpt.isPresent();
-            final Term t = tOpt.get();
-            if (getter.apply(t) != null) {
-                getter.apply(t).remove(toRemove);
-            }
-        });
+    private void removeOrphaned(Set<TermInfo> orphaned, Function<Term, Set<TermInfo>> getter,
+                                Map<URI, List<Function<Term, Set<TermInfo>>>> toUpdate) {
+        orphaned.forEach(o -> toUpdate.computeIfAbsent(o.getUri(), k -> new ArrayList<>()).add(getter));
     }
 
-    private void removeOrphanedRelatedMatch(Term update, Term original) {
+    private void removeOrphanedRelatedMatch(Term update, Term original,
+                                            Map<URI, List<Function<Term, Set<TermInfo>>>> toUpdate) {
         LOG.trace("Removing orphaned inverse relatedMatch relationships of term {}.", update);
-        final TermInfo tiUpdate = new TermInfo(update);
         final Set<TermInfo> orphaned =
                 determineOrphaned(update.getInverseRelatedMatch(), original.getInverseRelatedMatch());
         LOG.trace("Found {} orphaned relatedMatch to remove.", orphaned);
-        removeOrphaned(tiUpdate, orphaned, Term::getRelatedMatch);
+        removeOrphaned(orphaned, Term::getRelatedMatch, toUpdate);
     }
 
-    private void removeOrphanedExactMatches(Term update, Term original) {
+    private void removeOrphanedExactMatches(Term update, Term original,
+                                            Map<URI, List<Function<Term, Set<TermInfo>>>> toUpdate) {
         LOG.trace("Removing orphaned inverse exactMatch relationships of term {}.", update);
-        final TermInfo tiUpdate = new TermInfo(update);
         final Set<TermInfo> orphaned =
                 determineOrphaned(update.getInverseExactMatchTerms(), original.getInverseExactMatchTerms());
         LOG.trace("Found {} orphaned exactMatch to remove.", orphaned);
-        removeOrphaned(tiUpdate, orphaned, Term::getExactMatchTerms);
+        removeOrphaned(orphaned, Term::getExactMatchTerms, toUpdate);
     }
 }
@@ -0,0 +1,377 @@
+package cz.cvut.kbss.termit.service.term;
+
+import cz.cvut.kbss.termit.dto.TextAnalysisJobInfo;
+import cz.cvut.kbss.termit.model.AbstractTerm;
+import cz.cvut.kbss.termit.model.Vocabulary;
+import cz.cvut.kbss.termit.persistence.dao.VocabularyDao;
+import cz.cvut.kbss.termit.service.business.TermService;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Schedules re-analysis of definitions of all terms in a vocabulary, or of selected terms only.
+ * <p>
+ * Requests are debounced and coalesced per vocabulary. The analysis starts only after no further request for the
+ * vocabulary has arrived for the configured debounce time (but at most after the configured maximum delay since the
+ * first request). When the analysis is requested while it is running, it is run once more after it finishes. Each term
+ * is analyzed only once per run, even if it is reachable via multiple imported vocabularies or requested repeatedly.
+ * Requests for selected terms are merged, a request for all terms subsumes them. Definitions are analyzed in batches of
+ * the configured size, a batch size of {@code 1} means each definition is analyzed separately.
+ * <p>
+ * Jobs run on a dedicated executor with a bounded number of threads. Status and progress of the latest job of each
+ * vocabulary is available via {@link #getJob(URI)}.
+ */
+@Component
+public class TextAnalysisScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TextAnalysisScheduler.class);
+
+    private final TermService termService;
+
+    private final VocabularyDao vocabularyDao;
+
+    private final Configuration.TextAnalysis config;
+
+    private final Clock clock;
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    // Latest job of each vocabulary, guarded by this
+    private final Map<URI, Job> jobs = new HashMap<>();
+
+    @Autowired
+    public TextAnalysisScheduler(@Lazy TermService termService, VocabularyDao vocabularyDao,
+                                 Configuration config) {
+        this(termService, vocabularyDao, config, Clock.systemUTC());
+    }
+
+    TextAnalysisScheduler(TermService termService, VocabularyDao vocabularyDao, Configuration config, Clock clock) {
+        this.termService = termService;
+        this.vocabularyDao = vocabularyDao;
+        this.config = config.getTextAnalysis();
+        this.clock = clock;
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("text-analysis-");
+        threadFactory.setDaemon(true);
+        this.executor = new ScheduledThreadPoolExecutor(Math.max(1, this.config.getParallelism()), threadFactory);
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Requests re-analysis of definitions of all terms in the specified vocabulary.
+     *
+     * @param vocabulary     Vocabulary whose terms to analyze. It is also the vocabulary context of the analysis
+     * @param includeImports Whether to analyze also terms from the (transitively) imported vocabularies
+     * @return Status of the job which will carry out the analysis
+     */
+    public TextAnalysisJobInfo schedule(Vocabulary vocabulary, boolean includeImports) {
+        Objects.requireNonNull(vocabulary);
+        return request(vocabulary, scope -> scope.addAll(includeImports));
+    }
+
+    /**
+     * Requests re-analysis of definitions of the specified terms.
+     * <p>
+     * The request is coalesced with other requests concerning the same vocabulary, so that each term is analyzed at
+     * most once.
+     *
+     * @param vocabulary Vocabulary context of the analysis
+     * @param terms      Identifiers of terms whose definitions to analyze
+     * @return Status of the job which will carry out the analysis
+     */
+    public TextAnalysisJobInfo schedule(Vocabulary vocabulary, Collection<URI> terms) {
+        Objects.requireNonNull(vocabulary);
+        Objects.requireNonNull(terms);
+        return request(vocabulary, scope -> scope.addTerms(terms));
+    }
+
+    private synchronized TextAnalysisJobInfo request(Vocabulary vocabulary, Consumer<Scope> request) {
+        final Instant now = clock.instant();
+        final Job job = jobs.computeIfAbsent(vocabulary.getUri(), Job::new);
+        job.securityContext = copyCurrentSecurityContext();
+        switch (job.state) {
+            case PENDING:
+                job.requests++;
+                request.accept(job.scope);
+                job.due = dueTime(job, now);
+                break;
+            case RUNNING:
+                if (job.rerun == null) {
+                    job.rerun = new Scope();
+                }
+                job.rerunRequests++;
+                request.accept(job.rerun);
+                break;
+            default:
+                final Scope scope = new Scope();
+                request.accept(scope);
+                job.reset(now, scope, 1);
+                submit(job, now);
+        }
+        LOG.trace("Text analysis of terms in vocabulary {} requested, job: {}.", vocabulary, job);
+        return job.info();
+    }
+
+    private static SecurityContext copyCurrentSecurityContext() {
+        final SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(SecurityContextHolder.getContext().getAuthentication());
+        return context;
+    }
+
+    private Instant dueTime(Job job, Instant now) {
+        final Instant debounced = now.plus(config.getDebounce());
+        final Instant latest = job.requested.plus(config.getMaxDelay());
+        return debounced.isBefore(latest) ? debounced : latest;
+    }
+
+    private void submit(Job job, Instant now) {
+        job.due = dueTime(job, now);
+        schedule(job, now);
+    }
+
+    private void schedule(Job job, Instant now) {
+        if (executor.isShutdown()) {
+            return;
+        }
+        final long delay = Math.max(0, job.due.toEpochMilli() - now.toEpochMilli());
+        executor.schedule(() -> run(job), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void run(Job job) {
+        synchronized (this) {
+            final Instant now = clock.instant();
+            if (job.due.isAfter(now)) {
+                // Postponed by further requests
+                schedule(job, now);
+                return;
+            }
+            job.start(now);
+        }
+        LOG.debug("Analyzing definitions of {} in vocabulary {}.", job.scope, job.vocabulary);
+        SecurityContextHolder.setContext(job.securityContext);
+        TextAnalysisJobInfo.State result = TextAnalysisJobInfo.State.COMPLETED;
+        try {
+            final List<AbstractTerm> terms = collectTerms(job);
+            job.totalTerms = terms.size();
+            final int batchSize = Math.max(1, config.getDefinitionBatchSize());
+            for (int i = 0; i < terms.size(); i += batchSize) {
+                if (Thread.currentThread().isInterrupted()) {
+                    result = TextAnalysisJobInfo.State.FAILED;
+                    break;
+                }
+                final List<AbstractTerm> batch = terms.subList(i, Math.min(i + batchSize, terms.size()));
+                if (batch.size() > 1) {
+                    analyze(job, batch);
+                } else {
+                    analyze(job, batch.get(0));
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Text analysis of terms in vocabulary {} failed.", job.vocabulary, e);
+            result = TextAnalysisJobInfo.State.FAILED;
+        } finally {
+            SecurityContextHolder.clearContext();
+            finish(job, result);
+        }
+    }
+
+    /**
+     * Gets terms with a definition in the job's scope, each term only once.
+     */
+    private List<AbstractTerm> collectTerms(Job job) {
+        final Vocabulary vocabulary = reference(job.vocabulary);
+        final Map<URI, AbstractTerm> terms = new LinkedHashMap<>();
+        if (job.scope.allTerms) {
+            termService.findAll(vocabulary).forEach(t -> terms.putIfAbsent(t.getUri(), t));
+            if (job.scope.includeImports) {
+                for (URI imported : vocabularyDao.getTransitivelyImportedVocabularies(vocabulary)) {
+                    termService.findAll(reference(imported)).forEach(t -> terms.putIfAbsent(t.getUri(), t));
+                }
+            }
+        } else {
+            // Targeted terms are few, so they are loaded one by one
+            job.scope.terms.forEach(uri -> termService.find(uri).ifPresent(t -> terms.put(uri, t)));
+        }
+        return terms.values().stream().filter(t -> t.getDefinition() != null && !t.getDefinition().isEmpty())
+                    .collect(Collectors.toList());
+    }
+
+    private static Vocabulary reference(URI uri) {
+        final Vocabulary vocabulary = new Vocabulary();
+        vocabulary.setUri(uri);
+        return vocabulary;
+    }
+
+    private void analyze(Job job, AbstractTerm term) {
+        try {
+            termService.analyzeTermDefinition(term, job.vocabulary);
+        } catch (RuntimeException e) {
+            LOG.error("Unable to analyze definition of term {}.", term, e);
+            job.failedTerms++;
+        }
+        job.analyzedTerms++;
+    }
+
+    private void analyze(Job job, List<AbstractTerm> batch) {
+        try {
+            job.failedTerms += termService.analyzeTermDefinitions(batch, job.vocabulary).size();
+        } catch (RuntimeException e) {
+            LOG.error("Unable to analyze definitions of a batch of {} terms.", batch.size(), e);
+            job.failedTerms += batch.size();
+        }
+        job.analyzedTerms += batch.size();
+    }
+
+    private synchronized void finish(Job job, TextAnalysisJobInfo.State result) {
+        final Instant now = clock.instant();
+        job.state = result;
+        job.finished = now;
+        LOG.debug("Text analysis of terms in vocabulary {} finished: {}.", job.vocabulary, job);
+        if (job.rerun != null) {
+            job.reset(now, job.rerun, job.rerunRequests);
+            submit(job, now);
+        }
+    }
+
+    /**
+     * Gets status of the latest text analysis job of the specified vocabulary.
+     *
+     * @param vocabulary Vocabulary identifier
+     * @return Job status, empty if no analysis of the vocabulary has been requested
+     */
+    public synchronized Optional<TextAnalysisJobInfo> getJob(URI vocabulary) {
+        return Optional.ofNullable(jobs.get(vocabulary)).map(Job::info);
+    }
+
+    /**
+     * Gets status of the latest text analysis job of every vocabulary.
+     *
+     * @return List of job statuses
+     */
+    public synchronized List<TextAnalysisJobInfo> getJobs() {
+        return jobs.values().stream().map(Job::info).collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the number of jobs waiting in the executor queue, i.e., jobs which are pending (debounced or waiting for a
+     * free thread).
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Gets the number of jobs currently running.
+     */
+    public int getRunningCount() {
+        return executor.getActiveCount();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Latest text analysis job of a vocabulary. State transitions are guarded by the scheduler, progress counters are
+     * updated only by the thread running the job.
+     */
+    private static final class Job {
+
+        private final URI vocabulary;
+
+        private TextAnalysisJobInfo.State state = TextAnalysisJobInfo.State.COMPLETED;
+        private Scope scope;
+        private int requests;
+        // Scope of the analysis requested while the job is running
+        private Scope rerun;
+        private int rerunRequests;
+        private SecurityContext securityContext;
+        private Instant requested;
+        private Instant due;
+        private Instant started;
+        private Instant finished;
+
+        private volatile int totalTerms;
+        private volatile int analyzedTerms;
+        private volatile int failedTerms;
+
+        private Job(URI vocabulary) {
+            this.vocabulary = vocabulary;
+        }
+
+        private void reset(Instant now, Scope scope, int requests) {
+            this.state = TextAnalysisJobInfo.State.PENDING;
+            this.scope = scope;
+            this.requests = requests;
+            this.rerun = null;
+            this.rerunRequests = 0;
+            this.requested = now;
+            this.started = null;
+            this.finished = null;
+            this.totalTerms = 0;
+            this.analyzedTerms = 0;
+            this.failedTerms = 0;
+        }
+
+        private void start(Instant now) {
+            this.state = TextAnalysisJobInfo.State.RUNNING;
+            this.started = now;
+        }
+
+        private TextAnalysisJobInfo info() {
+            return new TextAnalysisJobInfo(vocabulary, state, requests, rerun != null, totalTerms, analyzedTerms,
+                                           failedTerms, requested, started, finished);
+        }
+
+        @Override
+        public String toString() {
+            return info().toString();
+        }
+    }
+
+    /**
+     * Terms whose definitions are to be analyzed by a job. Either all terms of the vocabulary (and possibly its
+     * imports), or just the specified terms.
+     */
+    private static final class Scope {
+
+        private boolean allTerms;
+        private boolean includeImports;
+        private final Set<URI> terms = new LinkedHashSet<>();
+
+        private void addAll(boolean includeImports) {
+            this.allTerms = true;
+            this.includeImports |= includeImports;
+            // All terms are analyzed anyway
+            terms.clear();
+        }
+
+        private void addTerms(Collection<URI> terms) {
+            if (!allTerms) {
+                this.terms.addAll(terms);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return allTerms ? "all terms" + (includeImports ? " including imports" : "") : terms.size() + " terms";
+        }
+    }
+}
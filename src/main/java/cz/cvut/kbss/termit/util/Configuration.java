@@ -18,6 +18,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Primary;
 
 import javax.validation.constraints.NotNull;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.Set;
 
@@ -42,6 +43,8 @@ public class Configuration {
     private TextAnalysis textAnalysis = new TextAnalysis();
     private Glossary glossary = new Glossary();
     private PublicView publicView = new PublicView();
+    private Cache cache = new Cache();
+    private Search search = new Search();
 
     public Persistence getPersistence() {
         return persistence;
@@ -131,6 +134,22 @@ public class Configuration {
         this.publicView = publicView;
     }
 
+    public Cache getCache() {
+        return cache;
+    }
+
+    public void setCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public void setSearch(Search search) {
+        this.search = search;
+    }
+
     @org.springframework.context.annotation.Configuration
     @ConfigurationProperties(prefix = "persistence")
     public static class Persistence {
@@ -453,6 +472,30 @@ public class Configuration {
         @NotNull
         String termOccurrenceMinScore;
 
+        /**
+         * How long to wait after the last request to re-analyze term definitions in a vocabulary before the analysis
+         * starts. Requests arriving in the meantime are coalesced into one analysis.
+         */
+        private Duration debounce = Duration.ofSeconds(5);
+
+        /**
+         * Maximum time a requested re-analysis of term definitions in a vocabulary may be postponed by further
+         * requests.
+         */
+        private Duration maxDelay = Duration.ofMinutes(1);
+
+        /**
+         * Maximum number of vocabularies whose term definitions are re-analyzed concurrently.
+         */
+        private int parallelism = 2;
+
+        /**
+         * Maximum number of term definitions sent to the text analysis service in a single request.
+         * <p>
+         * Values lower than {@code 2} disable batching, i.e., each definition is analyzed in a separate request.
+         */
+        private int definitionBatchSize = 20;
+
         public String getUrl() {
             return url;
         }
@@ -476,6 +519,38 @@ public class Configuration {
         public void setTermOccurrenceMinScore(String termOccurrenceMinScore) {
             this.termOccurrenceMinScore = termOccurrenceMinScore;
         }
+
+        public Duration getDebounce() {
+            return debounce;
+        }
+
+        public void setDebounce(Duration debounce) {
+            this.debounce = debounce;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getDefinitionBatchSize() {
+            return definitionBatchSize;
+        }
+
+        public void setDefinitionBatchSize(int definitionBatchSize) {
+            this.definitionBatchSize = definitionBatchSize;
+        }
     }
 
     @org.springframework.context.annotation.Configuration
@@ -487,6 +562,11 @@ public class Configuration {
         @NotNull
         String fragment;
 
+        /**
+         * Maximum number of threads comparing term labels of a vocabulary when computing its duplicate term report.
+         */
+        private int duplicateReportParallelism = 2;
+
         public String getFragment() {
             return fragment;
         }
@@ -494,6 +574,14 @@ public class Configuration {
         public void setFragment(String fragment) {
             this.fragment = fragment;
         }
+
+        public int getDuplicateReportParallelism() {
+            return duplicateReportParallelism;
+        }
+
+        public void setDuplicateReportParallelism(int duplicateReportParallelism) {
+            this.duplicateReportParallelism = duplicateReportParallelism;
+        }
     }
 
     @org.springframework.context.annotation.Configuration
@@ -512,4 +600,128 @@ public class Configuration {
             this.whiteListProperties = whiteListProperties;
         }
     }
+
+    @org.springframework.context.annotation.Configuration
+    @ConfigurationProperties(prefix = "cache")
+    public static class Cache {
+        /**
+         * Maximum total weight of entries of a single application cache.
+         * <p>
+         * Weight of an entry is the size of its value if it is a collection or a map, one otherwise.
+         */
+        private long maximumWeight = 100_000;
+
+        /**
+         * How long after being computed cache entries expire. Optional, entries do not expire by default.
+         */
+        private Duration expireAfterWrite;
+
+        public long getMaximumWeight() {
+            return maximumWeight;
+        }
+
+        public void setMaximumWeight(long maximumWeight) {
+            this.maximumWeight = maximumWeight;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+    }
+
+    @org.springframework.context.annotation.Configuration
+    @ConfigurationProperties(prefix = "search")
+    public static class Search {
+        /**
+         * Directory in which the embedded full text index is stored.
+         * <p>
+         * The embedded index is used only when the repository does not provide its own full text index. Optional, if
+         * not set, the index is stored in a directory next to the file storage (see {@link File#getStorage()}).
+         */
+        private String indexDirectory;
+
+        /**
+         * Maximum number of full text search results considered when results have to be filtered before paging.
+         * <p>
+         * This is the case when the number of results per vocabulary is limited or when only terms are searched. It is
+         * also always the case with Lucene-based repositories, whose hits are rescored by the application, so only
+         * this many top hits are rescored and paged.
+         */
+        private int maxResults = 1000;
+
+        /**
+         * Minimum number of searched vocabularies for which full text search is split into separate searches of the
+         * individual vocabularies, executed in parallel.
+         */
+        private int fanOutThreshold = 20;
+
+        /**
+         * Maximum number of vocabulary searches executed in parallel. If set to zero, searches are never split.
+         */
+        private int parallelism = 4;
+
+        /**
+         * Maximum number of vocabulary searches waiting for execution. Vocabulary searches which do not fit into the
+         * queue are skipped and the results are marked as partial.
+         */
+        private int queueCapacity = 1000;
+
+        /**
+         * How long to wait for the parallel vocabulary searches. When the time elapses, results of the vocabulary
+         * searches finished so far are returned and marked as partial.
+         */
+        private Duration deadline = Duration.ofSeconds(10);
+
+        public String getIndexDirectory() {
+            return indexDirectory;
+        }
+
+        public void setIndexDirectory(String indexDirectory) {
+            this.indexDirectory = indexDirectory;
+        }
+
+        public int getMaxResults() {
+            return maxResults;
+        }
+
+        public void setMaxResults(int maxResults) {
+            this.maxResults = maxResults;
+        }
+
+        public int getFanOutThreshold() {
+            return fanOutThreshold;
+        }
+
+        public void setFanOutThreshold(int fanOutThreshold) {
+            this.fanOutThreshold = fanOutThreshold;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getDeadline() {
+            return deadline;
+        }
+
+        public void setDeadline(Duration deadline) {
+            this.deadline = deadline;
+        }
+    }
 }
@@ -43,6 +43,16 @@ public class Constants {
      */
     public static final Pageable DEFAULT_PAGE_SPEC = PageRequest.of(0, DEFAULT_PAGE_SIZE);
 
+    /**
+     * Default maximum number of terms returned by label autocompletion.
+     */
+    public static final int DEFAULT_AUTOCOMPLETE_SIZE = 10;
+
+    /**
+     * Default minimum similarity of labels of terms considered similar (near-duplicates).
+     */
+    public static final double DEFAULT_SIMILARITY_THRESHOLD = 0.8;
+
     /**
      * Path to directory containing queries used by the system.
      * <p>
@@ -57,6 +67,20 @@ public class Constants {
      */
     public static final String X_TOTAL_COUNT_HEADER = "X-Total-Count";
 
+    /**
+     * Represents the X-Next-Cursor HTTP header used to convey continuation token of the next page of a keyset-paged
+     * response.
+     *
+     * @see QueryParams#CURSOR
+     */
+    public static final String X_NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Represents the X-Partial-Results HTTP header used to signal that the response contains only part of the results,
+     * e.g., because their retrieval did not finish in time.
+     */
+    public static final String X_PARTIAL_RESULTS_HEADER = "X-Partial-Results";
+
     /**
      * Score threshold for term occurrence.
      */
@@ -178,6 +202,15 @@ public class Constants {
          */
         public static final String PAGE_SIZE = "size";
 
+        /**
+         * HTTP request query parameter denoting continuation token of a page.
+         * <p>
+         * Used for keyset paging in collections of results, where it takes precedence over {@link #PAGE}.
+         *
+         * @see #PAGE_SIZE
+         */
+        public static final String CURSOR = "cursor";
+
         private QueryParams() {
             throw new AssertionError();
         }
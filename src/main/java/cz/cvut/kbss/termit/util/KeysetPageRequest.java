@@ -0,0 +1,187 @@
+package cz.cvut.kbss.termit.util;
+
+import cz.cvut.kbss.termit.exception.InvalidParameterException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Page specification based on the position of the last item of the previous page (keyset pagination).
+ * <p>
+ * Instead of skipping a number of items, the next page starts right after the last item of the previous page. The
+ * position is given by the label and identifier of that item, as results are ordered by label with identifier as a tie
+ * breaker. Clients receive the position as an opaque continuation token (see {@link #createToken(String, URI)}).
+ * <p>
+ * Page number and offset are relative to the position, i.e., the first page after the position has number zero and
+ * {@link #next()} skips one page size of items following the position. Clients are expected to continue with a new
+ * position obtained from the last item of the returned page, but the relative pages allow this request to be used
+ * wherever a {@link Pageable} navigates by page number.
+ */
+public final class KeysetPageRequest implements Pageable {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private final int pageSize;
+
+    private final String lastLabel;
+
+    private final URI lastIdentifier;
+
+    private final int pageNumber;
+
+    public KeysetPageRequest(int pageSize, String lastLabel, URI lastIdentifier) {
+        this(pageSize, lastLabel, lastIdentifier, 0);
+    }
+
+    /**
+     * @param pageSize       Size of the page
+     * @param lastLabel      Label of the last item preceding the position
+     * @param lastIdentifier Identifier of the last item preceding the position
+     * @param pageNumber     Number of the page counted from the position
+     */
+    public KeysetPageRequest(int pageSize, String lastLabel, URI lastIdentifier, int pageNumber) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one.");
+        }
+        if (pageNumber < 0) {
+            throw new IllegalArgumentException("Page number must not be less than zero.");
+        }
+        this.pageSize = pageSize;
+        this.pageNumber = pageNumber;
+        this.lastLabel = Objects.requireNonNull(lastLabel);
+        this.lastIdentifier = Objects.requireNonNull(lastIdentifier);
+    }
+
+    /**
+     * Label of the last item of the previous page.
+     */
+    public String getLastLabel() {
+        return lastLabel;
+    }
+
+    /**
+     * Identifier of the last item of the previous page.
+     */
+    public URI getLastIdentifier() {
+        return lastIdentifier;
+    }
+
+    @Override
+    public int getPageNumber() {
+        return pageNumber;
+    }
+
+    @Override
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public long getOffset() {
+        return (long) pageNumber * pageSize;
+    }
+
+    @Override
+    public Sort getSort() {
+        return Sort.unsorted();
+    }
+
+    @Override
+    public KeysetPageRequest next() {
+        return withPage(pageNumber + 1);
+    }
+
+    @Override
+    public KeysetPageRequest previousOrFirst() {
+        return pageNumber > 0 ? withPage(pageNumber - 1) : this;
+    }
+
+    @Override
+    public KeysetPageRequest first() {
+        return withPage(0);
+    }
+
+    @Override
+    public KeysetPageRequest withPage(int pageNumber) {
+        return new KeysetPageRequest(pageSize, lastLabel, lastIdentifier, pageNumber);
+    }
+
+    /**
+     * Always returns {@code true}, as there are items preceding the position.
+     */
+    @Override
+    public boolean hasPrevious() {
+        return true;
+    }
+
+    /**
+     * Creates a continuation token representing position after the specified item.
+     *
+     * @param label      Label of the last item of a page
+     * @param identifier Identifier of the last item of a page
+     * @return Opaque continuation token
+     * @see #fromToken(String, int)
+     */
+    public static String createToken(String label, URI identifier) {
+        Objects.requireNonNull(label);
+        Objects.requireNonNull(identifier);
+        return Base64.getUrlEncoder().withoutPadding()
+                     .encodeToString((label + SEPARATOR + identifier).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a page request continuing after the position represented by the specified token.
+     *
+     * @param token    Continuation token
+     * @param pageSize Size of the requested page
+     * @return Page request
+     * @throws InvalidParameterException When the token is not valid
+     * @see #createToken(String, URI)
+     */
+    public static KeysetPageRequest fromToken(String token, int pageSize) {
+        Objects.requireNonNull(token);
+        try {
+            final String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final int separatorIndex = value.lastIndexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new InvalidParameterException("Invalid continuation token " + token);
+            }
+            return new KeysetPageRequest(pageSize, value.substring(0, separatorIndex),
+                                         new URI(value.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | URISyntaxException e) {
+            throw new InvalidParameterException("Invalid continuation token " + token);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof KeysetPageRequest)) {
+            return false;
+        }
+        KeysetPageRequest that = (KeysetPageRequest) o;
+        return pageSize == that.pageSize && pageNumber == that.pageNumber && lastLabel.equals(that.lastLabel) &&
+                lastIdentifier.equals(that.lastIdentifier);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(pageSize, pageNumber, lastLabel, lastIdentifier);
+    }
+
+    @Override
+    public String toString() {
+        return "KeysetPageRequest{" +
+                "pageSize=" + pageSize +
+                ", pageNumber=" + pageNumber +
+                ", after=" + lastLabel + " <" + lastIdentifier + ">" +
+                '}';
+    }
+}
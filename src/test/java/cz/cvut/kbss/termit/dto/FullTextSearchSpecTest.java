@@ -0,0 +1,85 @@
+package cz.cvut.kbss.termit.dto;
+
+import cz.cvut.kbss.jopa.vocabulary.SKOS;
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.util.Vocabulary;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FullTextSearchSpecTest {
+
+    private static FullTextSearchResult term(URI vocabulary, double score) {
+        return new FullTextSearchResult(Generator.generateUri(), "test", vocabulary, false, SKOS.CONCEPT, "label",
+                                        "test", score);
+    }
+
+    @Test
+    void applyReturnsRequestedPageOfResultsWithTotalNumberOfMatchingResults() {
+        final URI vocabulary = Generator.generateUri();
+        final List<FullTextSearchResult> results = Arrays.asList(term(vocabulary, 5.0), term(vocabulary, 4.0),
+                                                                 term(vocabulary, 3.0));
+        final FullTextSearchSpec sut = new FullTextSearchSpec(PageRequest.of(1, 2), null, null);
+
+        final Page<FullTextSearchResult> result = sut.apply(results);
+        assertEquals(Collections.singletonList(results.get(2)), result.getContent());
+        assertEquals(3, result.getTotalElements());
+    }
+
+    @Test
+    void applySkipsResultsWithScoreLowerThanMinimum() {
+        final URI vocabulary = Generator.generateUri();
+        final List<FullTextSearchResult> results = Arrays.asList(term(vocabulary, 5.0), term(vocabulary, 1.0));
+        final FullTextSearchSpec sut = new FullTextSearchSpec(PageRequest.of(0, 10), 2.0, null);
+
+        final Page<FullTextSearchResult> result = sut.apply(results);
+        assertEquals(Collections.singletonList(results.get(0)), result.getContent());
+        assertEquals(1, result.getTotalElements());
+    }
+
+    @Test
+    void applyReturnsAtMostSpecifiedNumberOfTopResultsFromEachVocabulary() {
+        final URI first = Generator.generateUri();
+        final URI second = Generator.generateUri();
+        final List<FullTextSearchResult> results = Arrays.asList(term(first, 5.0), term(first, 4.0),
+                                                                 term(second, 3.0), term(first, 2.0));
+        final FullTextSearchSpec sut = new FullTextSearchSpec(PageRequest.of(0, 10), null, 2);
+
+        final Page<FullTextSearchResult> result = sut.apply(results);
+        assertEquals(results.subList(0, 3), result.getContent());
+    }
+
+    @Test
+    void termsInRestrictsResultsToTermsFromSpecifiedVocabularies() {
+        final URI vocabulary = Generator.generateUri();
+        final FullTextSearchSpec sut = FullTextSearchSpec.DEFAULT.termsIn(Collections.singleton(vocabulary));
+
+        assertTrue(sut.matches(term(vocabulary, 1.0)));
+        assertFalse(sut.matches(term(Generator.generateUri(), 1.0)));
+        assertFalse(sut.matches(new FullTextSearchResult(vocabulary, "test", null, null, Vocabulary.s_c_slovnik,
+                                                         "label", "test", 1.0)));
+        assertFalse(sut.isWindowed());
+    }
+
+    @Test
+    void withinRestrictsResultsToTopResultsFromSpecifiedVocabularyIncludingVocabularyItself() {
+        final URI vocabulary = Generator.generateUri();
+        final FullTextSearchSpec sut = new FullTextSearchSpec(PageRequest.of(3, 10), 2.0, null).within(vocabulary, 40);
+
+        assertEquals(PageRequest.of(0, 40), sut.getPageSpec());
+        assertEquals(2.0, sut.getMinScore());
+        assertEquals(vocabulary, sut.getScope());
+        assertTrue(sut.matches(term(vocabulary, 3.0)));
+        assertTrue(sut.matches(new FullTextSearchResult(vocabulary, "test", null, null, Vocabulary.s_c_slovnik,
+                                                        "label", "test", 3.0)));
+        assertFalse(sut.matches(term(Generator.generateUri(), 3.0)));
+        assertFalse(sut.isWindowed());
+    }
+}
@@ -43,9 +43,12 @@ import java.io.InputStream;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.security.Principal;
+import java.text.Collator;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -189,4 +192,11 @@ public class Environment {
     public static List<TermDto> termsToDtos(List<Term> terms) {
         return terms.stream().map(TermDto::new).collect(Collectors.toList());
     }
+
+    /**
+     * Gets comparator of label values consistent with the ordering of term listings in the default test language.
+     */
+    public static Comparator<Object> labelComparator() {
+        return Collator.getInstance(Locale.forLanguageTag(LANGUAGE));
+    }
 }
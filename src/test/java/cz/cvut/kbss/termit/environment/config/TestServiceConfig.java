@@ -17,6 +17,7 @@ import cz.cvut.kbss.termit.environment.Environment;
 import cz.cvut.kbss.termit.model.selector.Selector;
 import cz.cvut.kbss.termit.service.document.html.DummySelectorGenerator;
 import cz.cvut.kbss.termit.service.document.html.HtmlSelectorGenerators;
+import cz.cvut.kbss.termit.service.document.html.HtmlTextIndex;
 import org.aspectj.lang.Aspects;
 import org.jsoup.nodes.Element;
 import org.springframework.boot.test.context.TestConfiguration;
@@ -70,8 +71,8 @@ public class TestServiceConfig {
     public HtmlSelectorGenerators htmlSelectorGenerators() {
         return new HtmlSelectorGenerators() {
             @Override
-            public Set<Selector> generateSelectors(Element... elements) {
-                return Collections.singleton(new DummySelectorGenerator().generateSelector(elements));
+            public Set<Selector> generateSelectors(HtmlTextIndex index, Element... elements) {
+                return Collections.singleton(new DummySelectorGenerator().generateSelector(index, elements));
             }
         };
     }
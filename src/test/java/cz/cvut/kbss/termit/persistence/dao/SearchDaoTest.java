@@ -16,6 +16,7 @@ package cz.cvut.kbss.termit.persistence.dao;
 
 import cz.cvut.kbss.jopa.model.EntityManager;
 import cz.cvut.kbss.termit.dto.FullTextSearchResult;
+import cz.cvut.kbss.termit.dto.FullTextSearchSpec;
 import cz.cvut.kbss.termit.environment.Environment;
 import cz.cvut.kbss.termit.environment.Generator;
 import cz.cvut.kbss.termit.model.Term;
@@ -24,10 +25,13 @@ import cz.cvut.kbss.termit.model.Vocabulary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -178,4 +182,106 @@ class SearchDaoTest extends BaseDaoTestRunner {
         final List<FullTextSearchResult> result = sut.fullTextSearch("");
         assertTrue(result.isEmpty());
     }
+
+    @Test
+    void fullTextSearchReturnsRequestedPageWithTotalNumberOfMatches() {
+        final List<Term> terms = persistTermsWithLabels("Matching label one", "Matching label two",
+                                                        "Matching label three", "Unknown label");
+        final FullTextSearchSpec spec = new FullTextSearchSpec(PageRequest.of(1, 2), null, null);
+
+        final Page<FullTextSearchResult> result = sut.fullTextSearch("matching", spec);
+        assertEquals(1, result.getNumberOfElements());
+        assertEquals(3, result.getTotalElements());
+        // Results are ordered by label
+        assertEquals(terms.get(1).getUri(), result.getContent().get(0).getUri());
+    }
+
+    @Test
+    void fullTextSearchCountsTotalNumberOfMatchesWhenPageIsFull() {
+        persistTermsWithLabels("Matching label one", "Matching label two", "Matching label three", "Unknown label");
+        final FullTextSearchSpec spec = new FullTextSearchSpec(PageRequest.of(0, 2), null, null);
+
+        final Page<FullTextSearchResult> result = sut.fullTextSearch("matching", spec);
+        assertEquals(2, result.getNumberOfElements());
+        assertEquals(3, result.getTotalElements());
+    }
+
+    private List<Term> persistTermsWithLabels(String... labels) {
+        this.vocabulary = Generator.generateVocabularyWithId();
+        final List<Term> terms = new ArrayList<>(labels.length);
+        for (String label : labels) {
+            final Term term = new Term();
+            term.setUri(Generator.generateUri());
+            term.setPrimaryLabel(label);
+            vocabulary.getGlossary().addRootTerm(term);
+            term.setVocabulary(vocabulary.getUri());
+            terms.add(term);
+        }
+        transactional(() -> {
+            em.persist(vocabulary);
+            terms.forEach(em::persist);
+        });
+        return terms;
+    }
+
+    @Test
+    void fullTextSearchLimitsNumberOfResultsPerVocabulary() {
+        persistTermsWithLabels("Matching label one", "Matching label two", "Matching label three");
+        final Vocabulary first = vocabulary;
+        persistTermsWithLabels("Matching label four");
+        final FullTextSearchSpec spec = new FullTextSearchSpec(PageRequest.of(0, 10), null, 2);
+
+        final Page<FullTextSearchResult> result = sut.fullTextSearch("matching", spec);
+        assertEquals(3, result.getTotalElements());
+        assertEquals(2, result.getContent().stream().filter(r -> first.getUri().equals(r.getVocabulary())).count());
+        assertEquals(1, result.getContent().stream().filter(r -> vocabulary.getUri().equals(r.getVocabulary()))
+                              .count());
+    }
+
+    @Test
+    void fullTextSearchReturnsOnlyTermsFromSpecifiedVocabulariesWhenRequested() {
+        persistTermsWithLabels("Matching label one");
+        final Vocabulary first = vocabulary;
+        final List<Term> terms = persistTermsWithLabels("Matching label two");
+        final Vocabulary matchingVocabulary = Generator.generateVocabularyWithId();
+        matchingVocabulary.setLabel("Matching vocabulary");
+        transactional(() -> em.persist(matchingVocabulary));
+        final FullTextSearchSpec spec = new FullTextSearchSpec(PageRequest.of(0, 10), null, null)
+                .termsIn(Collections.singleton(vocabulary.getUri()));
+
+        final Page<FullTextSearchResult> result = sut.fullTextSearch("matching", spec);
+        assertEquals(1, result.getTotalElements());
+        assertEquals(terms.get(0).getUri(), result.getContent().get(0).getUri());
+        assertNotEquals(first.getUri(), result.getContent().get(0).getVocabulary());
+    }
+
+    @Test
+    void fullTextSearchWithinVocabularyReturnsOnlyVocabularyAndItsTerms() {
+        persistTermsWithLabels("Matching label one");
+        final List<Term> terms = persistTermsWithLabels("Matching label two");
+        final Vocabulary matchingVocabulary = Generator.generateVocabularyWithId();
+        matchingVocabulary.setLabel("Matching vocabulary");
+        transactional(() -> em.persist(matchingVocabulary));
+        final FullTextSearchSpec spec = new FullTextSearchSpec(PageRequest.of(0, 10), null, null);
+
+        final Page<FullTextSearchResult> termResult = sut.fullTextSearch("matching",
+                                                                         spec.within(vocabulary.getUri(), 10));
+        assertEquals(Collections.singletonList(terms.get(0).getUri()),
+                     termResult.getContent().stream().map(FullTextSearchResult::getUri).collect(Collectors.toList()));
+        final Page<FullTextSearchResult> vocabularyResult = sut.fullTextSearch("matching",
+                                                                               spec.within(matchingVocabulary.getUri(),
+                                                                                           10));
+        assertEquals(Collections.singletonList(matchingVocabulary.getUri()),
+                     vocabularyResult.getContent().stream().map(FullTextSearchResult::getUri)
+                                     .collect(Collectors.toList()));
+    }
+
+    @Test
+    void fullTextSearchReturnsEmptyPageForEmptyInputString() {
+        generateAndPersistTerms();
+        final Page<FullTextSearchResult> result = sut.fullTextSearch("", new FullTextSearchSpec(PageRequest.of(0, 5),
+                                                                                                null, null));
+        assertTrue(result.isEmpty());
+        assertEquals(0, result.getTotalElements());
+    }
 }
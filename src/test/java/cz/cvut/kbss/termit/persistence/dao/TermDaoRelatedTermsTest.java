@@ -202,4 +202,32 @@ public class TermDaoRelatedTermsTest extends BaseDaoTestRunner {
         assertThat(result.get().getRelatedMatch(), hasItems(relatedMatch.stream().map(TermInfo::new)
                                                                         .toArray(TermInfo[]::new)));
     }
+
+    @Test
+    void findAllByIdentifiersLoadsInferredInverseRelationshipsOfAllTerms() {
+        final Term termOne = Generator.generateTermWithId(vocabulary.getUri());
+        final Term termTwo = Generator.generateTermWithId(vocabulary.getUri());
+        final Term related = Generator.generateTermWithId(vocabulary.getUri());
+        final Term exactMatch = Generator.generateTermWithId(vocabulary.getUri());
+        transactional(() -> {
+            for (Term t : Arrays.asList(termOne, termTwo, related, exactMatch)) {
+                em.persist(t, descriptorFactory.termDescriptor(vocabulary));
+                Generator.addTermInVocabularyRelationship(t, vocabulary.getUri(), em);
+            }
+            generateRelatedRelationships(termOne, Collections.singleton(related), SKOS.RELATED);
+            generateRelatedRelationships(termTwo, Collections.singleton(related), SKOS.RELATED);
+            generateRelatedRelationships(termTwo, Collections.singleton(exactMatch), SKOS.EXACT_MATCH);
+        });
+
+        final List<Term> result = sut.findAll(
+                Arrays.asList(termOne.getUri(), termTwo.getUri(), Generator.generateUri()));
+        assertEquals(2, result.size());
+        final Term resultOne = result.stream().filter(termOne::equals).findFirst().orElseThrow();
+        final Term resultTwo = result.stream().filter(termTwo::equals).findFirst().orElseThrow();
+        assertEquals(Collections.singleton(new TermInfo(related)), resultOne.getInverseRelated());
+        assertThat(resultOne.getInverseExactMatchTerms(), emptyCollectionOf(TermInfo.class));
+        assertEquals(Collections.singleton(new TermInfo(related)), resultTwo.getInverseRelated());
+        assertEquals(Collections.singleton(new TermInfo(exactMatch)), resultTwo.getInverseExactMatchTerms());
+        assertThat(resultTwo.getInverseRelatedMatch(), emptyCollectionOf(TermInfo.class));
+    }
 }
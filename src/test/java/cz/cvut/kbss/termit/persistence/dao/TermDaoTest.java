@@ -23,6 +23,7 @@ import cz.cvut.kbss.termit.model.selector.TextQuoteSelector;
 import cz.cvut.kbss.termit.persistence.DescriptorFactory;
 import cz.cvut.kbss.termit.util.Configuration;
 import cz.cvut.kbss.termit.util.Constants;
+import cz.cvut.kbss.termit.util.KeysetPageRequest;
 import org.eclipse.rdf4j.common.iteration.Iterations;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
@@ -97,7 +98,8 @@ class TermDaoTest extends BaseDaoTestRunner {
 
     private List<Term> generateTerms(int count) {
         return IntStream.range(0, count).mapToObj(i -> Generator.generateTermWithId())
-                        .sorted(Comparator.comparing((Term t) -> t.getLabel().get(Environment.LANGUAGE)))
+                        .sorted(Comparator.comparing((Term t) -> t.getLabel().get(Environment.LANGUAGE),
+                                                    Environment.labelComparator()))
                         .collect(Collectors.toList());
     }
 
@@ -144,6 +146,116 @@ class TermDaoTest extends BaseDaoTestRunner {
         assertEquals(toDtos(subList), result);
     }
 
+    @Test
+    void findAllRootsWithKeysetPageRequestReturnsTermsFollowingSpecifiedTerm() {
+        final List<Term> terms = generateTerms(10);
+        addTermsAndSave(new HashSet<>(terms), vocabulary);
+        final Term last = terms.get(3);
+
+        final List<TermDto> result = sut.findAllRoots(vocabulary, keysetAfter(last, 4), Collections.emptyList());
+        assertEquals(toDtos(terms.subList(4, 8)), result);
+    }
+
+    @Test
+    void findAllRootsWithNextKeysetPageRequestSkipsPageFollowingSpecifiedTerm() {
+        final List<Term> terms = generateTerms(10);
+        addTermsAndSave(new HashSet<>(terms), vocabulary);
+        final KeysetPageRequest pageSpec = keysetAfter(terms.get(1), 3);
+
+        assertEquals(toDtos(terms.subList(5, 8)),
+                     sut.findAllRoots(vocabulary, pageSpec.next(), Collections.emptyList()));
+        assertEquals(toDtos(terms.subList(8, 10)),
+                     sut.findAllRoots(pageSpec.withPage(2), Collections.emptyList()));
+    }
+
+    private static KeysetPageRequest keysetAfter(Term term, int pageSize) {
+        return new KeysetPageRequest(pageSize, term.getLabel().get(Environment.LANGUAGE), term.getUri());
+    }
+
+    @Test
+    void findAllRootsWithKeysetPageRequestOrdersTermsWithSameLabelByIdentifier() {
+        final List<Term> terms = generateTerms(4);
+        terms.forEach(t -> t.getLabel().set(Environment.LANGUAGE, "Same label"));
+        terms.sort(Comparator.comparing(t -> t.getUri().toString()));
+        addTermsAndSave(new HashSet<>(terms), vocabulary);
+
+        final List<TermDto> result = sut.findAllRoots(vocabulary, keysetAfter(terms.get(1), 10),
+                                                      Collections.emptyList());
+        assertEquals(toDtos(terms.subList(2, 4)), result);
+    }
+
+    @Test
+    void findAllRootsWithoutVocabularyWithKeysetPageRequestReturnsTermsFollowingSpecifiedTerm() {
+        final List<Term> terms = generateTerms(10);
+        addTermsAndSave(new HashSet<>(terms), vocabulary);
+        final Term last = terms.get(5);
+
+        final List<TermDto> result = sut.findAllRoots(keysetAfter(last, 3), Collections.emptyList());
+        assertEquals(toDtos(terms.subList(6, 9)), result);
+    }
+
+    @Test
+    void findAllRootsIncludingImportsWithKeysetPageRequestReturnsTermsFollowingSpecifiedTerm() {
+        final List<Term> terms = generateTerms(4);
+        terms.forEach(t -> t.getLabel().set(Environment.LANGUAGE, "Same label"));
+        terms.sort(Comparator.comparing(t -> t.getUri().toString()));
+        addTermsAndSave(new HashSet<>(terms), vocabulary);
+
+        final List<TermDto> result = sut.findAllRootsIncludingImports(vocabulary, keysetAfter(terms.get(0), 2),
+                                                                      Collections.emptyList());
+        assertEquals(toDtos(terms.subList(1, 3)), result);
+    }
+
+    @Test
+    void findAllRootsWithoutVocabularyPagesThroughRootsOfMultipleVocabulariesInLabelOrder() {
+        final List<Term> terms = generateTerms(6);
+        addTermsAndSave(new HashSet<>(terms), vocabulary);
+        final Vocabulary vocabulary2 = Generator.generateVocabularyWithId();
+        transactional(() -> em.persist(vocabulary2, descriptorFactory.vocabularyDescriptor(vocabulary2)));
+        final List<Term> terms2 = generateTerms(7);
+        addTermsAndSave(new HashSet<>(terms2), vocabulary2);
+        final List<Term> allTerms = new ArrayList<>(terms);
+        allTerms.addAll(terms2);
+        allTerms.sort(Comparator.comparing(Term::getPrimaryLabel, Environment.labelComparator()));
+
+        final List<TermDto> byOffset = new ArrayList<>();
+        for (int page = 0; page * 5 < allTerms.size(); page++) {
+            byOffset.addAll(sut.findAllRoots(PageRequest.of(page, 5), Collections.emptyList()));
+        }
+        assertEquals(toDtos(allTerms), byOffset);
+        final List<TermDto> byKeyset = new ArrayList<>(sut.findAllRoots(PageRequest.of(0, 4),
+                                                                         Collections.emptyList()));
+        List<TermDto> page;
+        do {
+            final TermDto last = byKeyset.get(byKeyset.size() - 1);
+            page = sut.findAllRoots(new KeysetPageRequest(4, last.getLabel().get(Environment.LANGUAGE),
+                                                          last.getUri()), Collections.emptyList());
+            byKeyset.addAll(page);
+        } while (!page.isEmpty());
+        assertEquals(toDtos(allTerms), byKeyset);
+    }
+
+    @Test
+    void findAllRootsIncludingImportsWithKeysetPageRequestPagesThroughRootsOfImportedVocabularies() {
+        final List<Term> directTerms = generateTerms(5);
+        addTermsAndSave(directTerms, vocabulary);
+        final Vocabulary parent = Generator.generateVocabularyWithId();
+        vocabulary.setImportedVocabularies(Collections.singleton(parent.getUri()));
+        transactional(() -> {
+            em.merge(vocabulary, descriptorFactory.vocabularyDescriptor(vocabulary));
+            em.persist(parent, descriptorFactory.vocabularyDescriptor(parent));
+        });
+        final List<Term> parentTerms = generateTerms(5);
+        addTermsAndSave(parentTerms, parent);
+        final List<Term> allTerms = new ArrayList<>(directTerms);
+        allTerms.addAll(parentTerms);
+        allTerms.sort(Comparator.comparing(Term::getPrimaryLabel, Environment.labelComparator()));
+
+        final List<TermDto> result = sut.findAllRootsIncludingImports(vocabulary, keysetAfter(allTerms.get(2), 5),
+                                                                      Collections.emptyList());
+        assertEquals(toDtos(allTerms.subList(3, 8)), result);
+    }
+
     @Test
     void findAllRootsWithoutVocabularyReturnsOnlyRootTerms() {
         final List<Term> rootTerms = generateTerms(10);
@@ -169,7 +281,7 @@ class TermDaoTest extends BaseDaoTestRunner {
         final List<TermDto> set = new ArrayList<>();
         set.addAll(toDtos(rootTerms));
         set.addAll(toDtos(rootTerms2));
-        set.sort(Comparator.comparing(o -> o.getLabel().get()));
+        set.sort(Comparator.comparing(o -> o.getLabel().get(), Environment.labelComparator()));
         assertEquals(set, result);
     }
 
@@ -232,6 +344,18 @@ class TermDaoTest extends BaseDaoTestRunner {
         assertEquals(new TermDto(matchingDesc), result.get(0));
     }
 
+    @Test
+    void findExistingReturnsIdentifiersOfExistingTermsOnly() {
+        final List<Term> terms = generateTerms(3);
+        addTermsAndSave(new HashSet<>(terms), vocabulary);
+        final URI unknown = Generator.generateUri();
+
+        final Set<URI> result = sut.findExisting(Arrays.asList(terms.get(0).getUri(), terms.get(1).getUri(),
+                                                               terms.get(1).getUri(), unknown,
+                                                               vocabulary.getUri()));
+        assertEquals(Set.of(terms.get(0).getUri(), terms.get(1).getUri()), result);
+    }
+
     @Test
     void existsInVocabularyReturnsTrueForLabelExistingInVocabulary() {
         final List<Term> terms = generateTerms(10);
@@ -298,10 +422,105 @@ class TermDaoTest extends BaseDaoTestRunner {
         addTermsAndSave(terms, vocabulary);
 
         final List<Term> result = sut.findAllFull(vocabulary);
-        terms.sort(Comparator.comparing(Term::getPrimaryLabel));
+        terms.sort(Comparator.comparing(Term::getPrimaryLabel, Environment.labelComparator()));
         assertEquals(terms, result);
     }
 
+    @Test
+    void findAllFullLoadsCompleteTermData() {
+        enableRdfsInference(em);
+        final Term parent = Generator.generateTermWithId();
+        final Term term = Generator.generateTermWithId();
+        term.setAltLabels(new HashSet<>(Arrays.asList(MultilingualString.create("Alt one", Environment.LANGUAGE),
+                                                      MultilingualString.create("Alt two", Environment.LANGUAGE))));
+        term.setSources(Collections.singleton(Generator.generateUri().toString()));
+        term.setTypes(Collections.singleton(Generator.generateUri().toString()));
+        term.setDraft(false);
+        term.setParentTerms(Collections.singleton(parent));
+        addTermsAndSave(Arrays.asList(parent, term), vocabulary);
+
+        final List<Term> result = sut.findAllFull(vocabulary);
+        final Optional<Term> termResult = result.stream().filter(term::equals).findFirst();
+        assertTrue(termResult.isPresent());
+        assertEquals(term.getLabel(), termResult.get().getLabel());
+        assertEquals(term.getDefinition(), termResult.get().getDefinition());
+        assertEquals(term.getDescription(), termResult.get().getDescription());
+        assertEquals(term.getAltLabels(), termResult.get().getAltLabels());
+        assertEquals(term.getSources(), termResult.get().getSources());
+        assertEquals(term.getTypes(), termResult.get().getTypes());
+        assertEquals(vocabulary.getGlossary().getUri(), termResult.get().getGlossary());
+        assertEquals(vocabulary.getUri(), termResult.get().getVocabulary());
+        assertFalse(termResult.get().isDraft());
+        assertEquals(Collections.singleton(parent), termResult.get().getParentTerms());
+        final Optional<Term> parentResult = result.stream().filter(parent::equals).findFirst();
+        assertTrue(parentResult.isPresent());
+        assertEquals(Collections.singleton(new TermInfo(term)), parentResult.get().getSubTerms());
+    }
+
+    @Test
+    void findAllFullDoesNotAddNarrowerToUnmappedProperties() {
+        final Term parent = Generator.generateTermWithId();
+        final Term child = Generator.generateTermWithId();
+        child.setParentTerms(Collections.singleton(parent));
+        addTermsAndSave(Arrays.asList(parent, child), vocabulary);
+        transactional(() -> {
+            final Repository repo = em.unwrap(Repository.class);
+            try (final RepositoryConnection conn = repo.getConnection()) {
+                final ValueFactory vf = conn.getValueFactory();
+                conn.add(vf.createIRI(parent.getUri().toString()), vf.createIRI(SKOS.NARROWER),
+                         vf.createIRI(child.getUri().toString()), vf.createIRI(vocabulary.getUri().toString()));
+            }
+        });
+
+        final List<Term> result = sut.findAllFull(vocabulary);
+        final Optional<Term> parentResult = result.stream().filter(parent::equals).findFirst();
+        assertTrue(parentResult.isPresent());
+        assertTrue(parentResult.get().getProperties() == null ||
+                           !parentResult.get().getProperties().containsKey(SKOS.NARROWER));
+        assertEquals(Collections.singleton(new TermInfo(child)), parentResult.get().getSubTerms());
+    }
+
+    @Test
+    void findAllFullLoadsSameTermDataAsEntityManager() {
+        final List<Term> referenced = generateTerms(5);
+        final Term term = Generator.generateTermWithId();
+        term.setAltLabels(Collections.singleton(MultilingualString.create("Alt", Environment.LANGUAGE)));
+        term.setHiddenLabels(Collections.singleton(MultilingualString.create("Hidden", Environment.LANGUAGE)));
+        term.setDescription(MultilingualString.create("Description", Environment.LANGUAGE));
+        term.setSources(Collections.singleton(Generator.generateUri().toString()));
+        term.setTypes(Collections.singleton(Generator.generateUri().toString()));
+        term.setDraft(false);
+        term.setParentTerms(Collections.singleton(referenced.get(0)));
+        term.setExternalParentTerms(Collections.singleton(referenced.get(1)));
+        term.setRelated(Collections.singleton(new TermInfo(referenced.get(2))));
+        term.setRelatedMatch(Collections.singleton(new TermInfo(referenced.get(3))));
+        term.setExactMatchTerms(Collections.singleton(new TermInfo(referenced.get(4))));
+        term.setProperties(Collections.singletonMap(Generator.generateUri().toString(),
+                                                    Collections.singleton("Unmapped value")));
+        final List<Term> terms = new ArrayList<>(referenced);
+        terms.add(term);
+        addTermsAndSave(terms, vocabulary);
+
+        final Term result = sut.findAllFull(vocabulary).stream().filter(term::equals).findFirst().orElseThrow();
+        final Term expected = em.find(Term.class, term.getUri(), descriptorFactory.termDescriptor(vocabulary));
+        assertEquals(expected.getLabel(), result.getLabel());
+        assertEquals(expected.getAltLabels(), result.getAltLabels());
+        assertEquals(expected.getHiddenLabels(), result.getHiddenLabels());
+        assertEquals(expected.getDefinition(), result.getDefinition());
+        assertEquals(expected.getDescription(), result.getDescription());
+        assertEquals(expected.getSources(), result.getSources());
+        assertEquals(expected.getTypes(), result.getTypes());
+        assertEquals(expected.isDraft(), result.isDraft());
+        assertEquals(expected.getGlossary(), result.getGlossary());
+        assertEquals(expected.getVocabulary(), result.getVocabulary());
+        assertEquals(expected.getParentTerms(), result.getParentTerms());
+        assertEquals(expected.getExternalParentTerms(), result.getExternalParentTerms());
+        assertEquals(expected.getRelated(), result.getRelated());
+        assertEquals(expected.getRelatedMatch(), result.getRelatedMatch());
+        assertEquals(expected.getExactMatchTerms(), result.getExactMatchTerms());
+        assertEquals(expected.getProperties(), result.getProperties());
+    }
+
     @Test
     void findAllIncludingImportedReturnsTermsInVocabularyAndImportedVocabularies() {
         final List<Term> terms = generateTerms(10);
@@ -318,7 +537,7 @@ class TermDaoTest extends BaseDaoTestRunner {
         final List<TermDto> result = sut.findAllIncludingImported(vocabulary);
         final List<Term> allExpected = new ArrayList<>(terms);
         allExpected.addAll(parentTerms);
-        allExpected.sort(Comparator.comparing(Term::getPrimaryLabel));
+        allExpected.sort(Comparator.comparing(Term::getPrimaryLabel, Environment.labelComparator()));
         assertEquals(toDtos(allExpected), result);
     }
 
@@ -424,7 +643,7 @@ class TermDaoTest extends BaseDaoTestRunner {
         final List<Term> allTerms = new ArrayList<>(directTerms);
         allTerms.addAll(parentTerms);
         allTerms.addAll(grandParentTerms);
-        allTerms.sort(Comparator.comparing(Term::getPrimaryLabel));
+        allTerms.sort(Comparator.comparing(Term::getPrimaryLabel, Environment.labelComparator()));
 
         final List<TermDto> result = sut
                 .findAllRootsIncludingImports(vocabulary, Constants.DEFAULT_PAGE_SPEC, Collections.emptyList());
@@ -939,7 +1158,8 @@ class TermDaoTest extends BaseDaoTestRunner {
             em.persist(parent, descriptorFactory.termDescriptor(vocabulary));
             children.forEach(child -> em.persist(child, descriptorFactory.termDescriptor(vocabulary)));
         });
-        children.sort(Comparator.comparing(child -> child.getLabel().get(Environment.LANGUAGE)));
+        children.sort(Comparator.comparing(child -> child.getLabel().get(Environment.LANGUAGE),
+                                          Environment.labelComparator()));
 
         final Optional<Term> result = sut.find(parent.getUri());
         assertTrue(result.isPresent());
@@ -1043,7 +1263,7 @@ class TermDaoTest extends BaseDaoTestRunner {
     void findAllRootsEnsuresIncludedTermsAreNotDuplicatedInResult() {
         final List<Term> rootTerms = generateTerms(10);
         addTermsAndSave(rootTerms, vocabulary);
-        rootTerms.sort(Comparator.comparing(Term::getPrimaryLabel));
+        rootTerms.sort(Comparator.comparing(Term::getPrimaryLabel, Environment.labelComparator()));
         final Term toInclude = rootTerms.get(0);
 
         final List<TermDto> result = sut.findAllRoots(vocabulary, PageRequest.of(0, rootTerms.size() / 2),
@@ -1095,6 +1315,39 @@ class TermDaoTest extends BaseDaoTestRunner {
         assertThat(result, hasItems(toDtos(terms).toArray(new TermDto[]{})));
     }
 
+    @Test
+    void findAllLoadsSubTermsOfAllTermsInVocabulary() {
+        enableRdfsInference(em);
+        final List<Term> parents = generateTerms(5);
+        final Map<URI, Term> children = new HashMap<>();
+        parents.forEach(p -> {
+            p.setGlossary(vocabulary.getGlossary().getUri());
+            final Term child = Generator.generateTermWithId(vocabulary.getUri());
+            child.setGlossary(vocabulary.getGlossary().getUri());
+            child.addParentTerm(p);
+            children.put(p.getUri(), child);
+        });
+        transactional(() -> {
+            parents.forEach(p -> {
+                vocabulary.getGlossary().addRootTerm(p);
+                em.persist(p, descriptorFactory.termDescriptor(vocabulary));
+                em.persist(children.get(p.getUri()), descriptorFactory.termDescriptor(vocabulary));
+            });
+            em.merge(vocabulary.getGlossary(), descriptorFactory.glossaryDescriptor(vocabulary));
+        });
+
+        final List<TermDto> result = sut.findAll(vocabulary);
+        assertEquals(parents.size() * 2, result.size());
+        result.forEach(t -> {
+            assertNotNull(t.getSubTerms());
+            if (children.containsKey(t.getUri())) {
+                assertEquals(Collections.singleton(new TermInfo(children.get(t.getUri()))), t.getSubTerms());
+            } else {
+                assertThat(t.getSubTerms(), emptyCollectionOf(TermInfo.class));
+            }
+        });
+    }
+
     @Test
     void updateWithChangeInParentsEvictsChangedParentsSubTermsCache() {
         enableRdfsInference(em);
@@ -238,6 +238,48 @@ class TermOccurrenceDaoTest extends BaseDaoTestRunner {
         result.forEach(to -> assertTrue(retained.stream().anyMatch(toExp -> toExp.getUri().equals(to.getUri()))));
     }
 
+    @Test
+    void persistCollectionPersistsOccurrencesWithTargetsInContextsOfTheirSources() {
+        final File file = Generator.generateFileWithId(FILE_LABEL);
+        final Term term = Generator.generateTermWithId();
+        transactional(() -> {
+            em.persist(file);
+            em.persist(term);
+        });
+        final List<TermOccurrence> occurrences = IntStream.range(0, 3)
+                                                          .mapToObj(i -> generateTermOccurrence(true, file, term))
+                                                          .collect(Collectors.toList());
+
+        transactional(() -> sut.persist(occurrences));
+        final List<TermOccurrence> result = sut.findAllTargeting(file);
+        assertEquals(occurrences.size(), result.size());
+        occurrences.forEach(to -> assertTrue(em.createNativeQuery("ASK { GRAPH ?g { ?x a ?type . } }", Boolean.class)
+                                               .setParameter("g", to.resolveContext())
+                                               .setParameter("x", to.getUri())
+                                               .setParameter("type", URI.create(Vocabulary.s_c_vyskyt_termu))
+                                               .getSingleResult()));
+    }
+
+    @Test
+    void removeAllOccurrencesRemovesSpecifiedOccurrencesWithTargetsAndSelectors() {
+        final File file = Generator.generateFileWithId(FILE_LABEL);
+        final Map<Term, List<TermOccurrence>> allOccurrences = generateOccurrences(true, file);
+        final List<TermOccurrence> all = allOccurrences.values().stream().flatMap(List::stream)
+                                                       .collect(Collectors.toList());
+        final List<TermOccurrence> toRemove = all.subList(0, all.size() / 2);
+        final List<TermOccurrence> retained = all.subList(all.size() / 2, all.size());
+
+        transactional(() -> sut.removeAll(toRemove));
+        final List<TermOccurrence> result = sut.findAllTargeting(file);
+        assertEquals(retained.size(), result.size());
+        result.forEach(to -> assertTrue(retained.stream().anyMatch(toExp -> toExp.getUri().equals(to.getUri()))));
+        toRemove.forEach(to -> assertFalse(em.createNativeQuery("ASK { { ?x ?y ?z . } UNION { ?target ?tY ?tZ . } }",
+                                                                Boolean.class)
+                                             .setParameter("x", to.getUri())
+                                             .setParameter("target", to.getTarget().getUri())
+                                             .getSingleResult()));
+    }
+
     @Test
     void removeAllRemovesSuggestedAndConfirmedOccurrences() {
         final File file = Generator.generateFileWithId(FILE_LABEL);
@@ -0,0 +1,142 @@
+package cz.cvut.kbss.termit.persistence.dao.hierarchy;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.termit.dto.TermCounts;
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.event.EvictCacheEvent;
+import cz.cvut.kbss.termit.model.Term;
+import cz.cvut.kbss.termit.model.Vocabulary;
+import cz.cvut.kbss.termit.persistence.DescriptorFactory;
+import cz.cvut.kbss.termit.persistence.dao.BaseDaoTestRunner;
+import cz.cvut.kbss.termit.persistence.dao.TermDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TermCountIndexTest extends BaseDaoTestRunner {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private DescriptorFactory descriptorFactory;
+
+    @Autowired
+    private TermDao termDao;
+
+    @Autowired
+    private TermCountIndex sut;
+
+    private Vocabulary vocabulary;
+
+    private Term root;
+
+    @BeforeEach
+    void setUp() {
+        this.vocabulary = Generator.generateVocabularyWithId();
+        this.root = Generator.generateTermWithId();
+        root.setDraft(false);
+        final Term child = Generator.generateTermWithId();
+        child.addParentTerm(root);
+        transactional(() -> {
+            em.persist(vocabulary, descriptorFactory.vocabularyDescriptor(vocabulary));
+            vocabulary.getGlossary().addRootTerm(root);
+            Arrays.asList(root, child).forEach(t -> {
+                t.setGlossary(vocabulary.getGlossary().getUri());
+                em.persist(t, descriptorFactory.termDescriptor(vocabulary));
+                Generator.addTermInVocabularyRelationship(t, vocabulary.getUri(), em);
+            });
+            em.merge(vocabulary.getGlossary(), descriptorFactory.glossaryDescriptor(vocabulary));
+        });
+    }
+
+    @Test
+    void getTermCountsLoadsCountsOfTermsInVocabulary() {
+        assertEquals(new TermCounts(2, 1, 1), sut.getTermCounts(vocabulary.getUri()));
+    }
+
+    @Test
+    void getTermCountsReturnsEmptyCountsForUnknownVocabulary() {
+        assertEquals(TermCounts.EMPTY, sut.getTermCounts(Generator.generateUri()));
+    }
+
+    @Test
+    void getTermCountsLoadsCountsOfMultipleVocabularies() {
+        final Vocabulary another = Generator.generateVocabularyWithId();
+        final Term term = Generator.generateTermWithId();
+        transactional(() -> {
+            em.persist(another, descriptorFactory.vocabularyDescriptor(another));
+            term.setGlossary(another.getGlossary().getUri());
+            em.persist(term, descriptorFactory.termDescriptor(another));
+            Generator.addTermInVocabularyRelationship(term, another.getUri(), em);
+        });
+
+        final Map<URI, TermCounts> result = sut.getTermCounts(Arrays.asList(vocabulary.getUri(), another.getUri()));
+        assertEquals(new TermCounts(2, 1, 1), result.get(vocabulary.getUri()));
+        assertEquals(new TermCounts(1, 0, 1), result.get(another.getUri()));
+    }
+
+    @Test
+    void termPersistIncrementsLoadedCounts() {
+        assertEquals(2, sut.getTermCounts(vocabulary.getUri()).getTotal());
+        final Term newRoot = Generator.generateTermWithId(vocabulary.getUri());
+        transactional(() -> termDao.persist(newRoot, vocabulary));
+
+        assertEquals(new TermCounts(3, 2, 2), sut.getTermCounts(vocabulary.getUri()));
+    }
+
+    @Test
+    void termPersistUpdatesCountsOnlyAfterTransactionCommit() {
+        assertEquals(2, sut.getTermCounts(vocabulary.getUri()).getTotal());
+        final Term newRoot = Generator.generateTermWithId(vocabulary.getUri());
+        transactional(() -> {
+            termDao.persist(newRoot, vocabulary);
+            assertEquals(2, sut.getTermCounts(vocabulary.getUri()).getTotal());
+        });
+
+        assertEquals(3, sut.getTermCounts(vocabulary.getUri()).getTotal());
+    }
+
+    @Test
+    void termStatusChangeUpdatesLoadedDraftCount() {
+        assertEquals(1, sut.getTermCounts(vocabulary.getUri()).getDrafts());
+        root.setVocabulary(vocabulary.getUri());
+        transactional(() -> termDao.setAsDraft(root));
+
+        assertEquals(new TermCounts(2, 1, 2), sut.getTermCounts(vocabulary.getUri()));
+        assertEquals(0, sut.getTermCounts(vocabulary.getUri()).getConfirmed());
+    }
+
+    @Test
+    void termRemoveDecrementsLoadedCounts() {
+        assertEquals(2, sut.getTermCounts(vocabulary.getUri()).getTotal());
+        final Term newRoot = Generator.generateTermWithId(vocabulary.getUri());
+        transactional(() -> termDao.persist(newRoot, vocabulary));
+        transactional(() -> termDao.remove(termDao.find(newRoot.getUri()).get()));
+
+        assertEquals(new TermCounts(2, 1, 1), sut.getTermCounts(vocabulary.getUri()));
+    }
+
+    @Test
+    void onEvictCacheReloadsCountsOfAffectedVocabulary() {
+        assertEquals(2, sut.getTermCounts(vocabulary.getUri()).getTotal());
+        final Term term = Generator.generateTermWithId();
+        // Bypasses the DAO
+        transactional(() -> {
+            term.setGlossary(vocabulary.getGlossary().getUri());
+            em.persist(term, descriptorFactory.termDescriptor(vocabulary));
+            Generator.addTermInVocabularyRelationship(term, vocabulary.getUri(), em);
+        });
+        assertEquals(2, sut.getTermCounts(vocabulary.getUri()).getTotal());
+
+        sut.onEvictCache(new EvictCacheEvent(this, Collections.singleton(vocabulary.getUri())));
+        assertEquals(3, sut.getTermCounts(vocabulary.getUri()).getTotal());
+    }
+}
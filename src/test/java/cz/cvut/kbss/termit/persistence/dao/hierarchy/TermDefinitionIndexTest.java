@@ -0,0 +1,176 @@
+package cz.cvut.kbss.termit.persistence.dao.hierarchy;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.termit.environment.Environment;
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.event.EvictCacheEvent;
+import cz.cvut.kbss.termit.model.Term;
+import cz.cvut.kbss.termit.model.Vocabulary;
+import cz.cvut.kbss.termit.persistence.DescriptorFactory;
+import cz.cvut.kbss.termit.persistence.dao.BaseDaoTestRunner;
+import cz.cvut.kbss.termit.persistence.dao.TermDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TermDefinitionIndexTest extends BaseDaoTestRunner {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private DescriptorFactory descriptorFactory;
+
+    @Autowired
+    private TermDao termDao;
+
+    @Autowired
+    private VocabularyImportIndex importIndex;
+
+    @Autowired
+    private TermDefinitionIndex sut;
+
+    private Vocabulary vocabulary;
+
+    private Term purityMeasurement;
+
+    private Term wasteCollection;
+
+    @BeforeEach
+    void setUp() {
+        this.vocabulary = Generator.generateVocabularyWithId();
+        this.purityMeasurement = termWithDefinition("Purity of drinking waters is measured daily.",
+                                                    Environment.LANGUAGE);
+        this.wasteCollection = termWithDefinition("Waste is collected weekly.", Environment.LANGUAGE);
+        transactional(() -> {
+            em.persist(vocabulary, descriptorFactory.vocabularyDescriptor(vocabulary));
+            Arrays.asList(purityMeasurement, wasteCollection).forEach(t -> persistTerm(t, vocabulary));
+        });
+    }
+
+    private static Term termWithDefinition(String definition, String language) {
+        final Term result = Generator.generateTermWithId();
+        result.setDefinition(MultilingualString.create(definition, language));
+        return result;
+    }
+
+    private void persistTerm(Term t, Vocabulary v) {
+        t.setGlossary(v.getGlossary().getUri());
+        em.persist(t, descriptorFactory.termDescriptor(v));
+        Generator.addTermInVocabularyRelationship(t, v.getUri(), em);
+    }
+
+    private Set<URI> find(String label, String language) {
+        return sut.findTermsMentioning(Collections.singleton(MultilingualString.create(label, language)),
+                                       Collections.singleton(vocabulary.getUri()));
+    }
+
+    @Test
+    void findTermsMentioningFindsDefinitionsContainingAllWordsOfLabel() {
+        assertEquals(Collections.singleton(purityMeasurement.getUri()),
+                     find("Drinking water", Environment.LANGUAGE));
+        assertEquals(Collections.singleton(wasteCollection.getUri()), find("Waste", Environment.LANGUAGE));
+        assertTrue(find("Waste water", Environment.LANGUAGE).isEmpty());
+    }
+
+    @Test
+    void findTermsMentioningMatchesInflectedFormsOfLabelWords() {
+        assertEquals(Collections.singleton(purityMeasurement.getUri()),
+                     find("Water measurement", Environment.LANGUAGE));
+        assertEquals(Collections.singleton(wasteCollection.getUri()),
+                     find("Waste collections", Environment.LANGUAGE));
+    }
+
+    @Test
+    void findTermsMentioningMatchesInflectedFormsOfCzechLabelsIgnoringDiacritics() {
+        final Term czech = termWithDefinition("Měření čistoty vody v nádržích.", "cs");
+        transactional(() -> persistTerm(czech, vocabulary));
+
+        assertEquals(Collections.singleton(czech.getUri()), find("Čistota vody", "cs"));
+        assertEquals(Collections.singleton(czech.getUri()), find("nadrz", "cs"));
+    }
+
+    @Test
+    void findTermsMentioningReturnsUnionOfMatchesOfAllLabels() {
+        final Set<URI> result = sut.findTermsMentioning(
+                Arrays.asList(MultilingualString.create("Waste", Environment.LANGUAGE),
+                              MultilingualString.create("Purity", Environment.LANGUAGE)),
+                Collections.singleton(vocabulary.getUri()));
+        assertEquals(Set.of(purityMeasurement.getUri(), wasteCollection.getUri()), result);
+    }
+
+    @Test
+    void findAllWithDefinitionMentioningSearchesImportedVocabularies() {
+        final Vocabulary parent = Generator.generateVocabularyWithId();
+        final Term parentTerm = termWithDefinition("Waste water treatment.", Environment.LANGUAGE);
+        vocabulary.setImportedVocabularies(Collections.singleton(parent.getUri()));
+        transactional(() -> {
+            em.persist(parent, descriptorFactory.vocabularyDescriptor(parent));
+            persistTerm(parentTerm, parent);
+            em.merge(vocabulary, descriptorFactory.vocabularyDescriptor(vocabulary));
+        });
+        importIndex.evictAll();
+
+        final Set<URI> result = termDao.findAllWithDefinitionMentioning(
+                Collections.singleton(MultilingualString.create("Waste", Environment.LANGUAGE)), vocabulary);
+        assertEquals(Set.of(wasteCollection.getUri(), parentTerm.getUri()), result);
+    }
+
+    @Test
+    void termUpdateReplacesIndexedDefinition() {
+        assertEquals(Collections.singleton(wasteCollection.getUri()), find("Waste", Environment.LANGUAGE));
+        wasteCollection.setVocabulary(vocabulary.getUri());
+        wasteCollection.setDefinition(MultilingualString.create("Garbage is collected weekly.",
+                                                                Environment.LANGUAGE));
+        transactional(() -> termDao.update(wasteCollection));
+
+        assertTrue(find("Waste", Environment.LANGUAGE).isEmpty());
+        assertEquals(Collections.singleton(wasteCollection.getUri()), find("Garbage", Environment.LANGUAGE));
+    }
+
+    @Test
+    void termPersistAndRemoveUpdateLoadedIndex() {
+        assertTrue(find("Pollution", Environment.LANGUAGE).isEmpty());
+        final Term added = termWithDefinition("Pollution of rivers.", Environment.LANGUAGE);
+        added.setVocabulary(vocabulary.getUri());
+        transactional(() -> termDao.persist(added, vocabulary));
+        assertEquals(Collections.singleton(added.getUri()), find("Pollution", Environment.LANGUAGE));
+
+        transactional(() -> termDao.remove(termDao.find(added.getUri()).get()));
+        assertTrue(find("Pollution", Environment.LANGUAGE).isEmpty());
+    }
+
+    @Test
+    void termUpdateIsIndexedOnlyAfterTransactionCommit() {
+        wasteCollection.setVocabulary(vocabulary.getUri());
+        wasteCollection.setDefinition(MultilingualString.create("Garbage is collected weekly.",
+                                                                Environment.LANGUAGE));
+        transactional(() -> {
+            termDao.update(wasteCollection);
+            assertEquals(Collections.singleton(wasteCollection.getUri()), find("Waste", Environment.LANGUAGE));
+            assertTrue(find("Garbage", Environment.LANGUAGE).isEmpty());
+        });
+
+        assertEquals(Collections.singleton(wasteCollection.getUri()), find("Garbage", Environment.LANGUAGE));
+    }
+
+    @Test
+    void onEvictCacheReloadsDefinitionsOfAffectedVocabulary() {
+        assertTrue(find("Pollution", Environment.LANGUAGE).isEmpty());
+        final Term added = termWithDefinition("Pollution of rivers.", Environment.LANGUAGE);
+        // Bypasses the DAO
+        transactional(() -> persistTerm(added, vocabulary));
+        assertTrue(find("Pollution", Environment.LANGUAGE).isEmpty());
+
+        sut.onEvictCache(new EvictCacheEvent(this, Collections.singleton(vocabulary.getUri())));
+        assertEquals(Collections.singleton(added.getUri()), find("Pollution", Environment.LANGUAGE));
+    }
+}
@@ -0,0 +1,181 @@
+package cz.cvut.kbss.termit.persistence.dao.hierarchy;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.termit.dto.TermInfo;
+import cz.cvut.kbss.termit.environment.Environment;
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.event.EvictCacheEvent;
+import cz.cvut.kbss.termit.model.Term;
+import cz.cvut.kbss.termit.model.Vocabulary;
+import cz.cvut.kbss.termit.persistence.DescriptorFactory;
+import cz.cvut.kbss.termit.persistence.dao.BaseDaoTestRunner;
+import cz.cvut.kbss.termit.persistence.dao.TermDao;
+import cz.cvut.kbss.termit.util.Constants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.net.URI;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TermHierarchyIndexTest extends BaseDaoTestRunner {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private DescriptorFactory descriptorFactory;
+
+    @Autowired
+    private TermDao termDao;
+
+    @Autowired
+    private TermHierarchyIndex sut;
+
+    private Vocabulary vocabulary;
+
+    @BeforeEach
+    void setUp() {
+        this.vocabulary = Generator.generateVocabularyWithId();
+        transactional(() -> em.persist(vocabulary, descriptorFactory.vocabularyDescriptor(vocabulary)));
+    }
+
+    private List<Term> persistRoots(int count) {
+        final List<Term> terms = IntStream.range(0, count).mapToObj(i -> Generator.generateTermWithId())
+                                          .sorted(Comparator.comparing(
+                                                  (Term t) -> t.getLabel().get(Environment.LANGUAGE),
+                                                  Environment.labelComparator()))
+                                          .collect(Collectors.toList());
+        transactional(() -> {
+            terms.forEach(t -> {
+                t.setGlossary(vocabulary.getGlossary().getUri());
+                vocabulary.getGlossary().addRootTerm(t);
+                em.persist(t, descriptorFactory.termDescriptor(vocabulary));
+                Generator.addTermInVocabularyRelationship(t, vocabulary.getUri(), em);
+            });
+            em.merge(vocabulary.getGlossary(), descriptorFactory.glossaryDescriptor(vocabulary));
+        });
+        return terms;
+    }
+
+    @Test
+    void findRootsBuildsIndexAndReturnsPageOfRootsOrderedByLabel() {
+        final List<Term> terms = persistRoots(10);
+
+        final List<URI> result = sut.findRoots(vocabulary.getUri(), PageRequest.of(1, 4), Collections.emptySet());
+        assertEquals(terms.subList(4, 8).stream().map(Term::getUri).collect(Collectors.toList()), result);
+    }
+
+    @Test
+    void findRootsSkipsExcludedTerms() {
+        final List<Term> terms = persistRoots(5);
+
+        final List<URI> result = sut.findRoots(vocabulary.getUri(), Constants.DEFAULT_PAGE_SPEC,
+                                               Collections.singleton(terms.get(0).getUri()));
+        assertEquals(terms.subList(1, 5).stream().map(Term::getUri).collect(Collectors.toList()), result);
+    }
+
+    @Test
+    void termPersistedAddsChildToSubTermsOfParentInBuiltIndex() {
+        final Term parent = persistRoots(1).get(0);
+        assertEquals(Collections.emptyList(),
+                     sut.findSubTerms(vocabulary.getUri(), Collections.singleton(parent.getUri()))
+                        .get(parent.getUri()));
+        final Term child = Generator.generateTermWithId(vocabulary.getUri());
+        child.setGlossary(vocabulary.getGlossary().getUri());
+        child.addParentTerm(parent);
+        transactional(() -> termDao.persist(child, vocabulary));
+
+        final Map<URI, List<TermInfo>> result = sut.findSubTerms(vocabulary.getUri(),
+                                                                 Collections.singleton(parent.getUri()));
+        assertEquals(Collections.singletonList(new TermInfo(child)), result.get(parent.getUri()));
+        assertThat(sut.findRoots(vocabulary.getUri(), Constants.DEFAULT_PAGE_SPEC, Collections.emptySet()),
+                   not(hasItem(child.getUri())));
+    }
+
+    @Test
+    void termPersistedIsAddedToIndexOnlyAfterTransactionCommit() {
+        final Term parent = persistRoots(1).get(0);
+        assertEquals(Collections.emptyList(),
+                     sut.findSubTerms(vocabulary.getUri(), Collections.singleton(parent.getUri()))
+                        .get(parent.getUri()));
+        final Term child = Generator.generateTermWithId(vocabulary.getUri());
+        child.setGlossary(vocabulary.getGlossary().getUri());
+        child.addParentTerm(parent);
+        transactional(() -> {
+            termDao.persist(child, vocabulary);
+            assertEquals(Collections.emptyList(),
+                         sut.findSubTerms(vocabulary.getUri(), Collections.singleton(parent.getUri()))
+                            .get(parent.getUri()));
+        });
+
+        assertEquals(Collections.singletonList(new TermInfo(child)),
+                     sut.findSubTerms(vocabulary.getUri(), Collections.singleton(parent.getUri()))
+                        .get(parent.getUri()));
+    }
+
+    @Test
+    void termRemovedRemovesTermFromRootsAndSubTerms() {
+        final List<Term> terms = persistRoots(3);
+        assertEquals(3, sut.findRoots(vocabulary.getUri(), Constants.DEFAULT_PAGE_SPEC, Collections.emptySet())
+                           .size());
+        final Term toRemove = terms.get(1);
+        transactional(() -> termDao.remove(termDao.find(toRemove.getUri()).get()));
+
+        final List<URI> result = sut.findRoots(vocabulary.getUri(), Constants.DEFAULT_PAGE_SPEC,
+                                               Collections.emptySet());
+        assertEquals(2, result.size());
+        assertThat(result, not(hasItem(toRemove.getUri())));
+    }
+
+    @Test
+    void findSubTermsOmitsTermsNotInVocabulary() {
+        final Term term = persistRoots(1).get(0);
+        final URI unknown = Generator.generateUri();
+
+        final Map<URI, List<TermInfo>> result = sut.findSubTerms(vocabulary.getUri(),
+                                                                 Arrays.asList(term.getUri(), unknown));
+        assertTrue(result.containsKey(term.getUri()));
+        assertFalse(result.containsKey(unknown));
+    }
+
+    @Test
+    void indexIsDiscardedWhenTransactionIsRolledBack() {
+        final List<Term> terms = persistRoots(2);
+        assertEquals(2, sut.findRoots(vocabulary.getUri(), Constants.DEFAULT_PAGE_SPEC, Collections.emptySet())
+                           .size());
+        final Term term = Generator.generateTermWithId(vocabulary.getUri());
+        term.setGlossary(vocabulary.getGlossary().getUri());
+        assertThrows(IllegalStateException.class, () -> transactional(() -> {
+            termDao.persist(term, vocabulary);
+            throw new IllegalStateException();
+        }));
+
+        final List<URI> result = sut.findRoots(vocabulary.getUri(), Constants.DEFAULT_PAGE_SPEC,
+                                               Collections.emptySet());
+        assertThat(result, containsInAnyOrder(terms.stream().map(Term::getUri).toArray()));
+    }
+
+    @Test
+    void onEvictCacheScopedToVocabulariesEvictsOnlyHierarchiesOfThem() {
+        persistRoots(2);
+        assertEquals(2, sut.findRoots(vocabulary.getUri(), Constants.DEFAULT_PAGE_SPEC, Collections.emptySet())
+                           .size());
+        // Bypasses the term DAO, so the index is not updated
+        persistRoots(1);
+
+        sut.onEvictCache(new EvictCacheEvent(this, Collections.singleton(Generator.generateUri())));
+        assertEquals(2, sut.findRoots(vocabulary.getUri(), Constants.DEFAULT_PAGE_SPEC, Collections.emptySet())
+                           .size());
+        sut.onEvictCache(new EvictCacheEvent(this, Collections.singleton(vocabulary.getUri())));
+        assertEquals(3, sut.findRoots(vocabulary.getUri(), Constants.DEFAULT_PAGE_SPEC, Collections.emptySet())
+                           .size());
+    }
+}
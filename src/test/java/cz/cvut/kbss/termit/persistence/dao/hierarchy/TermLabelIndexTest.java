@@ -0,0 +1,360 @@
+package cz.cvut.kbss.termit.persistence.dao.hierarchy;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.termit.dto.DuplicateTerms;
+import cz.cvut.kbss.termit.dto.SimilarTerm;
+import cz.cvut.kbss.termit.dto.listing.TermDto;
+import cz.cvut.kbss.termit.environment.Environment;
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.event.EvictCacheEvent;
+import cz.cvut.kbss.termit.model.Term;
+import cz.cvut.kbss.termit.model.Vocabulary;
+import cz.cvut.kbss.termit.persistence.DescriptorFactory;
+import cz.cvut.kbss.termit.persistence.dao.BaseDaoTestRunner;
+import cz.cvut.kbss.termit.persistence.dao.TermDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TermLabelIndexTest extends BaseDaoTestRunner {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private DescriptorFactory descriptorFactory;
+
+    @Autowired
+    private TermDao termDao;
+
+    @Autowired
+    private VocabularyImportIndex importIndex;
+
+    @Autowired
+    private TermLabelIndex sut;
+
+    private Vocabulary vocabulary;
+
+    private Term waterPurity;
+
+    private Term wasteWater;
+
+    @BeforeEach
+    void setUp() {
+        this.vocabulary = Generator.generateVocabularyWithId();
+        this.waterPurity = termWithLabel("Water purity");
+        waterPurity.setAltLabels(Collections.singleton(MultilingualString.create("Clean water",
+                                                                                 Environment.LANGUAGE)));
+        this.wasteWater = termWithLabel("Waste water");
+        transactional(() -> {
+            em.persist(vocabulary, descriptorFactory.vocabularyDescriptor(vocabulary));
+            Arrays.asList(waterPurity, wasteWater).forEach(t -> persistTerm(t, vocabulary));
+        });
+    }
+
+    private static Term termWithLabel(String label) {
+        final Term result = Generator.generateTermWithId();
+        result.setLabel(MultilingualString.create(label, Environment.LANGUAGE));
+        return result;
+    }
+
+    private void persistTerm(Term t, Vocabulary v) {
+        t.setGlossary(v.getGlossary().getUri());
+        em.persist(t, descriptorFactory.termDescriptor(v));
+        Generator.addTermInVocabularyRelationship(t, v.getUri(), em);
+    }
+
+    private List<URI> find(String prefix) {
+        return sut.findByLabelPrefix(prefix, Collections.singleton(vocabulary.getUri()), Environment.LANGUAGE, 10)
+                  .stream().map(TermDto::getUri).collect(Collectors.toList());
+    }
+
+    @Test
+    void findByLabelPrefixMatchesLabelStartsAndOrdersResultsByLabel() {
+        assertEquals(Arrays.asList(wasteWater.getUri(), waterPurity.getUri()), find("wa"));
+        assertEquals(Collections.singletonList(waterPurity.getUri()), find("water p"));
+    }
+
+    @Test
+    void findByLabelPrefixMatchesStartsOfWordsInsideLabels() {
+        assertEquals(Collections.singletonList(waterPurity.getUri()), find("pur"));
+        assertTrue(find("urity").isEmpty());
+    }
+
+    @Test
+    void findByLabelPrefixIgnoresCaseAndDiacritics() {
+        final Term czech = termWithLabel("Čistota vody");
+        transactional(() -> persistTerm(czech, vocabulary));
+
+        assertEquals(Collections.singletonList(czech.getUri()), find("CIST"));
+        assertEquals(Collections.singletonList(czech.getUri()), find("čistota  v"));
+    }
+
+    @Test
+    void findByLabelPrefixMatchesAlternativeLabelsAndReturnsPreferredLabel() {
+        final List<TermDto> result = sut.findByLabelPrefix("clean", Collections.singleton(vocabulary.getUri()),
+                                                           Environment.LANGUAGE, 10);
+        assertEquals(1, result.size());
+        assertEquals(waterPurity.getUri(), result.get(0).getUri());
+        assertEquals("Water purity", result.get(0).getLabel().get(Environment.LANGUAGE));
+        assertEquals(vocabulary.getUri(), result.get(0).getVocabulary());
+    }
+
+    @Test
+    void findByLabelPrefixReturnsAtMostSpecifiedNumberOfTerms() {
+        final List<TermDto> result = sut.findByLabelPrefix("water", Collections.singleton(vocabulary.getUri()),
+                                                           Environment.LANGUAGE, 1);
+        assertEquals(Collections.singletonList(wasteWater.getUri()),
+                     result.stream().map(TermDto::getUri).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findByLabelPrefixReturnsFirstTermsByLabelFromAllVocabulariesRegardlessOfNumberOfMatches() {
+        assertEquals(2, find("wa").size());
+        // Indexed without persisting, as labels of the vocabulary are already loaded
+        IntStream.range(0, 2000).forEach(i -> sut.termSaved(termWithLabel("Water " + i), vocabulary.getUri()));
+        final Vocabulary another = Generator.generateVocabularyWithId();
+        final Term first = termWithLabel("Wa");
+        transactional(() -> {
+            em.persist(another, descriptorFactory.vocabularyDescriptor(another));
+            persistTerm(first, another);
+        });
+
+        final List<TermDto> result = sut.findByLabelPrefix("wa", Arrays.asList(vocabulary.getUri(), another.getUri()),
+                                                           Environment.LANGUAGE, 3);
+        assertEquals(Arrays.asList(first.getUri(), wasteWater.getUri()),
+                     result.subList(0, 2).stream().map(TermDto::getUri).collect(Collectors.toList()));
+        assertEquals("Water 0", result.get(2).getLabel().get(Environment.LANGUAGE));
+    }
+
+    @Test
+    void findByLabelPrefixIgnoresLabelsInOtherLanguages() {
+        final Term czech = Generator.generateTermWithId();
+        czech.setLabel(MultilingualString.create("Voda", "cs"));
+        transactional(() -> persistTerm(czech, vocabulary));
+
+        assertTrue(find("voda").isEmpty());
+    }
+
+    @Test
+    void findAllByLabelPrefixIncludingImportedSearchesImportedVocabularies() {
+        final Vocabulary parent = Generator.generateVocabularyWithId();
+        final Term parentTerm = termWithLabel("Water body");
+        vocabulary.setImportedVocabularies(Collections.singleton(parent.getUri()));
+        transactional(() -> {
+            em.persist(parent, descriptorFactory.vocabularyDescriptor(parent));
+            persistTerm(parentTerm, parent);
+            em.merge(vocabulary, descriptorFactory.vocabularyDescriptor(vocabulary));
+        });
+        importIndex.evictAll();
+
+        final Set<URI> result = termDao.findAllByLabelPrefixIncludingImported("water", vocabulary, 10).stream()
+                                       .map(TermDto::getUri).collect(Collectors.toSet());
+        assertEquals(Set.of(waterPurity.getUri(), wasteWater.getUri(), parentTerm.getUri()), result);
+        assertFalse(termDao.findAllByLabelPrefix("water", vocabulary, 10).stream()
+                           .anyMatch(t -> t.getUri().equals(parentTerm.getUri())));
+    }
+
+    @Test
+    void termPersistAddsTermToLoadedIndex() {
+        assertEquals(2, find("wa").size());
+        final Term added = Generator.generateTermWithId(vocabulary.getUri());
+        added.setLabel(MultilingualString.create("Water pollution", Environment.LANGUAGE));
+        transactional(() -> termDao.persist(added, vocabulary));
+
+        assertEquals(Collections.singletonList(added.getUri()), find("poll"));
+    }
+
+    @Test
+    void termPersistAddsLabelToIndexOnlyAfterTransactionCommit() {
+        assertFalse(sut.containsLabel("Water pollution", vocabulary.getUri(), Environment.LANGUAGE));
+        final Term added = Generator.generateTermWithId(vocabulary.getUri());
+        added.setLabel(MultilingualString.create("Water pollution", Environment.LANGUAGE));
+        transactional(() -> {
+            termDao.persist(added, vocabulary);
+            assertFalse(sut.containsLabel("Water pollution", vocabulary.getUri(), Environment.LANGUAGE));
+        });
+
+        assertTrue(sut.containsLabel("Water pollution", vocabulary.getUri(), Environment.LANGUAGE));
+    }
+
+    @Test
+    void termUpdateReplacesIndexedLabels() {
+        assertEquals(Collections.singletonList(waterPurity.getUri()), find("purity"));
+        waterPurity.setVocabulary(vocabulary.getUri());
+        waterPurity.setLabel(MultilingualString.create("Water quality", Environment.LANGUAGE));
+        transactional(() -> termDao.update(waterPurity));
+
+        assertTrue(find("purity").isEmpty());
+        assertEquals(Collections.singletonList(waterPurity.getUri()), find("quality"));
+    }
+
+    @Test
+    void termRemoveRemovesTermFromIndex() {
+        assertEquals(2, find("wa").size());
+        final Term added = Generator.generateTermWithId(vocabulary.getUri());
+        added.setLabel(MultilingualString.create("Water pollution", Environment.LANGUAGE));
+        transactional(() -> termDao.persist(added, vocabulary));
+        assertEquals(Collections.singletonList(added.getUri()), find("poll"));
+
+        transactional(() -> termDao.remove(termDao.find(added.getUri()).get()));
+        assertTrue(find("poll").isEmpty());
+    }
+
+    @Test
+    void termStatusChangeUpdatesDraftStatusOfIndexedTerm() {
+        waterPurity.setVocabulary(vocabulary.getUri());
+        transactional(() -> termDao.setAsConfirmed(waterPurity));
+        assertFalse(sut.findByLabelPrefix("purity", Collections.singleton(vocabulary.getUri()), Environment.LANGUAGE,
+                                          1).get(0).isDraft());
+
+        transactional(() -> termDao.setAsDraft(waterPurity));
+        assertTrue(sut.findByLabelPrefix("purity", Collections.singleton(vocabulary.getUri()), Environment.LANGUAGE,
+                                         1).get(0).isDraft());
+    }
+
+    @Test
+    void onEvictCacheReloadsLabelsOfAffectedVocabulary() {
+        assertEquals(2, find("wa").size());
+        final Term added = termWithLabel("Water pollution");
+        // Bypasses the DAO
+        transactional(() -> persistTerm(added, vocabulary));
+        assertEquals(2, find("wa").size());
+
+        sut.onEvictCache(new EvictCacheEvent(this, Collections.singleton(vocabulary.getUri())));
+        assertEquals(3, find("wa").size());
+    }
+
+    @Test
+    void containsLabelMatchesPreferredLabelsIgnoringCaseAndWhitespace() {
+        assertTrue(sut.containsLabel("water  PURITY ", vocabulary.getUri(), Environment.LANGUAGE));
+        assertFalse(sut.containsLabel("Water", vocabulary.getUri(), Environment.LANGUAGE));
+        assertFalse(sut.containsLabel("Clean water", vocabulary.getUri(), Environment.LANGUAGE));
+        assertFalse(sut.containsLabel("Water purity", vocabulary.getUri(), "cs"));
+    }
+
+    @Test
+    void containsLabelDistinguishesDiacritics() {
+        final Term czech = termWithLabel("Čistota vody");
+        transactional(() -> persistTerm(czech, vocabulary));
+
+        assertTrue(sut.containsLabel("čistota vody", vocabulary.getUri(), Environment.LANGUAGE));
+        assertFalse(sut.containsLabel("cistota vody", vocabulary.getUri(), Environment.LANGUAGE));
+    }
+
+    @Test
+    void findExistingLabelsReturnsSpecifiedLabelsUsedByTermsInVocabulary() {
+        final Set<String> result = sut.findExistingLabels(Arrays.asList("Waste Water", "Water body", "water purity"),
+                                                          vocabulary.getUri(), Environment.LANGUAGE);
+        assertEquals(Set.of("Waste Water", "water purity"), result);
+    }
+
+    @Test
+    void findExistingLabelsReflectsTermUpdateAndRemoval() {
+        assertTrue(sut.containsLabel("Water purity", vocabulary.getUri(), Environment.LANGUAGE));
+        waterPurity.setVocabulary(vocabulary.getUri());
+        waterPurity.setLabel(MultilingualString.create("Water quality", Environment.LANGUAGE));
+        transactional(() -> termDao.update(waterPurity));
+        assertEquals(Collections.singleton("Water quality"),
+                     sut.findExistingLabels(Arrays.asList("Water purity", "Water quality"), vocabulary.getUri(),
+                                            Environment.LANGUAGE));
+
+        transactional(() -> termDao.remove(termDao.find(waterPurity.getUri()).get()));
+        assertFalse(sut.containsLabel("Water quality", vocabulary.getUri(), Environment.LANGUAGE));
+    }
+
+    @Test
+    void findSimilarReturnsTermsWithSimilarLabelsFromAllVocabulariesOrderedByScore() {
+        final Vocabulary another = Generator.generateVocabularyWithId();
+        final Term registry = termWithLabel("Registr vozidel");
+        final Term similarRegistry = termWithLabel("Registr vozidla");
+        transactional(() -> {
+            persistTerm(registry, vocabulary);
+            em.persist(another, descriptorFactory.vocabularyDescriptor(another));
+            persistTerm(similarRegistry, another);
+        });
+
+        // The repository is shared by the tests, so only results from the test vocabularies are considered
+        final List<SimilarTerm> result = sut.findSimilar("registr  VOZIDEL", null, Environment.LANGUAGE, 0.8, 100)
+                                            .stream().filter(st -> Set.of(vocabulary.getUri(), another.getUri())
+                                                                      .contains(st.getTerm().getVocabulary()))
+                                            .collect(Collectors.toList());
+        assertEquals(Arrays.asList(registry.getUri(), similarRegistry.getUri()),
+                     result.stream().map(st -> st.getTerm().getUri()).collect(Collectors.toList()));
+        assertEquals(1.0, result.get(0).getScore());
+        assertEquals(another.getUri(), result.get(1).getTerm().getVocabulary());
+        assertTrue(result.get(1).getScore() < 1.0);
+    }
+
+    @Test
+    void findSimilarSkipsTermsBelowMinimumScore() {
+        final List<URI> result = sut.findSimilar("Waste waters", Collections.singleton(vocabulary.getUri()),
+                                                 Environment.LANGUAGE, 0.9, 10).stream()
+                                    .map(st -> st.getTerm().getUri()).collect(Collectors.toList());
+        assertEquals(Collections.singletonList(wasteWater.getUri()), result);
+    }
+
+    @Test
+    void findSimilarReflectsTermUpdate() {
+        assertEquals(1, sut.findSimilar("Water purity", Collections.singleton(vocabulary.getUri()),
+                                        Environment.LANGUAGE, 0.8, 10).size());
+        waterPurity.setVocabulary(vocabulary.getUri());
+        waterPurity.setLabel(MultilingualString.create("Water quality", Environment.LANGUAGE));
+        transactional(() -> termDao.update(waterPurity));
+
+        assertTrue(sut.findSimilar("Water purity", Collections.singleton(vocabulary.getUri()), Environment.LANGUAGE,
+                                   0.8, 10).isEmpty());
+        assertEquals(1, sut.findSimilar("Water qualitys", Collections.singleton(vocabulary.getUri()),
+                                        Environment.LANGUAGE, 0.8, 10).size());
+    }
+
+    @Test
+    void findDuplicatesReturnsPairsOfTermsWithSimilarLabelsInVocabulary() {
+        final Term registry = termWithLabel("Registr vozidel");
+        final Term similarRegistry = termWithLabel("Registr vozidla");
+        final Term sameRegistry = termWithLabel("registr vozidel");
+        transactional(() -> Arrays.asList(registry, similarRegistry, sameRegistry)
+                                  .forEach(t -> persistTerm(t, vocabulary)));
+
+        final List<DuplicateTerms> result = sut.findDuplicates(vocabulary.getUri(), Environment.LANGUAGE, 0.8);
+        assertEquals(3, result.size());
+        assertEquals(1.0, result.get(0).getScore());
+        assertEquals(Set.of(registry.getUri(), sameRegistry.getUri()),
+                     Set.of(result.get(0).getFirst().getUri(), result.get(0).getSecond().getUri()));
+        result.forEach(d -> {
+            assertNotEquals(d.getFirst().getUri(), d.getSecond().getUri());
+            assertFalse(Set.of(d.getFirst().getUri(), d.getSecond().getUri()).contains(waterPurity.getUri()));
+        });
+    }
+
+    @Test
+    void findDuplicatesReturnsAtMostMaximumNumberOfMostSimilarPairs() {
+        final List<Term> terms = IntStream.range(0, 50).mapToObj(i -> termWithLabel("Registr vozidel"))
+                                          .collect(Collectors.toList());
+        final Term similar = termWithLabel("Registr vozidla");
+        transactional(() -> {
+            terms.forEach(t -> persistTerm(t, vocabulary));
+            persistTerm(similar, vocabulary);
+        });
+
+        final List<DuplicateTerms> result = sut.findDuplicates(vocabulary.getUri(), Environment.LANGUAGE, 0.8);
+        assertEquals(TermLabelIndex.MAX_DUPLICATES, result.size());
+        result.forEach(d -> assertEquals(1.0, d.getScore()));
+    }
+
+    @Test
+    void normalizeLowerCasesRemovesDiacriticsAndCollapsesWhitespace() {
+        assertEquals("cistota vody", TermLabelIndex.normalize("  Čistota \t Vody "));
+    }
+}
@@ -0,0 +1,62 @@
+package cz.cvut.kbss.termit.persistence.dao.hierarchy;
+
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.termit.dto.TermInfo;
+import cz.cvut.kbss.termit.environment.Environment;
+import cz.cvut.kbss.termit.environment.Generator;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VocabularyHierarchyTest {
+
+    private final URI vocabulary = Generator.generateUri();
+
+    private final VocabularyHierarchy sut = new VocabularyHierarchy(
+            label -> label.get(Environment.LANGUAGE) != null ?
+                     label.get(Environment.LANGUAGE).getBytes(StandardCharsets.UTF_8) : null);
+
+    @Test
+    void reattachingNonMemberChildReusesIdentifierReleasedByItsDetachment() {
+        final URI parent = Generator.generateUri();
+        final URI child = Generator.generateUri();
+        final URI childVocabulary = Generator.generateUri();
+        sut.addTerm(parent, MultilingualString.create("Parent", Environment.LANGUAGE), vocabulary, true);
+        sut.setRoot(parent, true);
+        sut.addTerm(child, MultilingualString.create("Child", Environment.LANGUAGE), childVocabulary, false);
+        sut.addEdge(parent, child);
+        final int allocated = sut.allocatedIds();
+
+        for (int i = 0; i < 10; i++) {
+            sut.detachFromParents(child);
+            sut.addTerm(child, MultilingualString.create("Child", Environment.LANGUAGE), childVocabulary, false);
+            sut.addEdge(parent, child);
+        }
+        assertEquals(allocated, sut.allocatedIds());
+        final List<URI> subTerms = sut.getSubTerms(parent).orElseThrow().stream().map(TermInfo::getUri)
+                                      .collect(Collectors.toList());
+        assertEquals(Collections.singletonList(child), subTerms);
+    }
+
+    @Test
+    void addTermReusesIdentifierOfRemovedTerm() {
+        final URI first = Generator.generateUri();
+        final URI second = Generator.generateUri();
+        sut.addTerm(first, MultilingualString.create("First", Environment.LANGUAGE), vocabulary, true);
+        sut.setRoot(first, true);
+        sut.remove(first);
+        sut.addTerm(second, MultilingualString.create("Second", Environment.LANGUAGE), vocabulary, true);
+        sut.setRoot(second, true);
+
+        assertEquals(1, sut.allocatedIds());
+        assertEquals(Collections.singletonList(second),
+                     sut.getRoots(0, 10, Collections.emptySet()).stream().map(VocabularyHierarchy.Root::getIri)
+                        .collect(Collectors.toList()));
+    }
+}
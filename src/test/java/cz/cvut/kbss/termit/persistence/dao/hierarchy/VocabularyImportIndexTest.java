@@ -0,0 +1,190 @@
+package cz.cvut.kbss.termit.persistence.dao.hierarchy;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.termit.environment.Environment;
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.event.EvictCacheEvent;
+import cz.cvut.kbss.termit.model.User;
+import cz.cvut.kbss.termit.model.Vocabulary;
+import cz.cvut.kbss.termit.persistence.DescriptorFactory;
+import cz.cvut.kbss.termit.persistence.dao.BaseDaoTestRunner;
+import cz.cvut.kbss.termit.persistence.dao.VocabularyDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.net.URI;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VocabularyImportIndexTest extends BaseDaoTestRunner {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private DescriptorFactory descriptorFactory;
+
+    @Autowired
+    private VocabularyDao vocabularyDao;
+
+    @Autowired
+    private VocabularyImportIndex sut;
+
+    private Vocabulary subject;
+    private Vocabulary imported;
+    private Vocabulary transitive;
+
+    @BeforeEach
+    void setUp() {
+        final User author = Generator.generateUserWithId();
+        transactional(() -> em.persist(author));
+        Environment.setCurrentUser(author);
+        this.subject = Generator.generateVocabularyWithId();
+        this.imported = Generator.generateVocabularyWithId();
+        this.transitive = Generator.generateVocabularyWithId();
+        subject.setImportedVocabularies(Collections.singleton(imported.getUri()));
+        imported.setImportedVocabularies(Collections.singleton(transitive.getUri()));
+        transactional(() -> Arrays.asList(subject, imported, transitive)
+                                  .forEach(v -> em.persist(v, descriptorFactory.vocabularyDescriptor(v))));
+    }
+
+    @Test
+    void getImportedVocabulariesReturnsTransitiveClosureOfImports() {
+        assertEquals(new HashSet<>(Arrays.asList(imported.getUri(), transitive.getUri())),
+                     sut.getImportedVocabularies(subject.getUri()));
+        assertEquals(Collections.singleton(transitive.getUri()), sut.getImportedVocabularies(imported.getUri()));
+        assertTrue(sut.getImportedVocabularies(transitive.getUri()).isEmpty());
+    }
+
+    @Test
+    void getImportingVocabulariesReturnsTransitiveClosureOfImporters() {
+        assertEquals(new HashSet<>(Arrays.asList(subject.getUri(), imported.getUri())),
+                     sut.getImportingVocabularies(transitive.getUri()));
+        assertTrue(sut.getImportingVocabularies(subject.getUri()).isEmpty());
+    }
+
+    @Test
+    void getImportClosureContainsVocabularyItself() {
+        assertEquals(new HashSet<>(Arrays.asList(subject.getUri(), imported.getUri(), transitive.getUri())),
+                     sut.getImportClosure(subject.getUri()));
+    }
+
+    @Test
+    void getVocabulariesReturnsAllVocabularies() {
+        sut.evictAll();
+        assertTrue(sut.getVocabularies().containsAll(Arrays.asList(subject.getUri(), imported.getUri(),
+                                                                   transitive.getUri())));
+    }
+
+    @Test
+    void getImportedVocabulariesHandlesImportCycles() {
+        final Vocabulary one = Generator.generateVocabularyWithId();
+        final Vocabulary two = Generator.generateVocabularyWithId();
+        one.setImportedVocabularies(Collections.singleton(two.getUri()));
+        two.setImportedVocabularies(Collections.singleton(one.getUri()));
+        transactional(() -> Arrays.asList(one, two)
+                                  .forEach(v -> em.persist(v, descriptorFactory.vocabularyDescriptor(v))));
+
+        assertEquals(new HashSet<>(Arrays.asList(one.getUri(), two.getUri())),
+                     sut.getImportedVocabularies(one.getUri()));
+    }
+
+    @Test
+    void vocabularyUpdateUpdatesLoadedIndex() {
+        assertEquals(2, sut.getImportedVocabularies(subject.getUri()).size());
+        final Vocabulary another = Generator.generateVocabularyWithId();
+        transactional(() -> vocabularyDao.persist(another));
+        imported.setImportedVocabularies(Collections.singleton(another.getUri()));
+        transactional(() -> vocabularyDao.update(imported));
+
+        assertEquals(new HashSet<>(Arrays.asList(imported.getUri(), another.getUri())),
+                     sut.getImportedVocabularies(subject.getUri()));
+        assertTrue(sut.getImportingVocabularies(transitive.getUri()).isEmpty());
+        assertEquals(new HashSet<>(Arrays.asList(subject.getUri(), imported.getUri())),
+                     sut.getImportingVocabularies(another.getUri()));
+    }
+
+    @Test
+    void vocabularyPersistAddsVocabularyToLoadedIndex() {
+        assertEquals(2, sut.getImportedVocabularies(subject.getUri()).size());
+        final Vocabulary importing = Generator.generateVocabularyWithId();
+        importing.setImportedVocabularies(Collections.singleton(subject.getUri()));
+        transactional(() -> vocabularyDao.persist(importing));
+
+        assertEquals(new HashSet<>(Arrays.asList(subject.getUri(), imported.getUri(), transitive.getUri())),
+                     sut.getImportedVocabularies(importing.getUri()));
+        assertTrue(sut.getImportingVocabularies(transitive.getUri()).contains(importing.getUri()));
+    }
+
+    @Test
+    void indexIsReloadedWhenUnknownVocabularyIsRequested() {
+        assertEquals(2, sut.getImportedVocabularies(subject.getUri()).size());
+        final Vocabulary importing = Generator.generateVocabularyWithId();
+        importing.setImportedVocabularies(Collections.singleton(subject.getUri()));
+        // Bypasses the DAO
+        transactional(() -> em.persist(importing, descriptorFactory.vocabularyDescriptor(importing)));
+
+        assertEquals(3, sut.getImportedVocabularies(importing.getUri()).size());
+    }
+
+    @Test
+    void onEvictCacheDiscardsIndex() {
+        assertEquals(2, sut.getImportedVocabularies(subject.getUri()).size());
+        final URI another = Generator.generateUri();
+        transactional(() -> {
+            final Vocabulary toUpdate = em.find(Vocabulary.class, imported.getUri(),
+                                                descriptorFactory.vocabularyDescriptor(imported));
+            toUpdate.setImportedVocabularies(new HashSet<>(Collections.singleton(another)));
+        });
+        sut.onEvictCache(new EvictCacheEvent(this));
+
+        assertEquals(new HashSet<>(Arrays.asList(imported.getUri(), another)),
+                     sut.getImportedVocabularies(subject.getUri()));
+    }
+
+    @Test
+    void indexIsNotReloadedRepeatedlyWhenUnknownVocabularyIsRequested() {
+        assertEquals(2, sut.getImportedVocabularies(subject.getUri()).size());
+        final URI unknown = Generator.generateUri();
+        assertTrue(sut.getImportedVocabularies(unknown).isEmpty());
+        final Vocabulary importing = Generator.generateVocabularyWithId();
+        importing.setImportedVocabularies(Collections.singleton(subject.getUri()));
+        // Bypasses the DAO, so the index does not know about the new vocabulary
+        transactional(() -> em.persist(importing, descriptorFactory.vocabularyDescriptor(importing)));
+
+        assertTrue(sut.getImportedVocabularies(unknown).isEmpty());
+        assertFalse(sut.getVocabularies().contains(importing.getUri()));
+    }
+
+    @Test
+    void vocabularyPersistClearsUnknownVocabularies() {
+        final Vocabulary importing = Generator.generateVocabularyWithId();
+        importing.setImportedVocabularies(Collections.singleton(subject.getUri()));
+        assertTrue(sut.getImportedVocabularies(importing.getUri()).isEmpty());
+        transactional(() -> vocabularyDao.persist(importing));
+
+        assertEquals(3, sut.getImportedVocabularies(importing.getUri()).size());
+    }
+
+    @Test
+    void onEvictCacheScopedToVocabulariesReloadsOnlyTheirImports() {
+        assertEquals(2, sut.getImportedVocabularies(subject.getUri()).size());
+        final URI another = Generator.generateUri();
+        final URI yetAnother = Generator.generateUri();
+        transactional(() -> {
+            final Vocabulary toUpdate = em.find(Vocabulary.class, imported.getUri(),
+                                                descriptorFactory.vocabularyDescriptor(imported));
+            toUpdate.setImportedVocabularies(new HashSet<>(Collections.singleton(another)));
+            final Vocabulary notReloaded = em.find(Vocabulary.class, transitive.getUri(),
+                                                   descriptorFactory.vocabularyDescriptor(transitive));
+            notReloaded.setImportedVocabularies(new HashSet<>(Collections.singleton(yetAnother)));
+        });
+        sut.onEvictCache(new EvictCacheEvent(this, Collections.singleton(imported.getUri())));
+
+        assertEquals(new HashSet<>(Arrays.asList(imported.getUri(), another)),
+                     sut.getImportedVocabularies(subject.getUri()));
+        assertTrue(sut.getImportedVocabularies(transitive.getUri()).isEmpty());
+    }
+}
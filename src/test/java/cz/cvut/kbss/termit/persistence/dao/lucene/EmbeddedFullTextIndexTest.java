@@ -0,0 +1,312 @@
+package cz.cvut.kbss.termit.persistence.dao.lucene;
+
+import cz.cvut.kbss.jopa.model.EntityManager;
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.jopa.vocabulary.SKOS;
+import cz.cvut.kbss.termit.dto.FullTextSearchResult;
+import cz.cvut.kbss.termit.dto.FullTextSearchSpec;
+import cz.cvut.kbss.termit.environment.Environment;
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.event.EvictCacheEvent;
+import cz.cvut.kbss.termit.model.Term;
+import cz.cvut.kbss.termit.model.Vocabulary;
+import cz.cvut.kbss.termit.persistence.DescriptorFactory;
+import cz.cvut.kbss.termit.persistence.dao.BaseDaoTestRunner;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.apache.lucene.index.IndexWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddedFullTextIndexTest extends BaseDaoTestRunner {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private DescriptorFactory descriptorFactory;
+
+    @Autowired
+    private Configuration config;
+
+    private Path indexDir;
+
+    private Vocabulary vocabulary;
+
+    private Term term;
+
+    private EmbeddedFullTextIndex sut;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.indexDir = Files.createTempDirectory("termit-index");
+        this.vocabulary = Generator.generateVocabularyWithId();
+        vocabulary.setLabel("Water management");
+        this.term = termWithLabel("Water purity");
+        term.setDefinition(MultilingualString.create("Degree of contamination of a body of water",
+                                                     Environment.LANGUAGE));
+        term.setDraft(false);
+        transactional(() -> {
+            em.persist(vocabulary, descriptorFactory.vocabularyDescriptor(vocabulary));
+            persistTerm(term);
+        });
+        this.sut = new EmbeddedFullTextIndex(em, config.getPersistence(), indexDir);
+    }
+
+    private static Term termWithLabel(String label) {
+        final Term result = Generator.generateTermWithId();
+        result.setLabel(MultilingualString.create(label, Environment.LANGUAGE));
+        result.setDefinition(null);
+        return result;
+    }
+
+    private void persistTerm(Term t) {
+        t.setGlossary(vocabulary.getGlossary().getUri());
+        em.persist(t, descriptorFactory.termDescriptor(vocabulary));
+        Generator.addTermInVocabularyRelationship(t, vocabulary.getUri(), em);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        sut.close();
+        try (final Stream<Path> files = Files.walk(indexDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    /**
+     * The repository is shared by the tests, so only results from the test vocabulary are considered.
+     */
+    private List<FullTextSearchResult> search(String searchString) {
+        return sut.search(searchString).stream()
+                  .filter(r -> vocabulary.getUri().equals(r.getUri()) ||
+                          vocabulary.getUri().equals(r.getVocabulary()))
+                  .collect(Collectors.toList());
+    }
+
+    private static Optional<FullTextSearchResult> find(List<FullTextSearchResult> results, URI uri) {
+        return results.stream().filter(r -> r.getUri().equals(uri)).findFirst();
+    }
+
+    @Test
+    void searchBuildsIndexFromRepositoryContentOnFirstUse() {
+        final List<FullTextSearchResult> result = search("purity");
+        assertEquals(1, result.size());
+        final FullTextSearchResult match = result.get(0);
+        assertEquals(term.getUri(), match.getUri());
+        assertEquals("Water purity", match.getLabel());
+        assertEquals(vocabulary.getUri(), match.getVocabulary());
+        assertFalse(match.isDraft());
+        assertTrue(match.getTypes().contains(SKOS.CONCEPT));
+        assertEquals("label", match.getSnippetField());
+        assertEquals("Water <em>purity</em>", match.getSnippetText());
+        assertTrue(match.getScore() > 0);
+    }
+
+    @Test
+    void searchMatchesVocabularyTitles() {
+        final List<FullTextSearchResult> result = search("management");
+        assertEquals(1, result.size());
+        assertEquals(vocabulary.getUri(), result.get(0).getUri());
+        assertTrue(result.get(0).getTypes().contains(cz.cvut.kbss.termit.util.Vocabulary.s_c_slovnik));
+    }
+
+    @Test
+    void searchMatchesLastTokenAsPrefix() {
+        final List<FullTextSearchResult> result = search("water pur");
+        assertEquals(1, result.size());
+        assertEquals(term.getUri(), result.get(0).getUri());
+    }
+
+    @Test
+    void searchIsCaseAndAccentInsensitive() {
+        final Term czech = termWithLabel("Čistota vody");
+        transactional(() -> persistTerm(czech));
+
+        final List<FullTextSearchResult> result = search("CISTOTA");
+        assertEquals(1, result.size());
+        assertEquals(czech.getUri(), result.get(0).getUri());
+        assertEquals("<em>Čistota</em> vody", result.get(0).getSnippetText());
+    }
+
+    @Test
+    void searchReturnsDefinitionSnippetWhenTermMatchesOnlyInDefinition() {
+        final List<FullTextSearchResult> result = search("contamination");
+        assertEquals(1, result.size());
+        assertEquals("definition", result.get(0).getSnippetField());
+        assertTrue(result.get(0).getSnippetText().contains("<em>contamination</em>"));
+    }
+
+    @Test
+    void searchRanksLabelMatchesAboveDefinitionMatches() {
+        final Term another = termWithLabel("Body of water");
+        transactional(() -> persistTerm(another));
+
+        final List<FullTextSearchResult> result = search("body");
+        assertEquals(2, result.size());
+        assertEquals(another.getUri(), result.get(0).getUri());
+        assertEquals(term.getUri(), result.get(1).getUri());
+    }
+
+    @Test
+    void termSavedIndexesTermAfterTransactionCommit() {
+        assertTrue(search("pollution").isEmpty());
+        final Term added = termWithLabel("Water pollution");
+        transactional(() -> {
+            persistTerm(added);
+            sut.termSaved(added, vocabulary.getUri());
+            assertTrue(search("pollution").isEmpty());
+        });
+
+        final Optional<FullTextSearchResult> result = find(search("pollution"), added.getUri());
+        assertTrue(result.isPresent());
+        assertEquals(vocabulary.getUri(), result.get().getVocabulary());
+    }
+
+    @Test
+    void termSavedReplacesPreviouslyIndexedValues() {
+        assertEquals(1, search("purity").size());
+        term.setLabel(MultilingualString.create("Water quality", Environment.LANGUAGE));
+        transactional(() -> sut.termSaved(term, vocabulary.getUri()));
+
+        assertTrue(search("purity").isEmpty());
+        assertEquals(term.getUri(), search("quality").get(0).getUri());
+    }
+
+    @Test
+    void failedUpdateCausesIndexRebuildOnNextUse() {
+        assertTrue(search("pollution").isEmpty());
+        // Lucene rejects identifiers longer than its maximum term length
+        final Term invalid = termWithLabel("Water pollution");
+        invalid.setUri(URI.create(Generator.generateUri() + "/" + "x".repeat(IndexWriter.MAX_TERM_LENGTH)));
+        sut.termSaved(invalid, vocabulary.getUri());
+        final Term added = termWithLabel("Water pollution");
+        // Bypasses the index
+        transactional(() -> persistTerm(added));
+
+        final List<FullTextSearchResult> result = search("pollution");
+        assertEquals(1, result.size());
+        assertEquals(added.getUri(), result.get(0).getUri());
+    }
+
+    @Test
+    void termStatusChangedUpdatesDraftStatusOfIndexedTerm() {
+        assertFalse(search("purity").get(0).isDraft());
+        transactional(() -> sut.termStatusChanged(term.getUri(), true));
+
+        assertTrue(search("purity").get(0).isDraft());
+    }
+
+    @Test
+    void termRemovedRemovesTermFromIndex() {
+        assertEquals(1, search("purity").size());
+        transactional(() -> sut.termRemoved(term.getUri()));
+
+        assertTrue(search("purity").isEmpty());
+    }
+
+    @Test
+    void vocabularyRemovedRemovesVocabularyAndItsTermsFromIndex() {
+        assertEquals(1, search("water management").size());
+        transactional(() -> sut.vocabularyRemoved(vocabulary.getUri()));
+
+        assertTrue(search("water").isEmpty());
+    }
+
+    @Test
+    void onEvictCacheReindexesAffectedVocabularies() {
+        assertEquals(1, search("water").stream().filter(r -> r.getTypes().contains(SKOS.CONCEPT)).count());
+        final Term added = termWithLabel("Waste water");
+        // Bypasses the index
+        transactional(() -> persistTerm(added));
+        assertFalse(find(search("water"), added.getUri()).isPresent());
+
+        sut.onEvictCache(new EvictCacheEvent(this, Collections.singleton(vocabulary.getUri())));
+        assertTrue(find(search("water"), added.getUri()).isPresent());
+    }
+
+    @Test
+    void rebuildReindexesWholeRepositoryContent() {
+        assertEquals(1, search("purity").size());
+        final Term added = termWithLabel("Purity of air");
+        // Bypasses the index
+        transactional(() -> persistTerm(added));
+
+        sut.rebuild();
+        assertEquals(2, search("purity").size());
+    }
+
+    @Test
+    void searchWithSpecReturnsRequestedPageAndTotalNumberOfHits() {
+        // Unique token, so that the hits do not include terms created by other tests
+        final String token = "paging" + Generator.randomInt(0, Integer.MAX_VALUE);
+        transactional(() -> Stream.of("one", "two", "three").forEach(s -> persistTerm(termWithLabel(token + " " + s))));
+
+        final Page<FullTextSearchResult> first = sut.search(token, new FullTextSearchSpec(PageRequest.of(0, 2), null,
+                                                                                           null));
+        assertEquals(2, first.getNumberOfElements());
+        assertEquals(3, first.getTotalElements());
+        final Page<FullTextSearchResult> second = sut.search(token, new FullTextSearchSpec(PageRequest.of(1, 2), null,
+                                                                                            null));
+        assertEquals(1, second.getNumberOfElements());
+        assertEquals(3, second.getTotalElements());
+        assertFalse(first.getContent().contains(second.getContent().get(0)));
+    }
+
+    @Test
+    void searchWithinVocabularyMatchesOnlyVocabularyAndItsTerms() {
+        final Vocabulary another = Generator.generateVocabularyWithId();
+        another.setLabel("Water supply");
+        final Term anotherTerm = termWithLabel("Water quality");
+        transactional(() -> {
+            em.persist(another, descriptorFactory.vocabularyDescriptor(another));
+            anotherTerm.setGlossary(another.getGlossary().getUri());
+            em.persist(anotherTerm, descriptorFactory.termDescriptor(another));
+            Generator.addTermInVocabularyRelationship(anotherTerm, another.getUri(), em);
+        });
+
+        final Page<FullTextSearchResult> result = sut.search("water", FullTextSearchSpec.DEFAULT.within(
+                vocabulary.getUri(), 10));
+        assertEquals(new HashSet<>(Arrays.asList(vocabulary.getUri(), term.getUri())),
+                     result.getContent().stream().map(FullTextSearchResult::getUri).collect(Collectors.toSet()));
+        assertEquals(2, result.getTotalElements());
+    }
+
+    @Test
+    void searchWithSpecSkipsHitsWithScoreLowerThanMinimum() {
+        final String token = "score" + Generator.randomInt(0, Integer.MAX_VALUE);
+        final Term exact = termWithLabel(token);
+        final Term partial = termWithLabel(token + " in a label with many other words");
+        transactional(() -> {
+            persistTerm(exact);
+            persistTerm(partial);
+        });
+        final List<FullTextSearchResult> all = sut.search(token);
+        assertEquals(2, all.size());
+        assertTrue(all.get(0).getScore() > all.get(1).getScore());
+        final double minScore = (all.get(0).getScore() + all.get(1).getScore()) / 2;
+
+        final Page<FullTextSearchResult> result = sut.search(token, new FullTextSearchSpec(PageRequest.of(0, 10),
+                                                                                            minScore, null));
+        assertEquals(Collections.singletonList(exact.getUri()),
+                     result.getContent().stream().map(FullTextSearchResult::getUri).collect(Collectors.toList()));
+        assertEquals(1, result.getTotalElements());
+    }
+}
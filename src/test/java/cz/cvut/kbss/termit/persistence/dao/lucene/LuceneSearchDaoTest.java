@@ -19,7 +19,9 @@ package cz.cvut.kbss.termit.persistence.dao.lucene;
 
 import cz.cvut.kbss.jopa.model.EntityManager;
 import cz.cvut.kbss.jopa.model.query.Query;
+import cz.cvut.kbss.jopa.vocabulary.SKOS;
 import cz.cvut.kbss.termit.dto.FullTextSearchResult;
+import cz.cvut.kbss.termit.dto.FullTextSearchSpec;
 import cz.cvut.kbss.termit.util.Configuration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,10 +30,15 @@ import org.mockito.Answers;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 
+import java.net.URI;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static cz.cvut.kbss.termit.persistence.dao.lucene.LuceneSearchDao.LUCENE_WILDCARD;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -58,11 +65,17 @@ class LuceneSearchDaoTest {
     }
 
     private void mockSearchQuery() {
+        mockSearchQuery(1000);
+    }
+
+    private void mockSearchQuery(int maxResults) {
         when(emMock.createNativeQuery(any(), anyString())).thenReturn(queryMock);
         when(queryMock.setParameter(anyString(), any())).thenReturn(queryMock);
         when(queryMock.setParameter(anyString(), any(), any())).thenReturn(queryMock);
+        when(queryMock.setMaxResults(anyInt())).thenReturn(queryMock);
         when(queryMock.getResultList()).thenReturn(Collections.emptyList());
         when(configMock.getPersistence().getLanguage()).thenReturn("cs");
+        when(configMock.getSearch().getMaxResults()).thenReturn(maxResults);
     }
 
     @Test
@@ -111,4 +124,63 @@ class LuceneSearchDaoTest {
         assertTrue(result.isEmpty());
         verify(emMock, never()).createNativeQuery(anyString());
     }
+
+    @Test
+    void fullTextSearchRetrievesTopHitsAndAppliesMinimumScoreAndPageToRescoredHits() {
+        mockSearchQuery();
+        final List<FullTextSearchResult> hits = IntStream.range(0, 30).mapToObj(
+                i -> new FullTextSearchResult(URI.create("http://example.org/" + i), "Label " + i, null, false,
+                                              SKOS.CONCEPT, "definition", "Test " + i, 30.0 - i))
+                                                         .collect(Collectors.toList());
+        // Exact label match, rescored to the top
+        final FullTextSearchResult exact = new FullTextSearchResult(URI.create("http://example.org/exact"), "Test",
+                                                                    null, false, SKOS.CONCEPT, "label", "Test", 10.0);
+        hits.add(exact);
+        when(queryMock.getResultList()).thenReturn(hits);
+        final FullTextSearchSpec spec = new FullTextSearchSpec(PageRequest.of(0, 10), 20.0, null);
+
+        final Page<FullTextSearchResult> result = sut.fullTextSearch("test", spec);
+        assertEquals(exact, result.getContent().get(0));
+        assertEquals("<em>Test</em>", exact.getSnippetText());
+        assertEquals(10, result.getNumberOfElements());
+        assertTrue(result.getContent().stream().allMatch(r -> r.getScore() >= 20.0));
+        verify(queryMock).setMaxResults(1000);
+        verify(queryMock, never()).setFirstResult(anyInt());
+        verify(queryMock, never()).setParameter(eq("minScore"), any());
+    }
+
+    @Test
+    void fullTextSearchCountsAllHitsWhenOnlyPartOfThemIsRetrieved() {
+        mockSearchQuery(5);
+        final List<FullTextSearchResult> hits = IntStream.range(0, 5).mapToObj(
+                i -> new FullTextSearchResult(URI.create("http://example.org/" + i), "Label " + i, null, false,
+                                              SKOS.CONCEPT, "definition", "Test " + i, 5.0 - i))
+                                                         .collect(Collectors.toList());
+        when(queryMock.getResultList()).thenReturn(hits);
+        final Query countQueryMock = mock(Query.class);
+        when(emMock.createNativeQuery(nullable(String.class))).thenReturn(countQueryMock);
+        when(countQueryMock.setParameter(anyString(), any())).thenReturn(countQueryMock);
+        when(countQueryMock.setParameter(anyString(), any(), any())).thenReturn(countQueryMock);
+        when(countQueryMock.getSingleResult()).thenReturn(42);
+
+        final Page<FullTextSearchResult> result = sut.fullTextSearch("test", new FullTextSearchSpec(
+                PageRequest.of(0, 2), null, null));
+        assertEquals(2, result.getNumberOfElements());
+        assertEquals(42, result.getTotalElements());
+    }
+
+    @Test
+    void fullTextSearchDoesNotCountHitsWhenAllOfThemAreRetrieved() {
+        mockSearchQuery(5);
+        final List<FullTextSearchResult> hits = IntStream.range(0, 3).mapToObj(
+                i -> new FullTextSearchResult(URI.create("http://example.org/" + i), "Label " + i, null, false,
+                                              SKOS.CONCEPT, "definition", "Test " + i, 3.0 - i))
+                                                         .collect(Collectors.toList());
+        when(queryMock.getResultList()).thenReturn(hits);
+
+        final Page<FullTextSearchResult> result = sut.fullTextSearch("test", new FullTextSearchSpec(
+                PageRequest.of(0, 2), null, null));
+        assertEquals(3, result.getTotalElements());
+        verify(emMock, never()).createNativeQuery(nullable(String.class));
+    }
 }
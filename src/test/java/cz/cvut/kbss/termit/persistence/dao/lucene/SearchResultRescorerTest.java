@@ -0,0 +1,81 @@
+package cz.cvut.kbss.termit.persistence.dao.lucene;
+
+import cz.cvut.kbss.jopa.vocabulary.SKOS;
+import cz.cvut.kbss.termit.dto.FullTextSearchResult;
+import cz.cvut.kbss.termit.environment.Generator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultRescorerTest {
+
+    private final SearchResultRescorer sut = new SearchResultRescorer();
+
+    private static FullTextSearchResult hit(String field, String snippet, double score) {
+        return new FullTextSearchResult(Generator.generateUri(), "Label", null, false, SKOS.CONCEPT, field, snippet,
+                                        score);
+    }
+
+    @Test
+    void compileSplitsSearchStringIntoLowerCaseTokensWithoutLuceneSyntax() {
+        assertArrayEquals(new String[]{"water", "purity"},
+                          SearchResultRescorer.CompiledSearch.compile("\"Water\" AND purity*").getTokens());
+    }
+
+    @Test
+    void rescoreHighlightsWordsMatchingSearchTokensAndLastTokenAsPrefix() {
+        final FullTextSearchResult hit = hit("definition", "Purity of water, i.e., water purification", 1.0);
+        sut.rescore("water pur", Collections.singletonList(hit));
+        assertEquals("<em>Purity</em> of <em>water</em>, i.e., <em>water</em> <em>purification</em>",
+                     hit.getSnippetText());
+    }
+
+    @Test
+    void rescoreReplacesRepositoryHighlightingMarkup() {
+        final FullTextSearchResult hit = hit("label", "<B>Water</B> supply <em>of</em> city", 1.0);
+        sut.rescore("supply", Collections.singletonList(hit));
+        assertEquals("Water <em>supply</em> of city", hit.getSnippetText());
+    }
+
+    @Test
+    void rescoreBoostsExactMatchAndWeightsItByField() {
+        final FullTextSearchResult label = hit("label", "<em>Water</em> <em>purity</em>", 1.0);
+        final FullTextSearchResult definition = hit("definition", "Water purity", 1.0);
+        sut.rescore("water purity", Arrays.asList(label, definition));
+        assertEquals(1.0 * SearchResultRescorer.EXACT_MATCH_BOOST * 2.0, label.getScore());
+        assertEquals(1.0 * SearchResultRescorer.EXACT_MATCH_BOOST * 1.2, definition.getScore(), 1e-9);
+    }
+
+    @Test
+    void rescoreBoostsPhraseMatchOnlyInLabel() {
+        final FullTextSearchResult label = hit("label", "Drinking water purity", 1.0);
+        final FullTextSearchResult definition = hit("definition", "Drinking water purity", 1.0);
+        final FullTextSearchResult notPhrase = hit("label", "Purity of water", 1.0);
+        sut.rescore("water purity", Arrays.asList(label, definition, notPhrase));
+        assertEquals(1.0 * SearchResultRescorer.LABEL_PHRASE_BOOST * 2.0, label.getScore());
+        assertEquals(1.2, definition.getScore(), 1e-9);
+        assertEquals(2.0, notPhrase.getScore());
+    }
+
+    @Test
+    void rescoreReturnsHitsOrderedByNewScoreKeepingOrderOfEqualScores() {
+        final FullTextSearchResult first = hit("definition", "Water is a liquid", 3.0);
+        final FullTextSearchResult second = hit("definition", "Still water", 3.0);
+        final FullTextSearchResult third = hit("label", "Water", 1.0);
+        final List<FullTextSearchResult> result = sut.rescore("water", Arrays.asList(first, second, third));
+        // first: 3.6, second: 3.6, third: 4.0
+        assertEquals(Arrays.asList(third, first, second), result);
+    }
+
+    @Test
+    void rescoreLeavesHitsWithoutSnippetUnchanged() {
+        final FullTextSearchResult hit = hit("label", null, 1.0);
+        sut.rescore("water", Collections.singletonList(hit));
+        assertNull(hit.getSnippetText());
+        assertEquals(1.0, hit.getScore());
+    }
+}
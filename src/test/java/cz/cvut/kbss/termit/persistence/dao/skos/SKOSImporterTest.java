@@ -12,6 +12,7 @@ import cz.cvut.kbss.termit.persistence.dao.VocabularyDao;
 import cz.cvut.kbss.termit.util.Constants;
 import cz.cvut.kbss.termit.util.Vocabulary;
 import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Value;
@@ -300,6 +301,31 @@ class SKOSImporterTest extends BaseDaoTestRunner {
         });
     }
 
+    @Test
+    void importIntoExistingVocabularyRemovesUnmappedPropertiesOfItsTerms() {
+        transactional(() -> {
+            final SKOSImporter sut = context.getBean(SKOSImporter.class);
+            sut.importVocabulary(true, VOCABULARY_IRI, Constants.Turtle.MEDIA_TYPE, persister, Environment.loadFile("data/test-glossary.ttl"));
+        });
+        final IRI term = vf.createIRI(Vocabulary.s_c_uzivatel_termitu);
+        final IRI unmappedProperty = vf.createIRI(Generator.generateUri().toString());
+        transactional(() -> {
+            try (final RepositoryConnection conn = em.unwrap(Repository.class).getConnection()) {
+                conn.add(term, unmappedProperty, vf.createLiteral("Unmapped value"), vf.createIRI(VOCABULARY_IRI_S));
+            }
+        });
+        transactional(() -> {
+            final SKOSImporter sut = context.getBean(SKOSImporter.class);
+            sut.importVocabulary(true, VOCABULARY_IRI, Constants.Turtle.MEDIA_TYPE, persister, Environment.loadFile("data/test-glossary.ttl"));
+        });
+        transactional(() -> {
+            try (final RepositoryConnection conn = em.unwrap(Repository.class).getConnection()) {
+                assertTrue(conn.hasStatement(term, RDF.TYPE, SKOS.CONCEPT, false));
+                assertFalse(conn.hasStatement(term, unmappedProperty, null, false));
+            }
+        });
+    }
+
     @Test
     void importFailsIfAnEmptyLanguageTagIsProvidedForMultilingualProperties() {
         transactional(() -> {
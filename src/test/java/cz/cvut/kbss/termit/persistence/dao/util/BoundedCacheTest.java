@@ -0,0 +1,386 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+import cz.cvut.kbss.termit.dto.TermInfo;
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.event.EvictCacheEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BoundedCacheTest {
+
+    @Mock
+    Function<URI, Set<TermInfo>> supplier;
+
+    @Mock
+    Function<Collection<URI>, Map<URI, Set<TermInfo>>> bulkSupplier;
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    private final BoundedCache<URI, Set<TermInfo>> sut =
+            new BoundedCache<>(100, BoundedCache::defaultWeight, null, ticker::get);
+
+    @Test
+    void getOrComputeReturnsValueComputedUsingSpecifiedSupplierWhenKeyIsNotPresent() {
+        final Set<TermInfo> data = generateData();
+        final URI key = Generator.generateUri();
+        when(supplier.apply(any(URI.class))).thenReturn(data);
+
+        final Set<TermInfo> result = sut.getOrCompute(key, supplier);
+        assertEquals(data, result);
+        verify(supplier).apply(key);
+    }
+
+    private Set<TermInfo> generateData() {
+        return IntStream.range(0, 5).mapToObj(i -> Generator.generateTermInfoWithId()).collect(Collectors.toSet());
+    }
+
+    @Test
+    void getOrComputeReturnsCachedValue() {
+        final Set<TermInfo> data = generateData();
+        final URI key = Generator.generateUri();
+        when(supplier.apply(any(URI.class))).thenReturn(data);
+
+        final Set<TermInfo> resultOne = sut.getOrCompute(key, supplier);
+        assertEquals(data, resultOne);
+        final Set<TermInfo> resultTwo = sut.getOrCompute(key, supplier);
+        assertEquals(data, resultTwo);
+        // Expect one invocation only
+        verify(supplier).apply(key);
+    }
+
+    @Test
+    void evictRemovesCachedValueForSpecifiedKey() {
+        final Set<TermInfo> data = generateData();
+        final URI key = Generator.generateUri();
+        when(supplier.apply(any(URI.class))).thenReturn(data);
+
+        final Set<TermInfo> resultOne = sut.getOrCompute(key, supplier);
+        assertEquals(data, resultOne);
+        sut.evict(key);
+        final Set<TermInfo> resultTwo = sut.getOrCompute(key, supplier);
+        assertEquals(data, resultTwo);
+        verify(supplier, times(2)).apply(key);
+    }
+
+    @Test
+    void evictRemovesCachedValueOnlyForSpecifiedKey() {
+        final Set<TermInfo> data = generateData();
+        final URI key = Generator.generateUri();
+        final URI keyTwo = Generator.generateUri();
+        when(supplier.apply(any(URI.class))).thenReturn(data);
+
+        assertEquals(data, sut.getOrCompute(key, supplier));
+        assertEquals(data, sut.getOrCompute(keyTwo, supplier));
+        sut.evict(key);
+        assertEquals(data, sut.getOrCompute(key, supplier));
+        assertEquals(data, sut.getOrCompute(keyTwo, supplier));
+        verify(supplier, times(2)).apply(key);
+        // Key two was not evicted
+        verify(supplier).apply(keyTwo);
+    }
+
+    @Test
+    void evictAllClearsWholeCache() {
+        final Set<TermInfo> data = generateData();
+        final URI key = Generator.generateUri();
+        final URI keyTwo = Generator.generateUri();
+        when(supplier.apply(any(URI.class))).thenReturn(data);
+
+        assertEquals(data, sut.getOrCompute(key, supplier));
+        assertEquals(data, sut.getOrCompute(keyTwo, supplier));
+        sut.evictAll();
+        assertEquals(data, sut.getOrCompute(key, supplier));
+        assertEquals(data, sut.getOrCompute(keyTwo, supplier));
+        verify(supplier, times(2)).apply(key);
+        verify(supplier, times(2)).apply(keyTwo);
+    }
+
+    @Test
+    void evictCacheEventEvictsWholeCache() {
+        final Set<TermInfo> data = generateData();
+        final URI key = Generator.generateUri();
+        when(supplier.apply(any(URI.class))).thenReturn(data);
+
+        assertEquals(data, sut.getOrCompute(key, supplier));
+        sut.onEvictCache(new EvictCacheEvent(this));
+        assertEquals(data, sut.getOrCompute(key, supplier));
+        verify(supplier, times(2)).apply(key);
+    }
+
+    @Test
+    void getOrComputeAllComputesMissingValuesUsingSingleSupplierInvocation() {
+        final Map<URI, Set<TermInfo>> data = new HashMap<>();
+        IntStream.range(0, 5).forEach(i -> data.put(Generator.generateUri(), generateData()));
+        when(bulkSupplier.apply(anyCollection())).thenReturn(data);
+
+        final Map<URI, Set<TermInfo>> result = sut.getOrComputeAll(data.keySet(), bulkSupplier);
+        assertEquals(data, result);
+        verify(bulkSupplier).apply(argThat(keys -> keys.size() == data.size() && keys.containsAll(data.keySet())));
+    }
+
+    @Test
+    void getOrComputeAllComputesOnlyValuesWhichAreNotCached() {
+        final Set<TermInfo> cached = generateData();
+        final URI cachedKey = Generator.generateUri();
+        when(supplier.apply(any(URI.class))).thenReturn(cached);
+        sut.getOrCompute(cachedKey, supplier);
+        final URI missingKey = Generator.generateUri();
+        final Set<TermInfo> computed = generateData();
+        when(bulkSupplier.apply(anyCollection())).thenReturn(Collections.singletonMap(missingKey, computed));
+
+        final Map<URI, Set<TermInfo>> result = sut.getOrComputeAll(Arrays.asList(cachedKey, missingKey), bulkSupplier);
+        assertEquals(cached, result.get(cachedKey));
+        assertEquals(computed, result.get(missingKey));
+        verify(bulkSupplier).apply(Collections.singletonList(missingKey));
+    }
+
+    @Test
+    void getOrComputeAllStoresComputedValuesInCache() {
+        final URI key = Generator.generateUri();
+        final Set<TermInfo> data = generateData();
+        when(bulkSupplier.apply(anyCollection())).thenReturn(Collections.singletonMap(key, data));
+
+        sut.getOrComputeAll(Collections.singleton(key), bulkSupplier);
+        assertEquals(data, sut.getOrCompute(key, supplier));
+        verify(supplier, never()).apply(any());
+    }
+
+    @Test
+    void getOrComputeEvictsLeastRecentlyUsedEntriesWhenMaximumWeightIsExceeded() {
+        final BoundedCache<URI, Set<TermInfo>> sut = new BoundedCache<>(10, BoundedCache::defaultWeight, null,
+                                                                         ticker::get);
+        final URI keyOne = Generator.generateUri();
+        final URI keyTwo = Generator.generateUri();
+        final URI keyThree = Generator.generateUri();
+        when(supplier.apply(any(URI.class))).thenAnswer(inv -> generateData());
+        sut.getOrCompute(keyOne, supplier);
+        sut.getOrCompute(keyTwo, supplier);
+        // Key two becomes the most recently used
+        sut.getOrCompute(keyTwo, supplier);
+        assertEquals(10, sut.getStatistics().getWeight());
+
+        sut.getOrCompute(keyThree, supplier);
+        sut.getOrCompute(keyThree, supplier);
+        final CacheStats stats = sut.getStatistics();
+        assertEquals(10, stats.getWeight());
+        assertEquals(2, stats.getSize());
+        assertEquals(1, stats.getEvictionCount());
+        // Key two is still cached
+        sut.getOrCompute(keyTwo, supplier);
+        verify(supplier).apply(keyTwo);
+    }
+
+    @Test
+    void getOrComputeDoesNotAdmitValueWhenItIsAccessedLessFrequentlyThanEntriesItWouldReplace() {
+        final BoundedCache<URI, Set<TermInfo>> sut = new BoundedCache<>(5, BoundedCache::defaultWeight, null,
+                                                                         ticker::get);
+        final URI frequent = Generator.generateUri();
+        final URI rare = Generator.generateUri();
+        when(supplier.apply(any(URI.class))).thenAnswer(inv -> generateData());
+        for (int i = 0; i < 5; i++) {
+            sut.getOrCompute(frequent, supplier);
+        }
+
+        sut.getOrCompute(rare, supplier);
+        sut.getOrCompute(frequent, supplier);
+        verify(supplier).apply(frequent);
+        verify(supplier).apply(rare);
+        assertEquals(1, sut.getStatistics().getEvictionCount());
+    }
+
+    @Test
+    void getOrComputeRecomputesValueAfterItExpires() {
+        final BoundedCache<URI, Set<TermInfo>> sut = new BoundedCache<>(100, BoundedCache::defaultWeight,
+                                                                         Duration.ofMinutes(1), ticker::get);
+        final URI key = Generator.generateUri();
+        when(supplier.apply(any(URI.class))).thenAnswer(inv -> generateData());
+        sut.getOrCompute(key, supplier);
+        ticker.addAndGet(Duration.ofSeconds(30).toNanos());
+        sut.getOrCompute(key, supplier);
+        verify(supplier).apply(key);
+
+        ticker.addAndGet(Duration.ofSeconds(30).toNanos());
+        sut.getOrCompute(key, supplier);
+        verify(supplier, times(2)).apply(key);
+    }
+
+    @Test
+    void getStatisticsReturnsHitMissAndLoadStatistics() {
+        final URI key = Generator.generateUri();
+        when(supplier.apply(any(URI.class))).thenAnswer(inv -> {
+            ticker.addAndGet(1000);
+            return generateData();
+        });
+        sut.getOrCompute(key, supplier);
+        sut.getOrCompute(key, supplier);
+        sut.getOrCompute(key, supplier);
+
+        final CacheStats result = sut.getStatistics();
+        assertEquals(2, result.getHitCount());
+        assertEquals(1, result.getMissCount());
+        assertEquals(1, result.getLoadCount());
+        assertEquals(1000, result.getTotalLoadTime());
+        assertEquals(1, result.getSize());
+        assertEquals(2.0 / 3, result.getHitRate(), 0.001);
+    }
+
+    @Test
+    void getOrComputeDoesNotCacheValueHeavierThanMaximumWeight() {
+        final BoundedCache<URI, Set<TermInfo>> sut = new BoundedCache<>(3, BoundedCache::defaultWeight, null,
+                                                                         ticker::get);
+        final URI key = Generator.generateUri();
+        when(supplier.apply(any(URI.class))).thenAnswer(inv -> generateData());
+
+        assertNotNull(sut.getOrCompute(key, supplier));
+        assertEquals(0, sut.getStatistics().getSize());
+    }
+
+    @Test
+    void evictIfEvictsOnlyMatchingEntries() {
+        final URI key = Generator.generateUri();
+        final URI keyTwo = Generator.generateUri();
+        when(supplier.apply(any(URI.class))).thenAnswer(inv -> generateData());
+        sut.getOrCompute(key, supplier);
+        sut.getOrCompute(keyTwo, supplier);
+
+        sut.evictIf((k, v) -> k.equals(key));
+        assertEquals(1, sut.getStatistics().getSize());
+        assertEquals(5, sut.getStatistics().getWeight());
+        sut.getOrCompute(keyTwo, supplier);
+        verify(supplier).apply(keyTwo);
+    }
+
+    @Test
+    void evictCacheEventScopedToVocabulariesDoesNotEvictWholeCache() {
+        final URI key = Generator.generateUri();
+        when(supplier.apply(any(URI.class))).thenAnswer(inv -> generateData());
+        sut.getOrCompute(key, supplier);
+
+        sut.onEvictCache(new EvictCacheEvent(this, Collections.singleton(Generator.generateUri())));
+        sut.getOrCompute(key, supplier);
+        verify(supplier).apply(key);
+    }
+
+    @Test
+    void getOrComputeComputesValueOnlyOnceForConcurrentMissesOfSameKey() throws Exception {
+        final URI key = Generator.generateUri();
+        final Set<TermInfo> data = generateData();
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch finishLoad = new CountDownLatch(1);
+        when(supplier.apply(any(URI.class))).thenAnswer(inv -> {
+            loadStarted.countDown();
+            assertTrue(finishLoad.await(5, TimeUnit.SECONDS));
+            return data;
+        });
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Set<TermInfo>> first = executor.submit(() -> sut.getOrCompute(key, supplier));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            final Future<Set<TermInfo>> second = executor.submit(() -> sut.getOrCompute(key, supplier));
+            // Give the second caller time to join the load in progress
+            Thread.sleep(100);
+            finishLoad.countDown();
+            assertEquals(data, first.get(5, TimeUnit.SECONDS));
+            assertEquals(data, second.get(5, TimeUnit.SECONDS));
+            verify(supplier).apply(key);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getOrComputePropagatesSupplierExceptionAndDoesNotCacheAnything() {
+        final URI key = Generator.generateUri();
+        when(supplier.apply(any(URI.class))).thenThrow(IllegalStateException.class).thenReturn(generateData());
+
+        assertThrows(IllegalStateException.class, () -> sut.getOrCompute(key, supplier));
+        assertNotNull(sut.getOrCompute(key, supplier));
+        verify(supplier, times(2)).apply(key);
+    }
+
+    @Test
+    void getOrComputeDoesNotStoreValueWhichIsNotCacheable() {
+        final URI key = Generator.generateUri();
+        when(supplier.apply(any(URI.class))).thenAnswer(inv -> generateData());
+
+        assertNotNull(sut.getOrCompute(key, supplier, v -> false));
+        assertEquals(0, sut.getStatistics().getSize());
+        sut.getOrCompute(key, supplier, v -> true);
+        sut.getOrCompute(key, supplier, v -> true);
+        verify(supplier, times(2)).apply(key);
+    }
+
+    @Test
+    void getOrComputeDoesNotStoreValueLoadedConcurrentlyWithEviction() {
+        final URI key = Generator.generateUri();
+        when(supplier.apply(any(URI.class))).thenAnswer(inv -> {
+            // Eviction happens while the value is being computed
+            sut.evict(key);
+            return generateData();
+        });
+
+        assertNotNull(sut.getOrCompute(key, supplier));
+        assertEquals(0, sut.getStatistics().getSize());
+        sut.getOrCompute(key, supplier);
+        verify(supplier, times(2)).apply(key);
+    }
+
+    @Test
+    void getOrComputeAllDoesNotStoreValuesLoadedConcurrentlyWithEviction() {
+        final List<URI> keys = Arrays.asList(Generator.generateUri(), Generator.generateUri());
+        when(bulkSupplier.apply(anyCollection())).thenAnswer(inv -> {
+            sut.evictIf((k, v) -> true);
+            final Collection<URI> missing = inv.getArgument(0);
+            return missing.stream().collect(Collectors.toMap(Function.identity(), k -> generateData()));
+        });
+
+        assertEquals(2, sut.getOrComputeAll(keys, bulkSupplier).size());
+        assertEquals(0, sut.getStatistics().getSize());
+    }
+
+    @Test
+    void getOrComputeDoesNotWaitForLoadStartedBeforeEviction() throws Exception {
+        final URI key = Generator.generateUri();
+        final Set<TermInfo> stale = generateData();
+        final Set<TermInfo> fresh = generateData();
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch finishLoad = new CountDownLatch(1);
+        when(supplier.apply(any(URI.class))).thenAnswer(inv -> {
+            loadStarted.countDown();
+            assertTrue(finishLoad.await(5, TimeUnit.SECONDS));
+            return stale;
+        }).thenReturn(fresh);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Set<TermInfo>> first = executor.submit(() -> sut.getOrCompute(key, supplier));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            sut.evictAll();
+            assertEquals(fresh, sut.getOrCompute(key, supplier));
+            finishLoad.countDown();
+            assertEquals(stale, first.get(5, TimeUnit.SECONDS));
+            assertEquals(fresh, sut.getOrCompute(key, supplier));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
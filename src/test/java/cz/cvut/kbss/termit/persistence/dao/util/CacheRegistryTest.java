@@ -0,0 +1,39 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+import cz.cvut.kbss.termit.event.EvictCacheEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheRegistryTest {
+
+    private final CacheRegistry sut = new CacheRegistry();
+
+    private static BoundedCache<String, String> createCache() {
+        return new BoundedCache<>(10, BoundedCache::defaultWeight, null, System::nanoTime);
+    }
+
+    @Test
+    void registerAppendsSuffixToNameWhenCacheWithSameNameIsAlreadyRegistered() {
+        assertEquals("TermDao.subTermsCache", sut.register("TermDao.subTermsCache", createCache()));
+        assertEquals("TermDao.subTermsCache#2", sut.register("TermDao.subTermsCache", createCache()));
+
+        final Map<String, CacheStats> result = sut.getStatistics();
+        assertEquals(2, result.size());
+        assertTrue(result.containsKey("TermDao.subTermsCache#2"));
+    }
+
+    @Test
+    void onEvictCacheEvictsRegisteredCaches() {
+        final BoundedCache<String, String> cache = createCache();
+        sut.register("test", cache);
+        cache.getOrCompute("key", k -> "value");
+        assertEquals(1, cache.getStatistics().getSize());
+
+        sut.onEvictCache(new EvictCacheEvent(this));
+        assertEquals(0, cache.getStatistics().getSize());
+    }
+}
@@ -0,0 +1,37 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.event.EvictCacheEvent;
+import cz.cvut.kbss.termit.event.VocabularyContentModified;
+import cz.cvut.kbss.termit.event.VocabularyMetadataModified;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentVersionTest {
+
+    private final ContentVersion sut = new ContentVersion();
+
+    @Test
+    void onVocabularyContentModifiedIncrementsVersion() {
+        final long original = sut.get();
+        sut.onVocabularyContentModified(new VocabularyContentModified(this, Generator.generateUri()));
+        assertTrue(sut.get() > original);
+    }
+
+    @Test
+    void onVocabularyMetadataModifiedIncrementsVersion() {
+        final long original = sut.get();
+        sut.onVocabularyMetadataModified(new VocabularyMetadataModified(this, Generator.generateUri()));
+        assertTrue(sut.get() > original);
+    }
+
+    @Test
+    void onEvictCacheIncrementsVersion() {
+        final long original = sut.get();
+        sut.onEvictCache(new EvictCacheEvent(this, Collections.singleton(Generator.generateUri())));
+        assertTrue(sut.get() > original);
+    }
+}
@@ -0,0 +1,87 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LabelCollatorTest {
+
+    private Configuration.Persistence config;
+
+    private LabelCollator sut;
+
+    @BeforeEach
+    void setUp() {
+        this.config = new Configuration.Persistence();
+        config.setLanguage("cs");
+        this.sut = new LabelCollator(config);
+    }
+
+    @Test
+    void sortOrdersLabelsAccordingToRulesOfConfiguredLanguage() {
+        final List<MultilingualString> labels = toLabels("cs", "Španělsko", "Sýrie", "Čína", "Německo", "Chile",
+                                                         "Hongkong");
+
+        sut.sort(labels, l -> l);
+        assertEquals(Arrays.asList("Čína", "Hongkong", "Chile", "Německo", "Sýrie", "Španělsko"),
+                     values(labels, "cs"));
+    }
+
+    private static List<MultilingualString> toLabels(String language, String... values) {
+        return Arrays.stream(values).map(v -> MultilingualString.create(v, language))
+                     .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static List<String> values(List<MultilingualString> labels, String language) {
+        return labels.stream().map(l -> l.get(language)).collect(Collectors.toList());
+    }
+
+    @Test
+    void sortUsesCollatorOfCurrentlyConfiguredLanguage() {
+        config.setLanguage("en");
+        final List<MultilingualString> labels = toLabels("en", "Chile", "Hong Kong", "China");
+
+        sut.sort(labels, l -> l);
+        assertEquals(Arrays.asList("Chile", "China", "Hong Kong"), values(labels, "en"));
+    }
+
+    @Test
+    void sortKeysAreConsistentWithComparator() {
+        final List<String> values = Arrays.asList("žena", "zebra", "Zebra", "čaj", "cesta", "ďas", "dům");
+        final Comparator<MultilingualString> comparator = sut.comparator();
+        for (String one : values) {
+            for (String two : values) {
+                assertEquals(Integer.signum(comparator.compare(MultilingualString.create(one, "cs"),
+                                                               MultilingualString.create(two, "cs"))),
+                             Integer.signum(LabelCollator.compare(sut.sortKey(one), sut.sortKey(two))));
+            }
+        }
+    }
+
+    @Test
+    void sortKeyOfMultilingualStringReturnsNullWhenLabelIsMissingInConfiguredLanguage() {
+        assertNull(sut.sortKey(MultilingualString.create("Germany", "en")));
+        assertNotNull(sut.sortKey(MultilingualString.create("Německo", "cs")));
+    }
+
+    @Test
+    void comparatorUsesOtherLanguageWhenLabelIsMissingInConfiguredLanguageAndOrdersMissingLabelsLast() {
+        final List<MultilingualString> labels = new ArrayList<>(Arrays.asList(new MultilingualString(),
+                                                                              MultilingualString.create("b", "en"),
+                                                                              MultilingualString.create("a", "cs")));
+
+        labels.sort(sut.comparator());
+        assertEquals("a", labels.get(0).get("cs"));
+        assertEquals("b", labels.get(1).get("en"));
+        assertTrue(labels.get(2).isEmpty());
+    }
+}
@@ -0,0 +1,31 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LabelSimilarityTest {
+
+    @Test
+    void trigramsReturnsPaddedTrigramsOfLabel() {
+        assertEquals(Set.of("  a", " ab", "ab "), LabelSimilarity.trigrams("ab"));
+        assertTrue(LabelSimilarity.trigrams("").isEmpty());
+    }
+
+    @Test
+    void editDistanceCountsInsertionsDeletionsAndSubstitutions() {
+        assertEquals(0, LabelSimilarity.editDistance("vozidel", "vozidel"));
+        assertEquals(2, LabelSimilarity.editDistance("vozidel", "vozidla"));
+        assertEquals(3, LabelSimilarity.editDistance("kitten", "sitting"));
+        assertEquals(4, LabelSimilarity.editDistance("", "voda"));
+    }
+
+    @Test
+    void similarityNormalizesEditDistanceByLengthOfLongerLabel() {
+        assertEquals(1.0, LabelSimilarity.similarity("registr vozidel", "registr vozidel"));
+        assertEquals(1.0 - 2.0 / 15, LabelSimilarity.similarity("registr vozidel", "registr vozidla"), 1e-9);
+        assertEquals(0.0, LabelSimilarity.similarity("abc", "xyz"));
+    }
+}
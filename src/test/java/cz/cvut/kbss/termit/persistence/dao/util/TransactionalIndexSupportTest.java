@@ -0,0 +1,102 @@
+package cz.cvut.kbss.termit.persistence.dao.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionalIndexSupportTest {
+
+    private final AtomicInteger discarded = new AtomicInteger();
+
+    private final TransactionalIndexSupport sut = new TransactionalIndexSupport("test index",
+                                                                                discarded::incrementAndGet);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(sut);
+    }
+
+    @Test
+    void afterCommitAppliesChangeImmediatelyWhenThereIsNoTransaction() {
+        final AtomicInteger applied = new AtomicInteger();
+        sut.afterCommit(applied::incrementAndGet);
+        assertEquals(1, applied.get());
+    }
+
+    @Test
+    void afterCommitAppliesChangeOnlyAfterTransactionIsCommitted() {
+        TransactionSynchronizationManager.initSynchronization();
+        final AtomicInteger applied = new AtomicInteger();
+        sut.afterCommit(applied::incrementAndGet);
+        assertEquals(0, applied.get());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, applied.get());
+    }
+
+    @Test
+    void installIfCurrentInstallsDataWhenIndexDidNotChangeSinceLoadStarted() {
+        final AtomicInteger installed = new AtomicInteger();
+        final long version = sut.version();
+        assertTrue(sut.installIfCurrent(version, installed::incrementAndGet));
+        assertEquals(1, installed.get());
+    }
+
+    @Test
+    void installIfCurrentSkipsDataWhenChangeWasAppliedWhileTheyWereLoaded() {
+        final AtomicInteger installed = new AtomicInteger();
+        final long version = sut.version();
+        sut.afterCommit(() -> {
+        });
+        assertFalse(sut.installIfCurrent(version, installed::incrementAndGet));
+        assertEquals(0, installed.get());
+    }
+
+    @Test
+    void installIfCurrentSkipsDataWhenIndexWasInvalidatedWhileTheyWereLoaded() {
+        final AtomicInteger installed = new AtomicInteger();
+        final long version = sut.version();
+        sut.invalidate();
+        assertFalse(sut.installIfCurrent(version, installed::incrementAndGet));
+        assertEquals(0, installed.get());
+    }
+
+    @Test
+    void installIfCurrentInstallsDataWhenChangeIsPendingUntilCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        final long version = sut.version();
+        sut.afterCommit(() -> {
+        });
+        assertTrue(sut.installIfCurrent(version, () -> {
+        }));
+    }
+
+    @Test
+    void discardOnRollbackDiscardsIndexOnceWhenTransactionIsRolledBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        sut.discardOnRollback();
+        sut.discardOnRollback();
+        TransactionSynchronizationManager.getSynchronizations()
+                                         .forEach(s -> s.afterCompletion(
+                                                 TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(1, discarded.get());
+    }
+
+    @Test
+    void discardOnRollbackKeepsIndexWhenTransactionIsCommitted() {
+        TransactionSynchronizationManager.initSynchronization();
+        sut.discardOnRollback();
+        TransactionSynchronizationManager.getSynchronizations()
+                                         .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertEquals(0, discarded.get());
+    }
+}
@@ -10,9 +10,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.net.URI;
-import java.util.Collections;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.anyCollection;
@@ -63,4 +61,20 @@ class ResultCachingValidatorTest {
         final List<ValidationResult> resultTwo = sut.validate(vocabularies);
         verify(validator, times(2)).validate(vocabularies);
     }
-}
\ No newline at end of file
+
+    @Test
+    void evictCacheForSpecificVocabularyEvictsOnlyResultsDependingOnIt() {
+        final List<ValidationResult> results = Collections.singletonList(new ValidationResult());
+        when(validator.validate(anyCollection())).thenReturn(results);
+        final URI modified = Generator.generateUri();
+        final Set<URI> importing = new HashSet<>(Arrays.asList(Generator.generateUri(), modified));
+        final Set<URI> unrelated = Collections.singleton(Generator.generateUri());
+        sut.validate(importing);
+        sut.validate(unrelated);
+        sut.evictCache(new VocabularyContentModified(this, modified));
+        sut.validate(importing);
+        sut.validate(unrelated);
+        verify(validator, times(2)).validate(importing);
+        verify(validator).validate(unrelated);
+    }
+}
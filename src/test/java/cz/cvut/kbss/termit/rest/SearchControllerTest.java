@@ -15,16 +15,23 @@
 package cz.cvut.kbss.termit.rest;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import cz.cvut.kbss.termit.dto.FullTextSearchPage;
 import cz.cvut.kbss.termit.dto.FullTextSearchResult;
+import cz.cvut.kbss.termit.dto.FullTextSearchSpec;
 import cz.cvut.kbss.termit.environment.Generator;
 import cz.cvut.kbss.termit.service.business.SearchService;
+import cz.cvut.kbss.termit.util.Constants;
+import cz.cvut.kbss.termit.util.Constants.QueryParams;
 import cz.cvut.kbss.termit.util.Vocabulary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.net.URI;
@@ -32,7 +39,9 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -60,7 +69,7 @@ class SearchControllerTest extends BaseControllerTestRunner {
                 .singletonList(
                         new FullTextSearchResult(Generator.generateUri(), "test", null, null, Vocabulary.s_c_term,
                                                  "test", "test", 1.0));
-        when(searchServiceMock.fullTextSearch(any())).thenReturn(expected);
+        when(searchServiceMock.fullTextSearch(any(), any())).thenReturn(new PageImpl<>(expected));
         final String searchString = "test";
         final MvcResult mvcResult = mockMvc.perform(get(PATH + "/fts").param("searchString", searchString))
                                            .andExpect(status().isOk()).andReturn();
@@ -70,7 +79,7 @@ class SearchControllerTest extends BaseControllerTestRunner {
         assertEquals(expected.get(0).getUri(), result.get(0).getUri());
         assertEquals(expected.get(0).getLabel(), result.get(0).getLabel());
         assertEquals(expected.get(0).getTypes(), result.get(0).getTypes());
-        verify(searchServiceMock).fullTextSearch(searchString);
+        verify(searchServiceMock).fullTextSearch(eq(searchString), any(FullTextSearchSpec.class));
     }
 
     @Test
@@ -79,12 +88,46 @@ class SearchControllerTest extends BaseControllerTestRunner {
         final List<FullTextSearchResult> expected = Collections
                 .singletonList(new FullTextSearchResult(Generator.generateUri(), "test", vocabularyIri, null,
                                                         Vocabulary.s_c_term, "test", "test", 1.0));
-        when(searchServiceMock.fullTextSearchOfTerms(any(), any())).thenReturn(expected);
+        when(searchServiceMock.fullTextSearchOfTerms(any(), any(), any())).thenReturn(new PageImpl<>(expected));
         final String searchString = "test";
         mockMvc.perform(get(PATH + "/fts/terms")
                                 .param("searchString", searchString)
                                 .param("vocabulary", vocabularyIri.toString()))
                .andExpect(status().isOk()).andReturn();
-        verify(searchServiceMock).fullTextSearchOfTerms(searchString, Collections.singleton(vocabularyIri));
+        verify(searchServiceMock).fullTextSearchOfTerms(eq(searchString), eq(Collections.singleton(vocabularyIri)),
+                                                        any(FullTextSearchSpec.class));
+    }
+
+    @Test
+    void fullTextSearchSetsPartialResultsHeaderWhenResultsArePartial() throws Exception {
+        when(searchServiceMock.fullTextSearch(any(), any())).thenReturn(
+                new FullTextSearchPage(Collections.emptyList(), PageRequest.of(0, 5), 0, true));
+        final MvcResult mvcResult = mockMvc.perform(get(PATH + "/fts").param("searchString", "test")
+                                                                      .param(QueryParams.PAGE_SIZE, "5"))
+                                           .andExpect(status().isOk()).andReturn();
+        assertEquals(Boolean.TRUE.toString(), mvcResult.getResponse().getHeader(Constants.X_PARTIAL_RESULTS_HEADER));
+    }
+
+    @Test
+    void fullTextSearchPassesPageAndLimitsToServiceAndReturnsTotalCountHeader() throws Exception {
+        final List<FullTextSearchResult> expected = Collections
+                .singletonList(new FullTextSearchResult(Generator.generateUri(), "test", null, null,
+                                                        Vocabulary.s_c_term, "test", "test", 1.0));
+        when(searchServiceMock.fullTextSearch(any(), any())).thenReturn(
+                new PageImpl<>(expected, PageRequest.of(2, 5), 42));
+        final String searchString = "test";
+        final MvcResult mvcResult = mockMvc.perform(get(PATH + "/fts").param("searchString", searchString)
+                                                                      .param(QueryParams.PAGE_SIZE, "5")
+                                                                      .param(QueryParams.PAGE, "2")
+                                                                      .param("minScore", "0.5")
+                                                                      .param("maxPerVocabulary", "3"))
+                                           .andExpect(status().isOk()).andReturn();
+        assertEquals("42", mvcResult.getResponse().getHeader(Constants.X_TOTAL_COUNT_HEADER));
+        assertFalse(mvcResult.getResponse().containsHeader(Constants.X_PARTIAL_RESULTS_HEADER));
+        final ArgumentCaptor<FullTextSearchSpec> captor = ArgumentCaptor.forClass(FullTextSearchSpec.class);
+        verify(searchServiceMock).fullTextSearch(eq(searchString), captor.capture());
+        assertEquals(PageRequest.of(2, 5), captor.getValue().getPageSpec());
+        assertEquals(0.5, captor.getValue().getMinScore());
+        assertEquals(3, captor.getValue().getMaxPerVocabulary());
     }
 }
@@ -1,10 +1,13 @@
 package cz.cvut.kbss.termit.rest;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.github.jsonldjava.utils.JsonUtils;
 import cz.cvut.kbss.jopa.model.MultilingualString;
 import cz.cvut.kbss.jopa.vocabulary.SKOS;
 import cz.cvut.kbss.jsonld.JsonLd;
+import cz.cvut.kbss.termit.dto.DuplicateTerms;
+import cz.cvut.kbss.termit.dto.SimilarTerm;
 import cz.cvut.kbss.termit.dto.TermStatus;
 import cz.cvut.kbss.termit.dto.listing.TermDto;
 import cz.cvut.kbss.termit.environment.Environment;
@@ -28,6 +31,7 @@ import cz.cvut.kbss.termit.util.Constants.Excel;
 import cz.cvut.kbss.termit.util.Constants.QueryParams;
 import cz.cvut.kbss.termit.util.Constants.Turtle;
 import cz.cvut.kbss.termit.util.CsvUtils;
+import cz.cvut.kbss.termit.util.KeysetPageRequest;
 import cz.cvut.kbss.termit.util.Vocabulary;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
@@ -57,6 +61,7 @@ import static cz.cvut.kbss.termit.environment.Environment.termsToDtos;
 import static cz.cvut.kbss.termit.environment.Generator.generateComment;
 import static cz.cvut.kbss.termit.environment.Generator.generateComments;
 import static cz.cvut.kbss.termit.util.Constants.DEFAULT_PAGE_SPEC;
+import static cz.cvut.kbss.termit.util.Constants.QueryParams.CURSOR;
 import static cz.cvut.kbss.termit.util.Constants.QueryParams.PAGE;
 import static cz.cvut.kbss.termit.util.Constants.QueryParams.PAGE_SIZE;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -135,6 +140,78 @@ class TermControllerTest extends BaseControllerTestRunner {
         verify(termServiceMock).existsInVocabulary(name, vocabulary, language);
     }
 
+    @Test
+    void findExistingLabelsReturnsLabelsFoundInVocabularyByService() throws Exception {
+        final String namespace = "http://onto.fel.cvut.cz/ontologies/termit/vocabularies/";
+        final String language = "en";
+        final URI vocabularyUri = URI.create(namespace + VOCABULARY_NAME);
+        final List<String> labels = Arrays.asList("first term", "second term");
+        when(idResolverMock.resolveIdentifier(namespace, VOCABULARY_NAME)).thenReturn(vocabularyUri);
+        when(termServiceMock.getRequiredVocabularyReference(vocabularyUri)).thenReturn(vocabulary);
+        when(termServiceMock.findExistingLabels(any(), any(), any())).thenReturn(Collections.singleton("first term"));
+        final MvcResult mvcResult = mockMvc.perform(
+                                                   post(PATH + VOCABULARY_NAME + "/terms/existing-labels")
+                                                           .param(QueryParams.NAMESPACE, namespace)
+                                                           .param("language", language)
+                                                           .content(toJson(labels))
+                                                           .contentType(MediaType.APPLICATION_JSON_VALUE))
+                                           .andExpect(status().isOk()).andReturn();
+        final Set<String> result = readValue(mvcResult, new TypeReference<Set<String>>() {
+        });
+        assertEquals(Collections.singleton("first term"), result);
+        verify(termServiceMock).findExistingLabels(labels, vocabulary, language);
+    }
+
+    @Test
+    void getSimilarReturnsSimilarTermsWithScores() throws Exception {
+        final Term term = Generator.generateTermWithId();
+        when(termServiceMock.findSimilar(any(), any(), anyDouble(), anyInt()))
+                .thenReturn(Collections.singletonList(new SimilarTerm(new TermDto(term), 0.9)));
+        final MvcResult mvcResult = mockMvc.perform(get("/terms/similar").param("label", "test term")
+                                                                         .param("minScore", "0.85"))
+                                           .andExpect(status().isOk()).andReturn();
+        final JsonNode result = objectMapper.readTree(mvcResult.getResponse().getContentAsByteArray());
+        assertEquals(1, result.size());
+        assertEquals(term.getUri().toString(), result.get(0).get("term").get("uri").asText());
+        assertEquals(0.9, result.get(0).get("score").asDouble());
+        verify(termServiceMock).findSimilar("test term", null, 0.85, Constants.DEFAULT_AUTOCOMPLETE_SIZE);
+    }
+
+    @Test
+    void getSimilarUsesDefaultSimilarityThresholdWhenMinScoreIsNotSpecified() throws Exception {
+        mockMvc.perform(get("/terms/similar").param("label", "test term").param("language", Environment.LANGUAGE)
+                                             .param(PAGE_SIZE, "5"))
+               .andExpect(status().isOk());
+        verify(termServiceMock).findSimilar("test term", Environment.LANGUAGE,
+                                            Constants.DEFAULT_SIMILARITY_THRESHOLD, 5);
+    }
+
+    @Test
+    void getSimilarReturnsConflictForMinScoreOutOfRange() throws Exception {
+        mockMvc.perform(get("/terms/similar").param("label", "test term").param("minScore", "1.5"))
+               .andExpect(status().isConflict());
+        verify(termServiceMock, never()).findSimilar(any(), any(), anyDouble(), anyInt());
+    }
+
+    @Test
+    void getDuplicatesReturnsPairsOfSimilarTermsInVocabulary() throws Exception {
+        when(idResolverMock.resolveIdentifier(Environment.BASE_URI, VOCABULARY_NAME))
+                .thenReturn(URI.create(VOCABULARY_URI));
+        when(termServiceMock.getRequiredVocabularyReference(URI.create(VOCABULARY_URI))).thenReturn(vocabulary);
+        final Term first = Generator.generateTermWithId();
+        final Term second = Generator.generateTermWithId();
+        when(termServiceMock.findDuplicates(any(), any(), anyDouble())).thenReturn(
+                Collections.singletonList(new DuplicateTerms(new TermDto(first), new TermDto(second), 0.9)));
+        final MvcResult mvcResult = mockMvc.perform(get(PATH + VOCABULARY_NAME + "/terms/duplicates")
+                                                            .param(QueryParams.NAMESPACE, Environment.BASE_URI))
+                                           .andExpect(status().isOk()).andReturn();
+        final JsonNode result = objectMapper.readTree(mvcResult.getResponse().getContentAsByteArray());
+        assertEquals(1, result.size());
+        assertEquals(first.getUri().toString(), result.get(0).get("first").get("uri").asText());
+        assertEquals(second.getUri().toString(), result.get(0).get("second").get("uri").asText());
+        verify(termServiceMock).findDuplicates(vocabulary, null, Constants.DEFAULT_SIMILARITY_THRESHOLD);
+    }
+
     @Test
     void getByIdResolvesTermFullIdentifierAndLoadsTermFromService() throws Exception {
         final URI termUri = initTermUriResolution();
@@ -283,6 +360,45 @@ class TermControllerTest extends BaseControllerTestRunner {
         verify(termServiceMock).findAll(searchString, vocabulary);
     }
 
+    @Test
+    void getAutocompleteFindsTermsByLabelPrefixWithDefaultLimit() throws Exception {
+        when(idResolverMock.resolveIdentifier(Environment.BASE_URI, VOCABULARY_NAME))
+                .thenReturn(URI.create(VOCABULARY_URI));
+        when(termServiceMock.findVocabularyRequired(vocabulary.getUri())).thenReturn(vocabulary);
+        final List<TermDto> terms = termsToDtos(Generator.generateTermsWithIds(5));
+        when(termServiceMock.findAllByLabelPrefix(anyString(), any(), anyInt())).thenReturn(terms);
+        final String searchString = "te";
+
+        final MvcResult mvcResult = mockMvc.perform(get(PATH + VOCABULARY_NAME + "/terms/autocomplete")
+                .param(QueryParams.NAMESPACE, Environment.BASE_URI)
+                .param("searchString", searchString)).andExpect(status().isOk()).andReturn();
+        final List<TermDto> result = readValue(mvcResult, new TypeReference<List<TermDto>>() {
+        });
+        assertEquals(terms, result);
+        verify(termServiceMock).findAllByLabelPrefix(searchString, vocabulary, Constants.DEFAULT_AUTOCOMPLETE_SIZE);
+    }
+
+    @Test
+    void getAutocompleteFindsTermsByLabelPrefixIncludingImportedWhenRequested() throws Exception {
+        when(idResolverMock.resolveIdentifier(Environment.BASE_URI, VOCABULARY_NAME))
+                .thenReturn(URI.create(VOCABULARY_URI));
+        when(termServiceMock.findVocabularyRequired(vocabulary.getUri())).thenReturn(vocabulary);
+        final List<TermDto> terms = termsToDtos(Generator.generateTermsWithIds(5));
+        when(termServiceMock.findAllByLabelPrefixIncludingImported(anyString(), any(), anyInt())).thenReturn(terms);
+        final String searchString = "te";
+
+        final MvcResult mvcResult = mockMvc.perform(get(PATH + VOCABULARY_NAME + "/terms/autocomplete")
+                .param(QueryParams.NAMESPACE, Environment.BASE_URI)
+                .param("searchString", searchString)
+                .param("includeImported", Boolean.TRUE.toString())
+                .param(QueryParams.PAGE_SIZE, "5")).andExpect(status().isOk()).andReturn();
+        final List<TermDto> result = readValue(mvcResult, new TypeReference<List<TermDto>>() {
+        });
+        assertEquals(terms, result);
+        verify(termServiceMock).findAllByLabelPrefixIncludingImported(searchString, vocabulary, 5);
+        verify(termServiceMock, never()).findAllByLabelPrefix(anyString(), any(), anyInt());
+    }
+
     @Test
     void getSubTermsFindsSubTermsOfTermWithSpecifiedId() throws Exception {
         when(idResolverMock.resolveIdentifier(config.getNamespace().getVocabulary(), VOCABULARY_NAME))
@@ -440,6 +556,47 @@ class TermControllerTest extends BaseControllerTestRunner {
         assertEquals(DEFAULT_PAGE_SPEC, captor.getValue());
     }
 
+    @Test
+    void getAllRootsWithoutVocabularyCreatesKeysetPageRequestFromCursor() throws Exception {
+        final URI lastTerm = Generator.generateUri();
+        final String cursor = KeysetPageRequest.createToken("last label", lastTerm);
+        when(termServiceMock.findAllRoots(any(Pageable.class), anyCollection())).thenReturn(Collections.emptyList());
+        mockMvc.perform(get("/terms/roots").param(CURSOR, cursor).param(PAGE_SIZE, "100"))
+               .andExpect(status().isOk());
+
+        final ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(termServiceMock).findAllRoots(captor.capture(), anyCollection());
+        assertEquals(new KeysetPageRequest(100, "last label", lastTerm), captor.getValue());
+    }
+
+    @Test
+    void getAllRootsWithoutVocabularyReturnsCursorOfNextPageWhenPageIsFull() throws Exception {
+        when(config.getPersistence().getLanguage()).thenReturn(Environment.LANGUAGE);
+        final List<TermDto> terms = termsToDtos(Generator.generateTermsWithIds(5));
+        when(termServiceMock.findAllRoots(any(Pageable.class), anyCollection())).thenReturn(terms);
+        final MvcResult mvcResult = mockMvc.perform(get("/terms/roots").param(PAGE_SIZE, "5"))
+                                           .andExpect(status().isOk()).andReturn();
+        final TermDto last = terms.get(terms.size() - 1);
+        assertEquals(KeysetPageRequest.createToken(last.getLabel().get(Environment.LANGUAGE), last.getUri()),
+                     mvcResult.getResponse().getHeader(Constants.X_NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getAllRootsWithoutVocabularyReturnsNoCursorWhenPageIsNotFull() throws Exception {
+        final List<TermDto> terms = termsToDtos(Generator.generateTermsWithIds(5));
+        when(termServiceMock.findAllRoots(any(Pageable.class), anyCollection())).thenReturn(terms);
+        final MvcResult mvcResult = mockMvc.perform(get("/terms/roots").param(PAGE_SIZE, "10"))
+                                           .andExpect(status().isOk()).andReturn();
+        assertFalse(mvcResult.getResponse().containsHeader(Constants.X_NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void getAllRootsWithoutVocabularyReturnsUnprocessableEntityForInvalidCursor() throws Exception {
+        mockMvc.perform(get("/terms/roots").param(CURSOR, "invalid").param(PAGE_SIZE, "10"))
+               .andExpect(status().isUnprocessableEntity());
+        verify(termServiceMock, never()).findAllRoots(any(Pageable.class), anyCollection());
+    }
+
     @Test
     void createRootTermPassesNewTermToService() throws Exception {
         initNamespaceAndIdentifierResolution();
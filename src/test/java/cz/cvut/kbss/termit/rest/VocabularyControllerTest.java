@@ -2,6 +2,8 @@ package cz.cvut.kbss.termit.rest;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import cz.cvut.kbss.termit.dto.AggregatedChangeInfo;
+import cz.cvut.kbss.termit.dto.TermCounts;
+import cz.cvut.kbss.termit.dto.TextAnalysisJobInfo;
 import cz.cvut.kbss.termit.environment.Environment;
 import cz.cvut.kbss.termit.environment.Generator;
 import cz.cvut.kbss.termit.exception.AssetRemovalException;
@@ -33,6 +35,7 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -127,6 +130,24 @@ class VocabularyControllerTest extends BaseControllerTestRunner {
         verify(serviceMock, never()).findAll();
     }
 
+    @Test
+    void getTermCountsReturnsTermCountsOfAllVocabularies() throws Exception {
+        final URI vocabularyUri = Generator.generateUri();
+        when(serviceMock.getTermCounts()).thenReturn(
+                Collections.singletonMap(vocabularyUri, new TermCounts(10, 3, 4)));
+
+        final MvcResult mvcResult = mockMvc.perform(get(PATH + "/term-counts")).andExpect(status().isOk())
+                                           .andReturn();
+        final Map<URI, Map<String, Integer>> result =
+                readValue(mvcResult, new TypeReference<Map<URI, Map<String, Integer>>>() {
+                });
+        assertEquals(Collections.singleton(vocabularyUri), result.keySet());
+        assertEquals(10, result.get(vocabularyUri).get("total"));
+        assertEquals(3, result.get(vocabularyUri).get("roots"));
+        assertEquals(4, result.get(vocabularyUri).get("drafts"));
+        assertEquals(6, result.get(vocabularyUri).get("confirmed"));
+    }
+
     @Test
     void createVocabularyPersistsSpecifiedVocabulary() throws Exception {
         final Vocabulary vocabulary = Generator.generateVocabulary();
@@ -339,6 +360,39 @@ class VocabularyControllerTest extends BaseControllerTestRunner {
         verify(serviceMock).runTextAnalysisOnAllTerms(vocabulary);
     }
 
+    @Test
+    void getTextAnalysisStatusReturnsStatusOfTextAnalysisJobOfVocabulary() throws Exception {
+        final Vocabulary vocabulary = generateVocabulary();
+        vocabulary.setUri(VOCABULARY_URI);
+        when(idResolverMock.resolveIdentifier(configMock.getNamespace().getVocabulary(), FRAGMENT))
+                .thenReturn(VOCABULARY_URI);
+        when(serviceMock.getRequiredReference(VOCABULARY_URI)).thenReturn(vocabulary);
+        final TextAnalysisJobInfo job = new TextAnalysisJobInfo(VOCABULARY_URI, TextAnalysisJobInfo.State.RUNNING, 2,
+                                                                false, 10, 4, 0, null, null, null);
+        when(serviceMock.getTextAnalysisJob(vocabulary)).thenReturn(Optional.of(job));
+
+        final MvcResult mvcResult = mockMvc.perform(get(PATH + "/" + FRAGMENT + "/terms/text-analysis"))
+                                           .andExpect(status().isOk()).andReturn();
+        final Map<String, Object> result = readValue(mvcResult, new TypeReference<Map<String, Object>>() {
+        });
+        assertEquals(VOCABULARY_URI.toString(), result.get("vocabulary"));
+        assertEquals(TextAnalysisJobInfo.State.RUNNING.name(), result.get("state"));
+        assertEquals(10, result.get("totalTerms"));
+        assertEquals(4, result.get("analyzedTerms"));
+    }
+
+    @Test
+    void getTextAnalysisStatusReturnsNotFoundWhenNoTextAnalysisOfVocabularyWasScheduled() throws Exception {
+        final Vocabulary vocabulary = generateVocabulary();
+        vocabulary.setUri(VOCABULARY_URI);
+        when(idResolverMock.resolveIdentifier(configMock.getNamespace().getVocabulary(), FRAGMENT))
+                .thenReturn(VOCABULARY_URI);
+        when(serviceMock.getRequiredReference(VOCABULARY_URI)).thenReturn(vocabulary);
+        when(serviceMock.getTextAnalysisJob(vocabulary)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get(PATH + "/" + FRAGMENT + "/terms/text-analysis")).andExpect(status().isNotFound());
+    }
+
     @Test
     void runTextAnalysisOnAllVocabulariesInvokesTextAnalysisOnAllVocabulariesFromService() throws Exception {
         mockMvc.perform(get(PATH + "/text-analysis")).andExpect(status().isAccepted());
@@ -1,21 +1,39 @@
 package cz.cvut.kbss.termit.service.business;
 
 import cz.cvut.kbss.jopa.vocabulary.SKOS;
+import cz.cvut.kbss.termit.dto.FullTextSearchPage;
 import cz.cvut.kbss.termit.dto.FullTextSearchResult;
+import cz.cvut.kbss.termit.dto.FullTextSearchSpec;
+import cz.cvut.kbss.termit.environment.Environment;
 import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.event.VocabularyContentModified;
 import cz.cvut.kbss.termit.persistence.dao.SearchDao;
+import cz.cvut.kbss.termit.persistence.dao.util.BoundedCache;
+import cz.cvut.kbss.termit.persistence.dao.util.ContentVersion;
+import cz.cvut.kbss.termit.service.search.ParallelSearchExecutor;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 import java.net.URI;
 import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -25,9 +43,26 @@ class SearchServiceTest {
     @Mock
     private SearchDao searchDao;
 
-    @InjectMocks
+    @Mock
+    private ParallelSearchExecutor parallelSearch;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private Configuration config;
+
+    private ContentVersion contentVersion;
+
+    private BoundedCache<SearchService.ResultKey, Page<FullTextSearchResult>> resultCache;
+
     private SearchService sut;
 
+    @BeforeEach
+    void setUp() {
+        when(config.getPersistence().getLanguage()).thenReturn(Environment.LANGUAGE);
+        this.contentVersion = new ContentVersion();
+        this.resultCache = new BoundedCache<>(100, BoundedCache::defaultWeight, null, System::nanoTime);
+        this.sut = new SearchService(searchDao, parallelSearch, contentVersion, resultCache, config);
+    }
+
     @Test
     void fullTextSearchFiltersResultsFromNonMatchingVocabularies() {
         final String searchString = "test";
@@ -70,4 +105,88 @@ class SearchServiceTest {
         assertEquals(Collections.singletonList(ftsr), result);
         verify(searchDao).fullTextSearch(searchString);
     }
+
+    @Test
+    void fullTextSearchOfTermsWithSpecRestrictsSearchToTermsInSpecifiedVocabularies() {
+        final String searchString = "test";
+        final URI vocabulary = Generator.generateUri();
+        final FullTextSearchSpec spec = new FullTextSearchSpec(PageRequest.of(0, 10), null, null);
+        when(searchDao.fullTextSearch(eq(searchString), any())).thenReturn(Page.empty());
+
+        sut.fullTextSearchOfTerms(searchString, Collections.singleton(vocabulary), spec);
+        final ArgumentCaptor<FullTextSearchSpec> captor = ArgumentCaptor.forClass(FullTextSearchSpec.class);
+        verify(searchDao).fullTextSearch(eq(searchString), captor.capture());
+        final FullTextSearchResult term = new FullTextSearchResult(Generator.generateUri(), "test", vocabulary, false,
+                                                                   SKOS.CONCEPT, "label", "test", 1.0);
+        assertTrue(captor.getValue().matches(term));
+        final FullTextSearchResult otherTerm = new FullTextSearchResult(Generator.generateUri(), "test",
+                                                                        Generator.generateUri(), false, SKOS.CONCEPT,
+                                                                        "label", "test", 1.0);
+        assertFalse(captor.getValue().matches(otherTerm));
+    }
+
+    @Test
+    void fullTextSearchWithSpecReturnsCachedResultsForRepeatedSearch() {
+        final FullTextSearchSpec spec = new FullTextSearchSpec(PageRequest.of(0, 10), null, null);
+        final Page<FullTextSearchResult> page = new PageImpl<>(Collections.singletonList(
+                new FullTextSearchResult(Generator.generateUri(), "test", null, false, SKOS.CONCEPT, "label", "test",
+                                         1.0)));
+        when(searchDao.fullTextSearch("test term", spec)).thenReturn(page);
+
+        assertEquals(page, sut.fullTextSearch("test term", spec));
+        // Normalized to the same search string
+        assertEquals(page, sut.fullTextSearch("  test \t term", spec));
+        verify(searchDao).fullTextSearch("test term", spec);
+        assertEquals(1, resultCache.getStatistics().getHitCount());
+    }
+
+    @Test
+    void fullTextSearchWithSpecSearchesAgainWhenContentVersionChanges() {
+        final FullTextSearchSpec spec = new FullTextSearchSpec(PageRequest.of(0, 10), null, null);
+        when(searchDao.fullTextSearch("test", spec)).thenReturn(Page.empty());
+
+        sut.fullTextSearch("test", spec);
+        contentVersion.onVocabularyContentModified(new VocabularyContentModified(this));
+        sut.fullTextSearch("test", spec);
+        verify(searchDao, times(2)).fullTextSearch("test", spec);
+    }
+
+    @Test
+    void fullTextSearchWithSpecCachesResultsSeparatelyForDifferentSpecifications() {
+        final FullTextSearchSpec first = new FullTextSearchSpec(PageRequest.of(0, 10), null, null);
+        final FullTextSearchSpec second = new FullTextSearchSpec(PageRequest.of(1, 10), null, null);
+        when(searchDao.fullTextSearch(eq("test"), any())).thenReturn(Page.empty());
+
+        sut.fullTextSearch("test", first);
+        sut.fullTextSearch("test", second);
+        sut.fullTextSearchOfTerms("test", null, first);
+        verify(searchDao).fullTextSearch("test", first);
+        verify(searchDao).fullTextSearch("test", second);
+        verify(searchDao).fullTextSearch("test", first.termsIn(null));
+    }
+
+    @Test
+    void fullTextSearchWithSpecSearchesVocabulariesInParallelWhenApplicable() {
+        final FullTextSearchSpec spec = new FullTextSearchSpec(PageRequest.of(0, 10), null, null);
+        final FullTextSearchPage page = new FullTextSearchPage(Collections.emptyList(), spec.getPageSpec(), 0, false);
+        when(parallelSearch.isApplicable(spec)).thenReturn(true);
+        when(parallelSearch.search("test", spec)).thenReturn(page);
+
+        assertEquals(page, sut.fullTextSearch("test", spec));
+        verify(parallelSearch).search("test", spec);
+        verify(searchDao, never()).fullTextSearch(any(), any());
+    }
+
+    @Test
+    void fullTextSearchWithSpecDoesNotCachePartialResults() {
+        final FullTextSearchSpec spec = new FullTextSearchSpec(PageRequest.of(0, 10), null, null);
+        when(parallelSearch.isApplicable(spec)).thenReturn(true);
+        when(parallelSearch.search("test", spec)).thenReturn(
+                new FullTextSearchPage(Collections.emptyList(), spec.getPageSpec(), 0, true));
+
+        assertTrue(FullTextSearchPage.isPartial(sut.fullTextSearch("test", spec)));
+        assertEquals(0, resultCache.getStatistics().getSize());
+        sut.fullTextSearch("test", spec);
+        verify(parallelSearch, times(2)).search("test", spec);
+    }
 }
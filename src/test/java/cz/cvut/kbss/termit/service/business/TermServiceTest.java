@@ -2,6 +2,8 @@ package cz.cvut.kbss.termit.service.business;
 
 import cz.cvut.kbss.jopa.model.MultilingualString;
 import cz.cvut.kbss.jopa.vocabulary.SKOS;
+import cz.cvut.kbss.termit.dto.DuplicateTerms;
+import cz.cvut.kbss.termit.dto.SimilarTerm;
 import cz.cvut.kbss.termit.dto.TermInfo;
 import cz.cvut.kbss.termit.dto.TermStatus;
 import cz.cvut.kbss.termit.dto.assignment.TermOccurrences;
@@ -130,6 +132,16 @@ class TermServiceTest {
         verify(termRepositoryService).findAll(searchString, vocabulary);
     }
 
+    @Test
+    void findAllByLabelPrefixRetrievesMatchingTermsFromVocabularyUsingRepositoryService() {
+        final String prefix = "te";
+        final List<TermDto> terms = Collections.singletonList(new TermDto(Generator.generateTermWithId()));
+        when(termRepositoryService.findAllByLabelPrefix(prefix, vocabulary, 10)).thenReturn(terms);
+        final List<TermDto> result = sut.findAllByLabelPrefix(prefix, vocabulary, 10);
+        assertEquals(terms, result);
+        verify(termRepositoryService).findAllByLabelPrefix(prefix, vocabulary, 10);
+    }
+
     @Test
     void getOccurrenceInfoRetrievesTermOccurrenceInfoFromRepositoryService() {
         final Term term = generateTermWithId();
@@ -197,6 +209,34 @@ class TermServiceTest {
         verify(termRepositoryService).existsInVocabulary(label, vocabulary, Environment.LANGUAGE);
     }
 
+    @Test
+    void findExistingLabelsChecksForLabelsExistenceInVocabularyViaRepositoryService() {
+        final List<String> labels = Arrays.asList("one", "two");
+        when(termRepositoryService.findExistingLabels(labels, vocabulary, Environment.LANGUAGE))
+                .thenReturn(Collections.singleton("one"));
+        assertEquals(Collections.singleton("one"), sut.findExistingLabels(labels, vocabulary, Environment.LANGUAGE));
+        verify(termRepositoryService).findExistingLabels(labels, vocabulary, Environment.LANGUAGE);
+    }
+
+    @Test
+    void findSimilarRetrievesSimilarTermsViaRepositoryService() {
+        final List<SimilarTerm> similar = Collections.singletonList(
+                new SimilarTerm(new TermDto(Generator.generateTermWithId()), 0.9));
+        when(termRepositoryService.findSimilar("test", Environment.LANGUAGE, 0.8, 10)).thenReturn(similar);
+        assertEquals(similar, sut.findSimilar("test", Environment.LANGUAGE, 0.8, 10));
+        verify(termRepositoryService).findSimilar("test", Environment.LANGUAGE, 0.8, 10);
+    }
+
+    @Test
+    void findDuplicatesRetrievesSimilarTermPairsViaRepositoryService() {
+        final List<DuplicateTerms> duplicates = Collections.singletonList(
+                new DuplicateTerms(new TermDto(Generator.generateTermWithId()),
+                                   new TermDto(Generator.generateTermWithId()), 0.9));
+        when(termRepositoryService.findDuplicates(vocabulary, Environment.LANGUAGE, 0.8)).thenReturn(duplicates);
+        assertEquals(duplicates, sut.findDuplicates(vocabulary, Environment.LANGUAGE, 0.8));
+        verify(termRepositoryService).findDuplicates(vocabulary, Environment.LANGUAGE, 0.8);
+    }
+
     @Test
     void findAllRetrievesAllTermsFromVocabularyUsingRepositoryService() {
         final List<TermDto> terms = Collections.singletonList(new TermDto(Generator.generateTermWithId()));
@@ -270,6 +310,20 @@ class TermServiceTest {
         verify(textAnalysisService).analyzeTermDefinition(toAnalyze, vocabulary.getUri());
     }
 
+    @Test
+    void analyzeTermDefinitionsInvokesTextAnalysisOnSpecifiedTermsWithDefinition() {
+        final Term withDefinition = generateTermWithId();
+        final Term withoutDefinition = generateTermWithId();
+        withoutDefinition.setDefinition(new MultilingualString());
+        final List<Term> failed = Collections.singletonList(withDefinition);
+        when(textAnalysisService.analyzeTermDefinitions(anyCollection(), any())).thenReturn(new ArrayList<>(failed));
+
+        assertEquals(failed, sut.analyzeTermDefinitions(Arrays.asList(withDefinition, withoutDefinition),
+                                                        vocabulary.getUri()));
+        verify(textAnalysisService).analyzeTermDefinitions(Collections.singletonList(withDefinition),
+                                                           vocabulary.getUri());
+    }
+
     @Test
     void persistChildInvokesTextAnalysisOnPersistedChildTerm() {
         final Term parent = generateTermWithId();
@@ -403,30 +457,38 @@ class TermServiceTest {
     }
 
     @Test
-    void persistRootInvokesTextAnalysisOnAllTermsInTargetVocabulary() {
+    void persistRootInvokesTextAnalysisOnTermsWithDefinitionMentioningTermLabelInTargetVocabulary() {
         final Term term = generateTermWithId();
+        final URI mentioning = Generator.generateUri();
+        when(termRepositoryService.findAllWithDefinitionMentioning(Collections.singleton(term.getLabel()), vocabulary))
+                .thenReturn(new HashSet<>(Arrays.asList(term.getUri(), mentioning)));
 
         sut.persistRoot(term, vocabulary);
         final InOrder inOrder = inOrder(termRepositoryService, vocabularyService);
         inOrder.verify(termRepositoryService).addRootTermToVocabulary(term, vocabulary);
-        inOrder.verify(vocabularyService).runTextAnalysisOnAllTerms(vocabulary);
+        inOrder.verify(vocabularyService).runTextAnalysisOnTerms(vocabulary, Collections.singleton(mentioning));
+        verify(vocabularyService, never()).runTextAnalysisOnAllTerms(any());
     }
 
     @Test
-    void persistChildInvokesTextAnalysisOnAllTermsInParentTermVocabulary() {
+    void persistChildInvokesTextAnalysisOnTermsWithDefinitionMentioningTermLabelInParentTermVocabulary() {
         final Term parent = generateTermWithId();
         parent.setVocabulary(vocabulary.getUri());
         final Term childToPersist = generateTermWithId();
+        final URI mentioning = Generator.generateUri();
         when(vocabularyService.getRequiredReference(vocabulary.getUri())).thenReturn(vocabulary);
+        when(termRepositoryService.findAllWithDefinitionMentioning(Collections.singleton(childToPersist.getLabel()),
+                                                                   vocabulary))
+                .thenReturn(Collections.singleton(mentioning));
 
         sut.persistChild(childToPersist, parent);
         final InOrder inOrder = inOrder(termRepositoryService, vocabularyService);
         inOrder.verify(termRepositoryService).addChildTerm(childToPersist, parent);
-        inOrder.verify(vocabularyService).runTextAnalysisOnAllTerms(vocabulary);
+        inOrder.verify(vocabularyService).runTextAnalysisOnTerms(vocabulary, Collections.singleton(mentioning));
     }
 
     @Test
-    void updateInvokesTextAnalysisOnAllTermsInTermsVocabularyWhenLabelHasChanged() {
+    void updateInvokesTextAnalysisOnTermsWithDefinitionMentioningOldOrNewLabelWhenLabelHasChanged() {
         final Term original = generateTermWithId();
         original.setVocabulary(vocabulary.getUri());
         final Term update = new Term();
@@ -438,9 +500,30 @@ class TermServiceTest {
         when(termRepositoryService.findRequired(original.getUri())).thenReturn(original);
         when(vocabularyService.getRequiredReference(vocabulary.getUri())).thenReturn(vocabulary);
         update.getLabel().set(Environment.LANGUAGE, "updatedLabel");
+        final Set<URI> mentioning = new HashSet<>(Arrays.asList(original.getUri(), Generator.generateUri()));
+        when(termRepositoryService.findAllWithDefinitionMentioning(
+                Arrays.asList(original.getLabel(), update.getLabel()), vocabulary)).thenReturn(mentioning);
+
+        sut.update(update);
+        // Definition of the updated term did not change, so it is analyzed as well
+        verify(vocabularyService).runTextAnalysisOnTerms(vocabulary, mentioning);
+        verify(vocabularyService, never()).runTextAnalysisOnAllTerms(any());
+    }
+
+    @Test
+    void updateDoesNotInvokeTextAnalysisOfOtherTermsWhenLabelHasNotChanged() {
+        final Term original = generateTermWithId();
+        original.setVocabulary(vocabulary.getUri());
+        final Term update = new Term();
+        update.setUri(original.getUri());
+        update.setLabel(new MultilingualString(original.getLabel().getValue()));
+        update.setDefinition(new MultilingualString(original.getDefinition().getValue()));
+        update.setVocabulary(vocabulary.getUri());
+        when(termRepositoryService.findRequired(original.getUri())).thenReturn(original);
 
         sut.update(update);
-        verify(vocabularyService).runTextAnalysisOnAllTerms(vocabulary);
+        verify(termRepositoryService, never()).findAllWithDefinitionMentioning(any(), any());
+        verify(vocabularyService, never()).runTextAnalysisOnTerms(any(), any());
     }
 
     @Test
@@ -440,4 +440,15 @@ class AnnotationGeneratorTest extends BaseServiceTestRunner {
         final List<TermOccurrence> result = findAllOccurrencesOf(term);
         result.forEach(occ -> assertThat(occ.getTypes(), hasItem(Vocabulary.s_c_navrzeny_vyskyt_termu)));
     }
+
+    @Test
+    void repeatedAnnotationGenerationRemovesSuggestedOccurrencesNoLongerFoundInContent() throws Exception {
+        final Term source = Generator.generateTermWithId();
+        sut.generateAnnotations(loadFile("data/rdfa-simple.html"), source);
+        assertEquals(1, findAllOccurrencesOf(term).size());
+
+        sut.generateAnnotations(changeAnnotationType(loadFile("data/rdfa-simple.html")), source);
+        assertTrue(findAllOccurrencesOf(term).isEmpty());
+        assertTrue(termOccurrenceDao.findAllTargeting(source).isEmpty());
+    }
 }
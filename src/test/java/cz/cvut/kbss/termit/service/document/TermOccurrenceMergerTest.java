@@ -0,0 +1,79 @@
+package cz.cvut.kbss.termit.service.document;
+
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.model.Term;
+import cz.cvut.kbss.termit.model.assignment.TermOccurrence;
+import cz.cvut.kbss.termit.model.resource.File;
+import cz.cvut.kbss.termit.model.selector.TextPositionSelector;
+import cz.cvut.kbss.termit.model.selector.TextQuoteSelector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TermOccurrenceMergerTest {
+
+    private File file;
+
+    private Term term;
+
+    @BeforeEach
+    void setUp() {
+        this.file = Generator.generateFileWithId("test.html");
+        this.term = Generator.generateTermWithId();
+    }
+
+    private TermOccurrence occurrence(Term term, boolean suggested, int start, String exactMatch) {
+        final TermOccurrence result = Generator.generateTermOccurrence(term, file, suggested);
+        result.setUri(Generator.generateUri());
+        final TextPositionSelector position = new TextPositionSelector();
+        position.setStart(start);
+        position.setEnd(start + exactMatch.length());
+        result.getTarget().setSelectors(new HashSet<>(Arrays.asList(position, new TextQuoteSelector(exactMatch))));
+        return result;
+    }
+
+    @Test
+    void mergeMarksResolvedOccurrenceWithSameTermAndSomeEqualSelectorAsUnchanged() {
+        final TermOccurrence existing = occurrence(term, true, 10, "match");
+        // Text moved, but the quote is the same
+        final TermOccurrence resolved = occurrence(term, false, 20, "match");
+
+        final TermOccurrenceMerger.Delta result = TermOccurrenceMerger.merge(Collections.singletonList(existing),
+                                                                             Collections.singletonList(resolved));
+        assertTrue(result.getAdded().isEmpty());
+        assertEquals(Collections.singletonList(existing), result.getUnchanged());
+        assertTrue(result.getRemoved().isEmpty());
+    }
+
+    @Test
+    void mergeMarksResolvedOccurrenceOfDifferentTermWithEqualSelectorsAsAdded() {
+        final TermOccurrence existing = occurrence(Generator.generateTermWithId(), true, 10, "match");
+        final TermOccurrence resolved = occurrence(term, false, 10, "match");
+
+        final TermOccurrenceMerger.Delta result = TermOccurrenceMerger.merge(Collections.singletonList(existing),
+                                                                             Collections.singletonList(resolved));
+        assertEquals(Collections.singletonList(resolved), result.getAdded());
+        assertEquals(Collections.singletonList(existing), result.getRemoved());
+    }
+
+    @Test
+    void mergeRemovesOnlySuggestedExistingOccurrencesWithoutResolvedEquivalent() {
+        final TermOccurrence suggested = occurrence(term, true, 10, "one");
+        final TermOccurrence confirmed = occurrence(term, false, 20, "two");
+        final TermOccurrence unchanged = occurrence(term, true, 30, "three");
+        final TermOccurrence resolved = occurrence(term, false, 30, "three");
+        final TermOccurrence added = occurrence(term, false, 40, "four");
+
+        final TermOccurrenceMerger.Delta result = TermOccurrenceMerger.merge(
+                Arrays.asList(suggested, confirmed, unchanged), Arrays.asList(resolved, added));
+        assertEquals(Collections.singletonList(added), result.getAdded());
+        assertEquals(Collections.singletonList(unchanged), result.getUnchanged());
+        assertEquals(Collections.singletonList(suggested), result.getRemoved());
+    }
+}
@@ -17,8 +17,10 @@ import cz.cvut.kbss.termit.dto.TextAnalysisInput;
 import cz.cvut.kbss.termit.environment.Environment;
 import cz.cvut.kbss.termit.environment.Generator;
 import cz.cvut.kbss.termit.environment.PropertyMockingApplicationContextInitializer;
+import cz.cvut.kbss.termit.exception.AnnotationGenerationException;
 import cz.cvut.kbss.termit.exception.NotFoundException;
 import cz.cvut.kbss.termit.exception.WebServiceIntegrationException;
+import cz.cvut.kbss.termit.model.AbstractTerm;
 import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.model.TextAnalysisRecord;
 import cz.cvut.kbss.termit.model.Vocabulary;
@@ -26,10 +28,15 @@ import cz.cvut.kbss.termit.model.resource.File;
 import cz.cvut.kbss.termit.persistence.dao.TextAnalysisRecordDao;
 import cz.cvut.kbss.termit.service.BaseServiceTestRunner;
 import cz.cvut.kbss.termit.util.Configuration;
+import cz.cvut.kbss.termit.util.Constants;
 import cz.cvut.kbss.termit.util.Utils;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mock;
@@ -41,6 +48,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
@@ -52,13 +62,16 @@ import java.io.InputStreamReader;
 import java.net.URI;
 import java.nio.file.Files;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
@@ -101,6 +114,11 @@ class TextAnalysisServiceTest extends BaseServiceTestRunner {
 
     private File file;
 
+    @AfterEach
+    void tearDown() {
+        config.getTextAnalysis().setDefinitionBatchSize(new Configuration.TextAnalysis().getDefinitionBatchSize());
+    }
+
     @BeforeEach
     void setUp() throws Exception {
         this.mockServer = MockRestServiceServer.createServer(restTemplate);
@@ -337,4 +355,141 @@ class TextAnalysisServiceTest extends BaseServiceTestRunner {
         mockServer.verify();
         verify(annotationGeneratorMock, never()).generateAnnotations(any(), any(Term.class));
     }
+
+    @Test
+    void analyzeTermDefinitionsInvokesTextAnalysisServiceOnceWithAllDefinitions() throws Exception {
+        final List<Term> terms = generateTermsWithDefinitions(3);
+        mockServer.expect(requestTo(config.getTextAnalysis().getUrl()))
+                  .andExpect(method(HttpMethod.POST))
+                  .andExpect(header(HttpHeaders.ACCEPT, MediaType.APPLICATION_XML_VALUE))
+                  .andExpect(jsonPath("$.content", allOf(terms.stream().map(t -> containsString(
+                          t.getDefinition().get(Environment.LANGUAGE))).collect(Collectors.toList()))))
+                  .andExpect(jsonPath("$.vocabularyContexts[0]").value(vocabulary.getUri().toString()))
+                  .andRespond(this::annotateDefinitions);
+
+        final List<AbstractTerm> result = sut.analyzeTermDefinitions(terms, vocabulary.getUri());
+        assertTrue(result.isEmpty());
+        mockServer.verify();
+    }
+
+    /**
+     * Stub of the text analysis service, annotates the first word of each definition in the request.
+     */
+    private ClientHttpResponse annotateDefinitions(ClientHttpRequest request) throws IOException {
+        final TextAnalysisInput input = objectMapper.readValue(((MockClientHttpRequest) request).getBodyAsString(),
+                                                               TextAnalysisInput.class);
+        final Document document = Jsoup.parse(input.getContent());
+        document.body().attr(Constants.RDFa.PREFIX,
+                             "termit: http://onto.fel.cvut.cz/ontologies/application/termit/pojem/");
+        for (Element segment : document.body().children()) {
+            final String text = segment.text();
+            final int wordEnd = text.indexOf(' ');
+            segment.html("<span about=\"_:1\" property=\"termit:je-výskytem-termu\" resource=\"" +
+                                 Generator.generateUri() + "\" typeof=\"termit:výskyt-termu\" score=\"1.0\">" +
+                                 text.substring(0, wordEnd) + "</span>" + text.substring(wordEnd));
+        }
+        return withSuccess(document.outerHtml(), MediaType.APPLICATION_XML).createResponse(request);
+    }
+
+    private static List<Term> generateTermsWithDefinitions(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            final Term t = Generator.generateTermWithId();
+            t.setDefinition(MultilingualString.create("Definition number " + i + " of a term.", Environment.LANGUAGE));
+            return t;
+        }).collect(Collectors.toList());
+    }
+
+    private static String readContent(InputStream is) {
+        return new BufferedReader(new InputStreamReader(is)).lines().collect(Collectors.joining("\n"));
+    }
+
+    @Test
+    void analyzeTermDefinitionsPassesAnnotatedDefinitionOfEachTermToAnnotationGenerator() {
+        final List<Term> terms = generateTermsWithDefinitions(3);
+        mockServer.expect(requestTo(config.getTextAnalysis().getUrl())).andRespond(this::annotateDefinitions);
+
+        sut.analyzeTermDefinitions(terms, vocabulary.getUri());
+        for (Term t : terms) {
+            final ArgumentCaptor<InputStream> captor = ArgumentCaptor.forClass(InputStream.class);
+            verify(annotationGeneratorMock).generateAnnotations(captor.capture(), eq(t));
+            final Document result = Jsoup.parse(readContent(captor.getValue()));
+            assertEquals(t.getDefinition().get(Environment.LANGUAGE), result.body().text());
+            assertEquals(1, result.getElementsByAttribute(Constants.RDFa.ABOUT).size());
+            assertEquals(1, result.getElementsByAttribute(Constants.RDFa.PREFIX).size());
+        }
+    }
+
+    @Test
+    void analyzeTermDefinitionsAnalyzesTermsSeparatelyWhenBatchAnalysisFails() {
+        final List<Term> terms = generateTermsWithDefinitions(2);
+        mockServer.expect(requestTo(config.getTextAnalysis().getUrl())).andRespond(withServerError());
+        terms.forEach(t -> mockServer.expect(requestTo(config.getTextAnalysis().getUrl()))
+                                     .andExpect(jsonPath("$.content").value(
+                                             t.getDefinition().get(Environment.LANGUAGE)))
+                                     .andRespond(withSuccess(CONTENT, MediaType.APPLICATION_XML)));
+
+        final List<AbstractTerm> result = sut.analyzeTermDefinitions(terms, vocabulary.getUri());
+        assertTrue(result.isEmpty());
+        mockServer.verify();
+        terms.forEach(t -> verify(annotationGeneratorMock).generateAnnotations(any(InputStream.class), eq(t)));
+    }
+
+    @Test
+    void analyzeTermDefinitionsAnalyzesSeparatelyTermsMissingInBatchAnalysisResult() {
+        final List<Term> terms = generateTermsWithDefinitions(2);
+        final String partialResult = "<html><body><div id=\"" + TextAnalysisService.DEFINITION_SEGMENT_ID_PREFIX +
+                "0\">" + terms.get(0).getDefinition().get(Environment.LANGUAGE) + "</div></body></html>";
+        mockServer.expect(requestTo(config.getTextAnalysis().getUrl()))
+                  .andRespond(withSuccess(partialResult, MediaType.APPLICATION_XML));
+        mockServer.expect(requestTo(config.getTextAnalysis().getUrl()))
+                  .andExpect(jsonPath("$.content").value(terms.get(1).getDefinition().get(Environment.LANGUAGE)))
+                  .andRespond(withSuccess(CONTENT, MediaType.APPLICATION_XML));
+
+        sut.analyzeTermDefinitions(terms, vocabulary.getUri());
+        mockServer.verify();
+        terms.forEach(t -> verify(annotationGeneratorMock).generateAnnotations(any(InputStream.class), eq(t)));
+    }
+
+    @Test
+    void analyzeTermDefinitionsSplitsTermsIntoBatchesOfConfiguredSize() {
+        config.getTextAnalysis().setDefinitionBatchSize(2);
+        final List<Term> terms = generateTermsWithDefinitions(3);
+        mockServer.expect(requestTo(config.getTextAnalysis().getUrl()))
+                  .andExpect(jsonPath("$.content", allOf(
+                          containsString(TextAnalysisService.DEFINITION_SEGMENT_ID_PREFIX + "1"),
+                          not(containsString(TextAnalysisService.DEFINITION_SEGMENT_ID_PREFIX + "2")))))
+                  .andRespond(this::annotateDefinitions);
+        // The last term is analyzed on its own
+        mockServer.expect(requestTo(config.getTextAnalysis().getUrl()))
+                  .andExpect(jsonPath("$.content").value(terms.get(2).getDefinition().get(Environment.LANGUAGE)))
+                  .andRespond(withSuccess(CONTENT, MediaType.APPLICATION_XML));
+
+        sut.analyzeTermDefinitions(terms, vocabulary.getUri());
+        mockServer.verify();
+    }
+
+    @Test
+    void analyzeTermDefinitionsAnalyzesEachTermSeparatelyWhenBatchingIsDisabled() {
+        config.getTextAnalysis().setDefinitionBatchSize(1);
+        final List<Term> terms = generateTermsWithDefinitions(2);
+        terms.forEach(t -> mockServer.expect(requestTo(config.getTextAnalysis().getUrl()))
+                                     .andExpect(jsonPath("$.content").value(
+                                             t.getDefinition().get(Environment.LANGUAGE)))
+                                     .andRespond(withSuccess(CONTENT, MediaType.APPLICATION_XML)));
+
+        sut.analyzeTermDefinitions(terms, vocabulary.getUri());
+        mockServer.verify();
+    }
+
+    @Test
+    void analyzeTermDefinitionsReturnsTermsWhoseAnnotationsCouldNotBeGenerated() {
+        final List<Term> terms = generateTermsWithDefinitions(2);
+        mockServer.expect(requestTo(config.getTextAnalysis().getUrl())).andRespond(this::annotateDefinitions);
+        doThrow(AnnotationGenerationException.class).when(annotationGeneratorMock)
+                                                    .generateAnnotations(any(InputStream.class), eq(terms.get(0)));
+
+        final List<AbstractTerm> result = sut.analyzeTermDefinitions(terms, vocabulary.getUri());
+        assertEquals(Collections.singletonList(terms.get(0)), result);
+        verify(annotationGeneratorMock).generateAnnotations(any(InputStream.class), eq(terms.get(1)));
+    }
 }
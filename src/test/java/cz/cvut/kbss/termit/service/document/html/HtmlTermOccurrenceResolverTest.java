@@ -15,6 +15,7 @@ import cz.cvut.kbss.jopa.model.EntityManager;
 import cz.cvut.kbss.jopa.model.MultilingualString;
 import cz.cvut.kbss.termit.environment.Generator;
 import cz.cvut.kbss.termit.environment.PropertyMockingApplicationContextInitializer;
+import cz.cvut.kbss.termit.exception.AnnotationGenerationException;
 import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.model.User;
 import cz.cvut.kbss.termit.model.assignment.TermOccurrence;
@@ -149,6 +150,16 @@ class HtmlTermOccurrenceResolverTest extends BaseServiceTestRunner {
         result.forEach(to -> assertNull(to.getScore()));
     }
 
+    @Test
+    void findTermOccurrencesThrowsAnnotationGenerationExceptionWhenAnyAnnotatedTermDoesNotExist() {
+        createTerm();
+        final File file = new File();
+        file.setLabel("rdfa-overlapping.html");
+        final InputStream is = cz.cvut.kbss.termit.environment.Environment.loadFile("data/rdfa-overlapping.html");
+        sut.parseContent(is, file);
+        assertThrows(AnnotationGenerationException.class, () -> sut.findTermOccurrences());
+    }
+
     @Test
     void supportsReturnsTrueForTerm() {
         assertTrue(sut.supports(Generator.generateTermWithId()));
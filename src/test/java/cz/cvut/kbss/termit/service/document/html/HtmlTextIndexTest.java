@@ -0,0 +1,57 @@
+package cz.cvut.kbss.termit.service.document.html;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HtmlTextIndexTest {
+
+    @Test
+    void getStartAndEndReturnOffsetsOfElementTextIgnoringMarkupAndComments() {
+        final Document document = Jsoup.parse(
+                "<html><head><title>Title</title></head><body><h1>Heading</h1><p>Text <!-- Comment -->with " +
+                        "<b>nested <span id=\"elem\">MATCH</span> element</b>.</p></body></html>");
+        final HtmlTextIndex sut = new HtmlTextIndex(document);
+        final Element element = document.getElementById("elem");
+
+        final int start = "TitleHeadingText with nested ".length();
+        assertEquals(start, sut.getStart(element));
+        assertEquals(start + "MATCH".length(), sut.getEnd(element));
+        assertEquals("Title".length(), sut.getStart(document.selectFirst("h1")));
+    }
+
+    @Test
+    void getStartAndEndReturnSamePositionForElementWithoutText() {
+        final Document document = Jsoup.parse("<p>Before<br id=\"elem\">after</p>");
+        final HtmlTextIndex sut = new HtmlTextIndex(document);
+        final Element element = document.getElementById("elem");
+
+        assertEquals("Before".length(), sut.getStart(element));
+        assertEquals("Before".length(), sut.getEnd(element));
+    }
+
+    @Test
+    void getTextBeforeAndAfterReturnTextAcrossElementBoundariesLimitedToMaxLength() {
+        final Document document = Jsoup.parse(
+                "<div><p>First paragraph.</p><p>Second <i id=\"elem\">MATCH</i> paragraph.</p><p>Third.</p></div>");
+        final HtmlTextIndex sut = HtmlTextIndex.of(document.getElementById("elem"));
+        final Element element = document.getElementById("elem");
+
+        assertEquals("paragraph.Second ", sut.getTextBefore(sut.getStart(element), 17));
+        assertEquals("First paragraph.Second ", sut.getTextBefore(sut.getStart(element), 100));
+        assertEquals(" paragraph.Th", sut.getTextAfter(sut.getEnd(element), 13));
+        assertEquals(" paragraph.Third.", sut.getTextAfter(sut.getEnd(element), 100));
+    }
+
+    @Test
+    void getStartThrowsIllegalArgumentExceptionForElementFromDifferentDocument() {
+        final HtmlTextIndex sut = new HtmlTextIndex(Jsoup.parse("<p>Text</p>"));
+        final Element element = Jsoup.parse("<p>Text</p>").selectFirst("p");
+
+        assertThrows(IllegalArgumentException.class, () -> sut.getStart(element));
+    }
+}
@@ -89,4 +89,18 @@ class TextPositionSelectorGeneratorTest {
         assertEquals(prefix.length(), result.getStart().intValue());
         assertEquals(prefix.length() + MATCH.length(), result.getEnd().intValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    void generateSelectorWithSharedIndexResolvesPositionOfEachElement() {
+        document.html("<div><p>First <span id=\"first\">ONE</span> paragraph.</p>" +
+                              "<p>Second <span id=\"second\">TWO</span> paragraph.</p></div>");
+        final HtmlTextIndex index = new HtmlTextIndex(document);
+
+        final TextPositionSelector first = sut.generateSelector(index, document.getElementById("first"));
+        assertEquals("First ".length(), first.getStart().intValue());
+        final TextPositionSelector second = sut.generateSelector(index, document.getElementById("second"));
+        final int start = "First ONE paragraph.Second ".length();
+        assertEquals(start, second.getStart().intValue());
+        assertEquals(start + "TWO".length(), second.getEnd().intValue());
+    }
+}
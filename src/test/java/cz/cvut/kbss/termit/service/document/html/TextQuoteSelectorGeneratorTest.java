@@ -214,4 +214,18 @@ class TextQuoteSelectorGeneratorTest {
         assertEquals(exact, result.getExactMatch());
         assertEquals(suffix.substring(0, Math.min(suffix.length(), CONTEXT_LENGTH)), result.getSuffix());
     }
+
+    @Test
+    void generateSelectorWithSharedIndexExtractsContextOfEachElement() {
+        document.html("<div><p>First <span id=\"first\">ONE</span> paragraph.</p>" +
+                              "<p>Second <span id=\"second\">TWO</span> paragraph.</p></div>");
+        final HtmlTextIndex index = new HtmlTextIndex(document);
+
+        final TextQuoteSelector first = sut.generateSelector(index, document.getElementById("first"));
+        assertEquals("First ", first.getPrefix());
+        assertEquals(" paragraph.Second TWO paragraph.", first.getSuffix());
+        final TextQuoteSelector second = sut.generateSelector(index, document.getElementById("second"));
+        assertEquals("First ONE paragraph.Second ", second.getPrefix());
+        assertEquals(" paragraph.", second.getSuffix());
+    }
 }
@@ -14,9 +14,15 @@
  */
 package cz.cvut.kbss.termit.service.jmx;
 
+import cz.cvut.kbss.termit.dto.TextAnalysisJobInfo;
+import cz.cvut.kbss.termit.environment.Generator;
 import cz.cvut.kbss.termit.event.EvictCacheEvent;
 import cz.cvut.kbss.termit.event.RefreshLastModifiedEvent;
 import cz.cvut.kbss.termit.event.VocabularyContentModified;
+import cz.cvut.kbss.termit.persistence.dao.lucene.FullTextIndex;
+import cz.cvut.kbss.termit.persistence.dao.util.CacheRegistry;
+import cz.cvut.kbss.termit.persistence.dao.util.CacheStats;
+import cz.cvut.kbss.termit.service.term.TextAnalysisScheduler;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -26,9 +32,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class AppAdminBeanTest {
@@ -36,6 +48,15 @@ class AppAdminBeanTest {
     @Mock
     private ApplicationEventPublisher eventPublisherMock;
 
+    @Mock
+    private CacheRegistry cacheRegistryMock;
+
+    @Mock
+    private FullTextIndex fullTextIndexMock;
+
+    @Mock
+    private TextAnalysisScheduler textAnalysisSchedulerMock;
+
     @InjectMocks
     private AppAdminBean sut;
 
@@ -62,4 +83,30 @@ class AppAdminBeanTest {
         verify(eventPublisherMock, atLeastOnce()).publishEvent(captor.capture());
         assertTrue(captor.getAllValues().stream().anyMatch(VocabularyContentModified.class::isInstance));
     }
+
+    @Test
+    void getCacheStatisticsReturnsStatisticsOfRegisteredCaches() {
+        final CacheStats stats = new CacheStats(5, 2, 1, 2, 1000, 3, 10);
+        when(cacheRegistryMock.getStatistics()).thenReturn(Collections.singletonMap("TermDao.subTermsCache", stats));
+
+        final Map<String, String> result = sut.getCacheStatistics();
+        assertEquals(Collections.singletonMap("TermDao.subTermsCache", stats.toString()), result);
+    }
+
+    @Test
+    void rebuildFullTextIndexRebuildsIndex() {
+        sut.rebuildFullTextIndex();
+        verify(fullTextIndexMock).rebuild();
+    }
+
+    @Test
+    void getTextAnalysisJobsReturnsStatusOfJobsByVocabulary() {
+        final TextAnalysisJobInfo job = new TextAnalysisJobInfo(Generator.generateUri(),
+                                                                TextAnalysisJobInfo.State.RUNNING, 3, false, 10, 4,
+                                                                0, Instant.now(), Instant.now(), null);
+        when(textAnalysisSchedulerMock.getJobs()).thenReturn(Collections.singletonList(job));
+
+        final Map<String, String> result = sut.getTextAnalysisJobs();
+        assertEquals(Collections.singletonMap(job.getVocabulary().toString(), job.toString()), result);
+    }
 }
@@ -16,6 +16,7 @@ package cz.cvut.kbss.termit.service.repository;
 
 import cz.cvut.kbss.jopa.model.EntityManager;
 import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
+import cz.cvut.kbss.termit.dto.TermCounts;
 import cz.cvut.kbss.termit.environment.Environment;
 import cz.cvut.kbss.termit.environment.Generator;
 import cz.cvut.kbss.termit.exception.ResourceExistsException;
@@ -43,6 +44,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -318,4 +320,21 @@ class VocabularyRepositoryServiceTest extends BaseServiceTestRunner {
         });
         assertEquals(1, sut.getTermCount(vocabulary));
     }
+
+    @Test
+    void getTermCountsRetrievesTermCountsOfAllVocabularies() {
+        final Vocabulary vocabulary = Generator.generateVocabularyWithId();
+        final Vocabulary empty = Generator.generateVocabularyWithId();
+        final Term term = Generator.generateTermWithId(vocabulary.getUri());
+        transactional(() -> {
+            em.persist(vocabulary, descriptorFactory.vocabularyDescriptor(vocabulary));
+            em.persist(empty, descriptorFactory.vocabularyDescriptor(empty));
+            em.persist(term, descriptorFactory.termDescriptor(term));
+            Generator.addTermInVocabularyRelationship(term, vocabulary.getUri(), em);
+        });
+
+        final Map<URI, TermCounts> result = sut.getTermCounts();
+        assertEquals(1, result.get(vocabulary.getUri()).getTotal());
+        assertEquals(TermCounts.EMPTY, result.get(empty.getUri()));
+    }
 }
@@ -1,11 +1,11 @@
 package cz.cvut.kbss.termit.service.repository;
 
-import cz.cvut.kbss.termit.dto.listing.TermDto;
+import cz.cvut.kbss.termit.dto.TextAnalysisJobInfo;
 import cz.cvut.kbss.termit.environment.Generator;
-import cz.cvut.kbss.termit.model.Term;
 import cz.cvut.kbss.termit.model.Vocabulary;
 import cz.cvut.kbss.termit.persistence.dao.VocabularyDao;
 import cz.cvut.kbss.termit.service.business.TermService;
+import cz.cvut.kbss.termit.service.term.TextAnalysisScheduler;
 import cz.cvut.kbss.termit.util.Configuration;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,12 +13,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.net.URI;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
-import static cz.cvut.kbss.termit.environment.Environment.termsToDtos;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +34,9 @@ class VocabularyRepositoryServiceTextAnalysisTest {
     @Mock
     TermService termService;
 
+    @Mock
+    TextAnalysisScheduler textAnalysisScheduler;
+
     // Used just to prevent NPX in SUT initialization
     @Mock
     Configuration configuration;
@@ -38,25 +48,43 @@ class VocabularyRepositoryServiceTextAnalysisTest {
     private VocabularyDao vocabularyDao;
 
     @Test
-    void runTextAnalysisOnAllTermsInvokesTextAnalysisOnAllTermsInVocabulary() {
+    void runTextAnalysisOnAllTermsSchedulesTextAnalysisOfVocabularyIncludingImports() {
         final Vocabulary vocabulary = Generator.generateVocabularyWithId();
-        final Term termOne = Generator.generateTermWithId();
-        final Term termTwo = Generator.generateTermWithId();
-        List<TermDto> terms = termsToDtos(Arrays.asList(termOne, termTwo));
-        when(termService.findAll(vocabulary)).thenReturn(terms);
-        when(vocabularyDao.getTransitivelyImportedVocabularies(vocabulary)).thenReturn(Collections.emptyList());
         sut.runTextAnalysisOnAllTerms(vocabulary);
-        verify(termService).analyzeTermDefinition(termOne, vocabulary.getUri());
-        verify(termService).analyzeTermDefinition(termTwo, vocabulary.getUri());
+        verify(textAnalysisScheduler).schedule(vocabulary, true);
+        verify(termService, never()).analyzeTermDefinition(any(), any());
     }
 
     @Test
-    void runTextAnalysisOnAllTermsInvokesTextAnalysisOnAllVocabularies() {
-        final List<Vocabulary> vocabularies = Collections.singletonList(Generator.generateVocabularyWithId());
-        final Term term = Generator.generateTermWithId();
+    void runTextAnalysisOnAllVocabulariesSchedulesTextAnalysisOfEachVocabularyWithoutImports() {
+        final List<Vocabulary> vocabularies = Arrays.asList(Generator.generateVocabularyWithId(),
+                                                            Generator.generateVocabularyWithId());
         when(vocabularyDao.findAll()).thenReturn(vocabularies);
-        when(termService.findAll(vocabularies.get(0))).thenReturn(Collections.singletonList(new TermDto(term)));
         sut.runTextAnalysisOnAllVocabularies();
-        verify(termService).analyzeTermDefinition(term, vocabularies.get(0).getUri());
+        vocabularies.forEach(v -> verify(textAnalysisScheduler).schedule(v, false));
+    }
+
+    @Test
+    void runTextAnalysisOnTermsSchedulesTextAnalysisOfSpecifiedTerms() {
+        final Vocabulary vocabulary = Generator.generateVocabularyWithId();
+        final Set<URI> terms = Set.of(Generator.generateUri(), Generator.generateUri());
+        sut.runTextAnalysisOnTerms(vocabulary, terms);
+        verify(textAnalysisScheduler).schedule(vocabulary, terms);
+    }
+
+    @Test
+    void runTextAnalysisOnTermsDoesNothingWhenNoTermsAreSpecified() {
+        sut.runTextAnalysisOnTerms(Generator.generateVocabularyWithId(), Collections.emptySet());
+        verifyNoInteractions(textAnalysisScheduler);
+    }
+
+    @Test
+    void getTextAnalysisJobReturnsJobOfVocabularyFromScheduler() {
+        final Vocabulary vocabulary = Generator.generateVocabularyWithId();
+        final TextAnalysisJobInfo job = new TextAnalysisJobInfo(vocabulary.getUri(),
+                                                                TextAnalysisJobInfo.State.PENDING, 1, false, 0, 0, 0,
+                                                                Instant.now(), null, null);
+        when(textAnalysisScheduler.getJob(vocabulary.getUri())).thenReturn(Optional.of(job));
+        assertEquals(Optional.of(job), sut.getTextAnalysisJob(vocabulary));
     }
 }
@@ -0,0 +1,196 @@
+package cz.cvut.kbss.termit.service.search;
+
+import cz.cvut.kbss.jopa.vocabulary.SKOS;
+import cz.cvut.kbss.termit.dto.FullTextSearchPage;
+import cz.cvut.kbss.termit.dto.FullTextSearchResult;
+import cz.cvut.kbss.termit.dto.FullTextSearchSpec;
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.persistence.dao.SearchDao;
+import cz.cvut.kbss.termit.persistence.dao.hierarchy.VocabularyImportIndex;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ParallelSearchExecutorTest {
+
+    @Mock
+    private SearchDao searchDao;
+
+    @Mock
+    private VocabularyImportIndex vocabularyIndex;
+
+    private final Configuration config = new Configuration();
+
+    private ParallelSearchExecutor sut;
+
+    @BeforeEach
+    void setUp() {
+        config.getSearch().setFanOutThreshold(2);
+        config.getSearch().setParallelism(2);
+        this.sut = new ParallelSearchExecutor(searchDao, vocabularyIndex, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sut.shutdown();
+    }
+
+    private static FullTextSearchResult result(URI vocabulary, String label, double score) {
+        return new FullTextSearchResult(Generator.generateUri(), label, vocabulary, false, SKOS.CONCEPT, "label",
+                                        label, score);
+    }
+
+    /**
+     * Mocks search in the specified vocabulary, returning the specified results sorted by score.
+     */
+    private void mockVocabularySearch(URI vocabulary, FullTextSearchResult... results) {
+        final List<FullTextSearchResult> sorted = Arrays.stream(results).sorted(ParallelSearchExecutor.RANKING)
+                                                        .collect(Collectors.toList());
+        when(searchDao.fullTextSearch(eq("test"), argThat(s -> vocabulary.equals(s.getScope()))))
+                .thenAnswer(inv -> {
+                    final FullTextSearchSpec spec = inv.getArgument(1);
+                    final int limit = Math.min(spec.getPageSpec().getPageSize(), sorted.size());
+                    return new PageImpl<>(sorted.subList(0, limit), spec.getPageSpec(), sorted.size());
+                });
+    }
+
+    @Test
+    void isApplicableReturnsTrueWhenNumberOfVocabulariesReachesThreshold() {
+        when(searchDao.supportsScopedSearch()).thenReturn(true);
+        when(vocabularyIndex.getVocabularies()).thenReturn(Set.of(Generator.generateUri(), Generator.generateUri()));
+        assertTrue(sut.isApplicable(FullTextSearchSpec.DEFAULT));
+        assertFalse(sut.isApplicable(FullTextSearchSpec.DEFAULT.termsIn(Set.of(Generator.generateUri()))));
+    }
+
+    @Test
+    void isApplicableReturnsFalseWhenParallelSearchIsDisabled() {
+        config.getSearch().setParallelism(0);
+        final ParallelSearchExecutor disabled = new ParallelSearchExecutor(searchDao, vocabularyIndex, config);
+        assertFalse(disabled.isApplicable(FullTextSearchSpec.DEFAULT));
+        verify(vocabularyIndex, never()).getVocabularies();
+    }
+
+    @Test
+    void isApplicableReturnsFalseWhenSearchDaoCannotRestrictSearchToVocabulary() {
+        when(searchDao.supportsScopedSearch()).thenReturn(false);
+        assertFalse(sut.isApplicable(FullTextSearchSpec.DEFAULT));
+        verify(vocabularyIndex, never()).getVocabularies();
+    }
+
+    @Test
+    void searchMergesTopResultsOfVocabulariesByScoreAndReturnsRequestedPage() {
+        final URI first = Generator.generateUri();
+        final URI second = Generator.generateUri();
+        when(vocabularyIndex.getVocabularies()).thenReturn(Set.of(first, second));
+        final FullTextSearchResult a = result(first, "a", 5.0);
+        final FullTextSearchResult b = result(second, "b", 4.0);
+        final FullTextSearchResult c = result(first, "c", 3.0);
+        final FullTextSearchResult d = result(second, "d", 2.0);
+        final FullTextSearchResult e = result(first, "e", 1.0);
+        mockVocabularySearch(first, a, c, e);
+        mockVocabularySearch(second, b, d);
+
+        final FullTextSearchPage result = sut.search("test", new FullTextSearchSpec(PageRequest.of(1, 2), null,
+                                                                                     null));
+        assertEquals(Arrays.asList(c, d), result.getContent());
+        assertEquals(5, result.getTotalElements());
+        assertFalse(result.isPartial());
+    }
+
+    @Test
+    void searchRetrievesFromEachVocabularyOnlyResultsNeededForRequestedPage() {
+        final URI first = Generator.generateUri();
+        final URI second = Generator.generateUri();
+        when(vocabularyIndex.getVocabularies()).thenReturn(Set.of(first, second));
+        mockVocabularySearch(first);
+        mockVocabularySearch(second);
+
+        sut.search("test", new FullTextSearchSpec(PageRequest.of(2, 10), 0.5, null));
+        verify(searchDao, times(2)).fullTextSearch(eq("test"), argThat(s -> s.getPageSpec().getOffset() == 0 &&
+                s.getPageSpec().getPageSize() == 30 && Double.valueOf(0.5).equals(s.getMinScore())));
+    }
+
+    @Test
+    void searchSearchesOnlySpecifiedVocabulariesWhenSearchIsRestrictedToTheirTerms() {
+        final URI first = Generator.generateUri();
+        final URI second = Generator.generateUri();
+        mockVocabularySearch(first);
+        mockVocabularySearch(second);
+
+        sut.search("test", new FullTextSearchSpec(PageRequest.of(0, 10), null, null).termsIn(Set.of(first, second)));
+        verify(searchDao, times(2)).fullTextSearch(eq("test"), argThat(FullTextSearchSpec::isTermsOnly));
+        verify(vocabularyIndex, never()).getVocabularies();
+    }
+
+    @Test
+    void searchReturnsPartialResultsWhenDeadlinePasses() {
+        config.getSearch().setDeadline(Duration.ofMillis(200));
+        final URI fast = Generator.generateUri();
+        final URI slow = Generator.generateUri();
+        when(vocabularyIndex.getVocabularies()).thenReturn(new LinkedHashSet<>(Arrays.asList(fast, slow)));
+        final FullTextSearchResult r = result(fast, "fast", 1.0);
+        mockVocabularySearch(fast, r);
+        when(searchDao.fullTextSearch(eq("test"), argThat(s -> slow.equals(s.getScope())))).thenAnswer(inv -> {
+            Thread.sleep(5000);
+            return Page.empty();
+        });
+
+        final FullTextSearchPage result = sut.search("test", new FullTextSearchSpec(PageRequest.of(0, 10), null,
+                                                                                     null));
+        assertTrue(result.isPartial());
+        assertEquals(Collections.singletonList(r), result.getContent());
+    }
+
+    @Test
+    void searchReturnsPartialResultsWhenVocabularySearchesDoNotFitIntoQueue() {
+        sut.shutdown();
+        config.getSearch().setParallelism(1);
+        config.getSearch().setQueueCapacity(1);
+        this.sut = new ParallelSearchExecutor(searchDao, vocabularyIndex, config);
+        final URI first = Generator.generateUri();
+        final URI second = Generator.generateUri();
+        final URI third = Generator.generateUri();
+        when(vocabularyIndex.getVocabularies()).thenReturn(new LinkedHashSet<>(Arrays.asList(first, second, third)));
+        final FullTextSearchResult r = result(first, "first", 1.0);
+        // Occupies the only thread, so that the second search waits in the queue and the third does not fit in
+        when(searchDao.fullTextSearch(eq("test"), argThat(s -> first.equals(s.getScope())))).thenAnswer(inv -> {
+            Thread.sleep(200);
+            return new PageImpl<>(Collections.singletonList(r));
+        });
+        mockVocabularySearch(second);
+
+        final FullTextSearchPage result = sut.search("test", new FullTextSearchSpec(PageRequest.of(0, 10), null,
+                                                                                     null));
+        assertTrue(result.isPartial());
+        assertEquals(Collections.singletonList(r), result.getContent());
+        verify(searchDao, never()).fullTextSearch(eq("test"), argThat(s -> third.equals(s.getScope())));
+    }
+
+    @Test
+    void searchRethrowsExceptionOfFailedVocabularySearch() {
+        final URI first = Generator.generateUri();
+        final URI second = Generator.generateUri();
+        when(vocabularyIndex.getVocabularies()).thenReturn(Set.of(first, second));
+        when(searchDao.fullTextSearch(eq("test"), any())).thenThrow(IllegalArgumentException.class);
+
+        assertThrows(IllegalArgumentException.class, () -> sut.search("test", FullTextSearchSpec.DEFAULT));
+    }
+}
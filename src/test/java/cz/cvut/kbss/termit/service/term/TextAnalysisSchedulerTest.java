@@ -0,0 +1,290 @@
+package cz.cvut.kbss.termit.service.term;
+
+import cz.cvut.kbss.termit.dto.TextAnalysisJobInfo;
+import cz.cvut.kbss.termit.dto.listing.TermDto;
+import cz.cvut.kbss.termit.environment.Generator;
+import cz.cvut.kbss.termit.model.Term;
+import cz.cvut.kbss.termit.model.Vocabulary;
+import cz.cvut.kbss.termit.persistence.dao.VocabularyDao;
+import cz.cvut.kbss.termit.service.business.TermService;
+import cz.cvut.kbss.termit.util.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static cz.cvut.kbss.termit.environment.Environment.termsToDtos;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TextAnalysisSchedulerTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    @Mock
+    private TermService termService;
+
+    @Mock
+    private VocabularyDao vocabularyDao;
+
+    private Configuration config;
+
+    private TextAnalysisScheduler sut;
+
+    private Vocabulary vocabulary;
+
+    @BeforeEach
+    void setUp() {
+        this.config = new Configuration();
+        config.getTextAnalysis().setDebounce(Duration.ofMillis(50));
+        config.getTextAnalysis().setMaxDelay(Duration.ofSeconds(1));
+        // Analyze terms one by one unless a test specifies otherwise
+        config.getTextAnalysis().setDefinitionBatchSize(1);
+        this.vocabulary = Generator.generateVocabularyWithId();
+        when(vocabularyDao.getTransitivelyImportedVocabularies(any())).thenReturn(Collections.emptyList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (sut != null) {
+            sut.shutdown();
+        }
+    }
+
+    private void initScheduler() {
+        this.sut = new TextAnalysisScheduler(termService, vocabularyDao, config, Clock.systemUTC());
+    }
+
+    private List<TermDto> generateTerms(int count) {
+        final Term[] terms = new Term[count];
+        for (int i = 0; i < count; i++) {
+            terms[i] = Generator.generateTermWithId();
+        }
+        return termsToDtos(Arrays.asList(terms));
+    }
+
+    private TextAnalysisJobInfo awaitJob(TextAnalysisJobInfo.State state) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            final TextAnalysisJobInfo job = sut.getJob(vocabulary.getUri()).orElseThrow();
+            if (job.getState() == state) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        return fail("Job did not reach state " + state + ".");
+    }
+
+    @Test
+    void scheduleCoalescesRepeatedRequestsIntoSingleAnalysisOfVocabulary() throws Exception {
+        initScheduler();
+        final List<TermDto> terms = generateTerms(3);
+        when(termService.findAll(vocabulary)).thenReturn(terms);
+
+        for (int i = 0; i < 50; i++) {
+            sut.schedule(vocabulary, true);
+        }
+        final TextAnalysisJobInfo result = awaitJob(TextAnalysisJobInfo.State.COMPLETED);
+        assertEquals(50, result.getRequests());
+        assertEquals(3, result.getTotalTerms());
+        assertEquals(3, result.getAnalyzedTerms());
+        verify(termService).findAll(vocabulary);
+        terms.forEach(t -> verify(termService).analyzeTermDefinition(t, vocabulary.getUri()));
+    }
+
+    @Test
+    void scheduleDoesNotRunAnalysisBeforeDebounceTimeElapses() {
+        config.getTextAnalysis().setDebounce(Duration.ofMinutes(1));
+        config.getTextAnalysis().setMaxDelay(Duration.ofMinutes(5));
+        initScheduler();
+
+        final TextAnalysisJobInfo result = sut.schedule(vocabulary, true);
+        assertEquals(TextAnalysisJobInfo.State.PENDING, result.getState());
+        assertEquals(1, sut.getQueueDepth());
+        verify(termService, after(200).never()).findAll(any(Vocabulary.class));
+    }
+
+    @Test
+    void scheduleRunsAnalysisAfterMaxDelayEvenWhenRequestsKeepComing() throws Exception {
+        config.getTextAnalysis().setDebounce(Duration.ofMinutes(1));
+        config.getTextAnalysis().setMaxDelay(Duration.ofMillis(100));
+        initScheduler();
+        when(termService.findAll(vocabulary)).thenReturn(generateTerms(1));
+
+        sut.schedule(vocabulary, true);
+        sut.schedule(vocabulary, true);
+        awaitJob(TextAnalysisJobInfo.State.COMPLETED);
+        verify(termService).findAll(vocabulary);
+    }
+
+    @Test
+    void scheduleAnalyzesEachTermOnlyOnceAndSkipsTermsWithoutDefinition() throws Exception {
+        initScheduler();
+        final Vocabulary imported = Generator.generateVocabularyWithId();
+        final List<TermDto> terms = generateTerms(2);
+        final TermDto noDefinition = generateTerms(1).get(0);
+        noDefinition.setDefinition(null);
+        when(vocabularyDao.getTransitivelyImportedVocabularies(vocabulary)).thenReturn(
+                Collections.singleton(imported.getUri()));
+        when(termService.findAll(vocabulary)).thenReturn(Arrays.asList(terms.get(0), terms.get(1), noDefinition));
+        // Term returned for the imported vocabulary as well
+        when(termService.findAll(imported)).thenReturn(Collections.singletonList(terms.get(1)));
+
+        sut.schedule(vocabulary, true);
+        final TextAnalysisJobInfo result = awaitJob(TextAnalysisJobInfo.State.COMPLETED);
+        assertEquals(2, result.getTotalTerms());
+        terms.forEach(t -> verify(termService).analyzeTermDefinition(t, vocabulary.getUri()));
+        verify(termService, never()).analyzeTermDefinition(eq(noDefinition), any());
+    }
+
+    @Test
+    void scheduleWithoutImportsAnalyzesOnlyTermsInVocabulary() throws Exception {
+        initScheduler();
+        when(termService.findAll(vocabulary)).thenReturn(generateTerms(1));
+
+        sut.schedule(vocabulary, false);
+        awaitJob(TextAnalysisJobInfo.State.COMPLETED);
+        verify(vocabularyDao, never()).getTransitivelyImportedVocabularies(any());
+    }
+
+    @Test
+    void scheduleWhileAnalysisIsRunningRunsAnalysisAgainAfterItFinishes() throws Exception {
+        initScheduler();
+        final List<TermDto> terms = generateTerms(1);
+        when(termService.findAll(vocabulary)).thenReturn(terms);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> {
+            started.countDown();
+            release.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            return null;
+        }).when(termService).analyzeTermDefinition(any(), any());
+
+        sut.schedule(vocabulary, true);
+        assertTrue(started.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        final TextAnalysisJobInfo running = sut.schedule(vocabulary, true);
+        assertEquals(TextAnalysisJobInfo.State.RUNNING, running.getState());
+        assertTrue(running.isRerunRequested());
+        release.countDown();
+
+        verify(termService, timeout(TIMEOUT_MILLIS).times(2)).findAll(vocabulary);
+        awaitJob(TextAnalysisJobInfo.State.COMPLETED);
+        verify(termService, times(2)).analyzeTermDefinition(terms.get(0), vocabulary.getUri());
+    }
+
+    @Test
+    void scheduleTermsAnalyzesOnlySpecifiedTermsEachOnce() throws Exception {
+        initScheduler();
+        final List<Term> terms = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final Term t = Generator.generateTermWithId();
+            terms.add(t);
+            when(termService.find(t.getUri())).thenReturn(Optional.of(t));
+        }
+
+        sut.schedule(vocabulary, Arrays.asList(terms.get(0).getUri(), terms.get(1).getUri()));
+        sut.schedule(vocabulary, Collections.singleton(terms.get(1).getUri()));
+        final TextAnalysisJobInfo result = awaitJob(TextAnalysisJobInfo.State.COMPLETED);
+        assertEquals(2, result.getRequests());
+        assertEquals(2, result.getTotalTerms());
+        verify(termService).analyzeTermDefinition(terms.get(0), vocabulary.getUri());
+        verify(termService).analyzeTermDefinition(terms.get(1), vocabulary.getUri());
+        verify(termService, never()).analyzeTermDefinition(terms.get(2), vocabulary.getUri());
+        verify(termService, never()).findAll(any(Vocabulary.class));
+    }
+
+    @Test
+    void scheduleAllTermsSubsumesPendingRequestForSpecifiedTerms() throws Exception {
+        initScheduler();
+        final List<TermDto> terms = generateTerms(2);
+        when(termService.findAll(vocabulary)).thenReturn(terms);
+
+        sut.schedule(vocabulary, Collections.singleton(terms.get(0).getUri()));
+        sut.schedule(vocabulary, true);
+        final TextAnalysisJobInfo result = awaitJob(TextAnalysisJobInfo.State.COMPLETED);
+        assertEquals(2, result.getTotalTerms());
+        terms.forEach(t -> verify(termService).analyzeTermDefinition(t, vocabulary.getUri()));
+        verify(termService, never()).find(any());
+    }
+
+    @Test
+    void scheduleCountsTermsWhoseAnalysisFailedAndContinuesWithOtherTerms() throws Exception {
+        initScheduler();
+        final List<TermDto> terms = generateTerms(2);
+        when(termService.findAll(vocabulary)).thenReturn(terms);
+        doThrow(IllegalStateException.class).when(termService).analyzeTermDefinition(terms.get(0),
+                                                                                     vocabulary.getUri());
+
+        sut.schedule(vocabulary, true);
+        final TextAnalysisJobInfo result = awaitJob(TextAnalysisJobInfo.State.COMPLETED);
+        assertEquals(2, result.getAnalyzedTerms());
+        assertEquals(1, result.getFailedTerms());
+        verify(termService).analyzeTermDefinition(terms.get(1), vocabulary.getUri());
+    }
+
+    @Test
+    void scheduleAnalyzesDefinitionsInBatchesOfConfiguredSize() throws Exception {
+        config.getTextAnalysis().setDefinitionBatchSize(2);
+        initScheduler();
+        final List<TermDto> terms = generateTerms(5);
+        when(termService.findAll(vocabulary)).thenReturn(terms);
+        when(termService.analyzeTermDefinitions(terms.subList(2, 4), vocabulary.getUri())).thenReturn(
+                Collections.singletonList(terms.get(3)));
+
+        sut.schedule(vocabulary, true);
+        final TextAnalysisJobInfo result = awaitJob(TextAnalysisJobInfo.State.COMPLETED);
+        assertEquals(5, result.getAnalyzedTerms());
+        assertEquals(1, result.getFailedTerms());
+        verify(termService).analyzeTermDefinitions(terms.subList(0, 2), vocabulary.getUri());
+        verify(termService).analyzeTermDefinitions(terms.subList(2, 4), vocabulary.getUri());
+        verify(termService).analyzeTermDefinition(terms.get(4), vocabulary.getUri());
+    }
+
+    @Test
+    void scheduleCountsAllTermsOfBatchAsFailedWhenBatchAnalysisFails() throws Exception {
+        config.getTextAnalysis().setDefinitionBatchSize(2);
+        initScheduler();
+        final List<TermDto> terms = generateTerms(2);
+        when(termService.findAll(vocabulary)).thenReturn(terms);
+        when(termService.analyzeTermDefinitions(anyCollection(), any())).thenThrow(IllegalStateException.class);
+
+        sut.schedule(vocabulary, true);
+        final TextAnalysisJobInfo result = awaitJob(TextAnalysisJobInfo.State.COMPLETED);
+        assertEquals(2, result.getAnalyzedTerms());
+        assertEquals(2, result.getFailedTerms());
+    }
+
+    @Test
+    void scheduleMarksJobFailedWhenTermsCannotBeLoaded() throws Exception {
+        initScheduler();
+        when(termService.findAll(vocabulary)).thenThrow(IllegalStateException.class);
+
+        sut.schedule(vocabulary, true);
+        awaitJob(TextAnalysisJobInfo.State.FAILED);
+    }
+
+    @Test
+    void getJobReturnsEmptyOptionalForVocabularyWithoutScheduledAnalysis() {
+        initScheduler();
+        assertFalse(sut.getJob(Generator.generateUri()).isPresent());
+    }
+}
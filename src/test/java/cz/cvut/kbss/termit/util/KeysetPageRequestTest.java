@@ -0,0 +1,46 @@
+package cz.cvut.kbss.termit.util;
+
+import cz.cvut.kbss.termit.environment.Generator;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class KeysetPageRequestTest {
+
+    private final URI lastIdentifier = Generator.generateUri();
+
+    private final KeysetPageRequest sut = new KeysetPageRequest(10, "label", lastIdentifier);
+
+    @Test
+    void nextReturnsFollowingPageAfterSamePosition() {
+        final KeysetPageRequest result = sut.next();
+        assertEquals(1, result.getPageNumber());
+        assertEquals(10, result.getOffset());
+        assertEquals(sut.getLastLabel(), result.getLastLabel());
+        assertEquals(sut.getLastIdentifier(), result.getLastIdentifier());
+    }
+
+    @Test
+    void withPageReturnsPageWithSpecifiedNumberAfterSamePosition() {
+        final KeysetPageRequest result = sut.withPage(3);
+        assertEquals(3, result.getPageNumber());
+        assertEquals(30, result.getOffset());
+        assertEquals(new KeysetPageRequest(10, "label", lastIdentifier, 3), result);
+    }
+
+    @Test
+    void previousOrFirstReturnsFirstPageAfterPositionForFirstPage() {
+        assertSame(sut, sut.previousOrFirst());
+        assertEquals(sut, sut.withPage(2).previousOrFirst().previousOrFirst());
+        assertEquals(sut, sut.withPage(5).first());
+    }
+
+    @Test
+    void fromTokenReturnsFirstPageAfterPositionRepresentedByToken() {
+        final String token = KeysetPageRequest.createToken("label", lastIdentifier);
+        assertEquals(sut, KeysetPageRequest.fromToken(token, 10));
+    }
+}